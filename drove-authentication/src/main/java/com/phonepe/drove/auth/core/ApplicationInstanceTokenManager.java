@@ -26,4 +26,14 @@ import java.util.Optional;
 public interface ApplicationInstanceTokenManager {
     Optional<String> generate(final DroveApplicationInstanceInfo info);
     Optional<DroveApplicationInstanceInfo> verify(final String token);
+
+    /**
+     * Drop any state held for tokens of an instance that is no longer running
+     *
+     * @param appId      App the instance belongs to
+     * @param instanceId Instance that has gone away
+     */
+    default void invalidate(final String appId, final String instanceId) {
+        //Nothing to do by default
+    }
 }
@@ -17,9 +17,14 @@
 package com.phonepe.drove.auth.core;
 
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTCreationException;
 import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.hash.Hashing;
 import com.phonepe.drove.auth.config.ApplicationAuthConfig;
 import com.phonepe.drove.auth.model.DroveApplicationInstanceInfo;
 import lombok.extern.slf4j.Slf4j;
@@ -27,12 +32,16 @@ import lombok.val;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Date;
 import java.util.Optional;
 import java.util.UUID;
 
 /**
- *
+ * Generates and verifies JWT tokens for application instances. Successfully verified tokens are cached for a short
+ * while (keyed by a hash of the token) so that repeated calls from the same instance do not pay for signature
+ * verification every time.
  */
 @Slf4j
 @Singleton
@@ -42,17 +51,35 @@ public class JWTApplicationInstanceTokenManager implements ApplicationInstanceTo
     private static final String DROVE_INSTANCE_ID_CLAIM = "droveInstanceId";
     private static final String DROVE_EXECUTOR_ID_CLAIM = "droveExecutorId";
 
-    private final ApplicationAuthConfig applicationAuthConfig;
+    private static final long MAX_CACHED_TOKENS = 16_384;
+    private static final Duration VERIFIED_TOKEN_TTL = Duration.ofMinutes(1);
+
+    private final Algorithm algorithm;
+    private final JWTVerifier verifier;
+    private final Cache<String, DroveApplicationInstanceInfo> verifiedTokens;
 
     @Inject
     public JWTApplicationInstanceTokenManager(ApplicationAuthConfig applicationAuthConfig) {
-        this.applicationAuthConfig = applicationAuthConfig;
+        this(applicationAuthConfig, VERIFIED_TOKEN_TTL);
+    }
+
+    @VisibleForTesting
+    JWTApplicationInstanceTokenManager(ApplicationAuthConfig applicationAuthConfig, Duration verifiedTokenTtl) {
+        this.algorithm = Algorithm.HMAC256(applicationAuthConfig.getSecret()); //use more secure key
+        this.verifier = JWT.require(algorithm)
+                .withIssuer(TOKEN_ISSUER)
+                .withAudience("drove-application-instance")
+                .withSubject("drove-controller")
+                .build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(MAX_CACHED_TOKENS)
+                .expireAfterWrite(verifiedTokenTtl)
+                .build();
     }
 
     @Override
     public Optional<String> generate(DroveApplicationInstanceInfo info) {
         try {
-            val algorithm = algorithm();
             return Optional.of(
                     JWT.create()
                             .withIssuer(TOKEN_ISSUER)
@@ -73,13 +100,34 @@ public class JWTApplicationInstanceTokenManager implements ApplicationInstanceTo
 
     @Override
     public Optional<DroveApplicationInstanceInfo> verify(String token) {
+        if (null == token) {
+            return Optional.empty();
+        }
+        val key = tokenHash(token);
+        val cached = verifiedTokens.getIfPresent(key);
+        if (null != cached) {
+            return Optional.of(cached);
+        }
+        val info = verifyToken(token);
+        info.ifPresent(verified -> verifiedTokens.put(key, verified));
+        return info;
+    }
+
+    @Override
+    public void invalidate(String appId, String instanceId) {
+        verifiedTokens.asMap()
+                .values()
+                .removeIf(info -> info.getAppId().equals(appId) && info.getInstanceId().equals(instanceId));
+    }
+
+    @VisibleForTesting
+    long cachedTokenCount() {
+        verifiedTokens.cleanUp();
+        return verifiedTokens.estimatedSize();
+    }
+
+    private Optional<DroveApplicationInstanceInfo> verifyToken(String token) {
         try {
-            val algorithm = algorithm(); //use more secure key
-            val verifier = JWT.require(algorithm)
-                    .withIssuer(TOKEN_ISSUER)
-                    .withAudience("drove-application-instance")
-                    .withSubject("drove-controller")
-                    .build();
             val jwtData = verifier.verify(token);
             val info = new DroveApplicationInstanceInfo(jwtData.getClaim(DROVE_APP_ID_CLAIM).asString(),
                                                         jwtData.getClaim(DROVE_INSTANCE_ID_CLAIM).asString(),
@@ -97,8 +145,9 @@ public class JWTApplicationInstanceTokenManager implements ApplicationInstanceTo
         return Optional.empty();
     }
 
-    private Algorithm algorithm() {
-        return Algorithm.HMAC256(applicationAuthConfig.getSecret());
+    @SuppressWarnings("UnstableApiUsage")
+    private static String tokenHash(String token) {
+        return Hashing.sha256().hashString(token, StandardCharsets.UTF_8).toString();
     }
 
     public static String generateJWTId(DroveApplicationInstanceInfo info) {
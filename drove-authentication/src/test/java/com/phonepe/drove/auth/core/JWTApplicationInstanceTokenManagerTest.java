@@ -21,6 +21,8 @@ import com.phonepe.drove.auth.model.DroveApplicationInstanceInfo;
 import lombok.val;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -41,4 +43,41 @@ class JWTApplicationInstanceTokenManagerTest {
         assertNull(mgr.verify("WrongToken").orElse(null));
     }
 
-}
\ No newline at end of file
+    @Test
+    void testVerifiedTokenCache() {
+        val mgr = new JWTApplicationInstanceTokenManager(new ApplicationAuthConfig("test-secret"));
+        val info1 = new DroveApplicationInstanceInfo("test_app", "inst1", "exec1");
+        val info2 = new DroveApplicationInstanceInfo("test_app", "inst2", "exec1");
+        val token1 = mgr.generate(info1).orElseThrow();
+        val token2 = mgr.generate(info2).orElseThrow();
+        assertEquals(info1, mgr.verify(token1).orElse(null));
+        assertEquals(info1, mgr.verify(token1).orElse(null));
+        assertEquals(info2, mgr.verify(token2).orElse(null));
+        assertEquals(2, mgr.cachedTokenCount());
+
+        //Failures are not cached
+        assertTrue(mgr.verify("WrongToken").isEmpty());
+        assertTrue(mgr.verify(null).isEmpty());
+        assertEquals(2, mgr.cachedTokenCount());
+
+        mgr.invalidate("test_app", "inst1");
+        assertEquals(1, mgr.cachedTokenCount());
+        //Token is still valid, gets verified and cached again
+        assertEquals(info1, mgr.verify(token1).orElse(null));
+        assertEquals(2, mgr.cachedTokenCount());
+
+        //Tokens signed with a different secret are rejected
+        val otherMgr = new JWTApplicationInstanceTokenManager(new ApplicationAuthConfig("other-secret"));
+        assertTrue(otherMgr.verify(token1).isEmpty());
+    }
+
+    @Test
+    void testVerifiedTokenExpiry() {
+        val mgr = new JWTApplicationInstanceTokenManager(new ApplicationAuthConfig("test-secret"), Duration.ZERO);
+        val info = new DroveApplicationInstanceInfo("test_app", "inst1", "exec1");
+        val token = mgr.generate(info).orElseThrow();
+        assertEquals(info, mgr.verify(token).orElse(null));
+        assertEquals(info, mgr.verify(token).orElse(null));
+        assertEquals(0, mgr.cachedTokenCount());
+    }
+}
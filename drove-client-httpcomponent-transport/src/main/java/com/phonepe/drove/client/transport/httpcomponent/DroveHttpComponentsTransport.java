@@ -23,12 +23,16 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 import com.phonepe.drove.client.DroveClient;
 import com.phonepe.drove.client.DroveClientConfig;
+import com.phonepe.drove.client.DroveHttpAsyncTransport;
 import com.phonepe.drove.client.DroveHttpTransport;
 
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
 import org.apache.hc.client5.http.classic.methods.HttpDelete;
 import org.apache.hc.client5.http.classic.methods.HttpGet;
 import org.apache.hc.client5.http.classic.methods.HttpPost;
@@ -36,18 +40,25 @@ import org.apache.hc.client5.http.classic.methods.HttpPut;
 import org.apache.hc.client5.http.classic.methods.HttpUriRequestBase;
 import org.apache.hc.client5.http.config.ConnectionConfig;
 import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.HttpClients;
 import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
 import org.apache.hc.client5.http.ssl.ClientTlsStrategyBuilder;
+import org.apache.hc.core5.concurrent.FutureCallback;
 import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.ContentType;
 import org.apache.hc.core5.http.Header;
 import org.apache.hc.core5.http.io.HttpClientResponseHandler;
 import org.apache.hc.core5.http.io.SocketConfig;
 import org.apache.hc.core5.http.io.entity.EntityUtils;
 import org.apache.hc.core5.http.io.entity.StringEntity;
+import org.apache.hc.core5.io.CloseMode;
 import org.apache.hc.core5.pool.PoolConcurrencyPolicy;
 import org.apache.hc.core5.pool.PoolReusePolicy;
+import org.apache.hc.core5.reactor.IOReactorConfig;
 import org.apache.hc.core5.util.TimeValue;
 import org.apache.hc.core5.util.Timeout;
 
@@ -59,10 +70,13 @@ import lombok.extern.slf4j.Slf4j;
  *
  */
 @Slf4j
-public class DroveHttpComponentsTransport implements DroveHttpTransport {
+public class DroveHttpComponentsTransport implements DroveHttpTransport, DroveHttpAsyncTransport {
 
 
+    private final DroveClientConfig clientConfig;
     private final CloseableHttpClient httpClient;
+    //Created on first async call, so that users of the blocking api do not pay for the io reactor threads
+    private volatile CloseableHttpAsyncClient asyncHttpClient;
 
     public DroveHttpComponentsTransport(DroveClientConfig clientConfig) {
         this(clientConfig, buildClient(clientConfig));
@@ -72,7 +86,25 @@ public class DroveHttpComponentsTransport implements DroveHttpTransport {
     public DroveHttpComponentsTransport(
             DroveClientConfig clientConfig,
             CloseableHttpClient httpClient) {
+        this(clientConfig, httpClient, null);
+    }
+
+    /**
+     * @param clientConfig    Client config
+     * @param httpClient      Client used for blocking calls
+     * @param asyncHttpClient Client used for async calls. Will be started if not started already. If null, a client
+     *                        is created from the config on first async call.
+     */
+    public DroveHttpComponentsTransport(
+            DroveClientConfig clientConfig,
+            CloseableHttpClient httpClient,
+            CloseableHttpAsyncClient asyncHttpClient) {
+        this.clientConfig = clientConfig;
         this.httpClient = httpClient;
+        if (null != asyncHttpClient) {
+            asyncHttpClient.start();
+        }
+        this.asyncHttpClient = asyncHttpClient;
     }
 
     @Override
@@ -85,6 +117,11 @@ public class DroveHttpComponentsTransport implements DroveHttpTransport {
                 log.error("Error shutting down http client: " + e.getMessage(), e);
             }
         }
+        synchronized (this) {
+            if (null != asyncHttpClient) {
+                asyncHttpClient.close(CloseMode.GRACEFUL);
+            }
+        }
     }
 
     @Override
@@ -125,6 +162,44 @@ public class DroveHttpComponentsTransport implements DroveHttpTransport {
         return executeRequest(headers, responseHandler, request);
     }
 
+    @Override
+    public <T> CompletableFuture<T> getAsync(
+            URI uri,
+            Map<String, List<String>> headers,
+            DroveClient.ResponseHandler<T> responseHandler) {
+        log.debug("Making async GET call to {}", uri);
+        return executeRequestAsync(headers, responseHandler, SimpleRequestBuilder.get(uri));
+    }
+
+    @Override
+    public <T> CompletableFuture<T> postAsync(
+            URI uri,
+            Map<String, List<String>> headers,
+            String body,
+            DroveClient.ResponseHandler<T> responseHandler) {
+        log.debug("Making async POST call to {}", uri);
+        return executeRequestAsync(headers, responseHandler, withBody(SimpleRequestBuilder.post(uri), body));
+    }
+
+    @Override
+    public <T> CompletableFuture<T> putAsync(
+            URI uri,
+            Map<String, List<String>> headers,
+            String body,
+            DroveClient.ResponseHandler<T> responseHandler) {
+        log.debug("Making async PUT call to {}", uri);
+        return executeRequestAsync(headers, responseHandler, withBody(SimpleRequestBuilder.put(uri), body));
+    }
+
+    @Override
+    public <T> CompletableFuture<T> deleteAsync(
+            URI uri,
+            Map<String, List<String>> headers,
+            DroveClient.ResponseHandler<T> responseHandler) {
+        log.debug("Making async DELETE call to {}", uri);
+        return executeRequestAsync(headers, responseHandler, SimpleRequestBuilder.delete(uri));
+    }
+
     private static CloseableHttpClient buildClient(final DroveClientConfig clientConfig) {
         val operationTimeout = Timeout.of(Objects.requireNonNullElse(clientConfig.getOperationTimeout(),
                                                                      Duration.ofSeconds(2)));
@@ -157,6 +232,110 @@ public class DroveHttpComponentsTransport implements DroveHttpTransport {
                 .build();
     }
 
+    private static CloseableHttpAsyncClient buildAsyncClient(final DroveClientConfig clientConfig) {
+        val operationTimeout = Timeout.of(Objects.requireNonNullElse(clientConfig.getOperationTimeout(),
+                                                                     Duration.ofSeconds(2)));
+        val connectionTimeout = Timeout.of(Objects.requireNonNullElse(clientConfig.getConnectionTimeout(),
+                                                                      Duration.ofSeconds(2)));
+
+        val connManager = PoolingAsyncClientConnectionManagerBuilder.create()
+                .setPoolConcurrencyPolicy(PoolConcurrencyPolicy.STRICT)
+                .setConnPoolPolicy(PoolReusePolicy.LIFO)
+                .setTlsStrategy(ClientTlsStrategyBuilder.create().buildAsync())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(connectionTimeout)
+                        .setSocketTimeout(operationTimeout)
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(10))
+                        .setTimeToLive(TimeValue.ofHours(1))
+                        .build())
+                .build();
+
+        val rc = RequestConfig.custom()
+                .setResponseTimeout(operationTimeout)
+                .build();
+
+        return HttpAsyncClients.custom()
+                .setConnectionManager(connManager)
+                .setIOReactorConfig(IOReactorConfig.custom()
+                        .setTcpNoDelay(true)
+                        .setSoTimeout(operationTimeout)
+                        .build())
+                .setDefaultRequestConfig(rc)
+                .build();
+    }
+
+    private static SimpleRequestBuilder withBody(SimpleRequestBuilder requestBuilder, String body) {
+        return null == body
+               ? requestBuilder
+               : requestBuilder.setBody(body, ContentType.DEFAULT_TEXT);
+    }
+
+    private static Map<String, List<String>> responseHeaders(Header[] headers) {
+        return Arrays.stream(headers)
+                .collect(Collectors.groupingBy(Header::getName,
+                                               Collectors.mapping(Header::getValue,
+                                                                  Collectors.toUnmodifiableList())));
+    }
+
+    private CloseableHttpAsyncClient asyncClient() {
+        var client = asyncHttpClient;
+        if (null == client) {
+            synchronized (this) {
+                client = asyncHttpClient;
+                if (null == client) {
+                    client = buildAsyncClient(clientConfig);
+                    client.start();
+                    asyncHttpClient = client;
+                }
+            }
+        }
+        return client;
+    }
+
+    private <T> CompletableFuture<T> executeRequestAsync(
+            Map<String, List<String>> headers,
+            DroveClient.ResponseHandler<T> responseHandler,
+            SimpleRequestBuilder requestBuilder) {
+        if (null != headers && !headers.isEmpty()) {
+            headers.forEach((name, values) -> values.forEach(value -> requestBuilder.setHeader(name, value)));
+        }
+        val result = new CompletableFuture<T>();
+        try {
+            asyncClient().execute(requestBuilder.build(), new FutureCallback<>() {
+                @Override
+                public void completed(SimpleHttpResponse response) {
+                    try {
+                        result.complete(responseHandler.handle(
+                                new DroveClient.Response(response.getCode(),
+                                                         responseHeaders(response.getHeaders()),
+                                                         response.getBodyText())));
+                    }
+                    catch (Exception e) {
+                        log.error("Error handling response from drove: " + e.getMessage(), e);
+                        result.complete(responseHandler.defaultValue());
+                    }
+                }
+
+                @Override
+                public void failed(Exception ex) {
+                    log.error("Error calling drove: " + ex.getMessage(), ex);
+                    result.complete(responseHandler.defaultValue());
+                }
+
+                @Override
+                public void cancelled() {
+                    log.warn("Call to drove cancelled");
+                    result.complete(responseHandler.defaultValue());
+                }
+            });
+        }
+        catch (Exception e) {
+            log.error("Error calling drove: " + e.getMessage(), e);
+            result.complete(responseHandler.defaultValue());
+        }
+        return result;
+    }
+
     private <T> T executeRequest(
             Map<String, List<String>> headers,
             DroveClient.ResponseHandler<T> responseHandler,
@@ -169,12 +348,8 @@ public class DroveHttpComponentsTransport implements DroveHttpTransport {
                 @Override
                 @SneakyThrows
                 public T handleResponse(ClassicHttpResponse response) {
-                    val headers = Arrays.stream(response.getHeaders())
-                            .collect(Collectors.groupingBy(Header::getName,
-                                                           Collectors.mapping(Header::getValue,
-                                                                              Collectors.toUnmodifiableList())));
                     return responseHandler.handle(new DroveClient.Response(response.getCode(),
-                                                                           headers,
+                                                                           responseHeaders(response.getHeaders()),
                                                                            EntityUtils.toString(response.getEntity())));
                 }
             });
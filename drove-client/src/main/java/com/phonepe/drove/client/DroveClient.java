@@ -25,11 +25,18 @@ import java.io.Closeable;
 import java.net.URI;
 import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
 
 /**
  *
@@ -77,6 +84,10 @@ public class DroveClient implements Closeable {
 
     public static final String PING_API = "/apis/v1/ping";
 
+    private static final int MAX_BLOCKING_CALL_THREADS = 16;
+    private static final int MAX_QUEUED_BLOCKING_CALLS = 1024;
+
+    @Getter
     private final DroveClientConfig clientConfig;
     private final List<RequestDecorator> decorators;
 
@@ -86,6 +97,8 @@ public class DroveClient implements Closeable {
     private final AtomicReference<String> leader = new AtomicReference<>();
     private final ScheduledExecutorService executorService = Executors.newSingleThreadScheduledExecutor();
     private final ScheduledFuture<?> schedF;
+    //Runs calls made through executeAsync when the transport can only make blocking calls
+    private final ExecutorService blockingCallExecutor = createBlockingCallExecutor();
 
     public DroveClient(
             final DroveClientConfig clientConfig,
@@ -135,9 +148,36 @@ public class DroveClient implements Closeable {
                 });
     }
 
+    public CompletableFuture<Response> executeAsync(final Request request) {
+        return executeAsync(request, new BasicResponseHandler());
+    }
+
+    /**
+     * Execute a call on the leader controller without blocking the calling thread. If the transport does not
+     * implement {@link DroveHttpAsyncTransport}, the blocking call is made on a bounded pool owned by this client.
+     *
+     * @param request         Request to be sent
+     * @param responseHandler Handler to translate the response
+     * @return Future that gets completed with the handled response or the handler's default value on errors
+     */
+    public <T> CompletableFuture<T> executeAsync(
+            final Request request,
+            final ResponseHandler<T> responseHandler) {
+        return leader()
+                .map(currentLeader -> {
+                    decorators.forEach(requestDecorator -> requestDecorator.decorateRequest(request));
+                    return executeOnTransportAsync(transformRequest(request, currentLeader), responseHandler);
+                })
+                .orElseGet(() -> {
+                    log.error("No leader found for cluster");
+                    return CompletableFuture.completedFuture(responseHandler.defaultValue());
+                });
+    }
+
     @SneakyThrows
     @Override
     public void close() {
+        blockingCallExecutor.shutdown();
         if (schedF == null) {
             log.info("No leader determination running. Nothing needs to be done");
             return;
@@ -185,10 +225,16 @@ public class DroveClient implements Closeable {
     }
 
     private void findLeaderFromEndpoints() {
-        log.debug("Endpoints to be tested: {}", clientConfig.getEndpoints());
-        val newLeader = clientConfig.getEndpoints()
-                .stream()
-                .filter(this::isLeader)
+        val endpoints = clientConfig.getEndpoints();
+        log.debug("Endpoints to be tested: {}", endpoints);
+        //All endpoints are pinged in parallel, first leader in the configured order wins
+        val checks = endpoints.stream()
+                .map(this::isLeaderAsync)
+                .toList();
+        CompletableFuture.allOf(checks.toArray(CompletableFuture[]::new)).join();
+        val newLeader = IntStream.range(0, endpoints.size())
+                .filter(i -> checks.get(i).join())
+                .mapToObj(endpoints::get)
                 .findFirst()
                 .orElse(null);
         if (null == newLeader) {
@@ -200,16 +246,59 @@ public class DroveClient implements Closeable {
     }
 
     private boolean isLeader(final String endpoint) {
+        return isLeaderAsync(endpoint).join();
+    }
+
+    private CompletableFuture<Boolean> isLeaderAsync(final String endpoint) {
         log.debug("Checking endpoint for leadership: {}", endpoint);
         val request = new Request(Method.GET, PING_API);
         decorators.forEach(decorator -> decorator.decorateRequest(request));
         try {
-            return transport.execute(transformRequest(request, endpoint), new PingCheckResponseHandler());
+            return executeOnTransportAsync(transformRequest(request, endpoint), new PingCheckResponseHandler())
+                    .exceptionally(e -> {
+                        log.error("Error making call to drove to find leader: " + e.getMessage(), e);
+                        return false;
+                    });
         }
         catch (Exception e) {
             log.error("Error making call to drove to find leader: " + e.getMessage(), e);
         }
-        return false;
+        return CompletableFuture.completedFuture(false);
+    }
+
+    private <T> CompletableFuture<T> executeOnTransportAsync(
+            final DroveHttpTransport.TransportRequest request,
+            final ResponseHandler<T> responseHandler) {
+        if (transport instanceof DroveHttpAsyncTransport asyncTransport) {
+            return asyncTransport.executeAsync(request, responseHandler);
+        }
+        try {
+            return CompletableFuture.supplyAsync(() -> transport.execute(request, responseHandler),
+                                                 blockingCallExecutor);
+        }
+        catch (RejectedExecutionException e) {
+            log.error("Too many outstanding calls or client closed. Call to {} dropped", request.uri());
+            return CompletableFuture.completedFuture(responseHandler.defaultValue());
+        }
+    }
+
+    private static ExecutorService createBlockingCallExecutor() {
+        val threadCounter = new AtomicInteger();
+        val executor = new ThreadPoolExecutor(MAX_BLOCKING_CALL_THREADS,
+                                              MAX_BLOCKING_CALL_THREADS,
+                                              60,
+                                              TimeUnit.SECONDS,
+                                              new ArrayBlockingQueue<>(MAX_QUEUED_BLOCKING_CALLS),
+                                              runnable -> {
+                                                  val thread = new Thread(
+                                                          runnable,
+                                                          "drove-client-call-" + threadCounter.incrementAndGet());
+                                                  thread.setDaemon(true);
+                                                  return thread;
+                                              });
+        //No threads are kept around when async calls are not being used
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
     }
 
     public static final record Response(int statusCode, Map<String, List<String>> headers, String body) {}
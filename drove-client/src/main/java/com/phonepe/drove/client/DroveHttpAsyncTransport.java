@@ -0,0 +1,63 @@
+/*
+ *  Copyright (c) 2024 Original Author(s), PhonePe India Pvt. Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.phonepe.drove.client;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking variant of {@link DroveHttpTransport}. Calls return immediately and the returned future is
+ * completed once the response has been handled. Transport errors are not propagated, futures get completed with
+ * {@link DroveClient.ResponseHandler#defaultValue()} instead, same as the blocking transport.
+ */
+public interface DroveHttpAsyncTransport extends AutoCloseable {
+
+    default <T> CompletableFuture<T> executeAsync(
+            final DroveHttpTransport.TransportRequest request,
+            DroveClient.ResponseHandler<T> responseHandler) {
+        return switch (request.method()) {
+            case GET -> getAsync(request.uri(), request.headers(), responseHandler);
+            case POST -> postAsync(request.uri(), request.headers(), request.body(), responseHandler);
+            case PUT -> putAsync(request.uri(), request.headers(), request.body(), responseHandler);
+            case DELETE -> deleteAsync(request.uri(), request.headers(), responseHandler);
+        };
+    }
+
+    <T> CompletableFuture<T> getAsync(
+            URI uri,
+            Map<String, List<String>> headers,
+            DroveClient.ResponseHandler<T> responseHandler);
+
+    <T> CompletableFuture<T> postAsync(
+            URI uri,
+            Map<String, List<String>> headers,
+            String body,
+            DroveClient.ResponseHandler<T> responseHandler);
+
+    <T> CompletableFuture<T> putAsync(
+            URI uri,
+            Map<String, List<String>> headers,
+            String body,
+            DroveClient.ResponseHandler<T> responseHandler);
+
+    <T> CompletableFuture<T> deleteAsync(
+            URI uri,
+            Map<String, List<String>> headers,
+            DroveClient.ResponseHandler<T> responseHandler);
+}
@@ -19,6 +19,7 @@ package com.phonepe.drove.client.transport.basic;
 import com.google.common.base.Strings;
 import com.phonepe.drove.client.DroveClient;
 import com.phonepe.drove.client.DroveClientConfig;
+import com.phonepe.drove.client.DroveHttpAsyncTransport;
 import com.phonepe.drove.client.DroveHttpTransport;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
@@ -32,12 +33,13 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 
 /**
  *
  */
 @Slf4j
-public class DroveHttpNativeTransport implements DroveHttpTransport {
+public class DroveHttpNativeTransport implements DroveHttpTransport, DroveHttpAsyncTransport {
     private final DroveClientConfig clientConfig;
     private final HttpClient httpClient;
 
@@ -64,11 +66,7 @@ public class DroveHttpNativeTransport implements DroveHttpTransport {
             Map<String, List<String>> headers,
             final DroveClient.ResponseHandler<T> responseHandler) {
         log.debug("Calling GET api: {}", uri);
-        val requestBuilder = HttpRequest.newBuilder(uri)
-                .GET()
-                .timeout(Objects.requireNonNullElse(clientConfig.getOperationTimeout(), Duration.ofSeconds(1)));
-        addHeaders(headers, requestBuilder);
-        return handleResponse(uri, responseHandler, requestBuilder.build());
+        return handleResponse(uri, responseHandler, buildRequest(DroveClient.Method.GET, uri, headers, null));
     }
 
     @Override
@@ -78,11 +76,7 @@ public class DroveHttpNativeTransport implements DroveHttpTransport {
             String body,
             final DroveClient.ResponseHandler<T> responseHandler) {
         log.debug("Calling POST api: {}", uri);
-        val requestBuilder = HttpRequest.newBuilder(uri)
-                .POST(requestBody(body))
-                .timeout(Objects.requireNonNullElse(clientConfig.getOperationTimeout(), Duration.ofSeconds(1)));
-        addHeaders(headers, requestBuilder);
-        return handleResponse(uri, responseHandler, requestBuilder.build());
+        return handleResponse(uri, responseHandler, buildRequest(DroveClient.Method.POST, uri, headers, body));
     }
 
     @Override
@@ -92,21 +86,70 @@ public class DroveHttpNativeTransport implements DroveHttpTransport {
             String body,
             final DroveClient.ResponseHandler<T> responseHandler) {
         log.debug("Calling PUT api: {}", uri);
-        val requestBuilder = HttpRequest.newBuilder(uri)
-                .PUT(requestBody(body))
-                .timeout(Objects.requireNonNullElse(clientConfig.getOperationTimeout(), Duration.ofSeconds(1)));
-        addHeaders(headers, requestBuilder);
-        return handleResponse(uri, responseHandler, requestBuilder.build());
+        return handleResponse(uri, responseHandler, buildRequest(DroveClient.Method.PUT, uri, headers, body));
     }
 
     @Override
     public <T> T delete(final URI uri, Map<String, List<String>> headers, final DroveClient.ResponseHandler<T> responseHandler) {
-        log.debug("Calling PUT api: {}", uri);
+        log.debug("Calling DELETE api: {}", uri);
+        return handleResponse(uri, responseHandler, buildRequest(DroveClient.Method.DELETE, uri, headers, null));
+    }
+
+    @Override
+    public <T> CompletableFuture<T> getAsync(
+            final URI uri,
+            Map<String, List<String>> headers,
+            final DroveClient.ResponseHandler<T> responseHandler) {
+        log.debug("Calling GET api asynchronously: {}", uri);
+        return handleResponseAsync(uri, responseHandler, buildRequest(DroveClient.Method.GET, uri, headers, null));
+    }
+
+    @Override
+    public <T> CompletableFuture<T> postAsync(
+            final URI uri,
+            Map<String, List<String>> headers,
+            String body,
+            final DroveClient.ResponseHandler<T> responseHandler) {
+        log.debug("Calling POST api asynchronously: {}", uri);
+        return handleResponseAsync(uri, responseHandler, buildRequest(DroveClient.Method.POST, uri, headers, body));
+    }
+
+    @Override
+    public <T> CompletableFuture<T> putAsync(
+            final URI uri,
+            Map<String, List<String>> headers,
+            String body,
+            final DroveClient.ResponseHandler<T> responseHandler) {
+        log.debug("Calling PUT api asynchronously: {}", uri);
+        return handleResponseAsync(uri, responseHandler, buildRequest(DroveClient.Method.PUT, uri, headers, body));
+    }
+
+    @Override
+    public <T> CompletableFuture<T> deleteAsync(
+            final URI uri,
+            Map<String, List<String>> headers,
+            final DroveClient.ResponseHandler<T> responseHandler) {
+        log.debug("Calling DELETE api asynchronously: {}", uri);
+        return handleResponseAsync(uri,
+                                   responseHandler,
+                                   buildRequest(DroveClient.Method.DELETE, uri, headers, null));
+    }
+
+    private HttpRequest buildRequest(
+            DroveClient.Method method,
+            URI uri,
+            Map<String, List<String>> headers,
+            String body) {
         val requestBuilder = HttpRequest.newBuilder(uri)
-                .DELETE()
                 .timeout(Objects.requireNonNullElse(clientConfig.getOperationTimeout(), Duration.ofSeconds(1)));
+        switch (method) {
+            case GET -> requestBuilder.GET();
+            case POST -> requestBuilder.POST(requestBody(body));
+            case PUT -> requestBuilder.PUT(requestBody(body));
+            case DELETE -> requestBuilder.DELETE();
+        }
         addHeaders(headers, requestBuilder);
-        return handleResponse(uri, responseHandler, requestBuilder.build());
+        return requestBuilder.build();
     }
 
     private static HttpRequest.BodyPublisher requestBody(String body) {
@@ -144,6 +187,28 @@ public class DroveHttpNativeTransport implements DroveHttpTransport {
         return responseHandler.defaultValue();
     }
 
+    private <T> CompletableFuture<T> handleResponseAsync(
+            URI uri,
+            DroveClient.ResponseHandler<T> responseHandler,
+            HttpRequest request) {
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .handle((response, error) -> {
+                    if (null != error) {
+                        log.error("Error making http call to " + uri + ": " + error.getMessage(), error);
+                        return responseHandler.defaultValue();
+                    }
+                    try {
+                        return responseHandler.handle(new DroveClient.Response(response.statusCode(),
+                                                                               response.headers().map(),
+                                                                               response.body()));
+                    }
+                    catch (Exception e) {
+                        log.error("Error handling response from " + uri + ": " + e.getMessage(), e);
+                        return responseHandler.defaultValue();
+                    }
+                });
+    }
+
     private static void addHeaders(Map<String, List<String>> headers, HttpRequest.Builder requestBuilder) {
         if(null != headers && !headers.isEmpty()) {
             requestBuilder.headers(headers(headers));
@@ -20,19 +20,25 @@ import com.github.tomakehurst.wiremock.http.Fault;
 import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
 import com.phonepe.drove.client.transport.basic.DroveHttpNativeTransport;
 import com.phonepe.drove.common.CommonTestUtils;
+import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
 import lombok.val;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
 
+import java.net.URI;
 import java.time.Duration;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
 import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.awaitility.Awaitility.await;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  *
@@ -182,10 +188,120 @@ class DroveClientTest {
         }
     }
 
+    @Test
+    @SneakyThrows
+    void executeAsync() {
+        controller1.stubFor(get(DroveClient.PING_API).willReturn(ok()));
+        controller1.stubFor(get("/").withHeader("TestHeader", equalTo("TestValue")).willReturn(ok()));
+        controller1.stubFor(post("/").withRequestBody(equalTo("TestBody")).willReturn(ok()));
+        controller2.stubFor(get(DroveClient.PING_API).willReturn(badRequest()));
+        val config = droveConfig();
+        try (val dc = new DroveClient(config,
+                                      List.of(request -> request.headers().put("TestHeader", List.of("TestValue"))),
+                                      new DroveHttpNativeTransport(config))) {
+            CommonTestUtils.waitUntil(() -> dc.leader().isPresent());
+            assertEquals(controller1.baseUrl(), dc.leader().orElse(null));
+            val getResponse = dc.executeAsync(new DroveClient.Request(DroveClient.Method.GET, "/"));
+            val postResponse = dc.executeAsync(new DroveClient.Request(DroveClient.Method.POST, "/", "TestBody"));
+            assertEquals(200, getResponse.join().statusCode());
+            assertEquals(200, postResponse.join().statusCode());
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    void executeAsyncNoLeader() {
+        controller1.stubFor(get(DroveClient.PING_API).willReturn(badRequest()));
+        controller2.stubFor(get(DroveClient.PING_API).willReturn(badRequest()));
+        val config = droveConfig();
+        try (val dc = new DroveClient(config,
+                                      List.of(),
+                                      new DroveHttpNativeTransport(config))) {
+            assertNull(dc.executeAsync(new DroveClient.Request(DroveClient.Method.GET, "/")).join());
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    void leaderPingsAreParallel() {
+        //Pinging the endpoints one after the other would take at least 2 seconds
+        controller1.stubFor(get(DroveClient.PING_API).willReturn(badRequest().withFixedDelay(1_000)));
+        controller2.stubFor(get(DroveClient.PING_API).willReturn(ok().withFixedDelay(1_000)));
+        val config = new DroveClientConfig(List.of(controller1.baseUrl(), controller2.baseUrl()),
+                                           Duration.ofSeconds(10),
+                                           Duration.ofSeconds(1),
+                                           Duration.ofSeconds(3));
+        try (val dc = new DroveClient(config,
+                                      List.of(),
+                                      new DroveHttpNativeTransport(config))) {
+            await().atMost(Duration.ofMillis(1_800)).until(() -> dc.leader().isPresent());
+            assertEquals(controller2.baseUrl(), dc.leader().orElse(null));
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    void executeAsyncOnBlockingTransport() {
+        controller1.stubFor(get("/").willReturn(ok()));
+        val config = new DroveClientConfig(List.of(controller1.baseUrl()),
+                                           Duration.ofSeconds(1),
+                                           Duration.ofSeconds(1),
+                                           Duration.ofSeconds(1));
+        val transport = new BlockingOnlyTransport(new DroveHttpNativeTransport(config));
+        val dc = new DroveClient(config, List.of(), transport);
+        assertEquals(200, dc.executeAsync(new DroveClient.Request(DroveClient.Method.GET, "/")).join().statusCode());
+        assertTrue(transport.callingThread.get().startsWith("drove-client-call-"));
+        dc.close();
+        assertNull(dc.executeAsync(new DroveClient.Request(DroveClient.Method.GET, "/")).join());
+    }
+
     private static DroveClientConfig droveConfig() {
         return new DroveClientConfig(List.of(controller1.baseUrl(), controller2.baseUrl()),
                                      Duration.ofSeconds(1),
                                      Duration.ofSeconds(1),
                                      Duration.ofSeconds(1));
     }
-}
\ No newline at end of file
+
+    @RequiredArgsConstructor
+    private static final class BlockingOnlyTransport implements DroveHttpTransport {
+        private final DroveHttpTransport delegate;
+        private final AtomicReference<String> callingThread = new AtomicReference<>();
+
+        @Override
+        public <T> T get(URI uri, Map<String, List<String>> headers, DroveClient.ResponseHandler<T> responseHandler) {
+            callingThread.set(Thread.currentThread().getName());
+            return delegate.get(uri, headers, responseHandler);
+        }
+
+        @Override
+        public <T> T post(
+                URI uri,
+                Map<String, List<String>> headers,
+                String body,
+                DroveClient.ResponseHandler<T> responseHandler) {
+            return delegate.post(uri, headers, body, responseHandler);
+        }
+
+        @Override
+        public <T> T put(
+                URI uri,
+                Map<String, List<String>> headers,
+                String body,
+                DroveClient.ResponseHandler<T> responseHandler) {
+            return delegate.put(uri, headers, body, responseHandler);
+        }
+
+        @Override
+        public <T> T delete(
+                URI uri,
+                Map<String, List<String>> headers,
+                DroveClient.ResponseHandler<T> responseHandler) {
+            return delegate.delete(uri, headers, responseHandler);
+        }
+
+        @Override
+        public void close() throws Exception {
+            delegate.close();
+        }
+    }
+}
@@ -233,6 +233,81 @@ class DroveHttpNativeTransportTest {
         }
     }
 
+    @Test
+    @SneakyThrows
+    void testAsync(WireMockRuntimeInfo wm) {
+        stubFor(get(DroveClient.PING_API)
+                        .withHeader("TestHeader", equalTo("TestValue"))
+                        .willReturn(ok()));
+        stubFor(post(DroveClient.PING_API)
+                        .withRequestBody(equalTo("TestBody"))
+                        .willReturn(ok()));
+        stubFor(put(DroveClient.PING_API)
+                        .withRequestBody(equalTo("TestBody"))
+                        .willReturn(ok()));
+        stubFor(delete(DroveClient.PING_API)
+                        .willReturn(ok()));
+        try(val t = new DroveHttpNativeTransport(clientConfig(wm))) {
+            val uri = URI.create(wm.getHttpBaseUrl() + DroveClient.PING_API);
+            val headers = Map.of("TestHeader", List.of("TestValue"));
+            val results = List.of(
+                    t.executeAsync(new DroveHttpTransport.TransportRequest(DroveClient.Method.GET, uri, headers, null),
+                                   new StatusCheckHandler()),
+                    t.executeAsync(new DroveHttpTransport.TransportRequest(DroveClient.Method.POST,
+                                                                           uri,
+                                                                           headers,
+                                                                           "TestBody"),
+                                   new StatusCheckHandler()),
+                    t.executeAsync(new DroveHttpTransport.TransportRequest(DroveClient.Method.PUT,
+                                                                           uri,
+                                                                           headers,
+                                                                           "TestBody"),
+                                   new StatusCheckHandler()),
+                    t.executeAsync(new DroveHttpTransport.TransportRequest(DroveClient.Method.DELETE,
+                                                                           uri,
+                                                                           headers,
+                                                                           null),
+                                   new StatusCheckHandler()));
+            results.forEach(result -> assertTrue(result.join()));
+            assertFalse(t.getAsync(uri,
+                                   headers,
+                                   new StatusCheckHandler() {
+                                       @Override
+                                       public Boolean handle(DroveClient.Response response) {
+                                           throw new IllegalStateException("Test failure");
+                                       }
+                                   })
+                                .join());
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    void testAsyncConnectionFailure() {
+        val config = new DroveClientConfig(List.of("http://localhost:1"),
+                                           Duration.ofSeconds(1),
+                                           Duration.ofSeconds(1),
+                                           Duration.ofSeconds(1));
+        try(val t = new DroveHttpNativeTransport(config)) {
+            assertFalse(t.getAsync(URI.create("http://localhost:1" + DroveClient.PING_API),
+                                   Map.of(),
+                                   new StatusCheckHandler())
+                                .join());
+        }
+    }
+
+    private static class StatusCheckHandler implements DroveClient.ResponseHandler<Boolean> {
+        @Override
+        public Boolean defaultValue() {
+            return false;
+        }
+
+        @Override
+        public Boolean handle(DroveClient.Response response) {
+            return response.statusCode() == 200;
+        }
+    }
+
     private static DroveClientConfig clientConfig(WireMockRuntimeInfo wm) {
         return new DroveClientConfig(List.of(wm.getHttpBaseUrl()),
                                      Duration.ofSeconds(1),
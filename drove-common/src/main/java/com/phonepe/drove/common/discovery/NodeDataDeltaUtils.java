@@ -0,0 +1,137 @@
+/*
+ *  Copyright (c) 2024 Original Author(s), PhonePe India Pvt. Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.phonepe.drove.common.discovery;
+
+import com.phonepe.drove.common.model.controller.ExecutorNodeDataDelta;
+import com.phonepe.drove.models.info.nodedata.ExecutorNodeData;
+import com.phonepe.drove.models.interfaces.DeployedInstanceInfo;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.val;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Computes and applies {@link ExecutorNodeDataDelta}s
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class NodeDataDeltaUtils {
+
+    /**
+     * Compute changes between two versions of node data for the same executor
+     *
+     * @param previous Node data last sent
+     * @param current  Current node data
+     * @return Delta that transforms previous to current when applied
+     */
+    public static ExecutorNodeDataDelta diff(final ExecutorNodeData previous, final ExecutorNodeData current) {
+        return new ExecutorNodeDataDelta(current.getUpdated(),
+                                         changedOrNull(previous.getState(), current.getState()),
+                                         changed(previous.getInstances(), current.getInstances()),
+                                         removed(previous.getInstances(), current.getInstances()),
+                                         changed(previous.getTasks(), current.getTasks()),
+                                         removed(previous.getTasks(), current.getTasks()),
+                                         changed(previous.getServiceInstances(), current.getServiceInstances()),
+                                         removed(previous.getServiceInstances(), current.getServiceInstances()),
+                                         changedOrNull(nonNull(previous.getTags()), nonNull(current.getTags())),
+                                         changedOrNull(nonNull(previous.getMetadata()),
+                                                       nonNull(current.getMetadata())),
+                                         changedOrNull(previous.getExecutorState(), current.getExecutorState()));
+    }
+
+    /**
+     * Apply a delta on top of node data
+     *
+     * @param base  Node data the delta was computed against
+     * @param delta The delta
+     * @return Updated node data
+     */
+    public static ExecutorNodeData apply(final ExecutorNodeData base, final ExecutorNodeDataDelta delta) {
+        return new ExecutorNodeData(base.getHostname(),
+                                    base.getPort(),
+                                    base.getTransportType(),
+                                    Objects.requireNonNullElse(delta.getUpdated(), base.getUpdated()),
+                                    Objects.requireNonNullElse(delta.getState(), base.getState()),
+                                    merge(base.getInstances(), delta.getInstances(), delta.getRemovedInstances()),
+                                    merge(base.getTasks(), delta.getTasks(), delta.getRemovedTasks()),
+                                    merge(base.getServiceInstances(),
+                                          delta.getServiceInstances(),
+                                          delta.getRemovedServiceInstances()),
+                                    Objects.requireNonNullElse(delta.getTags(), base.getTags()),
+                                    Objects.requireNonNullElse(delta.getMetadata(), base.getMetadata()),
+                                    Objects.requireNonNullElse(delta.getExecutorState(), base.getExecutorState()));
+    }
+
+    /**
+     * Null in a delta means the field has not changed, so a field can not be cleared by setting it to null. Callers
+     * need to make sure current is never null when previous is not; tags and metadata are sent as empty collections
+     * when they get cleared.
+     */
+    private static <T> T changedOrNull(T previous, T current) {
+        return Objects.equals(previous, current) ? null : current;
+    }
+
+    private static <T extends DeployedInstanceInfo> List<T> changed(List<T> previous, List<T> current) {
+        val existing = byId(previous);
+        return nonNull(current)
+                .stream()
+                .filter(info -> !info.equals(existing.get(info.instanceId())))
+                .toList();
+    }
+
+    private static <T extends DeployedInstanceInfo> Set<String> removed(List<T> previous, List<T> current) {
+        val present = byId(current).keySet();
+        return nonNull(previous)
+                .stream()
+                .map(DeployedInstanceInfo::instanceId)
+                .filter(instanceId -> !present.contains(instanceId))
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    private static <T extends DeployedInstanceInfo> List<T> merge(
+            List<T> base,
+            List<T> changed,
+            Set<String> removed) {
+        val removedIds = Objects.requireNonNullElse(removed, Set.<String>of());
+        val merged = new LinkedHashMap<String, T>();
+        nonNull(base).stream()
+                .filter(info -> !removedIds.contains(info.instanceId()))
+                .forEach(info -> merged.put(info.instanceId(), info));
+        nonNull(changed).forEach(info -> merged.put(info.instanceId(), info));
+        return List.copyOf(merged.values());
+    }
+
+    private static <T extends DeployedInstanceInfo> Map<String, T> byId(List<T> infos) {
+        return nonNull(infos)
+                .stream()
+                .collect(Collectors.toMap(DeployedInstanceInfo::instanceId, Function.identity(), (a, b) -> b));
+    }
+
+    private static <T> List<T> nonNull(List<T> list) {
+        return Objects.requireNonNullElse(list, List.of());
+    }
+
+    private static <T> Set<T> nonNull(Set<T> set) {
+        return Objects.requireNonNullElse(set, Set.of());
+    }
+
+    private static <K, V> Map<K, V> nonNull(Map<K, V> map) {
+        return Objects.requireNonNullElse(map, Map.of());
+    }
+}
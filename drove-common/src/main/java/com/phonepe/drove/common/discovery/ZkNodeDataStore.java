@@ -17,6 +17,8 @@
 package com.phonepe.drove.common.discovery;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.phonepe.drove.common.zookeeper.ZkDataCodec;
+import com.phonepe.drove.common.zookeeper.ZkUtils;
 import com.phonepe.drove.models.info.nodedata.NodeData;
 import com.phonepe.drove.models.info.nodedata.NodeType;
 import io.appform.functionmetrics.MonitoredFunction;
@@ -24,15 +26,11 @@ import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.apache.curator.framework.CuratorFramework;
 import org.apache.zookeeper.CreateMode;
-import org.apache.zookeeper.KeeperException;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
-import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
-import java.util.Objects;
-import java.util.Optional;
 
 /**
  *
@@ -43,12 +41,16 @@ import java.util.Optional;
 public class ZkNodeDataStore implements NodeDataStore {
 
     final CuratorFramework curator;
-    final ObjectMapper mapper;
+    final ZkDataCodec codec;
 
-    @Inject
     public ZkNodeDataStore(CuratorFramework curator, ObjectMapper mapper) {
+        this(curator, new ZkDataCodec(mapper));
+    }
+
+    @Inject
+    public ZkNodeDataStore(CuratorFramework curator, ZkDataCodec codec) {
         this.curator = curator;
-        this.mapper = mapper;
+        this.codec = codec;
     }
 
     @Override
@@ -59,7 +61,7 @@ public class ZkNodeDataStore implements NodeDataStore {
                     .orSetData()
                     .creatingParentContainersIfNeeded()
                     .withMode(CreateMode.EPHEMERAL)
-                    .forPath(nodePath(nodeData), mapper.writeValueAsBytes(nodeData));
+                    .forPath(nodePath(nodeData), codec.encode(nodeData));
             log.debug("Node data updated in store");
         }
         catch (Exception e) {
@@ -72,25 +74,13 @@ public class ZkNodeDataStore implements NodeDataStore {
     public List<NodeData> nodes(NodeType nodeType) {
         try {
             val parentPath = "/" + nodeType.name().toLowerCase();
-            return curator.getChildren()
-                    .forPath(parentPath)
-                    .stream()
-                    .map(childPath -> readChild(parentPath, childPath).orElse(null))
-                    .filter(Objects::nonNull)
-                    .map(nodeData -> {
-                        try {
-                            return mapper.readValue(nodeData, NodeData.class);
-                        }
-                        catch (IOException e) {
-                            log.error("Could not read node data", e);
-                            return null;
-                        }
-                    })
-                    .filter(Objects::nonNull)
-                    .toList();
-        }
-        catch (KeeperException.NoNodeException e) {
-            log.trace("No controller found");
+            return ZkUtils.readChildrenNodeData(curator,
+                                                parentPath,
+                                                0,
+                                                Integer.MAX_VALUE,
+                                                childPath -> parentPath + "/" + childPath,
+                                                codec,
+                                                NodeData.class);
         }
         catch (Exception e) {
             log.error("Could not get nodes: ", e);
@@ -109,21 +99,6 @@ public class ZkNodeDataStore implements NodeDataStore {
         }
     }
 
-    private Optional<byte[]> readChild(String parentPath, String child) {
-        val path = String.format("%s/%s", parentPath, child);
-        try {
-            return Optional.ofNullable(curator.getData().forPath(path));
-        }
-        catch (KeeperException.NoNodeException e) {
-            log.warn("Node not found for path {}", path);
-            return Optional.empty();
-        }
-        catch (Exception e) {
-            log.error("Could not get data for node: " + path, e);
-            return Optional.empty();
-        }
-    }
-
     private String nodePath(final NodeData nodeData) {
         return String.format("/%s/%s-%d",
                              nodeData.getType().name().toLowerCase(),
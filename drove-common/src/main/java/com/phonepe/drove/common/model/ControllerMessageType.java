@@ -23,5 +23,7 @@ public enum ControllerMessageType {
     INSTANCE_STATE_REPORT,
     TASK_STATE_REPORT,
     EXECUTOR_STATE_REPORT,
-    LOCAL_SERVICE_INSTANCE_STATE_REPORT, EXECUTOR_SNAPSHOT
+    LOCAL_SERVICE_INSTANCE_STATE_REPORT, EXECUTOR_SNAPSHOT,
+    EXECUTOR_SNAPSHOT_DELTA,
+    INSTANCE_STATE_BATCH_REPORT
 }
@@ -18,7 +18,9 @@ package com.phonepe.drove.common.model;
 
 import com.fasterxml.jackson.annotation.JsonSubTypes;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.phonepe.drove.common.model.controller.ExecutorSnapshotDeltaMessage;
 import com.phonepe.drove.common.model.controller.ExecutorSnapshotMessage;
+import com.phonepe.drove.common.model.controller.InstanceStateBatchReportMessage;
 import com.phonepe.drove.common.model.controller.InstanceStateReportMessage;
 import com.phonepe.drove.common.model.controller.LocalServiceInstanceStateReportMessage;
 import com.phonepe.drove.common.model.controller.TaskStateReportMessage;
@@ -44,6 +46,8 @@ import lombok.Data;
         @JsonSubTypes.Type(name = "LOCAL_SERVICE_INSTANCE_STATE_REPORT", value =
                 LocalServiceInstanceStateReportMessage.class),
         @JsonSubTypes.Type(name = "EXECUTOR_SNAPSHOT", value = ExecutorSnapshotMessage.class),
+        @JsonSubTypes.Type(name = "EXECUTOR_SNAPSHOT_DELTA", value = ExecutorSnapshotDeltaMessage.class),
+        @JsonSubTypes.Type(name = "INSTANCE_STATE_BATCH_REPORT", value = InstanceStateBatchReportMessage.class),
 })
 @Data
 public abstract class Message<T extends Enum<T>> {
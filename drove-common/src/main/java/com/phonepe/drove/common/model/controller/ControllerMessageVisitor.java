@@ -28,4 +28,8 @@ public interface ControllerMessageVisitor<T> {
     T visit(TaskStateReportMessage taskStateReportMessage);
 
     T visit(LocalServiceInstanceStateReportMessage localServiceStateReportMessage);
+
+    T visit(ExecutorSnapshotDeltaMessage executorSnapshotDelta);
+
+    T visit(InstanceStateBatchReportMessage instanceStateBatchReport);
 }
@@ -0,0 +1,55 @@
+/*
+ *  Copyright (c) 2024 Original Author(s), PhonePe India Pvt. Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.phonepe.drove.common.model.controller;
+
+import com.phonepe.drove.models.info.ExecutorResourceSnapshot;
+import com.phonepe.drove.models.info.nodedata.ExecutorState;
+import com.phonepe.drove.models.instance.InstanceInfo;
+import com.phonepe.drove.models.localservice.LocalServiceInstanceInfo;
+import com.phonepe.drove.models.taskinstance.TaskInfo;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Changes in {@link com.phonepe.drove.models.info.nodedata.ExecutorNodeData} between two updates. Instance lists
+ * contain only added or changed records, removed records are identified by instance id. Fields that are null have
+ * not changed. Cleared tags and metadata are sent as empty collections.
+ */
+@Value
+@Jacksonized
+@Builder
+@AllArgsConstructor
+public class ExecutorNodeDataDelta {
+    Date updated;
+    ExecutorResourceSnapshot state;
+    List<InstanceInfo> instances;
+    Set<String> removedInstances;
+    List<TaskInfo> tasks;
+    Set<String> removedTasks;
+    List<LocalServiceInstanceInfo> serviceInstances;
+    Set<String> removedServiceInstances;
+    Set<String> tags;
+    Map<String, String> metadata;
+    ExecutorState executorState;
+}
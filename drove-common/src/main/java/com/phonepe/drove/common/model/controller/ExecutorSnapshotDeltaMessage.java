@@ -0,0 +1,57 @@
+/*
+ *  Copyright (c) 2024 Original Author(s), PhonePe India Pvt. Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.phonepe.drove.common.model.controller;
+
+import com.phonepe.drove.common.model.ControllerMessageType;
+import com.phonepe.drove.common.model.MessageHeader;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+/**
+ * Carries changes in executor node data since the snapshot/delta with the previous sequence number. The controller
+ * rejects the message if it does not have the previous sequence, upon which the executor sends a full
+ * {@link ExecutorSnapshotMessage}.
+ */
+@Value
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+public class ExecutorSnapshotDeltaMessage extends ControllerMessage {
+    String executorId;
+    long sequence;
+    ExecutorNodeDataDelta delta;
+
+    @Jacksonized
+    @Builder
+    public ExecutorSnapshotDeltaMessage(
+            MessageHeader header,
+            String executorId,
+            long sequence,
+            ExecutorNodeDataDelta delta) {
+        super(ControllerMessageType.EXECUTOR_SNAPSHOT_DELTA, header);
+        this.executorId = executorId;
+        this.sequence = sequence;
+        this.delta = delta;
+    }
+
+    @Override
+    public <T> T accept(ControllerMessageVisitor<T> visitor) {
+        return visitor.visit(this);
+    }
+}
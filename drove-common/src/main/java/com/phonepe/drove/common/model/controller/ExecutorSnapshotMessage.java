@@ -33,12 +33,22 @@ import lombok.extern.jackson.Jacksonized;
 @ToString(callSuper = true)
 public class ExecutorSnapshotMessage extends ControllerMessage {
     ExecutorNodeData nodeData;
+    /**
+     * Sequence number of this snapshot in the stream of updates from the executor. Zero if the executor does not
+     * send deltas. See {@link ExecutorSnapshotDeltaMessage}.
+     */
+    long sequence;
+
+    public ExecutorSnapshotMessage(MessageHeader header, ExecutorNodeData nodeData) {
+        this(header, nodeData, 0);
+    }
 
     @Jacksonized
     @Builder
-    public ExecutorSnapshotMessage(MessageHeader header, ExecutorNodeData nodeData) {
+    public ExecutorSnapshotMessage(MessageHeader header, ExecutorNodeData nodeData, long sequence) {
         super(ControllerMessageType.EXECUTOR_SNAPSHOT, header);
         this.nodeData = nodeData;
+        this.sequence = sequence;
     }
 
     @Override
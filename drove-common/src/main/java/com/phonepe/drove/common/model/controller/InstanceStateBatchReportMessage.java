@@ -0,0 +1,66 @@
+/*
+ *  Copyright (c) 2024 Original Author(s), PhonePe India Pvt. Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.phonepe.drove.common.model.controller;
+
+import com.phonepe.drove.common.model.ControllerMessageType;
+import com.phonepe.drove.common.model.MessageHeader;
+import com.phonepe.drove.models.info.ExecutorResourceSnapshot;
+import com.phonepe.drove.models.instance.InstanceInfo;
+import com.phonepe.drove.models.localservice.LocalServiceInstanceInfo;
+import com.phonepe.drove.models.taskinstance.TaskInfo;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * State changes for multiple instances, tasks and local service instances on an executor, reported together with a
+ * single resource snapshot taken after all the changes.
+ */
+@Value
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+public class InstanceStateBatchReportMessage extends ControllerMessage {
+    ExecutorResourceSnapshot resourceSnapshot;
+    List<InstanceInfo> instances;
+    List<TaskInfo> tasks;
+    List<LocalServiceInstanceInfo> serviceInstances;
+
+    @Jacksonized
+    @Builder
+    public InstanceStateBatchReportMessage(
+            MessageHeader header,
+            ExecutorResourceSnapshot resourceSnapshot,
+            List<InstanceInfo> instances,
+            List<TaskInfo> tasks,
+            List<LocalServiceInstanceInfo> serviceInstances) {
+        super(ControllerMessageType.INSTANCE_STATE_BATCH_REPORT, header);
+        this.resourceSnapshot = resourceSnapshot;
+        this.instances = Objects.requireNonNullElse(instances, List.of());
+        this.tasks = Objects.requireNonNullElse(tasks, List.of());
+        this.serviceInstances = Objects.requireNonNullElse(serviceInstances, List.of());
+    }
+
+    @Override
+    public <T> T accept(ControllerMessageVisitor<T> visitor) {
+        return visitor.visit(this);
+    }
+}
@@ -0,0 +1,233 @@
+/*
+ *  Copyright (c) 2024 Original Author(s), PhonePe India Pvt. Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.phonepe.drove.common.net;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.google.common.annotations.VisibleForTesting;
+import com.phonepe.drove.models.info.nodedata.NodeTransportType;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.config.TlsConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.http.URIScheme;
+import org.apache.hc.core5.http2.HttpVersionPolicy;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.pool.PoolConcurrencyPolicy;
+import org.apache.hc.core5.pool.PoolReusePolicy;
+import org.apache.hc.core5.reactor.IOReactorConfig;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+
+import java.io.Closeable;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Non-blocking http client used for messages between controllers and executors. Keeps a pool of keep-alive
+ * connections per remote node and (optionally) multiplexes messages over HTTP/2 connections.
+ * Latency of calls to every remote node is tracked in a separate timer.
+ */
+@Slf4j
+public class ClusterMessagingClient implements Closeable {
+    private static final String LATENCY_METRIC_PREFIX = "com.phonepe.drove.messaging.latency";
+
+    /**
+     * Response from the remote node. Body is kept as raw bytes to be deserialized directly by the caller.
+     */
+    @SuppressWarnings("java:S6218")
+    public record Response(int statusCode, byte[] body) {
+    }
+
+    private final CloseableHttpAsyncClient httpClient;
+    private final MetricRegistry metricRegistry;
+    private final long maxCallDurationMs;
+
+    public ClusterMessagingClient(ClusterMessagingConfig config, MetricRegistry metricRegistry) {
+        this.metricRegistry = metricRegistry;
+        val maxConnectionsPerHost = Objects.requireNonNullElse(config.getMaxConnectionsPerHost(),
+                                                               ClusterMessagingConfig.DEFAULT_MAX_CONNECTIONS_PER_HOST);
+        val connectTimeout = Objects.requireNonNullElse(config.getConnectTimeout(),
+                                                        ClusterMessagingConfig.DEFAULT_CONNECT_TIMEOUT)
+                .toMilliseconds();
+        val responseTimeout = Objects.requireNonNullElse(config.getResponseTimeout(),
+                                                         ClusterMessagingConfig.DEFAULT_RESPONSE_TIMEOUT)
+                .toMilliseconds();
+        val idleTimeout = Objects.requireNonNullElse(config.getIdleConnectionTimeout(),
+                                                     ClusterMessagingConfig.DEFAULT_IDLE_CONNECTION_TIMEOUT)
+                .toMilliseconds();
+        val http2Enabled = Objects.requireNonNullElse(config.getHttp2Enabled(), false);
+        this.maxCallDurationMs = connectTimeout + responseTimeout;
+
+        val connectionConfig = ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.ofMilliseconds(connectTimeout))
+                .setSocketTimeout(Timeout.ofMilliseconds(responseTimeout))
+                .setValidateAfterInactivity(TimeValue.ofSeconds(10))
+                .setTimeToLive(TimeValue.ofHours(1))
+                .build();
+        val ioReactorConfig = IOReactorConfig.custom()
+                .setTcpNoDelay(true)
+                .setSoTimeout(Timeout.ofMilliseconds(responseTimeout))
+                .build();
+        val requestConfig = RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.ofMilliseconds(connectTimeout))
+                .setResponseTimeout(Timeout.ofMilliseconds(responseTimeout))
+                .setRedirectsEnabled(false)
+                .build();
+        this.httpClient = http2Enabled
+                          ? http2Client(connectionConfig, ioReactorConfig, requestConfig, idleTimeout)
+                          : http1Client(connectionConfig,
+                                        ioReactorConfig,
+                                        requestConfig,
+                                        idleTimeout,
+                                        maxConnectionsPerHost);
+        this.httpClient.start();
+        log.info("Cluster messaging client started. Max connections per host: {}, HTTP/2 enabled: {}",
+                 maxConnectionsPerHost, http2Enabled);
+    }
+
+    /**
+     * Post a json payload to a path on a remote node
+     *
+     * @param host    Remote node
+     * @param path    Api path on the remote node
+     * @param headers Extra headers to be sent
+     * @param body    Serialized json payload
+     * @return A future that gets completed with the response or with an exception in case of transport errors
+     */
+    public CompletableFuture<Response> post(
+            final RemoteHost host,
+            final String path,
+            final Map<String, String> headers,
+            final byte[] body) {
+        val scheme = host.getTransportType() == NodeTransportType.HTTP
+                     ? URIScheme.HTTP.getId()
+                     : URIScheme.HTTPS.getId();
+        val requestBuilder = SimpleRequestBuilder.post()
+                .setHttpHost(new HttpHost(scheme, host.getHostname(), host.getPort()))
+                .setPath(path)
+                .setBody(body, ContentType.APPLICATION_JSON);
+        headers.forEach(requestBuilder::setHeader);
+        val result = new CompletableFuture<Response>();
+        val timerContext = latencyTimer(host).time();
+        httpClient.execute(requestBuilder.build(), new FutureCallback<>() {
+            @Override
+            public void completed(SimpleHttpResponse response) {
+                timerContext.stop();
+                result.complete(new Response(response.getCode(), response.getBodyBytes()));
+            }
+
+            @Override
+            public void failed(Exception ex) {
+                timerContext.stop();
+                result.completeExceptionally(ex);
+            }
+
+            @Override
+            public void cancelled() {
+                timerContext.stop();
+                result.cancel(false);
+            }
+        });
+        //Safety net in case the reactor never calls back
+        return result.orTimeout(2 * maxCallDurationMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() {
+        httpClient.close(CloseMode.GRACEFUL);
+        log.info("Cluster messaging client shut down");
+    }
+
+    /**
+     * Drop the latency timer for a node that has left the cluster. A new timer gets created if the node comes back.
+     *
+     * @param host Remote node that is no longer part of the cluster
+     */
+    public void forgetHost(final RemoteHost host) {
+        if (metricRegistry.remove(latencyMetricName(host))) {
+            log.debug("Removed messaging latency timer for {}:{}", host.getHostname(), host.getPort());
+        }
+    }
+
+    @VisibleForTesting
+    Timer latencyTimer(final RemoteHost host) {
+        return metricRegistry.timer(latencyMetricName(host));
+    }
+
+    private static String latencyMetricName(final RemoteHost host) {
+        return MetricRegistry.name(LATENCY_METRIC_PREFIX, host.getHostname().replace('.', '_') + "_" + host.getPort());
+    }
+
+    /**
+     * Keep-alive pool of HTTP/1.1 connections, one in-flight message per connection
+     */
+    private static CloseableHttpAsyncClient http1Client(
+            ConnectionConfig connectionConfig,
+            IOReactorConfig ioReactorConfig,
+            RequestConfig requestConfig,
+            long idleTimeout,
+            int maxConnectionsPerHost) {
+        val connectionManager = PoolingAsyncClientConnectionManagerBuilder.create()
+                .setPoolConcurrencyPolicy(PoolConcurrencyPolicy.STRICT)
+                .setConnPoolPolicy(PoolReusePolicy.LIFO)
+                .setMaxConnPerRoute(maxConnectionsPerHost)
+                .setMaxConnTotal(Integer.MAX_VALUE)
+                .setDefaultConnectionConfig(connectionConfig)
+                .setDefaultTlsConfig(TlsConfig.custom()
+                                             .setVersionPolicy(HttpVersionPolicy.FORCE_HTTP_1)
+                                             .build())
+                .build();
+        return HttpAsyncClients.custom()
+                .setConnectionManager(connectionManager)
+                .setIOReactorConfig(ioReactorConfig)
+                .setDefaultRequestConfig(requestConfig)
+                .evictIdleConnections(TimeValue.ofMilliseconds(idleTimeout))
+                .disableAutomaticRetries()
+                .build();
+    }
+
+    /**
+     * Single connection per node with all messages multiplexed over it. Uses h2c (prior knowledge) for plain http
+     * and ALPN for https.
+     */
+    private static CloseableHttpAsyncClient http2Client(
+            ConnectionConfig connectionConfig,
+            IOReactorConfig ioReactorConfig,
+            RequestConfig requestConfig,
+            long idleTimeout) {
+        return HttpAsyncClients.customHttp2()
+                .setDefaultConnectionConfig(connectionConfig)
+                .setIOReactorConfig(ioReactorConfig)
+                .setDefaultRequestConfig(requestConfig)
+                .evictIdleConnections(TimeValue.ofMilliseconds(idleTimeout))
+                .disableAutomaticRetries()
+                .disableRedirectHandling()
+                .build();
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ *  Copyright (c) 2024 Original Author(s), PhonePe India Pvt. Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.phonepe.drove.common.net;
+
+import io.dropwizard.util.Duration;
+import io.dropwizard.validation.MaxDuration;
+import io.dropwizard.validation.MinDuration;
+import lombok.Builder;
+import lombok.Value;
+import lombok.With;
+import lombok.extern.jackson.Jacksonized;
+
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration for the transport used to exchange messages between controllers and executors.
+ * All fields are optional, defaults are used for fields that are not set.
+ */
+@Value
+@Jacksonized
+@Builder
+@With
+public class ClusterMessagingConfig {
+    public static final int DEFAULT_MAX_CONNECTIONS_PER_HOST = 16;
+    public static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.seconds(1);
+    public static final Duration DEFAULT_RESPONSE_TIMEOUT = Duration.seconds(5);
+    public static final Duration DEFAULT_IDLE_CONNECTION_TIMEOUT = Duration.minutes(1);
+
+    public static final ClusterMessagingConfig DEFAULT = new ClusterMessagingConfig(
+            DEFAULT_MAX_CONNECTIONS_PER_HOST,
+            DEFAULT_CONNECT_TIMEOUT,
+            DEFAULT_RESPONSE_TIMEOUT,
+            DEFAULT_IDLE_CONNECTION_TIMEOUT,
+            false);
+
+    /**
+     * Max number of keep-alive connections kept open to a single remote node. Not used when HTTP/2 is enabled, as
+     * all messages to a node are multiplexed over a single connection in that case.
+     */
+    @Min(1)
+    @Max(1024)
+    Integer maxConnectionsPerHost;
+
+    @MinDuration(value = 100, unit = TimeUnit.MILLISECONDS)
+    @MaxDuration(value = 1, unit = TimeUnit.MINUTES)
+    Duration connectTimeout;
+
+    @MinDuration(value = 100, unit = TimeUnit.MILLISECONDS)
+    @MaxDuration(value = 5, unit = TimeUnit.MINUTES)
+    Duration responseTimeout;
+
+    /**
+     * Pooled connections that have not been used for this long are closed
+     */
+    @MinDuration(value = 1, unit = TimeUnit.SECONDS)
+    Duration idleConnectionTimeout;
+
+    /**
+     * Use HTTP/2 for messages. Plain http nodes are contacted using h2c with prior knowledge, https nodes using h2
+     * over ALPN. Enable this only when all nodes in the cluster have been configured with h2c/h2 connectors, as
+     * HTTP/1.1 only servers will reject such connections.
+     */
+    Boolean http2Enabled;
+}
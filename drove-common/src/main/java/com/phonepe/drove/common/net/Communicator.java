@@ -20,6 +20,7 @@ import com.phonepe.drove.common.model.Message;
 import com.phonepe.drove.common.model.MessageResponse;
 import io.appform.signals.signals.ConsumingSyncSignal;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 
 /**
@@ -42,5 +43,12 @@ public interface Communicator<
 
     MessageResponse send(final SendMessage message, final Consumer<MessageResponse> onComplete);
 
+    /**
+     * Send message to remote without blocking the calling thread
+     * @param message the message to be sent
+     * @return Future that gets completed with the response from remote
+     */
+    CompletableFuture<MessageResponse> sendAsync(final SendMessage message);
+
     MessageResponse receive(final ReceiveMessage message);
 }
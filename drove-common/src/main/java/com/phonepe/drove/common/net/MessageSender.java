@@ -19,6 +19,8 @@ package com.phonepe.drove.common.net;
 import com.phonepe.drove.common.model.Message;
 import com.phonepe.drove.common.model.MessageResponse;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  *
  */
@@ -26,4 +28,15 @@ import com.phonepe.drove.common.model.MessageResponse;
 @SuppressWarnings("java:S119")
 public interface MessageSender<SendMessageType extends Enum<SendMessageType>, SendMessage extends Message<SendMessageType>> {
     MessageResponse send(final SendMessage message);
+
+    /**
+     * Send message without blocking the calling thread. The returned future is completed with the final response
+     * once all retries are done. Default implementation sends the message synchronously.
+     *
+     * @param message Message to be sent
+     * @return Future that gets completed with the response for the message
+     */
+    default CompletableFuture<MessageResponse> sendAsync(final SendMessage message) {
+        return CompletableFuture.completedFuture(send(message));
+    }
 }
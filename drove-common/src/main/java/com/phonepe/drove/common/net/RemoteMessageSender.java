@@ -18,30 +18,31 @@ package com.phonepe.drove.common.net;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Suppliers;
 import com.phonepe.drove.auth.config.ClusterAuthenticationConfig;
 import com.phonepe.drove.auth.model.ClusterCommHeaders;
 import com.phonepe.drove.common.CommonUtils;
 import com.phonepe.drove.common.model.Message;
 import com.phonepe.drove.common.model.MessageDeliveryStatus;
 import com.phonepe.drove.common.model.MessageResponse;
-import com.phonepe.drove.models.info.nodedata.NodeTransportType;
 import com.phonepe.drove.models.info.nodedata.NodeType;
 import dev.failsafe.Failsafe;
+import dev.failsafe.FailsafeExecutor;
 import dev.failsafe.RetryPolicy;
 import io.appform.functionmetrics.MonitoredFunction;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
-import org.apache.hc.client5.http.classic.methods.HttpPost;
-import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
-import org.apache.hc.core5.http.ParseException;
-import org.apache.hc.core5.http.io.entity.EntityUtils;
-import org.apache.hc.core5.http.io.entity.StringEntity;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
 
 import static com.phonepe.drove.auth.core.AuthConstants.NODE_ID_HEADER;
-import static javax.ws.rs.core.HttpHeaders.CONTENT_TYPE;
 
 /**
  *
@@ -53,32 +54,51 @@ public abstract class RemoteMessageSender<
         SendMessage extends Message<SendMessageType>>
         implements MessageSender<SendMessageType, SendMessage> {
 
+    @SuppressWarnings("java:S1075")
+    private static final String MESSAGES_API_PATH = "/apis/v1/messages";
+
     private final ObjectMapper mapper;
-    private final CloseableHttpClient httpClient;
-    private final ClusterAuthenticationConfig.SecretConfig secret;
-    private final String nodeId;
+    private final ClusterMessagingClient messagingClient;
+    private final Map<String, String> headers;
+    private final Supplier<FailsafeExecutor<MessageResponse>> executor
+            = Suppliers.memoize(this::createExecutor);
 
     protected RemoteMessageSender(
             final ObjectMapper mapper,
             ClusterAuthenticationConfig clusterAuthenticationConfig,
             NodeType nodeType,
-            CloseableHttpClient httpClient) {
+            ClusterMessagingClient messagingClient) {
         this.mapper = mapper;
-        this.secret = clusterAuthenticationConfig.getSecrets()
+        val secret = clusterAuthenticationConfig.getSecrets()
                 .stream()
                 .filter(s -> s.getNodeType().equals(nodeType))
                 .findAny()
                 .orElse(null);
-        this.httpClient = httpClient;
-        nodeId = CommonUtils.hostname();
+        this.messagingClient = messagingClient;
+        val commonHeaders = new HashMap<String, String>();
+        commonHeaders.put(NODE_ID_HEADER, CommonUtils.hostname());
+        if (null != secret) {
+            commonHeaders.put(ClusterCommHeaders.CLUSTER_AUTHORIZATION, secret.getSecret());
+        }
+        this.headers = Map.copyOf(commonHeaders);
     }
 
     @Override
     @MonitoredFunction
-    @SuppressWarnings("java:S1874")
     public MessageResponse send(SendMessage message) {
-        val retryPolicy = retryStrategy();
-        return Failsafe.with(retryPolicy)
+        return executor.get().get(() -> sendRemoteMessage(message));
+    }
+
+    @Override
+    public CompletableFuture<MessageResponse> sendAsync(SendMessage message) {
+        return executor.get().getStageAsync(() -> sendRemoteMessageAsync(message));
+    }
+
+    protected abstract RetryPolicy<MessageResponse> retryStrategy();
+
+    @SuppressWarnings("java:S1874")
+    private FailsafeExecutor<MessageResponse> createExecutor() {
+        return Failsafe.with(retryStrategy())
                 .onFailure(result -> {
                     val failure = result.getException();
                     if (null != failure) {
@@ -87,51 +107,67 @@ public abstract class RemoteMessageSender<
                     else {
                         log.error("Message sending failed with response: {}", result.getResult());
                     }
-                }).get(() -> sendRemoteMessage(message));
+                });
     }
 
-    protected abstract RetryPolicy<MessageResponse> retryStrategy();
-
-    @SuppressWarnings("deprecation")
     private MessageResponse sendRemoteMessage(SendMessage message) {
+        try {
+            return sendRemoteMessageAsync(message).get();
+        }
+        catch (ExecutionException e) {
+            log.error("Error sending message: ", e);
+            return new MessageResponse(message.getHeader(), MessageDeliveryStatus.FAILED);
+        }
+        catch (InterruptedException e) {
+            log.error("Interrupted while sending message");
+            Thread.currentThread().interrupt();
+            return new MessageResponse(message.getHeader(), MessageDeliveryStatus.FAILED);
+        }
+    }
+
+    /*
+     * Returned future is never completed exceptionally, failures are translated to a FAILED response
+     */
+    private CompletableFuture<MessageResponse> sendRemoteMessageAsync(SendMessage message) {
         val host = translateRemoteAddress(message).orElse(null);
         if (null == host) {
             log.error("No host found.");
-            return new MessageResponse(message.getHeader(), MessageDeliveryStatus.FAILED);
+            return CompletableFuture.completedFuture(new MessageResponse(message.getHeader(),
+                                                                         MessageDeliveryStatus.FAILED));
         }
-        val uri = String.format("%s://%s:%d/apis/v1/messages",
-                                host.getTransportType() == NodeTransportType.HTTP
-                                ? "http"
-                                : "https",
-                                host.getHostname(),
-                                host.getPort());
-        val request = new HttpPost(uri);
+        final byte[] payload;
         try {
-            request.setHeader(CONTENT_TYPE, "application/json");
-            request.setHeader(NODE_ID_HEADER, nodeId);
-            if (null != secret) {
-                request.setHeader(ClusterCommHeaders.CLUSTER_AUTHORIZATION, secret.getSecret());
-            }
-            request.setEntity(new StringEntity(mapper.writeValueAsString(message)));
+            payload = mapper.writeValueAsBytes(message);
         }
         catch (JsonProcessingException e) {
             log.error("Error building message: ", e);
-            return new MessageResponse(message.getHeader(), MessageDeliveryStatus.FAILED);
+            return CompletableFuture.completedFuture(new MessageResponse(message.getHeader(),
+                                                                         MessageDeliveryStatus.FAILED));
         }
-        log.debug("Sending message to remote host: {}. Message: {}", uri, message);
-        try (val response = httpClient.execute(request)) {
-            val body = EntityUtils.toString(response.getEntity());
-            if (response.getCode() == 200) {
-                return mapper.readValue(body, MessageResponse.class);
+        log.debug("Sending message to remote host: {}:{}. Message: {}", host.getHostname(), host.getPort(), message);
+        return messagingClient.post(host, MESSAGES_API_PATH, headers, payload)
+                .thenApply(response -> translateResponse(message, host, response))
+                .exceptionally(e -> {
+                    log.error("Error sending message: ", e);
+                    return new MessageResponse(message.getHeader(), MessageDeliveryStatus.FAILED);
+                });
+    }
+
+    private MessageResponse translateResponse(
+            SendMessage message,
+            RemoteHost host,
+            ClusterMessagingClient.Response response) {
+        if (response.statusCode() == 200) {
+            try {
+                return mapper.readValue(response.body(), MessageResponse.class);
             }
-            else {
-                log.info("Received non-200 response: {}", body);
+            catch (IOException e) {
+                log.error("Error reading message response: ", e);
+                return new MessageResponse(message.getHeader(), MessageDeliveryStatus.FAILED);
             }
         }
-        catch (IOException | ParseException e) {
-            log.error("Error sending message: ", e);
-            return new MessageResponse(message.getHeader(), MessageDeliveryStatus.FAILED);
-        }
+        log.info("Received non-200 response: {}",
+                 null == response.body() ? "" : new String(response.body(), StandardCharsets.UTF_8));
         log.info("Failed to send message to node: {}:{}", host.getHostname(), host.getPort());
         return new MessageResponse(message.getHeader(), MessageDeliveryStatus.FAILED);
     }
@@ -22,6 +22,7 @@ import io.appform.functionmetrics.MonitoredFunction;
 import io.appform.signals.signals.ConsumingSyncSignal;
 import lombok.val;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 
 /**
@@ -58,6 +59,15 @@ public abstract class ThreadedCommunicator<
         return response;
     }
 
+    @Override
+    public CompletableFuture<MessageResponse> sendAsync(SendMessage message) {
+        return messageSender.sendAsync(message)
+                .thenApply(response -> {
+                    responseReceived.dispatch(response);
+                    return response;
+                });
+    }
+
     @Override
     @MonitoredFunction
     public MessageResponse receive(ReceiveMessage message) {
@@ -31,4 +31,6 @@ public class ZkConfig {
     private String nameSpace;
 
     private int port;
+
+    private ZkDataFormat dataFormat = ZkDataFormat.JSON;
 }
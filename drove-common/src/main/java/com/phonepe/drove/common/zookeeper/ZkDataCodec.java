@@ -0,0 +1,150 @@
+/*
+ *  Copyright (c) 2024 Original Author(s), PhonePe India Pvt. Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.phonepe.drove.common.zookeeper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import lombok.Getter;
+import lombok.val;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Exception;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4SafeDecompressor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+/**
+ * Encodes and decodes data stored on zookeeper nodes. Data is written in the configured {@link ZkDataFormat}.
+ * Reads detect the format from the header byte, so data written in any of the supported formats (including legacy
+ * headerless JSON) can be read irrespective of the configured format.
+ */
+public final class ZkDataCodec {
+    private static final SmileFactory SMILE_FACTORY = new SmileFactory();
+    private static final LZ4Compressor LZ4_COMPRESSOR = LZ4Factory.fastestInstance().fastCompressor();
+    private static final LZ4SafeDecompressor LZ4_DECOMPRESSOR = LZ4Factory.fastestInstance().safeDecompressor();
+    //Upper bound on the compression ratio achievable by LZ4, used to reject corrupt length headers
+    private static final int LZ4_MAX_COMPRESSION_RATIO = 255;
+
+    private final ObjectMapper mapper;
+    @Getter
+    private final ZkDataFormat format;
+
+    public ZkDataCodec(ObjectMapper mapper) {
+        this(mapper, ZkDataFormat.JSON);
+    }
+
+    public ZkDataCodec(ObjectMapper mapper, ZkDataFormat format) {
+        this.mapper = mapper;
+        this.format = Objects.requireNonNullElse(format, ZkDataFormat.JSON);
+    }
+
+    public byte[] encode(final Object value) throws IOException {
+        return switch (format) {
+            case JSON -> mapper.writeValueAsBytes(value);
+            case SMILE -> {
+                val out = new ByteArrayOutputStream();
+                out.write(ZkDataFormat.SMILE.getHeader());
+                writeSmile(value, out);
+                yield out.toByteArray();
+            }
+            case SMILE_LZ4 -> {
+                val out = new ByteArrayOutputStream();
+                writeSmile(value, out);
+                val raw = out.toByteArray();
+                val compressed = new byte[LZ4_COMPRESSOR.maxCompressedLength(raw.length)];
+                val compressedLength = LZ4_COMPRESSOR.compress(raw, 0, raw.length, compressed, 0);
+                yield ByteBuffer.allocate(1 + Integer.BYTES + compressedLength)
+                        .put(ZkDataFormat.SMILE_LZ4.getHeader())
+                        .putInt(raw.length)
+                        .put(compressed, 0, compressedLength)
+                        .array();
+            }
+        };
+    }
+
+    public <T> T decode(final byte[] data, final Class<T> clazz) throws IOException {
+        return switch (detectFormat(data)) {
+            case JSON -> mapper.readValue(data, clazz);
+            case SMILE -> readSmile(data, 1, data.length - 1, clazz);
+            case SMILE_LZ4 -> readSmile(decompress(data), clazz);
+        };
+    }
+
+    /**
+     * Identify format of the provided data. Anything without a known header byte is considered legacy JSON.
+     *
+     * @param data Data read from a node
+     * @return Format of the data
+     */
+    public static ZkDataFormat detectFormat(final byte[] data) {
+        if (null == data || data.length == 0) {
+            return ZkDataFormat.JSON;
+        }
+        if (data[0] == ZkDataFormat.SMILE.getHeader()) {
+            return ZkDataFormat.SMILE;
+        }
+        if (data[0] == ZkDataFormat.SMILE_LZ4.getHeader()) {
+            return ZkDataFormat.SMILE_LZ4;
+        }
+        return ZkDataFormat.JSON;
+    }
+
+    private static byte[] decompress(final byte[] data) throws IOException {
+        if (data.length < 1 + Integer.BYTES) {
+            throw new IOException("Compressed data is truncated. Length: " + data.length);
+        }
+        val buffer = ByteBuffer.wrap(data, 1, data.length - 1);
+        val rawLength = buffer.getInt();
+        val compressedLength = buffer.remaining();
+        if (rawLength < 0 || (long) rawLength > (long) compressedLength * LZ4_MAX_COMPRESSION_RATIO) {
+            throw new IOException("Invalid uncompressed length " + rawLength + " for " + compressedLength
+                                          + " bytes of compressed data");
+        }
+        val raw = new byte[rawLength];
+        try {
+            val decompressedLength = LZ4_DECOMPRESSOR.decompress(
+                    data, buffer.position(), compressedLength, raw, 0, rawLength);
+            if (decompressedLength != rawLength) {
+                throw new IOException("Expected " + rawLength + " bytes after decompression, got "
+                                              + decompressedLength);
+            }
+        }
+        catch (LZ4Exception e) {
+            throw new IOException("Error decompressing data: " + e.getMessage(), e);
+        }
+        return raw;
+    }
+
+    private <T> T readSmile(byte[] data, Class<T> clazz) throws IOException {
+        return readSmile(data, 0, data.length, clazz);
+    }
+
+    private <T> T readSmile(byte[] data, int offset, int length, Class<T> clazz) throws IOException {
+        try (val parser = SMILE_FACTORY.createParser(data, offset, length)) {
+            return mapper.readValue(parser, clazz);
+        }
+    }
+
+    private void writeSmile(Object value, ByteArrayOutputStream out) throws IOException {
+        try (val generator = SMILE_FACTORY.createGenerator(out)) {
+            mapper.writeValue(generator, value);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ *  Copyright (c) 2024 Original Author(s), PhonePe India Pvt. Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.phonepe.drove.common.zookeeper;
+
+import lombok.Getter;
+
+/**
+ * Serialization format used for data written to zookeeper nodes. Binary formats are prefixed with a header byte
+ * so that readers can identify the format. Plain JSON is written without any header so that nodes stay readable
+ * by older versions during rolling upgrades. Switch to a binary format only once all readers have been upgraded.
+ */
+@Getter
+public enum ZkDataFormat {
+    /**
+     * Plain JSON, no header. This is the legacy format.
+     */
+    JSON((byte) 0x00),
+    /**
+     * Jackson Smile binary JSON
+     */
+    SMILE((byte) 0x01),
+    /**
+     * Jackson Smile compressed with LZ4
+     */
+    SMILE_LZ4((byte) 0x02);
+
+    private final byte header;
+
+    ZkDataFormat(byte header) {
+        this.header = header;
+    }
+}
@@ -16,17 +16,21 @@
 
 package com.phonepe.drove.common.zookeeper;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import io.appform.functionmetrics.MonitoredFunction;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.api.CuratorEvent;
 import org.apache.zookeeper.KeeperException;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
@@ -38,15 +42,20 @@ import static com.phonepe.drove.common.CommonUtils.sublist;
 @Slf4j
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class ZkUtils {
+    /**
+     * Maximum number of background reads that {@link #readChildrenNodeData} will keep outstanding on the ZK session
+     */
+    public static final int MAX_IN_FLIGHT_READS = 256;
+
     public static boolean setNodeData(
             CuratorFramework curatorFramework,
             String path,
-            ObjectMapper mapper, Object object) {
+            ZkDataCodec codec, Object object) {
         try {
             curatorFramework.create()
                     .orSetData()
                     .creatingParentContainersIfNeeded()
-                    .forPath(path, mapper.writeValueAsBytes(object));
+                    .forPath(path, codec.encode(object));
             return true;
         }
         catch (Exception e) {
@@ -94,6 +103,85 @@ public class ZkUtils {
         return Collections.emptyList();
     }
 
+    public static <T> List<T> readChildrenNodeData(
+            CuratorFramework curatorFramework,
+            String parentPath,
+            int start,
+            int size,
+            Function<String, String> childPathGenerator,
+            ZkDataCodec codec,
+            Class<T> clazz) throws Exception {
+        return readChildrenNodeData(curatorFramework, parentPath, start, size, childPathGenerator, codec, clazz,
+                                    x -> true);
+    }
+
+    /**
+     * Reads and deserializes data for all children of a node. Unlike {@link #readChildrenNodes}, reads for the
+     * children are pipelined using background calls on the curator session with at most
+     * {@link #MAX_IN_FLIGHT_READS} reads outstanding at any point of time. Deserialization happens on the calling
+     * thread, which waits for the reads anyway, so that the ZK event thread is not blocked. Order of the children is retained in the output.
+     * Children that have been deleted in the meantime or fail to be read/parsed are skipped.
+     *
+     * @param curatorFramework   Curator
+     * @param parentPath         Path of the parent node
+     * @param start              Start offset for the returned list
+     * @param size               Max number of elements to be returned
+     * @param childPathGenerator Generates full path of a child node from it's name
+     * @param codec              Codec to deserialize node data
+     * @param clazz              Class for the node data
+     * @param filter             Only nodes matching this filter will be returned
+     * @return List of deserialized node data
+     * @throws Exception in case the parent node could not be read
+     */
+    @MonitoredFunction
+    public static <T> List<T> readChildrenNodeData(
+            CuratorFramework curatorFramework,
+            String parentPath,
+            int start,
+            int size,
+            Function<String, String> childPathGenerator,
+            ZkDataCodec codec,
+            Class<T> clazz,
+            Predicate<T> filter) throws Exception {
+        try {
+            val children = curatorFramework.getChildren().forPath(parentPath);
+            if (children.isEmpty()) {
+                return List.of();
+            }
+            val permits = new Semaphore(MAX_IN_FLIGHT_READS);
+            val paths = new ArrayList<String>(children.size());
+            val reads = new ArrayList<CompletableFuture<byte[]>>(children.size());
+            for (val child : children) {
+                val path = childPathGenerator.apply(child);
+                permits.acquire();
+                paths.add(path);
+                reads.add(readDataInBackground(curatorFramework, path, permits)
+                                  .exceptionally(t -> {
+                                      log.error("Error reading node data: " + path, t);
+                                      return null;
+                                  }));
+            }
+            //Reads complete in the background while earlier ones are being parsed here
+            val nodes = new ArrayList<T>(children.size());
+            for (var i = 0; i < reads.size(); i++) {
+                val value = parseNodeData(paths.get(i), reads.get(i).join(), codec, clazz, filter);
+                if (null != value) {
+                    nodes.add(value);
+                }
+            }
+            if (nodes.isEmpty()) {
+                return nodes;
+            }
+            return sublist(nodes, start, size);
+        }
+        catch (KeeperException e) {
+            if (!e.code().equals(KeeperException.Code.NONODE)) {
+                log.error("ZK Error reading {} : {}", parentPath, e.getMessage());
+            }
+        }
+        return Collections.emptyList();
+    }
+
     public static boolean deleteNode(CuratorFramework curatorFramework, String path) {
         try {
             curatorFramework.delete()
@@ -112,19 +200,19 @@ public class ZkUtils {
     public static <T> T readNodeData(
         CuratorFramework curatorFramework,
         String path,
-        ObjectMapper mapper,
+        ZkDataCodec codec,
         Class<T> clazz) {
-        return readNodeData(curatorFramework, path, mapper, clazz, x -> true);
+        return readNodeData(curatorFramework, path, codec, clazz, x -> true);
     }
 
     public static <T> T readNodeData(
             CuratorFramework curatorFramework,
             String path,
-            ObjectMapper mapper,
+            ZkDataCodec codec,
             Class<T> clazz,
             Predicate<T> filter) {
         try {
-            val value = mapper.readValue(curatorFramework.getData().forPath(path), clazz);
+            val value = codec.decode(curatorFramework.getData().forPath(path), clazz);
             return (null != value && filter.test(value)) ? value : null;
         }
         catch (Exception e) {
@@ -137,4 +225,52 @@ public class ZkUtils {
         }
         return null;
     }
+
+    private static CompletableFuture<byte[]> readDataInBackground(
+            CuratorFramework curatorFramework,
+            String path,
+            Semaphore permits) {
+        val result = new CompletableFuture<byte[]>();
+        try {
+            curatorFramework.getData()
+                    .inBackground((client, event) -> {
+                        permits.release();
+                        completeRead(result, event);
+                    })
+                    .forPath(path);
+        }
+        catch (Exception e) {
+            permits.release();
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    private static void completeRead(CompletableFuture<byte[]> result, CuratorEvent event) {
+        val code = KeeperException.Code.get(event.getResultCode());
+        switch (code) {
+            case OK -> result.complete(event.getData());
+            case NONODE -> result.complete(null);
+            default -> result.completeExceptionally(KeeperException.create(code, event.getPath()));
+        }
+    }
+
+    private static <T> T parseNodeData(
+            String path,
+            byte[] data,
+            ZkDataCodec codec,
+            Class<T> clazz,
+            Predicate<T> filter) {
+        if (null == data) {
+            return null;
+        }
+        try {
+            val value = codec.decode(data, clazz);
+            return (null != value && filter.test(value)) ? value : null;
+        }
+        catch (Exception e) {
+            log.error("Error parsing node data: " + path, e);
+        }
+        return null;
+    }
 }
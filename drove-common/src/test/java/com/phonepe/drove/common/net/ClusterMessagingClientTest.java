@@ -0,0 +1,97 @@
+/*
+ *  Copyright (c) 2024 Original Author(s), PhonePe India Pvt. Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.phonepe.drove.common.net;
+
+import com.codahale.metrics.MetricRegistry;
+import com.github.tomakehurst.wiremock.http.Fault;
+import com.github.tomakehurst.wiremock.junit5.WireMockRuntimeInfo;
+import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+import com.phonepe.drove.common.AbstractTestBase;
+import com.phonepe.drove.models.info.nodedata.NodeTransportType;
+import lombok.SneakyThrows;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ */
+@WireMockTest
+class ClusterMessagingClientTest extends AbstractTestBase {
+
+    @Test
+    @SneakyThrows
+    void testPost(final WireMockRuntimeInfo wm) {
+        stubFor(post("/apis/v1/messages")
+                        .withHeader("X-Test", equalTo("value"))
+                        .willReturn(ok("{\"status\":\"ACCEPTED\"}")));
+        val registry = new MetricRegistry();
+        try (val client = new ClusterMessagingClient(ClusterMessagingConfig.DEFAULT, registry)) {
+            val host = new RemoteHost("localhost", wm.getHttpPort(), NodeTransportType.HTTP);
+            val response = client.post(host,
+                                       "/apis/v1/messages",
+                                       Map.of("X-Test", "value"),
+                                       "{}".getBytes(StandardCharsets.UTF_8))
+                    .get(5, TimeUnit.SECONDS);
+            assertEquals(200, response.statusCode());
+            assertEquals("{\"status\":\"ACCEPTED\"}", new String(response.body(), StandardCharsets.UTF_8));
+            assertEquals(1, client.latencyTimer(host).getCount());
+            assertTrue(registry.getTimers()
+                               .containsKey("com.phonepe.drove.messaging.latency.localhost_" + wm.getHttpPort()));
+            client.forgetHost(host);
+            assertTrue(registry.getTimers().isEmpty());
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    void testHttp2(final WireMockRuntimeInfo wm) {
+        stubFor(post("/apis/v1/messages").willReturn(ok("{}")));
+        val config = ClusterMessagingConfig.DEFAULT.withHttp2Enabled(true);
+        try (val client = new ClusterMessagingClient(config, new MetricRegistry())) {
+            val host = new RemoteHost("localhost", wm.getHttpPort(), NodeTransportType.HTTP);
+            //All calls get multiplexed over a single h2c connection
+            val futures = IntStream.range(0, 32)
+                    .mapToObj(i -> client.post(host, "/apis/v1/messages", Map.of(), "{}".getBytes()))
+                    .toList();
+            for (val future : futures) {
+                assertEquals(200, future.get(5, TimeUnit.SECONDS).statusCode());
+            }
+            assertEquals(32, client.latencyTimer(host).getCount());
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    void testTransportFailure(final WireMockRuntimeInfo wm) {
+        stubFor(post("/apis/v1/messages").willReturn(aResponse().withFault(Fault.CONNECTION_RESET_BY_PEER)));
+        try (val client = new ClusterMessagingClient(ClusterMessagingConfig.DEFAULT, new MetricRegistry())) {
+            val host = new RemoteHost("localhost", wm.getHttpPort(), NodeTransportType.HTTP);
+            val future = client.post(host, "/apis/v1/messages", Map.of(), "{}".getBytes());
+            assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+            assertEquals(1, client.latencyTimer(host).getCount());
+        }
+    }
+}
@@ -21,7 +21,6 @@ import com.github.tomakehurst.wiremock.junit5.WireMockRuntimeInfo;
 import com.github.tomakehurst.wiremock.junit5.WireMockTest;
 import com.phonepe.drove.auth.config.ClusterAuthenticationConfig;
 import com.phonepe.drove.common.AbstractTestBase;
-import com.phonepe.drove.common.CommonUtils;
 import com.phonepe.drove.common.model.Message;
 import com.phonepe.drove.common.model.MessageDeliveryStatus;
 import com.phonepe.drove.common.model.MessageHeader;
@@ -40,6 +39,7 @@ import java.util.Optional;
 
 import static com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder.okForJson;
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.stubbing.Scenario.STARTED;
 import static com.phonepe.drove.common.model.MessageDeliveryStatus.ACCEPTED;
 import static com.phonepe.drove.common.model.MessageDeliveryStatus.FAILED;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -72,7 +72,7 @@ class RemoteMessageSenderTest extends AbstractTestBase {
             super(MAPPER,
                   ClusterAuthenticationConfig.DEFAULT,
                   NodeType.CONTROLLER,
-                  CommonUtils.createHttpClient(false));
+                  new ClusterMessagingClient(ClusterMessagingConfig.DEFAULT, METRIC_REGISTRY));
         }
 
         @Override
@@ -102,6 +102,10 @@ class RemoteMessageSenderTest extends AbstractTestBase {
         };
         val res = msgSender.send(new TestMessage(header, "Test"));
         assertEquals(MessageDeliveryStatus.ACCEPTED, res.getStatus());
+        verify(postRequestedFor(urlEqualTo("/apis/v1/messages"))
+                       .withHeader("Content-Type", containing("application/json"))
+                       .withHeader("Cluster-Authorization", equalTo("DefaultControllerSecret"))
+                       .withRequestBody(matchingJsonPath("$.data", equalTo("Test"))));
     }
 
     @Test
@@ -185,4 +189,74 @@ class RemoteMessageSenderTest extends AbstractTestBase {
         val res = msgSender.send(new TestMessage(header, "Test"));
         assertEquals(FAILED, res.getStatus());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testMessageSendAsync(final WireMockRuntimeInfo wireMockRuntimeInfo) {
+        val header = MessageHeader.controllerRequest();
+        stubFor(post("/apis/v1/messages")
+                        .willReturn(okForJson(new MessageResponse(header, ACCEPTED))));
+        val msgSender = new TestMessageSender() {
+            @Override
+            protected Optional<RemoteHost> translateRemoteAddress(TestMessage message) {
+                return Optional.of(new RemoteHost("localhost",
+                                                  wireMockRuntimeInfo.getHttpPort(),
+                                                  NodeTransportType.HTTP));
+            }
+        };
+        val res = msgSender.sendAsync(new TestMessage(header, "Test")).join();
+        assertEquals(MessageDeliveryStatus.ACCEPTED, res.getStatus());
+        verify(postRequestedFor(urlEqualTo("/apis/v1/messages"))
+                       .withRequestBody(matchingJsonPath("$.data", equalTo("Test"))));
+    }
+
+    @Test
+    void testMessageSendAsyncRetry(final WireMockRuntimeInfo wireMockRuntimeInfo) {
+        val header = MessageHeader.controllerRequest();
+        stubFor(post("/apis/v1/messages")
+                        .inScenario("retry")
+                        .whenScenarioStateIs(STARTED)
+                        .willReturn(serverError())
+                        .willSetStateTo("recovered"));
+        stubFor(post("/apis/v1/messages")
+                        .inScenario("retry")
+                        .whenScenarioStateIs("recovered")
+                        .willReturn(okForJson(new MessageResponse(header, ACCEPTED))));
+        val msgSender = new TestMessageSender() {
+            @Override
+            protected RetryPolicy<MessageResponse> retryStrategy() {
+                return RetryPolicy.<MessageResponse>builder()
+                        .withDelay(Duration.ofMillis(100))
+                        .withMaxAttempts(3)
+                        .handleResultIf(response -> !MessageDeliveryStatus.ACCEPTED.equals(response.getStatus()))
+                        .build();
+            }
+
+            @Override
+            protected Optional<RemoteHost> translateRemoteAddress(TestMessage message) {
+                return Optional.of(new RemoteHost("localhost",
+                                                  wireMockRuntimeInfo.getHttpPort(),
+                                                  NodeTransportType.HTTP));
+            }
+        };
+        val res = msgSender.sendAsync(new TestMessage(header, "Test")).join();
+        assertEquals(MessageDeliveryStatus.ACCEPTED, res.getStatus());
+        verify(2, postRequestedFor(urlEqualTo("/apis/v1/messages")));
+    }
+
+    @Test
+    void testMessageSendAsyncIOError(final WireMockRuntimeInfo wireMockRuntimeInfo) {
+        val header = MessageHeader.controllerRequest();
+        stubFor(post("/apis/v1/messages")
+                        .willReturn(aResponse().withFault(Fault.CONNECTION_RESET_BY_PEER)));
+        val msgSender = new TestMessageSender() {
+            @Override
+            protected Optional<RemoteHost> translateRemoteAddress(TestMessage message) {
+                return Optional.of(new RemoteHost("localhost",
+                                                  wireMockRuntimeInfo.getHttpPort(),
+                                                  NodeTransportType.HTTP));
+            }
+        };
+        val res = msgSender.sendAsync(new TestMessage(header, "Test")).join();
+        assertEquals(FAILED, res.getStatus());
+    }
+}
@@ -28,6 +28,7 @@ import lombok.Getter;
 import lombok.val;
 import org.junit.jupiter.api.Test;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -83,4 +84,27 @@ class ThreadedCommunicatorTest extends AbstractTestBase {
                      comm.receive(new ExecutorSnapshotMessage(MessageHeader.controllerRequest(), null)).getStatus());
         assertTrue(comm.getReceived().get());
     }
-}
\ No newline at end of file
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testAsyncComms() {
+        val sender = (MessageSender<ExecutorMessageType, ExecutorMessage>) mock(MessageSender.class);
+        val comm = new TestCommunicator(sender);
+        val sent = new AtomicBoolean();
+        when(sender.sendAsync(any(ExecutorMessage.class)))
+                .thenAnswer(invocationOnMock -> {
+                    val mgs = invocationOnMock.getArgument(0, ExecutorMessage.class);
+                    return CompletableFuture.supplyAsync(
+                            () -> new MessageResponse(mgs.getHeader(), MessageDeliveryStatus.ACCEPTED));
+                });
+        comm.onResponse().connect(r -> sent.set(r.getStatus().equals(MessageDeliveryStatus.ACCEPTED)));
+        val response = comm.sendAsync(new BlacklistExecutorMessage(MessageHeader.executorRequest(),
+                                                                   new ExecutorAddress("Test",
+                                                                                       "localhost",
+                                                                                       8080,
+                                                                                       NodeTransportType.HTTP)))
+                .join();
+        assertEquals(MessageDeliveryStatus.ACCEPTED, response.getStatus());
+        assertTrue(sent.get());
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ *  Copyright (c) 2024 Original Author(s), PhonePe India Pvt. Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.phonepe.drove.common.zookeeper;
+
+import com.phonepe.drove.common.AbstractTestBase;
+import lombok.Builder;
+import lombok.SneakyThrows;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ */
+class ZkDataCodecTest extends AbstractTestBase {
+
+    @Value
+    @Jacksonized
+    @Builder
+    private static class TestData {
+        String name;
+        List<String> values;
+        Map<String, Long> resources;
+    }
+
+    @Test
+    @SneakyThrows
+    void testRoundTrip() {
+        val data = testData();
+        for (val format : ZkDataFormat.values()) {
+            val codec = new ZkDataCodec(MAPPER, format);
+            val encoded = codec.encode(data);
+            assertEquals(format, ZkDataCodec.detectFormat(encoded));
+            assertEquals(data, codec.decode(encoded, TestData.class));
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    void testReadsAllFormats() {
+        val data = testData();
+        for (val format : ZkDataFormat.values()) {
+            val encoded = new ZkDataCodec(MAPPER, format).encode(data);
+            for (val readerFormat : ZkDataFormat.values()) {
+                assertEquals(data, new ZkDataCodec(MAPPER, readerFormat).decode(encoded, TestData.class));
+            }
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    void testLegacyJsonAndSize() {
+        val data = testData();
+        val json = MAPPER.writeValueAsBytes(data);
+        assertEquals(data, new ZkDataCodec(MAPPER, ZkDataFormat.SMILE_LZ4).decode(json, TestData.class));
+        assertArrayEquals(json, new ZkDataCodec(MAPPER).encode(data));
+        assertTrue(new ZkDataCodec(MAPPER, ZkDataFormat.SMILE).encode(data).length < json.length);
+        assertTrue(new ZkDataCodec(MAPPER, ZkDataFormat.SMILE_LZ4).encode(data).length < json.length);
+        assertEquals(ZkDataFormat.JSON, ZkDataCodec.detectFormat(new byte[0]));
+        assertEquals(ZkDataFormat.JSON, ZkDataCodec.detectFormat(null));
+    }
+
+    @Test
+    @SneakyThrows
+    void testCorruptCompressedDataIsRejected() {
+        val codec = new ZkDataCodec(MAPPER, ZkDataFormat.SMILE_LZ4);
+        val encoded = codec.encode(testData());
+
+        //Uncompressed length header larger than the actual data
+        val wrongLength = encoded.clone();
+        ByteBuffer.wrap(wrongLength, 1, Integer.BYTES).putInt(Integer.MAX_VALUE);
+        assertThrows(IOException.class, () -> codec.decode(wrongLength, TestData.class));
+
+        //Negative uncompressed length
+        val negativeLength = encoded.clone();
+        ByteBuffer.wrap(negativeLength, 1, Integer.BYTES).putInt(-1);
+        assertThrows(IOException.class, () -> codec.decode(negativeLength, TestData.class));
+
+        //Compressed block cut short
+        val truncated = Arrays.copyOf(encoded, encoded.length / 2);
+        assertThrows(IOException.class, () -> codec.decode(truncated, TestData.class));
+        assertThrows(IOException.class,
+                     () -> codec.decode(new byte[]{ZkDataFormat.SMILE_LZ4.getHeader()}, TestData.class));
+    }
+
+    private static TestData testData() {
+        return new TestData("test",
+                            IntStream.range(0, 100).mapToObj(i -> "value_" + i).toList(),
+                            IntStream.range(0, 100)
+                                    .boxed()
+                                    .collect(Collectors.toMap(i -> "resource_" + i, i -> i * 1024L)));
+    }
+}
@@ -42,6 +42,7 @@ import static org.junit.jupiter.api.Assertions.*;
  */
 @ExtendWith(ZookeeperTestExtension.class)
 class ZkUtilsTest extends AbstractTestBase {
+    private static final ZkDataCodec CODEC = new ZkDataCodec(MAPPER);
 
     @Value
     @Jacksonized
@@ -58,12 +59,12 @@ class ZkUtilsTest extends AbstractTestBase {
             curator.start();
             curator.blockUntilConnected();
             val instance = cluster.getInstances().stream().findAny().orElse(null);
-            assertTrue(setNodeData(curator, "/tnode", MAPPER, new TestData(13)));
+            assertTrue(setNodeData(curator, "/tnode", CODEC, new TestData(13)));
 
             //Kill the server
             cluster.killServer(instance);
-            assertNull(readNodeData(curator, "/tnode", MAPPER, TestData.class));
-            assertFalse(setNodeData(curator, "/tnode", MAPPER, new TestData(14)));
+            assertNull(readNodeData(curator, "/tnode", CODEC, TestData.class));
+            assertFalse(setNodeData(curator, "/tnode", CODEC, new TestData(14)));
             assertFalse(deleteNode(curator, "/tnode1")); //Returns false in case of error
             assertFalse(exists(curator, "/tnode"));
 
@@ -73,14 +74,14 @@ class ZkUtilsTest extends AbstractTestBase {
 
             assertTrue(exists(curator, "/tnode"));
             assertFalse(exists(curator, "/tnode1"));
-            assertEquals(13, readNodeData(curator, "/tnode", MAPPER, TestData.class).getValue());
-            assertNull(readNodeData(curator, "/tnode1", MAPPER, TestData.class));
-            assertNull(readNodeData(curator, "/tnode", MAPPER, TestData.class, d -> d.getValue() == 10));
-            assertNotNull(readNodeData(curator, "/tnode", MAPPER, TestData.class, d -> d.getValue() == 13));
+            assertEquals(13, readNodeData(curator, "/tnode", CODEC, TestData.class).getValue());
+            assertNull(readNodeData(curator, "/tnode1", CODEC, TestData.class));
+            assertNull(readNodeData(curator, "/tnode", CODEC, TestData.class, d -> d.getValue() == 10));
+            assertNotNull(readNodeData(curator, "/tnode", CODEC, TestData.class, d -> d.getValue() == 13));
             assertTrue(deleteNode(curator, "/tnode"));
             assertTrue(deleteNode(curator, "/tnode1")); //Returns true even if node path is wrong
             assertFalse(exists(curator, "/tnode"));
-            assertNull(readNodeData(curator, "/tnode", MAPPER, TestData.class));
+            assertNull(readNodeData(curator, "/tnode", CODEC, TestData.class));
 
 
         }
@@ -97,7 +98,7 @@ class ZkUtilsTest extends AbstractTestBase {
                     .mapToObj(i -> {
                         val path = "/parent/node_" + i;
                         val data = new TestData(i);
-                        assertTrue(setNodeData(curator, path, MAPPER, data));
+                        assertTrue(setNodeData(curator, path, CODEC, data));
                         return data;
                     })
                     .sorted(Comparator.comparing(TestData::getValue))
@@ -121,6 +122,56 @@ class ZkUtilsTest extends AbstractTestBase {
 
     }
 
+    @Test
+    @SneakyThrows
+    void testPipelinedChildrenRead(TestingCluster cluster) {
+        try (val curator = buildTestCurator(cluster)) {
+            curator.start();
+            curator.blockUntilConnected();
+            //More nodes than the in-flight read limit so that reads get throttled
+            val numNodes = MAX_IN_FLIGHT_READS + 50;
+            IntStream.rangeClosed(1, numNodes)
+                    .forEach(i -> assertTrue(setNodeData(curator, "/pparent/node_" + i, CODEC, new TestData(i))));
+            //Garbage node should get skipped
+            curator.create().forPath("/pparent/node_bad", "garbage".getBytes());
+            val all = readChildrenNodeData(curator,
+                                           "/pparent",
+                                           0,
+                                           Integer.MAX_VALUE,
+                                           child -> "/pparent/" + child,
+                                           CODEC,
+                                           TestData.class);
+            assertEquals(numNodes, all.size());
+            assertEquals(IntStream.rangeClosed(1, numNodes).boxed().toList(),
+                         all.stream().map(TestData::getValue).sorted().toList());
+            val even = readChildrenNodeData(curator,
+                                            "/pparent",
+                                            0,
+                                            Integer.MAX_VALUE,
+                                            child -> "/pparent/" + child,
+                                            CODEC,
+                                            TestData.class,
+                                            d -> d.getValue() % 2 == 0);
+            assertTrue(even.stream().allMatch(d -> d.getValue() % 2 == 0));
+            assertEquals(numNodes / 2, even.size());
+            val page = readChildrenNodeData(curator,
+                                            "/pparent",
+                                            10,
+                                            5,
+                                            child -> "/pparent/" + child,
+                                            CODEC,
+                                            TestData.class);
+            assertEquals(all.subList(10, 15), page);
+            assertTrue(readChildrenNodeData(curator,
+                                            "/pparent1",
+                                            0,
+                                            Integer.MAX_VALUE,
+                                            child -> "/pparent1/" + child,
+                                            CODEC,
+                                            TestData.class).isEmpty());
+        }
+    }
+
     private List<TestData> readChildren(CuratorFramework curator, String parentPath) throws Exception {
         return readChildrenNodes(curator,
                                  parentPath,
@@ -128,7 +179,7 @@ class ZkUtilsTest extends AbstractTestBase {
                                  Integer.MAX_VALUE,
                                  childPath -> readNodeData(curator,
                                                            "/parent/" + childPath,
-                                                           MAPPER,
+                                                           CODEC,
                                                            TestData.class));
     }
 
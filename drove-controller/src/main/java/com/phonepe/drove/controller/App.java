@@ -22,7 +22,6 @@ import com.github.benmanes.caffeine.cache.CaffeineSpec;
 import com.google.common.base.Strings;
 import com.google.inject.Injector;
 import com.google.inject.Stage;
-import com.phonepe.drove.auth.config.ApplicationAuthConfig;
 import com.phonepe.drove.auth.config.BasicAuthConfig;
 import com.phonepe.drove.auth.config.ClusterAuthenticationConfig;
 import com.phonepe.drove.auth.core.*;
@@ -33,6 +32,7 @@ import com.phonepe.drove.auth.filters.DummyAuthFilter;
 import com.phonepe.drove.auth.model.DroveUser;
 import com.phonepe.drove.common.coverageutils.IgnoreInJacocoGeneratedReport;
 import com.phonepe.drove.controller.config.ControllerOptions;
+import com.phonepe.drove.controller.statedb.CachingProxyApplicationInstanceInfoDB;
 import com.phonepe.drove.controller.ui.HandlebarsViewRenderer;
 import io.appform.functionmetrics.FunctionMetricsManager;
 import io.dropwizard.Application;
@@ -79,6 +79,7 @@ public class App extends Application<AppConfig> {
                                   "com.phonepe.drove.controller.errorhandlers",
                                   "com.phonepe.olympus.im.client.exceptions")
                 .modules(new ControllerCoreModule())
+                .extensions(CachingProxyApplicationInstanceInfoDB.class)
                 .installers(HealthCheckInstaller.class)
                 .bundles(ServerPagesBundle.builder()
                                  .addViewRenderers(new HandlebarsViewRenderer())
@@ -111,15 +112,13 @@ public class App extends Application<AppConfig> {
         val filters = new ArrayList<AuthFilter<?, ? extends DroveUser>>();
         val clusterAuthConfig = Objects.requireNonNullElse(appConfig.getClusterAuth(),
                                                                           ClusterAuthenticationConfig.DEFAULT);
-        val applicationAuthConfig = Objects.requireNonNullElse(appConfig.getInstanceAuth(),
-                                                               ApplicationAuthConfig.DEFAULT);
         filters.add(new DroveClusterAuthFilter.Builder()
                             .setAuthenticator(new DroveClusterSecretAuthenticator(clusterAuthConfig))
                             .setAuthorizer(new DroveProxyAuthorizer<>(new DroveAuthorizer(), disableReadAuth))
                             .buildAuthFilter());
         filters.add(new DroveApplicationInstanceAuthFilter.Builder()
                             .setAuthenticator(new DroveApplicationInstanceAuthenticator(
-                                    new JWTApplicationInstanceTokenManager(applicationAuthConfig)))
+                                    injector.getInstance(ApplicationInstanceTokenManager.class)))
                             .setAuthorizer(new DroveProxyAuthorizer<>(new DroveAuthorizer(), disableReadAuth))
                             .buildAuthFilter());
         if (basicAuthConfig.isEnabled()) {
@@ -19,6 +19,7 @@ package com.phonepe.drove.controller;
 import com.phonepe.drove.auth.config.ApplicationAuthConfig;
 import com.phonepe.drove.auth.config.BasicAuthConfig;
 import com.phonepe.drove.auth.config.ClusterAuthenticationConfig;
+import com.phonepe.drove.common.net.ClusterMessagingConfig;
 import com.phonepe.drove.common.zookeeper.ZkConfig;
 import com.phonepe.drove.controller.config.ControllerOptions;
 import com.phonepe.drove.controller.config.ViewOptions;
@@ -53,6 +54,9 @@ public class AppConfig extends Configuration {
     @Valid
     private ApplicationAuthConfig instanceAuth;
 
+    @Valid
+    private ClusterMessagingConfig clusterMessaging;
+
     @Valid
     private BasicAuthConfig userAuth;
 }
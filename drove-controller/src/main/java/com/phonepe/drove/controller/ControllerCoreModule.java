@@ -16,6 +16,7 @@
 
 package com.phonepe.drove.controller;
 
+import com.codahale.metrics.MetricRegistry;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.inject.AbstractModule;
@@ -33,14 +34,18 @@ import com.phonepe.drove.common.discovery.leadership.LeadershipObserver;
 import com.phonepe.drove.common.discovery.leadership.ZkLeadershipObserver;
 import com.phonepe.drove.common.model.ExecutorMessageType;
 import com.phonepe.drove.common.model.executor.ExecutorMessage;
+import com.phonepe.drove.common.net.ClusterMessagingClient;
+import com.phonepe.drove.common.net.ClusterMessagingConfig;
 import com.phonepe.drove.common.net.MessageSender;
 import com.phonepe.drove.common.zookeeper.ZkConfig;
+import com.phonepe.drove.common.zookeeper.ZkDataCodec;
 import com.phonepe.drove.controller.config.ControllerOptions;
 import com.phonepe.drove.controller.config.InstallationMetadata;
 import com.phonepe.drove.controller.config.ViewOptions;
 import com.phonepe.drove.controller.engine.*;
 import com.phonepe.drove.controller.event.EventStore;
 import com.phonepe.drove.controller.event.InMemoryEventStore;
+import com.phonepe.drove.controller.event.PersistentEventStore;
 import com.phonepe.drove.controller.resourcemgmt.ClusterResourcesDB;
 import com.phonepe.drove.controller.resourcemgmt.DefaultInstanceScheduler;
 import com.phonepe.drove.controller.resourcemgmt.InMemoryClusterResourcesDB;
@@ -63,6 +68,7 @@ import com.phonepe.drove.models.operation.LocalServiceOperation;
 import com.phonepe.drove.models.operation.deploy.FailureStrategy;
 import com.phonepe.drove.statemachine.Action;
 import com.phonepe.drove.statemachine.ActionFactory;
+import io.dropwizard.lifecycle.AutoCloseableManager;
 import io.dropwizard.setup.Environment;
 import io.dropwizard.util.Duration;
 import lombok.SneakyThrows;
@@ -72,6 +78,7 @@ import org.apache.curator.framework.CuratorFramework;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 
 import javax.inject.Named;
+import javax.inject.Provider;
 import javax.inject.Singleton;
 import java.io.IOException;
 import java.util.List;
@@ -100,6 +107,12 @@ public class ControllerCoreModule extends AbstractModule {
         return CommonUtils.buildCurator(config);
     }
 
+    @Provides
+    @Singleton
+    public ZkDataCodec zkDataCodec(ZkConfig config, ObjectMapper mapper) {
+        return new ZkDataCodec(mapper, config.getDataFormat());
+    }
+
     @Provides
     @Singleton
     public JobExecutor<Boolean> jobExecutor(final Environment environment) {
@@ -136,6 +149,16 @@ public class ControllerCoreModule extends AbstractModule {
                 .build();
     }
 
+    @Provides
+    @Singleton
+    @Named("EventNotifierPool")
+    public ExecutorService eventNotifierPool(final Environment environment) {
+        return environment.lifecycle().executorService("event-notifier-%d")
+                .minThreads(1)
+                .maxThreads(1)
+                .build();
+    }
+
     @Provides
     @Singleton
     @Named("TaskThreadPool")
@@ -207,6 +230,31 @@ public class ControllerCoreModule extends AbstractModule {
         return environment.getObjectMapper();
     }
 
+    @Provides
+    @Singleton
+    public MetricRegistry metricRegistry(final Environment environment) {
+        return environment.metrics();
+    }
+
+    @Provides
+    @Singleton
+    public EventStore eventStore(
+            final ControllerOptions controllerOptions,
+            final Provider<InMemoryEventStore> inMemoryEventStore,
+            final Provider<PersistentEventStore> persistentEventStore,
+            final Environment environment) {
+        return switch (Objects.requireNonNullElse(controllerOptions.getEventStoreType(),
+                                                  ControllerOptions.DEFAULT_EVENT_STORE_TYPE)) {
+            case IN_MEMORY -> inMemoryEventStore.get();
+            case PERSISTENT -> {
+                //Registered before any of the managed objects that record events, so it gets stopped after them
+                val store = persistentEventStore.get();
+                environment.lifecycle().manage(store);
+                yield store;
+            }
+        };
+    }
+
     @Override
     protected void configure() {
         bind(NodeDataStore.class).to(ZkNodeDataStore.class);
@@ -224,7 +272,6 @@ public class ControllerCoreModule extends AbstractModule {
                 .to(ZKLocalServiceStateDB.class);
         bind(ClusterStateDB.class).to(CachingProxyClusterStateDB.class);
         bind(ClusterStateDB.class).annotatedWith(Names.named("StoredClusterStateDB")).to(ZkClusterStateDB.class);
-        bind(EventStore.class).to(InMemoryEventStore.class);
         bind(InstanceScheduler.class).to(DefaultInstanceScheduler.class);
         bind(InstanceIdGenerator.class).to(RandomInstanceIdGenerator.class);
         bind(ApplicationInstanceTokenManager.class).to(JWTApplicationInstanceTokenManager.class);
@@ -248,6 +295,20 @@ public class ControllerCoreModule extends AbstractModule {
         return Objects.requireNonNullElse(appConfig.getClusterAuth(), ClusterAuthenticationConfig.DEFAULT);
     }
 
+    @Provides
+    @Singleton
+    public ClusterMessagingClient clusterMessagingClient(
+            final AppConfig appConfig,
+            final MetricRegistry metricRegistry,
+            final Environment environment) {
+        val client = new ClusterMessagingClient(
+                Objects.requireNonNullElse(appConfig.getClusterMessaging(), ClusterMessagingConfig.DEFAULT),
+                metricRegistry);
+        //Registered ahead of the managed objects that send messages, so it gets stopped after them
+        environment.lifecycle().manage(new AutoCloseableManager(client));
+        return client;
+    }
+
     @Provides
     @Singleton
     public ApplicationAuthConfig applicationAuthConfig(final AppConfig appConfig) {
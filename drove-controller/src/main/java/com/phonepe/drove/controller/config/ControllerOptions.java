@@ -16,8 +16,13 @@
 
 package com.phonepe.drove.controller.config;
 
+import com.phonepe.drove.controller.event.EventStoreType;
+import com.phonepe.drove.controller.resourcemgmt.NodeSelectionStrategyType;
 import com.phonepe.drove.models.operation.ClusterOpSpec;
+import io.dropwizard.util.DataSize;
+import io.dropwizard.util.DataSizeUnit;
 import io.dropwizard.util.Duration;
+import io.dropwizard.validation.DataSizeRange;
 import io.dropwizard.validation.DurationRange;
 import io.dropwizard.validation.MinDuration;
 import lombok.AllArgsConstructor;
@@ -57,6 +62,13 @@ public class ControllerOptions {
     public static final int DEFAULT_COMPILED_RULE_CACHE_SIZE = 100;
     public static final Duration DEFAULT_STALE_EXECUTOR_AGE = Duration.seconds(45);
     public static final List<String> DEFAULT_RULE_ALLOWED_IMPORT_PACKAGES = List.of();
+    public static final NodeSelectionStrategyType DEFAULT_NODE_SELECTION_STRATEGY = NodeSelectionStrategyType.SHUFFLE;
+    public static final int DEFAULT_STATE_UPDATER_PARALLELISM = 4;
+    public static final EventStoreType DEFAULT_EVENT_STORE_TYPE = EventStoreType.IN_MEMORY;
+    public static final String DEFAULT_EVENT_STORE_PATH = "/var/lib/drove/events";
+    public static final DataSize DEFAULT_EVENT_SEGMENT_SIZE = DataSize.megabytes(16);
+    public static final int DEFAULT_EVENT_BUFFER_SIZE = 65_536;
+    public static final int DEFAULT_MAX_IN_FLIGHT_MESSAGES_PER_EXECUTOR = 8;
 
     public static final ControllerOptions DEFAULT = new ControllerOptions(
             DEFAULT_STALE_CHECK_INTERVAL,
@@ -78,7 +90,14 @@ public class ControllerOptions {
             false,
             DEFAULT_COMPILED_RULE_CACHE_SIZE,
             DEFAULT_RULE_ALLOWED_IMPORT_PACKAGES,
-            DEFAULT_STALE_EXECUTOR_AGE
+            DEFAULT_STALE_EXECUTOR_AGE,
+            DEFAULT_NODE_SELECTION_STRATEGY,
+            DEFAULT_STATE_UPDATER_PARALLELISM,
+            DEFAULT_EVENT_STORE_TYPE,
+            DEFAULT_EVENT_STORE_PATH,
+            DEFAULT_EVENT_SEGMENT_SIZE,
+            DEFAULT_EVENT_BUFFER_SIZE,
+            DEFAULT_MAX_IN_FLIGHT_MESSAGES_PER_EXECUTOR
     );
 
     @MinDuration(value = 1, unit = TimeUnit.MINUTES)
@@ -134,4 +153,26 @@ public class ControllerOptions {
 
     @DurationRange(min = 10, max = 3_600, unit = TimeUnit.SECONDS)
     Duration staleExecutorAge;
+
+    NodeSelectionStrategyType nodeSelectionStrategy;
+
+    @Range(min = 1, max = 64)
+    Integer stateUpdaterParallelism;
+
+    EventStoreType eventStoreType;
+
+    String eventStorePath;
+
+    @DataSizeRange(min = 1, max = 1024, unit = DataSizeUnit.MEGABYTES)
+    DataSize eventSegmentSize;
+
+    @Range(min = 16, max = 4_194_304)
+    Integer eventBufferSize;
+
+    /**
+     * Max number of asynchronous messages that can be outstanding for a single executor. Messages beyond this are
+     * queued on the controller and sent as earlier ones complete.
+     */
+    @Range(min = 1, max = 256)
+    Integer maxInFlightMessagesPerExecutor;
 }
@@ -17,6 +17,7 @@
 package com.phonepe.drove.controller.engine;
 
 import com.phonepe.drove.controller.event.DroveEventBus;
+import com.phonepe.drove.controller.resourcemgmt.DeployableAllocationTracker;
 import com.phonepe.drove.controller.statedb.ApplicationInstanceInfoDB;
 import com.phonepe.drove.controller.statedb.ApplicationStateDB;
 import com.phonepe.drove.controller.statemachine.applications.AppActionContext;
@@ -66,6 +67,7 @@ public class ApplicationLifecycleManagementEngine extends DeployableLifeCycleMan
     @Getter
     private final ApplicationStateDB stateDB;
     private final ApplicationInstanceInfoDB instanceInfoDB;
+    private final DeployableAllocationTracker allocationTracker;
 
     @Inject
     public ApplicationLifecycleManagementEngine(
@@ -73,6 +75,7 @@ public class ApplicationLifecycleManagementEngine extends DeployableLifeCycleMan
                     Action<ApplicationInfo, ApplicationState, AppActionContext, ApplicationOperation>> factory,
             ApplicationStateDB stateDB,
             ApplicationInstanceInfoDB instanceInfoDB,
+            DeployableAllocationTracker allocationTracker,
             ApplicationCommandValidator applicationCommandValidator,
             DroveEventBus droveEventBus,
             ControllerRetrySpecFactory retrySpecFactory,
@@ -81,6 +84,7 @@ public class ApplicationLifecycleManagementEngine extends DeployableLifeCycleMan
         super(factory, applicationCommandValidator, droveEventBus, retrySpecFactory, monitorExecutor, defaultClusterOpSpec);
         this.stateDB = stateDB;
         this.instanceInfoDB = instanceInfoDB;
+        this.allocationTracker = allocationTracker;
     }
 
     @Override
@@ -192,6 +196,7 @@ public class ApplicationLifecycleManagementEngine extends DeployableLifeCycleMan
                 stateMachines.computeIfPresent(appId, (id, sm) -> {
                     stateDB.deleteApplicationState(appId);
                     instanceInfoDB.deleteAllInstancesForApp(appId);
+                    allocationTracker.evictApplication(appId);
                     log.info("Application state machine and instance data cleaned up for: {}", appId);
                     return null;
                 });
@@ -16,6 +16,7 @@
 
 package com.phonepe.drove.controller.engine;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.phonepe.drove.common.model.ControllerMessageType;
 import com.phonepe.drove.common.model.ExecutorMessageType;
 import com.phonepe.drove.common.model.MessageDeliveryStatus;
@@ -24,11 +25,21 @@ import com.phonepe.drove.common.model.controller.ControllerMessage;
 import com.phonepe.drove.common.model.executor.ExecutorMessage;
 import com.phonepe.drove.common.net.MessageSender;
 import com.phonepe.drove.common.net.ThreadedCommunicator;
+import com.phonepe.drove.controller.config.ControllerOptions;
 import com.phonepe.drove.controller.managed.LeadershipEnsurer;
 import lombok.extern.slf4j.Slf4j;
+import lombok.val;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
 
 /**
  *
@@ -36,17 +47,74 @@ import javax.inject.Singleton;
 @Singleton
 @Slf4j
 public class ControllerCommunicator extends ThreadedCommunicator<ExecutorMessageType, ControllerMessageType, ExecutorMessage, ControllerMessage> {
+    //Async messages outstanding for an executor and the ones waiting for a free slot
+    private static final class ExecutorChannel {
+        private int inFlight;
+        private final Queue<Runnable> pending = new ArrayDeque<>();
+    }
+
+    //Sends handed over by completions on the current thread, drained in a loop by the outermost release
+    private static final ThreadLocal<Queue<Runnable>> HANDED_OVER = new ThreadLocal<>();
+
     private final StateUpdater stateUpdater;
     private final LeadershipEnsurer leadershipEnsurer;
+    private final int maxInFlightPerExecutor;
+    private final Map<String, ExecutorChannel> channels = new HashMap<>();
 
     @Inject
     public ControllerCommunicator(
             StateUpdater stateUpdater,
             MessageSender<ExecutorMessageType, ExecutorMessage> messageSender,
-            final LeadershipEnsurer leadershipEnsurer) {
+            final LeadershipEnsurer leadershipEnsurer,
+            final ControllerOptions controllerOptions) {
+        this(stateUpdater,
+             messageSender,
+             leadershipEnsurer,
+             Objects.requireNonNullElse(controllerOptions.getMaxInFlightMessagesPerExecutor(),
+                                        ControllerOptions.DEFAULT_MAX_IN_FLIGHT_MESSAGES_PER_EXECUTOR));
+    }
+
+    @VisibleForTesting
+    ControllerCommunicator(
+            StateUpdater stateUpdater,
+            MessageSender<ExecutorMessageType, ExecutorMessage> messageSender,
+            final LeadershipEnsurer leadershipEnsurer,
+            int maxInFlightPerExecutor) {
         super(messageSender);
         this.stateUpdater = stateUpdater;
         this.leadershipEnsurer = leadershipEnsurer;
+        this.maxInFlightPerExecutor = maxInFlightPerExecutor;
+    }
+
+    /**
+     * Send a message without blocking the caller. At most a configured number of messages are outstanding for an
+     * executor at any point of time, rest get queued and are sent as the earlier ones complete.
+     *
+     * @param message Message to be sent
+     * @return Future that is completed with the response. Failures are reported as a FAILED response.
+     */
+    @Override
+    public CompletableFuture<MessageResponse> sendAsync(ExecutorMessage message) {
+        val executorId = message.getAddress().getExecutorId();
+        val result = new CompletableFuture<MessageResponse>();
+        acquire(executorId, () -> dispatch(executorId, message, result));
+        return result;
+    }
+
+    /**
+     * Send multiple messages concurrently
+     *
+     * @param messages Messages to be sent, can be for the same or different executors
+     * @return Future that is completed with responses in the same order as the messages once all are done
+     */
+    public CompletableFuture<List<MessageResponse>> broadcast(Collection<ExecutorMessage> messages) {
+        val futures = messages.stream()
+                .map(this::sendAsync)
+                .toList();
+        return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> futures.stream()
+                        .map(CompletableFuture::join)
+                        .toList());
     }
 
     @Override
@@ -62,4 +130,85 @@ public class ControllerCommunicator extends ThreadedCommunicator<ExecutorMessage
             return new MessageResponse(message.getHeader(), MessageDeliveryStatus.FAILED);
         }
     }
+
+    @VisibleForTesting
+    int inFlightMessages(final String executorId) {
+        synchronized (channels) {
+            val channel = channels.get(executorId);
+            return null == channel ? 0 : channel.inFlight;
+        }
+    }
+
+    private void dispatch(
+            final String executorId,
+            final ExecutorMessage message,
+            final CompletableFuture<MessageResponse> result) {
+        try {
+            super.sendAsync(message)
+                    .whenComplete((response, error) -> {
+                        release(executorId);
+                        if (null != error) {
+                            log.error("Error sending message to executor " + executorId, error);
+                            result.complete(new MessageResponse(message.getHeader(), MessageDeliveryStatus.FAILED));
+                        }
+                        else {
+                            result.complete(response);
+                        }
+                    });
+        }
+        catch (Exception e) {
+            log.error("Error sending message to executor " + executorId, e);
+            release(executorId);
+            result.complete(new MessageResponse(message.getHeader(), MessageDeliveryStatus.FAILED));
+        }
+    }
+
+    private void acquire(final String executorId, final Runnable sender) {
+        synchronized (channels) {
+            val channel = channels.computeIfAbsent(executorId, id -> new ExecutorChannel());
+            if (channel.inFlight >= maxInFlightPerExecutor) {
+                channel.pending.add(sender);
+                return;
+            }
+            channel.inFlight++;
+        }
+        sender.run();
+    }
+
+    private void release(final String executorId) {
+        final Runnable next;
+        synchronized (channels) {
+            val channel = channels.get(executorId);
+            next = channel.pending.poll();
+            if (null == next && --channel.inFlight == 0) {
+                channels.remove(executorId);
+            }
+        }
+        //Slot is handed over to the next queued message directly
+        if (null != next) {
+            runHandedOver(next);
+        }
+    }
+
+    //Sends that complete synchronously call release() again from within next.run(). Running those inline would
+    //recurse once per queued message and can overflow the stack on a long queue
+    private static void runHandedOver(final Runnable sender) {
+        val handedOver = HANDED_OVER.get();
+        if (null != handedOver) {
+            handedOver.add(sender);
+            return;
+        }
+        val queued = new ArrayDeque<Runnable>();
+        HANDED_OVER.set(queued);
+        try {
+            var next = sender;
+            while (null != next) {
+                next.run();
+                next = queued.poll();
+            }
+        }
+        finally {
+            HANDED_OVER.remove();
+        }
+    }
 }
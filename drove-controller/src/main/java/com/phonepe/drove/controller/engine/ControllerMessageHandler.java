@@ -47,10 +47,39 @@ public class ControllerMessageHandler implements ControllerMessageVisitor<Messag
 
     @Override
     public MessageResponse visit(ExecutorSnapshotMessage executorSnapshot) {
+        stateUpdater.trackSnapshot(executorSnapshot.getNodeData(), executorSnapshot.getSequence());
         stateUpdater.updateClusterResources(List.of(executorSnapshot.getNodeData()));
         return new MessageResponse(executorSnapshot.getHeader(), MessageDeliveryStatus.ACCEPTED);
     }
 
+    @Override
+    public MessageResponse visit(ExecutorSnapshotDeltaMessage executorSnapshotDelta) {
+        return new MessageResponse(
+                executorSnapshotDelta.getHeader(),
+                stateUpdater.applyDelta(executorSnapshotDelta.getExecutorId(),
+                                        executorSnapshotDelta.getSequence(),
+                                        executorSnapshotDelta.getDelta())
+                ? MessageDeliveryStatus.ACCEPTED
+                : MessageDeliveryStatus.REJECTED);
+    }
+
+    @Override
+    public MessageResponse visit(InstanceStateBatchReportMessage instanceStateBatchReport) {
+        //Batch is applied along with the snapshot on the shard for the executor, so it is needed for routing as well
+        if (null == instanceStateBatchReport.getResourceSnapshot()) {
+            log.warn("Rejecting instance state batch without a resource snapshot");
+            return new MessageResponse(instanceStateBatchReport.getHeader(), MessageDeliveryStatus.REJECTED);
+        }
+        return new MessageResponse(
+                instanceStateBatchReport.getHeader(),
+                stateUpdater.updateBatch(instanceStateBatchReport.getResourceSnapshot(),
+                                         instanceStateBatchReport.getInstances(),
+                                         instanceStateBatchReport.getTasks(),
+                                         instanceStateBatchReport.getServiceInstances())
+                ? MessageDeliveryStatus.ACCEPTED
+                : MessageDeliveryStatus.FAILED);
+    }
+
     @Override
     public MessageResponse visit(TaskStateReportMessage taskStateReportMessage) {
         return new MessageResponse(
@@ -17,6 +17,7 @@
 package com.phonepe.drove.controller.engine;
 
 import com.phonepe.drove.controller.event.DroveEventBus;
+import com.phonepe.drove.controller.resourcemgmt.DeployableAllocationTracker;
 import com.phonepe.drove.controller.statedb.LocalServiceStateDB;
 import com.phonepe.drove.controller.statemachine.localservice.LocalServiceActionContext;
 import com.phonepe.drove.controller.statemachine.localservice.LocalServiceStateMachine;
@@ -61,12 +62,14 @@ public class LocalServiceLifecycleManagementEngine extends DeployableLifeCycleMa
         LocalServiceState, LocalServiceActionContext, LocalServiceOperation>> {
 
     private final LocalServiceStateDB stateDB;
+    private final DeployableAllocationTracker allocationTracker;
 
     @Inject
     public LocalServiceLifecycleManagementEngine(
             ActionFactory<LocalServiceInfo, LocalServiceOperation, LocalServiceState, LocalServiceActionContext,
                     Action<LocalServiceInfo, LocalServiceState, LocalServiceActionContext, LocalServiceOperation>> factory,
             LocalServiceStateDB stateDB,
+            DeployableAllocationTracker allocationTracker,
             LocalServiceCommandValidator localServiceCommandValidator,
             DroveEventBus droveEventBus,
             ControllerRetrySpecFactory retrySpecFactory,
@@ -79,6 +82,7 @@ public class LocalServiceLifecycleManagementEngine extends DeployableLifeCycleMa
               monitorExecutor,
               defaultClusterOpSpec);
         this.stateDB = stateDB;
+        this.allocationTracker = allocationTracker;
     }
 
     @Override
@@ -172,6 +176,7 @@ public class LocalServiceLifecycleManagementEngine extends DeployableLifeCycleMa
             stateMachines.computeIfPresent(serviceId, (id, sm) -> {
                 stateDB.removeService(serviceId);
                 stateDB.deleteAllInstancesForService(serviceId);
+                allocationTracker.evictLocalService(serviceId);
                 log.info("Local service state machine and instance data cleaned up for: {}", serviceId);
                 return null;
             });
@@ -22,13 +22,16 @@ import com.phonepe.drove.common.model.ExecutorMessageType;
 import com.phonepe.drove.common.model.MessageDeliveryStatus;
 import com.phonepe.drove.common.model.MessageResponse;
 import com.phonepe.drove.common.model.executor.ExecutorMessage;
+import com.phonepe.drove.common.net.ClusterMessagingClient;
 import com.phonepe.drove.common.net.RemoteHost;
 import com.phonepe.drove.common.net.RemoteMessageSender;
+import com.phonepe.drove.controller.managed.ExecutorTopologyChanges;
+import com.phonepe.drove.controller.resourcemgmt.ClusterResourcesDB;
+import com.phonepe.drove.controller.resourcemgmt.ExecutorHostInfo;
 import com.phonepe.drove.models.info.nodedata.NodeType;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import dev.failsafe.RetryPolicy;
-import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -41,14 +44,19 @@ import java.util.Optional;
 @Slf4j
 @Singleton
 public class RemoteExecutorMessageSender extends RemoteMessageSender<ExecutorMessageType, ExecutorMessage> {
+    private final ClusterResourcesDB clusterResourcesDB;
+    private final ClusterMessagingClient messagingClient;
 
     @Inject
     public RemoteExecutorMessageSender(
             ClusterAuthenticationConfig clusterAuthenticationConfig,
             ObjectMapper mapper,
-            CloseableHttpClient httpClient) {
-        super(mapper, clusterAuthenticationConfig, NodeType.CONTROLLER,
-              httpClient);
+            ClusterMessagingClient messagingClient,
+            ClusterResourcesDB clusterResourcesDB) {
+        super(mapper, clusterAuthenticationConfig, NodeType.CONTROLLER, messagingClient);
+        this.clusterResourcesDB = clusterResourcesDB;
+        this.messagingClient = messagingClient;
+        clusterResourcesDB.onTopologyChange().connect(this::handleTopologyChange);
     }
 
     @Override
@@ -66,4 +74,14 @@ public class RemoteExecutorMessageSender extends RemoteMessageSender<ExecutorMes
         val host = message.getAddress();
         return Optional.of(new RemoteHost(host.getHostname(), host.getPort(), host.getTransportType()));
     }
+
+    private void handleTopologyChange(final ExecutorTopologyChanges changes) {
+        //Per executor latency timers would otherwise pile up as executors get replaced over time
+        changes.removedExecutors()
+                .forEach(executorId -> clusterResourcesDB.lastKnownSnapshot(executorId)
+                        .map(ExecutorHostInfo::getNodeData)
+                        .ifPresent(node -> messagingClient.forgetHost(new RemoteHost(node.getHostname(),
+                                                                                     node.getPort(),
+                                                                                     node.getTransportType()))));
+    }
 }
@@ -16,13 +16,22 @@
 
 package com.phonepe.drove.controller.engine;
 
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.annotations.VisibleForTesting;
+import com.phonepe.drove.common.discovery.Constants;
+import com.phonepe.drove.common.discovery.NodeDataDeltaUtils;
 import com.phonepe.drove.common.discovery.NodeDataStore;
+import com.phonepe.drove.common.model.controller.ExecutorNodeDataDelta;
+import com.phonepe.drove.controller.config.ControllerOptions;
 import com.phonepe.drove.controller.event.DroveEventBus;
+import com.phonepe.drove.controller.metrics.ClusterMetricsRegistry;
 import com.phonepe.drove.controller.statedb.LocalServiceStateDB;
 import com.phonepe.drove.models.events.events.DroveInstanceStateChangeEvent;
 import com.phonepe.drove.models.events.events.DroveLocalServiceInstanceStateChangeEvent;
 import com.phonepe.drove.models.events.events.DroveTaskStateChangeEvent;
 import com.phonepe.drove.controller.resourcemgmt.ClusterResourcesDB;
+import com.phonepe.drove.controller.resourcemgmt.DeployableAllocationTracker;
 import com.phonepe.drove.controller.statedb.ApplicationInstanceInfoDB;
 import com.phonepe.drove.controller.statedb.TaskDB;
 import com.phonepe.drove.controller.utils.ControllerUtils;
@@ -39,16 +48,26 @@ import lombok.val;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
+import static com.phonepe.drove.controller.metrics.ClusterMetricNames.StateUpdates.*;
 import static com.phonepe.drove.controller.utils.EventUtils.instanceMetadata;
 
 /**
@@ -57,18 +76,83 @@ import static com.phonepe.drove.controller.utils.EventUtils.instanceMetadata;
 @Slf4j
 @Singleton
 public class StateUpdater {
+    private static final Duration FULL_RECONCILIATION_INTERVAL = Duration.ofMinutes(2);
+
     private final ClusterResourcesDB resourcesDB;
     private final TaskDB taskDB;
     private final ApplicationInstanceInfoDB instanceInfoDB;
     private final LocalServiceStateDB localServiceStateDB;
     private final NodeDataStore nodeDataStore;
+    private final DeployableAllocationTracker allocationTracker;
+    private final long nodeDataRewriteIntervalMs;
 
     private final DroveEventBus droveEventBus;
 
-    private final PriorityBlockingQueue<UpdateData> updates
-            = new PriorityBlockingQueue<>(1024, Comparator.comparing(d -> d.getPriority().getValue()));
+    //Updates are sharded by executor id. Updates for an executor always land on the same queue and are processed in
+    //order by the single worker draining it, while updates for different executors are processed in parallel.
+    private final List<Shard> shards;
+
+    private final ExecutorService executor;
+
+    private final AtomicLong updateSequence = new AtomicLong();
+
+    //Sequence number of the latest snapshot queued for an executor. Older snapshots are dropped when picked up.
+    private final Map<String, Long> latestSnapshots = new ConcurrentHashMap<>();
+
+    private final Meter droppedSnapshots;
+
+    //Content fingerprint of the last processed node data for every executor
+    private final Map<String, NodeFingerprint> nodeFingerprints = new ConcurrentHashMap<>();
+
+    /**
+     * Fingerprint of node data content. Does not include the update time.
+     *
+     * @param hash         Hash over executor state, resources and ids, states and update times of all instances
+     * @param writtenAt    Update time of the node data that was last written to the node data store
+     * @param reconciledAt Update time of the node data that was last compared against the state DBs
+     */
+    private record NodeFingerprint(long hash, long writtenAt, long reconciledAt) {
+    }
+
+    //Last known node data for executors sending sequenced updates. Used as base to apply deltas on.
+    private final Map<String, SequencedNodeData> sequencedNodes = new ConcurrentHashMap<>();
+
+    private record SequencedNodeData(long sequence, ExecutorNodeData nodeData) {
+    }
 
-    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    /**
+     * Queue of updates for a set of executors. Also keeps track of when the pending updates were queued, so that the
+     * lag can be reported without walking the queue.
+     */
+    private final class Shard {
+        private final PriorityBlockingQueue<UpdateData> updates = new PriorityBlockingQueue<>(
+                1024,
+                Comparator.<UpdateData>comparingInt(d -> d.getPriority().getValue())
+                        .thenComparingLong(UpdateData::getSequence));
+        //Sequence number to enqueue time of updates not picked up yet. Sequence numbers are assigned in the order
+        //updates are created, so the first entry is the oldest pending update irrespective of priority.
+        private final ConcurrentSkipListMap<Long, Long> queuedAt = new ConcurrentSkipListMap<>();
+
+        boolean add(final UpdateData update) {
+            queuedAt.put(update.getSequence(), update.getQueuedAt());
+            return updates.add(update);
+        }
+
+        UpdateData take() throws InterruptedException {
+            val update = updates.take();
+            queuedAt.remove(update.getSequence());
+            return update;
+        }
+
+        int size() {
+            return updates.size();
+        }
+
+        long oldestQueuedAt() {
+            val oldest = queuedAt.firstEntry();
+            return null == oldest ? Long.MAX_VALUE : oldest.getValue();
+        }
+    }
 
     @Getter
     private abstract class UpdateData {
@@ -91,11 +175,15 @@ public class StateUpdater {
 
             T visit(InstanceUpdateData instanceData);
 
+            T visit(BatchInstanceUpdateData batchData);
+
             T visit(RemoveExecutorUpdateData removeExecutors);
         }
 
         private final String id;
         private final Priority priority;
+        private final long sequence = updateSequence.incrementAndGet();
+        private final long queuedAt = System.currentTimeMillis();
 
         abstract <T> T accept(final UpdateDataVisitor<T> visitor);
 
@@ -163,14 +251,67 @@ public class StateUpdater {
 
     }
 
+    @Getter
+    private class BatchInstanceUpdateData extends UpdateData {
+
+        private final ExecutorResourceSnapshot snapshot;
+        private final List<InstanceInfo> instances;
+        private final List<TaskInfo> tasks;
+        private final List<LocalServiceInstanceInfo> serviceInstances;
+
+        BatchInstanceUpdateData(
+                ExecutorResourceSnapshot snapshot,
+                List<InstanceInfo> instances,
+                List<TaskInfo> tasks,
+                List<LocalServiceInstanceInfo> serviceInstances) {
+            super("BatchInstanceUpdate-" + Priority.HIGH
+                          + "-" + System.currentTimeMillis()
+                          + "-" + (instances.size() + tasks.size() + serviceInstances.size()),
+                  Priority.HIGH);
+            this.snapshot = snapshot;
+            this.instances = instances;
+            this.tasks = tasks;
+            this.serviceInstances = serviceInstances;
+        }
+
+        @Override
+        <T> T accept(UpdateDataVisitor<T> visitor) {
+            return visitor.visit(this);
+        }
+    }
+
     private class UpdateHandler implements Callable<Void>, UpdateData.UpdateDataVisitor<Boolean> {
 
+        private final Shard updates;
+
+        private UpdateHandler(Shard updates) {
+            this.updates = updates;
+        }
+
         @Override
         public Boolean visit(ExecutorSnapshotUpdateData executorSnapshot) {
-            val children = executorSnapshot.getNodes();
+            val children = executorSnapshot.getNodes()
+                    .stream()
+                    .filter(node -> isLatestSnapshot(node, executorSnapshot.getSequence()))
+                    .toList();
+            if (children.isEmpty()) {
+                log.debug("All snapshots in {} have been superseded", executorSnapshot.getId());
+                return false;
+            }
+            val changed = new ArrayList<ExecutorNodeData>();
+            val unchanged = new ArrayList<ExecutorNodeData>();
+            children.forEach(node -> (hasChanged(node) ? changed : unchanged).add(node));
+            if (!unchanged.isEmpty()) {
+                log.trace("Data for {} executors is unchanged", unchanged.size());
+                unchanged.forEach(this::rewriteNodeDataIfDue);
+                resourcesDB.touch(unchanged);
+            }
+            if (changed.isEmpty()) {
+                return false;
+            }
             var hasAnyData = false;
             var anyDataUpdated = false;
-            for (val node : children) {
+            for (val node : changed) {
                 val instances = node.getInstances();
                 if (instances != null && !instances.isEmpty()) {
                     hasAnyData = true;
@@ -189,14 +330,40 @@ public class StateUpdater {
                     anyDataUpdated = updateAllServiceInstances(anyDataUpdated, serviceInstances);
                 }
                 nodeDataStore.updateNodeData(node);
+                val updatedAt = node.getUpdated().getTime();
+                nodeFingerprints.put(node.getState().getExecutorId(),
+                                     new NodeFingerprint(fingerprint(node), updatedAt, updatedAt));
             }
             if (!hasAnyData || anyDataUpdated) {
-                resourcesDB.update(children);
+                resourcesDB.update(changed);
                 return true;
             }
             return false;
         }
 
+        //Unchanged data is still reconciled once in a while to pick up changes made to the state DBs by others
+        private boolean hasChanged(ExecutorNodeData node) {
+            val existing = nodeFingerprints.get(node.getState().getExecutorId());
+            return null == existing
+                    || existing.hash() != fingerprint(node)
+                    || node.getUpdated().getTime() - existing.reconciledAt() >= FULL_RECONCILIATION_INTERVAL.toMillis();
+        }
+
+        /*
+         * Node data in the store needs to be rewritten periodically even if unchanged. Otherwise executors that send
+         * data over RPC would start looking stale to the executor observer.
+         */
+        private void rewriteNodeDataIfDue(ExecutorNodeData node) {
+            val executorId = node.getState().getExecutorId();
+            val existing = nodeFingerprints.get(executorId);
+            if (node.getUpdated().getTime() - existing.writtenAt() >= nodeDataRewriteIntervalMs) {
+                nodeDataStore.updateNodeData(node);
+                nodeFingerprints.put(executorId, new NodeFingerprint(existing.hash(),
+                                                                     node.getUpdated().getTime(),
+                                                                     existing.reconciledAt()));
+            }
+        }
+
 
         @Override
         public Boolean visit(InstanceUpdateData instanceData) {
@@ -226,6 +393,20 @@ public class StateUpdater {
             return updated;
         }
 
+        @Override
+        public Boolean visit(BatchInstanceUpdateData batchData) {
+            var updated = updateAllAppInstances(false, batchData.getInstances());
+            updated = updateAllTasks(updated, batchData.getTasks());
+            updated = updateAllServiceInstances(updated, batchData.getServiceInstances());
+            if (updated && null != batchData.getSnapshot()) {
+                resourcesDB.update(batchData.getSnapshot());
+            }
+            else {
+                log.debug("Resource update skipped as all instance info in batch was ignored or no snapshot was sent");
+            }
+            return updated;
+        }
+
         @Override
         public Boolean visit(RemoveExecutorUpdateData removeExecutors) {
             val executorIds = removeExecutors.getExecutorIds();
@@ -242,6 +423,8 @@ public class StateUpdater {
                                                 localServiceInstance.getServiceId(), localServiceInstance.getInstanceId()));
                             });
             resourcesDB.remove(executorIds);
+            allocationTracker.removeExecutors(executorIds);
+            executorIds.forEach(nodeFingerprints::remove);
             return true;
         }
 
@@ -270,6 +453,18 @@ public class StateUpdater {
             }
         }
 
+        private boolean isLatestSnapshot(ExecutorNodeData node, long sequence) {
+            val executorId = node.getState().getExecutorId();
+            val latest = latestSnapshots.get(executorId);
+            if (null != latest && latest > sequence) {
+                log.trace("Dropping stale snapshot for executor {}. A newer one is queued", executorId);
+                droppedSnapshots.mark();
+                return false;
+            }
+            latestSnapshots.remove(executorId, sequence);
+            return true;
+        }
+
         private boolean updateAllTasks(boolean anyDataUpdated, List<TaskInfo> tasks) {
             for (val taskInfo : tasks) {
                 if (updateTask(taskInfo)) {
@@ -308,6 +503,9 @@ public class StateUpdater {
                 return false;
             }
             val accepted = instanceInfoDB.updateInstanceState(appId, instanceId, instanceInfo);
+            if (accepted) {
+                allocationTracker.update(instanceInfo);
+            }
             if (accepted && (null == existing || !existing.getState().equals(instanceInfo.getState()))) {
                 droveEventBus.publish(new DroveInstanceStateChangeEvent(instanceMetadata(instanceInfo)));
             }
@@ -325,6 +523,9 @@ public class StateUpdater {
                 return false;
             }
             val accepted = taskDB.updateTask(sourceAppName, taskId, instanceInfo);
+            if (accepted) {
+                allocationTracker.update(instanceInfo);
+            }
             if (accepted && (null == existing || !existing.getState().equals(instanceInfo.getState()))) {
                 droveEventBus.publish(new DroveTaskStateChangeEvent(instanceMetadata(instanceInfo)));
             }
@@ -342,6 +543,9 @@ public class StateUpdater {
                 return false;
             }
             val accepted = localServiceStateDB.updateInstanceState(serviceId, instanceId, instanceInfo);
+            if (accepted) {
+                allocationTracker.update(instanceInfo);
+            }
             if (accepted && (null == existing || !existing.getState().equals(instanceInfo.getState()))) {
                 droveEventBus.publish(new DroveLocalServiceInstanceStateChangeEvent(instanceMetadata(instanceInfo)));
             }
@@ -356,14 +560,88 @@ public class StateUpdater {
             ApplicationInstanceInfoDB instanceInfoDB,
             LocalServiceStateDB localServiceStateDB,
             NodeDataStore nodeDataStore,
+            DeployableAllocationTracker allocationTracker,
+            DroveEventBus droveEventBus,
+            ControllerOptions controllerOptions,
+            ClusterMetricsRegistry metricsRegistry) {
+        this(resourcesDB,
+             taskDB,
+             instanceInfoDB,
+             localServiceStateDB,
+             nodeDataStore,
+             allocationTracker,
+             droveEventBus,
+             Objects.requireNonNullElse(controllerOptions.getStateUpdaterParallelism(),
+                                        ControllerOptions.DEFAULT_STATE_UPDATER_PARALLELISM),
+             Objects.requireNonNullElse(controllerOptions.getStaleExecutorAge(),
+                                        ControllerOptions.DEFAULT_STALE_EXECUTOR_AGE)
+                     .toJavaDuration(),
+             metricsRegistry);
+    }
+
+    @VisibleForTesting
+    StateUpdater(
+            ClusterResourcesDB resourcesDB,
+            TaskDB taskDB,
+            ApplicationInstanceInfoDB instanceInfoDB,
+            LocalServiceStateDB localServiceStateDB,
+            NodeDataStore nodeDataStore,
+            DeployableAllocationTracker allocationTracker,
             DroveEventBus droveEventBus) {
+        this(resourcesDB,
+             taskDB,
+             instanceInfoDB,
+             localServiceStateDB,
+             nodeDataStore,
+             allocationTracker,
+             droveEventBus,
+             ControllerOptions.DEFAULT_STATE_UPDATER_PARALLELISM,
+             ControllerOptions.DEFAULT_STALE_EXECUTOR_AGE.toJavaDuration(),
+             new ClusterMetricsRegistry(new MetricRegistry()));
+    }
+
+    @VisibleForTesting
+    StateUpdater(
+            ClusterResourcesDB resourcesDB,
+            TaskDB taskDB,
+            ApplicationInstanceInfoDB instanceInfoDB,
+            LocalServiceStateDB localServiceStateDB,
+            NodeDataStore nodeDataStore,
+            DeployableAllocationTracker allocationTracker,
+            DroveEventBus droveEventBus,
+            int parallelism,
+            Duration staleExecutorAge,
+            ClusterMetricsRegistry metricsRegistry) {
         this.resourcesDB = resourcesDB;
         this.taskDB = taskDB;
         this.instanceInfoDB = instanceInfoDB;
         this.localServiceStateDB = localServiceStateDB;
         this.nodeDataStore = nodeDataStore;
+        this.allocationTracker = allocationTracker;
         this.droveEventBus = droveEventBus;
-        this.executor.submit(new UpdateHandler());
+        this.nodeDataRewriteIntervalMs = nodeDataRewriteInterval(staleExecutorAge).toMillis();
+        this.shards = IntStream.range(0, parallelism)
+                .mapToObj(i -> new Shard())
+                .toList();
+        this.executor = Executors.newFixedThreadPool(parallelism);
+        this.shards.forEach(shard -> executor.submit(new UpdateHandler(shard)));
+        this.droppedSnapshots = metricsRegistry.meter(CLUSTER_STATE_UPDATES_DROPPED_SNAPSHOTS);
+        metricsRegistry.gauge(CLUSTER_STATE_UPDATES_QUEUED, this::queueDepth);
+        metricsRegistry.gauge(CLUSTER_STATE_UPDATES_LAG, this::lag);
+    }
+
+    /**
+     * Unchanged node data needs to be in the store before the executor observer considers it stale. Data arrives every
+     * {@link Constants#EXECUTOR_REFRESH_INTERVAL}, so a write is skipped only if the next refresh would still be
+     * within the stale age.
+     *
+     * @param staleExecutorAge Age after which executor data is considered stale
+     * @return Minimum gap between writes of unchanged node data
+     */
+    @VisibleForTesting
+    static Duration nodeDataRewriteInterval(final Duration staleExecutorAge) {
+        val interval = staleExecutorAge.minus(Constants.EXECUTOR_REFRESH_INTERVAL);
+        return interval.isNegative() ? Duration.ZERO : interval;
     }
 
     public void updateClusterResources(final List<ExecutorNodeData> children) {
@@ -371,22 +649,150 @@ public class StateUpdater {
             log.warn("No children found from ZK.");
             return;
         }
-        updates.add(new ExecutorSnapshotUpdateData(children));
+        children.stream()
+                .collect(Collectors.groupingBy(node -> shardFor(node.getState().getExecutorId())))
+                .forEach((shard, nodes) -> {
+                    val update = new ExecutorSnapshotUpdateData(nodes);
+                    nodes.forEach(node -> latestSnapshots.merge(node.getState().getExecutorId(),
+                                                                update.getSequence(),
+                                                                Math::max));
+                    shards.get(shard).add(update);
+                });
+    }
+
+    /**
+     * Track node data received from an executor so that subsequent deltas can be applied on it. Snapshots without a
+     * sequence number clear any tracked data, so that deltas are rejected till the next sequenced snapshot.
+     *
+     * @param nodeData Full node data received from executor
+     * @param sequence Sequence number of the snapshot. Zero if executor is not sending deltas.
+     */
+    public void trackSnapshot(final ExecutorNodeData nodeData, long sequence) {
+        if (null == nodeData || null == nodeData.getState()) {
+            return;
+        }
+        val executorId = nodeData.getState().getExecutorId();
+        if (sequence > 0) {
+            sequencedNodes.put(executorId, new SequencedNodeData(sequence, nodeData));
+        }
+        else {
+            sequencedNodes.remove(executorId);
+        }
+    }
+
+    /**
+     * Apply changes sent by an executor on the last known node data for it and queue the result for update.
+     *
+     * @param executorId Executor that sent the delta
+     * @param sequence   Sequence number for the delta
+     * @param delta      Changes since the update with the previous sequence number
+     * @return true if applied, false if a full snapshot is needed from the executor to resync
+     */
+    public boolean applyDelta(final String executorId, long sequence, final ExecutorNodeDataDelta delta) {
+        val applied = sequencedNodes.compute(executorId, (id, existing) -> {
+            if (null == existing || existing.sequence() + 1 != sequence) {
+                log.warn("Sequence gap for executor {}. Expected: {} Received: {}. Resync needed.",
+                         id, null == existing ? "snapshot" : existing.sequence() + 1, sequence);
+                return null;
+            }
+            return new SequencedNodeData(sequence, NodeDataDeltaUtils.apply(existing.nodeData(), delta));
+        });
+        if (null == applied) {
+            return false;
+        }
+        updateClusterResources(List.of(applied.nodeData()));
+        return true;
     }
 
     public void remove(Collection<String> executorIds) {
-        updates.add(new RemoveExecutorUpdateData(executorIds));
+        executorIds.forEach(sequencedNodes::remove);
+        executorIds.stream()
+                .collect(Collectors.groupingBy(this::shardFor))
+                .forEach((shard, ids) -> shards.get(shard).add(new RemoveExecutorUpdateData(ids)));
     }
 
     public boolean updateSingle(final ExecutorResourceSnapshot snapshot, final InstanceInfo instanceInfo) {
-        return updates.add(new InstanceUpdateData(snapshot, instanceInfo));
+        return shard(instanceInfo.getExecutorId()).add(new InstanceUpdateData(snapshot, instanceInfo));
     }
 
     public boolean updateSingle(final ExecutorResourceSnapshot snapshot, final TaskInfo instanceInfo) {
-        return updates.add(new InstanceUpdateData(snapshot, instanceInfo));
+        return shard(instanceInfo.getExecutorId()).add(new InstanceUpdateData(snapshot, instanceInfo));
     }
 
     public boolean updateSingle(final ExecutorResourceSnapshot snapshot, final LocalServiceInstanceInfo instanceInfo) {
-        return updates.add(new InstanceUpdateData(snapshot, instanceInfo));
+        return shard(instanceInfo.getExecutorId()).add(new InstanceUpdateData(snapshot, instanceInfo));
+    }
+
+    /**
+     * Queue state changes reported together by an executor. These are applied as a single unit with one resource
+     * update using the provided snapshot.
+     *
+     * @param snapshot         Resource snapshot of the executor after all the changes
+     * @param instances        Application instances that changed
+     * @param tasks            Tasks that changed
+     * @param serviceInstances Local service instances that changed
+     * @return true if queued
+     */
+    public boolean updateBatch(
+            final ExecutorResourceSnapshot snapshot,
+            final List<InstanceInfo> instances,
+            final List<TaskInfo> tasks,
+            final List<LocalServiceInstanceInfo> serviceInstances) {
+        return shard(null == snapshot ? null : snapshot.getExecutorId())
+                .add(new BatchInstanceUpdateData(snapshot, instances, tasks, serviceInstances));
+    }
+
+    private static long fingerprint(ExecutorNodeData node) {
+        long hash = Objects.hash(node.getHostname(),
+                                 node.getPort(),
+                                 node.getTransportType(),
+                                 node.getState(),
+                                 node.getTags(),
+                                 node.getMetadata(),
+                                 node.getExecutorState());
+        hash = 31 * hash + contentHash(node.getInstances(),
+                                       instance -> Objects.hash(instance.getInstanceId(),
+                                                                instance.getState(),
+                                                                instance.getUpdated()));
+        hash = 31 * hash + contentHash(node.getTasks(),
+                                       task -> Objects.hash(task.getInstanceId(),
+                                                            task.getState(),
+                                                            task.getUpdated()));
+        return 31 * hash + contentHash(node.getServiceInstances(),
+                                       instance -> Objects.hash(instance.getInstanceId(),
+                                                                instance.getState(),
+                                                                instance.getUpdated()));
+    }
+
+    //Independent of the order in which the executor lists the instances
+    private static <T> long contentHash(List<T> items, ToIntFunction<T> hasher) {
+        if (null == items) {
+            return 0;
+        }
+        var hash = (long) items.size();
+        for (val item : items) {
+            hash += 0x9E3779B97F4A7C15L * hasher.applyAsInt(item);
+        }
+        return hash;
+    }
+
+    private int shardFor(String executorId) {
+        return null == executorId ? 0 : Math.floorMod(executorId.hashCode(), shards.size());
+    }
+
+    private Shard shard(String executorId) {
+        return shards.get(shardFor(executorId));
+    }
+
+    private int queueDepth() {
+        return shards.stream().mapToInt(Shard::size).sum();
+    }
+
+    private long lag() {
+        val oldest = shards.stream()
+                .mapToLong(Shard::oldestQueuedAt)
+                .min()
+                .orElse(Long.MAX_VALUE);
+        return oldest == Long.MAX_VALUE ? 0 : Math.max(0, System.currentTimeMillis() - oldest);
     }
 }
@@ -29,6 +29,7 @@ import com.phonepe.drove.controller.engine.ControllerCommunicator;
 import com.phonepe.drove.controller.engine.ControllerRetrySpecFactory;
 import com.phonepe.drove.controller.engine.InstanceIdGenerator;
 import com.phonepe.drove.controller.resourcemgmt.AllocatedExecutorNode;
+import com.phonepe.drove.controller.resourcemgmt.InstancePlacement;
 import com.phonepe.drove.controller.resourcemgmt.InstanceScheduler;
 import com.phonepe.drove.controller.statedb.ApplicationInstanceInfoDB;
 import com.phonepe.drove.controller.utils.ControllerUtils;
@@ -45,6 +46,8 @@ import dev.failsafe.TimeoutExceededException;
 
 import java.util.Date;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static com.phonepe.drove.common.CommonUtils.waitForAction;
 import static com.phonepe.drove.controller.utils.ControllerUtils.ensureInstanceState;
@@ -68,6 +71,10 @@ public class StartSingleInstanceJob implements Job<Boolean> {
     private final ApplicationInstanceTokenManager tokenManager;
     private final HttpCaller httpCaller;
 
+    //Placement computed upfront by the caller. Used for the first attempt only if it is still valid by then,
+    //retries get scheduled afresh
+    private final AtomicReference<InstancePlacement> precomputedPlacement;
+
     @SuppressWarnings("java:S107")
     public StartSingleInstanceJob(
             ApplicationSpec applicationSpec,
@@ -80,6 +87,32 @@ public class StartSingleInstanceJob implements Job<Boolean> {
             InstanceIdGenerator instanceIdGenerator,
             ApplicationInstanceTokenManager tokenManager,
             HttpCaller httpCaller) {
+        this(applicationSpec,
+             clusterOpSpec,
+             scheduler,
+             instanceInfoDB,
+             communicator,
+             schedulingSessionId,
+             retrySpecFactory,
+             instanceIdGenerator,
+             tokenManager,
+             httpCaller,
+             null);
+    }
+
+    @SuppressWarnings("java:S107")
+    public StartSingleInstanceJob(
+            ApplicationSpec applicationSpec,
+            ClusterOpSpec clusterOpSpec,
+            InstanceScheduler scheduler,
+            ApplicationInstanceInfoDB instanceInfoDB,
+            ControllerCommunicator communicator,
+            String schedulingSessionId,
+            ControllerRetrySpecFactory retrySpecFactory,
+            InstanceIdGenerator instanceIdGenerator,
+            ApplicationInstanceTokenManager tokenManager,
+            HttpCaller httpCaller,
+            InstancePlacement precomputedPlacement) {
         this.applicationSpec = applicationSpec;
         this.clusterOpSpec = clusterOpSpec;
         this.scheduler = scheduler;
@@ -90,6 +123,7 @@ public class StartSingleInstanceJob implements Job<Boolean> {
         this.instanceIdGenerator = instanceIdGenerator;
         this.tokenManager = tokenManager;
         this.httpCaller = httpCaller;
+        this.precomputedPlacement = new AtomicReference<>(precomputedPlacement);
     }
 
     @Override
@@ -99,7 +133,8 @@ public class StartSingleInstanceJob implements Job<Boolean> {
 
     @Override
     public void cancel() {
-        //Nothing to do here
+        //Job might get cancelled or skipped before it gets to use the placement
+        releaseUnusedPlacement();
     }
 
     @Override
@@ -131,14 +166,23 @@ public class StartSingleInstanceJob implements Job<Boolean> {
         catch (Exception e) {
             log.error("Could not allocate an instance for " + appId + " after retires.", e);
         }
+        finally {
+            releaseUnusedPlacement();
+        }
         return false;
     }
 
     private boolean startInstance(ApplicationSpec applicationSpec, ClusterOpSpec clusterOpSpec) {
         val appId = ControllerUtils.deployableObjectId(applicationSpec);
-        val instanceId = instanceIdGenerator.generate(applicationSpec);
+        val placement = precomputedPlacement.getAndSet(null);
+        val instanceId = null != placement
+                         ? placement.getInstanceId()
+                         : instanceIdGenerator.generate(applicationSpec);
 
-        val node = scheduler.schedule(schedulingSessionId, instanceId, applicationSpec)
+        //Precomputed placement might have gone stale while this job was waiting to run
+        val node = Optional.ofNullable(placement)
+                .flatMap(precomputed -> scheduler.claimPlacement(schedulingSessionId, precomputed))
+                .or(() -> scheduler.schedule(schedulingSessionId, instanceId, applicationSpec))
                 .orElse(null);
         if (null == node) {
             log.warn("No node found in the cluster that can provide required resources" +
@@ -205,6 +249,15 @@ public class StartSingleInstanceJob implements Job<Boolean> {
         return successful;
     }
 
+    private void releaseUnusedPlacement() {
+        val placement = precomputedPlacement.getAndSet(null);
+        if (null != placement) {
+            log.info("Releasing unused placement for instance {} on {}",
+                     placement.getInstanceId(), placement.getNode().getExecutorId());
+            scheduler.discardAllocation(schedulingSessionId, placement.getInstanceId(), placement.getNode());
+        }
+    }
+
     private String generateAppInstanceToken(AllocatedExecutorNode node, String appId, String instanceId) {
         return tokenManager.generate(new DroveApplicationInstanceInfo(
                 appId,
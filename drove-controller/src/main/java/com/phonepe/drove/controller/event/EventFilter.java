@@ -0,0 +1,111 @@
+/*
+ *  Copyright (c) 2024 Original Author(s), PhonePe India Pvt. Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.phonepe.drove.controller.event;
+
+import com.phonepe.drove.models.events.DroveEvent;
+import com.phonepe.drove.models.events.DroveEventType;
+import lombok.val;
+
+import java.util.*;
+
+/**
+ * Server side filter for events read from the {@link EventStore}. Empty constraints match all events.
+ *
+ * @param types         Event types to be matched
+ * @param deployableIds App or local service ids to be matched
+ * @param tags          Metadata tags and values that all need to be present on the event
+ */
+@SuppressWarnings("rawtypes")
+public record EventFilter(Set<DroveEventType> types, Set<String> deployableIds, Map<String, String> tags) {
+    public static final EventFilter ALL = new EventFilter(Set.of(), Set.of(), Map.of());
+
+    /**
+     * Metadata tags that carry the id of the app or local service an event is about
+     */
+    private static final Set<String> DEPLOYABLE_ID_TAGS = Set.of("APP_ID", "LOCAL_SERVICE_ID", "SERVICE_ID");
+
+    public EventFilter {
+        types = null == types ? Set.of() : Set.copyOf(types);
+        deployableIds = null == deployableIds ? Set.of() : Set.copyOf(deployableIds);
+        tags = null == tags ? Map.of() : Map.copyOf(tags);
+    }
+
+    /**
+     * Build a filter from api parameters
+     *
+     * @param types         Event types
+     * @param deployableIds App or local service ids
+     * @param tagMatchers   Metadata matchers of the form TAG:value
+     * @return Filter
+     */
+    public static EventFilter of(Set<DroveEventType> types, Set<String> deployableIds, Set<String> tagMatchers) {
+        val tags = new HashMap<String, String>();
+        Objects.<Set<String>>requireNonNullElse(tagMatchers, Set.of())
+                .forEach(matcher -> {
+                    val separator = matcher.indexOf(':');
+                    if (separator <= 0) {
+                        throw new IllegalArgumentException("Tag matcher needs to be of the form TAG:value: " + matcher);
+                    }
+                    tags.put(matcher.substring(0, separator), matcher.substring(separator + 1));
+                });
+        return new EventFilter(types, deployableIds, tags);
+    }
+
+    /**
+     * @return true if the filter has constraints that can be served from an index
+     */
+    public boolean isIndexed() {
+        return !types.isEmpty() || !deployableIds.isEmpty();
+    }
+
+    public boolean matchesIndexed(DroveEventType type, String deployableId) {
+        return (types.isEmpty() || types.contains(type))
+                && (deployableIds.isEmpty() || (null != deployableId && deployableIds.contains(deployableId)));
+    }
+
+    public boolean matches(DroveEvent event) {
+        return matchesIndexed(event.getType(), deployableId(event)) && matchesTags(event);
+    }
+
+    public boolean matchesTags(DroveEvent event) {
+        if (tags.isEmpty()) {
+            return true;
+        }
+        val metadata = Objects.<Map<?, ?>>requireNonNullElse(event.getMetadata(), Map.of());
+        val values = new HashMap<String, String>();
+        metadata.forEach((key, value) -> values.put(String.valueOf(key), String.valueOf(value)));
+        return tags.entrySet()
+                .stream()
+                .allMatch(tag -> tag.getValue().equals(values.get(tag.getKey())));
+    }
+
+    /**
+     * Id of the app or local service the event relates to
+     *
+     * @param event Event
+     * @return Deployable id or null if the event is not related to an app or a local service
+     */
+    public static String deployableId(DroveEvent event) {
+        val metadata = Objects.<Map<?, ?>>requireNonNullElse(event.getMetadata(), Map.of());
+        for (val entry : metadata.entrySet()) {
+            if (null != entry.getValue() && DEPLOYABLE_ID_TAGS.contains(String.valueOf(entry.getKey()))) {
+                return String.valueOf(entry.getValue());
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ *  Copyright (c) 2024 Original Author(s), PhonePe India Pvt. Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.phonepe.drove.controller.event;
+
+import com.google.common.collect.Iterators;
+import com.google.common.collect.PeekingIterator;
+import com.phonepe.drove.models.events.DroveEventType;
+import lombok.val;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Inverted index from event type and deployable id to event offsets. Safe for concurrent use.
+ */
+class EventIndex {
+    private final Map<DroveEventType, NavigableSet<Long>> byType = new EnumMap<>(DroveEventType.class);
+    private final Map<String, NavigableSet<Long>> byDeployableId = new ConcurrentHashMap<>();
+
+    EventIndex() {
+        //Populated upfront so that the map itself is never modified later
+        for (val type : DroveEventType.values()) {
+            byType.put(type, new ConcurrentSkipListSet<>());
+        }
+    }
+
+    void add(long offset, DroveEventType type, String deployableId) {
+        byType.get(type).add(offset);
+        if (null != deployableId) {
+            byDeployableId.compute(deployableId, (id, offsets) -> {
+                val existing = null == offsets ? new ConcurrentSkipListSet<Long>() : offsets;
+                existing.add(offset);
+                return existing;
+            });
+        }
+    }
+
+    /**
+     * Drop all entries for offsets below the provided one
+     */
+    void removeBefore(long offset) {
+        byType.values().forEach(offsets -> offsets.headSet(offset).clear());
+        byDeployableId.keySet()
+                .forEach(deployableId -> byDeployableId.computeIfPresent(deployableId, (id, offsets) -> {
+                    offsets.headSet(offset).clear();
+                    return offsets.isEmpty() ? null : offsets;
+                }));
+    }
+
+    /**
+     * Offsets of events that match the indexed part of the filter
+     *
+     * @param filter     Filter with at least one indexed constraint
+     * @param fromOffset Lowest offset of interest
+     * @return Matching offsets >= fromOffset in ascending order
+     */
+    Iterator<Long> candidates(EventFilter filter, long fromOffset) {
+        val byTypes = filter.types().isEmpty()
+                      ? null
+                      : union(filter.types().stream().map(byType::get).toList(), fromOffset);
+        val byIds = filter.deployableIds().isEmpty()
+                    ? null
+                    : union(filter.deployableIds()
+                                    .stream()
+                                    .map(id -> byDeployableId.getOrDefault(id, Collections.emptyNavigableSet()))
+                                    .toList(),
+                            fromOffset);
+        if (null == byTypes) {
+            return Objects.requireNonNull(byIds, "Filter does not have any indexed constraint");
+        }
+        return null == byIds ? byTypes : intersection(byTypes, byIds);
+    }
+
+    private static Iterator<Long> union(List<NavigableSet<Long>> sets, long fromOffset) {
+        //An event has a single type and deployable id, so the sets are disjoint
+        return Iterators.mergeSorted(sets.stream()
+                                             .map(offsets -> offsets.tailSet(fromOffset, true).iterator())
+                                             .toList(),
+                                     Comparator.naturalOrder());
+    }
+
+    private static Iterator<Long> intersection(Iterator<Long> lhs, Iterator<Long> rhs) {
+        val left = Iterators.peekingIterator(lhs);
+        val right = Iterators.peekingIterator(rhs);
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return align(left, right);
+            }
+
+            @Override
+            public Long next() {
+                if (!align(left, right)) {
+                    throw new NoSuchElementException();
+                }
+                right.next();
+                return left.next();
+            }
+        };
+    }
+
+    private static boolean align(PeekingIterator<Long> left, PeekingIterator<Long> right) {
+        while (left.hasNext() && right.hasNext()) {
+            val comparison = Long.compare(left.peek(), right.peek());
+            if (comparison == 0) {
+                return true;
+            }
+            if (comparison < 0) {
+                left.next();
+            }
+            else {
+                right.next();
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,384 @@
+/*
+ *  Copyright (c) 2024 Original Author(s), PhonePe India Pvt. Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.phonepe.drove.controller.event;
+
+import com.phonepe.drove.models.events.DroveEventType;
+import lombok.Getter;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.io.Closeable;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.zip.CRC32;
+
+/**
+ * A single append-only, memory mapped segment of the persistent event log. Segment files are named after the offset
+ * of the first record stored in them. Each record is laid out as:
+ * <pre>
+ * int   size         bytes following this field
+ * int   crc          CRC32 of everything after this field
+ * long  offset
+ * long  time
+ * short typeLength
+ * byte[] type        event type name
+ * short idLength     zero if the event is not related to an app or local service
+ * byte[] id          deployable id
+ * byte[] payload     serialized event
+ * </pre>
+ * A zero size marks the end of the segment. A sparse index is maintained in memory to avoid scanning the full
+ * segment on reads.
+ * This class is not thread safe. Callers are expected to guard access with a single lock.
+ */
+@Slf4j
+class EventLogSegment implements Closeable {
+    static final String SUFFIX = ".log";
+    static final int INDEX_INTERVAL = 64;
+
+    private static final int PREFIX_SIZE = 2 * Integer.BYTES;
+    private static final int HEADER_SIZE = PREFIX_SIZE + 2 * Long.BYTES + 2 * Short.BYTES;
+
+    /**
+     * Header of a stored record
+     */
+    record RecordHeader(long offset,
+                        long time,
+                        DroveEventType type,
+                        String deployableId,
+                        int payloadPosition,
+                        int payloadSize) {
+    }
+
+    /**
+     * Sparse index entry. maxTimeBefore is the highest event time seen before this position in the segment and is
+     * therefore monotonic even if the clock moves back.
+     */
+    private record IndexEntry(long offset, int position, long maxTimeBefore) {
+    }
+
+    @Getter
+    private final Path path;
+    @Getter
+    private final long baseOffset;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final List<IndexEntry> index = new ArrayList<>();
+
+    private int writePosition;
+    @Getter
+    private long nextOffset;
+    @Getter
+    private long maxTime = Long.MIN_VALUE;
+
+    private EventLogSegment(Path path, long baseOffset, FileChannel channel, MappedByteBuffer buffer) {
+        this.path = path;
+        this.baseOffset = baseOffset;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.nextOffset = baseOffset;
+    }
+
+    /**
+     * Create a new empty segment
+     *
+     * @param dir        Directory for the segment files
+     * @param baseOffset Offset of the first record to be written to this segment
+     * @param capacity   Size of the segment file in bytes
+     * @return A writable segment
+     */
+    @SneakyThrows
+    static EventLogSegment create(Path dir, long baseOffset, int capacity) {
+        val path = dir.resolve(fileName(baseOffset));
+        val channel = FileChannel.open(path,
+                                       StandardOpenOption.CREATE_NEW,
+                                       StandardOpenOption.READ,
+                                       StandardOpenOption.WRITE);
+        return new EventLogSegment(path, baseOffset, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity));
+    }
+
+    /**
+     * Open an existing segment and rebuild its index. Any partially written or corrupt tail is ignored and will be
+     * overwritten by subsequent appends.
+     *
+     * @param path Path to the segment file
+     * @return Segment positioned for appends after the last valid record
+     */
+    @SneakyThrows
+    static EventLogSegment open(Path path) {
+        val baseOffset = baseOffset(path);
+        val channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        val segment = new EventLogSegment(path,
+                                          baseOffset,
+                                          channel,
+                                          channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size()));
+        segment.recover();
+        return segment;
+    }
+
+    static boolean isSegmentFile(Path path) {
+        val name = path.getFileName().toString();
+        return name.endsWith(SUFFIX) && name.substring(0, name.length() - SUFFIX.length()).matches("\\d+");
+    }
+
+    static long baseOffset(Path path) {
+        val name = path.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+    }
+
+    static int recordSize(DroveEventType type, String deployableId, byte[] payload) {
+        return HEADER_SIZE + type.name().length() + deployableIdBytes(deployableId).length + payload.length;
+    }
+
+    boolean isEmpty() {
+        return nextOffset == baseOffset;
+    }
+
+    boolean hasSpaceFor(int recordSize) {
+        //Leave space for the end marker
+        return writePosition + recordSize + Integer.BYTES <= buffer.capacity();
+    }
+
+    /**
+     * Append a record to the segment. Caller must ensure there is enough space using {@link #hasSpaceFor(int)}.
+     *
+     * @return Offset assigned to the record
+     */
+    long append(long time, DroveEventType type, String deployableId, byte[] payload) {
+        val offset = nextOffset;
+        if ((offset - baseOffset) % INDEX_INTERVAL == 0) {
+            index.add(new IndexEntry(offset, writePosition, maxTime));
+        }
+        val typeName = type.name().getBytes(StandardCharsets.US_ASCII);
+        val id = deployableIdBytes(deployableId);
+        val size = HEADER_SIZE - Integer.BYTES + typeName.length + id.length + payload.length;
+        var position = writePosition + PREFIX_SIZE;
+        buffer.putLong(position, offset);
+        position += Long.BYTES;
+        buffer.putLong(position, time);
+        position += Long.BYTES;
+        buffer.putShort(position, (short) typeName.length);
+        position += Short.BYTES;
+        buffer.put(position, typeName);
+        position += typeName.length;
+        buffer.putShort(position, (short) id.length);
+        position += Short.BYTES;
+        buffer.put(position, id);
+        position += id.length;
+        buffer.put(position, payload);
+        position += payload.length;
+        //Marks the end of the log in case stale data exists after this record
+        buffer.putInt(position, 0);
+        buffer.putInt(writePosition + Integer.BYTES, checksum(writePosition + PREFIX_SIZE, size - Integer.BYTES));
+        //Size is written last so that a record becomes visible only once it is complete
+        buffer.putInt(writePosition, size);
+        writePosition = position;
+        nextOffset = offset + 1;
+        maxTime = Math.max(maxTime, time);
+        return offset;
+    }
+
+    /**
+     * Visit all records with offset >= fromOffset in offset order
+     *
+     * @param fromOffset First offset of interest
+     * @param visitor    Called for every record, scanning stops if it returns false
+     */
+    void scanFromOffset(long fromOffset, Predicate<RecordHeader> visitor) {
+        scan(startPosition(e -> e.offset() <= fromOffset), header -> header.offset() < fromOffset || visitor.test(header));
+    }
+
+    /**
+     * Visit records in offset order starting from the first index block that can contain records newer than the
+     * provided time. Records older than the time may still be passed to the visitor.
+     *
+     * @param time    Time after which records are of interest
+     * @param visitor Called for every record, scanning stops if it returns false
+     */
+    void scanFromTime(long time, Predicate<RecordHeader> visitor) {
+        if (maxTime <= time) {
+            return;
+        }
+        scan(startPosition(e -> e.maxTimeBefore() <= time), visitor);
+    }
+
+    /**
+     * Header of the record with the provided offset
+     *
+     * @param offset Offset of the record
+     * @return Header if the record exists in this segment
+     */
+    Optional<RecordHeader> header(long offset) {
+        if (offset < baseOffset || offset >= nextOffset) {
+            return Optional.empty();
+        }
+        var position = startPosition(e -> e.offset() <= offset);
+        while (position < writePosition) {
+            val header = readHeader(position);
+            if (null == header || header.offset() > offset) {
+                return Optional.empty();
+            }
+            if (header.offset() == offset) {
+                return Optional.of(header);
+            }
+            position = header.payloadPosition() + header.payloadSize();
+        }
+        return Optional.empty();
+    }
+
+    byte[] payload(RecordHeader header) {
+        val payload = new byte[header.payloadSize()];
+        buffer.get(header.payloadPosition(), payload);
+        return payload;
+    }
+
+    @SneakyThrows
+    void flush() {
+        buffer.force();
+    }
+
+    @Override
+    @SneakyThrows
+    public void close() {
+        flush();
+        channel.close();
+    }
+
+    @SneakyThrows
+    void delete() {
+        channel.close();
+        Files.deleteIfExists(path);
+    }
+
+    private void recover() {
+        var position = 0;
+        var expectedOffset = baseOffset;
+        RecordHeader header;
+        while ((header = readHeader(position)) != null && header.offset() == expectedOffset) {
+            if ((expectedOffset - baseOffset) % INDEX_INTERVAL == 0) {
+                index.add(new IndexEntry(expectedOffset, position, maxTime));
+            }
+            maxTime = Math.max(maxTime, header.time());
+            position = header.payloadPosition() + header.payloadSize();
+            expectedOffset++;
+        }
+        writePosition = position;
+        nextOffset = expectedOffset;
+        if (hasSpaceFor(0)) {
+            buffer.putInt(writePosition, 0);
+        }
+        log.debug("Recovered {} events from segment {}", nextOffset - baseOffset, path);
+    }
+
+    /**
+     * Position of the last index entry matching the condition. Relies on the condition being monotonic over the
+     * index.
+     */
+    private int startPosition(Predicate<IndexEntry> condition) {
+        var low = 0;
+        var high = index.size() - 1;
+        var found = 0;
+        while (low <= high) {
+            val mid = (low + high) >>> 1;
+            if (condition.test(index.get(mid))) {
+                found = index.get(mid).position();
+                low = mid + 1;
+            }
+            else {
+                high = mid - 1;
+            }
+        }
+        return found;
+    }
+
+    private void scan(int startPosition, Predicate<RecordHeader> visitor) {
+        var position = startPosition;
+        while (position < writePosition) {
+            val header = readHeader(position);
+            if (null == header || !visitor.test(header)) {
+                return;
+            }
+            position = header.payloadPosition() + header.payloadSize();
+        }
+    }
+
+    private RecordHeader readHeader(int position) {
+        if (position + HEADER_SIZE > buffer.capacity()) {
+            return null;
+        }
+        val size = buffer.getInt(position);
+        if (size < HEADER_SIZE - Integer.BYTES || position + Integer.BYTES + size > buffer.capacity()) {
+            return null;
+        }
+        if (buffer.getInt(position + Integer.BYTES) != checksum(position + PREFIX_SIZE, size - Integer.BYTES)) {
+            log.warn("Checksum mismatch at position {} in event segment {}", position, path);
+            return null;
+        }
+        var current = position + PREFIX_SIZE;
+        val offset = buffer.getLong(current);
+        current += Long.BYTES;
+        val time = buffer.getLong(current);
+        current += Long.BYTES;
+        val typeLength = buffer.getShort(current);
+        current += Short.BYTES;
+        val typeName = new byte[typeLength];
+        buffer.get(current, typeName);
+        current += typeLength;
+        val idLength = buffer.getShort(current);
+        current += Short.BYTES;
+        val id = new byte[idLength];
+        buffer.get(current, id);
+        current += idLength;
+        return new RecordHeader(offset,
+                                time,
+                                eventType(new String(typeName, StandardCharsets.US_ASCII)),
+                                idLength == 0 ? null : new String(id, StandardCharsets.UTF_8),
+                                current,
+                                position + Integer.BYTES + size - current);
+    }
+
+    private int checksum(int position, int length) {
+        val crc = new CRC32();
+        crc.update(buffer.slice(position, length));
+        return (int) crc.getValue();
+    }
+
+    private static DroveEventType eventType(String name) {
+        try {
+            return DroveEventType.valueOf(name);
+        }
+        catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static byte[] deployableIdBytes(String deployableId) {
+        return null == deployableId ? new byte[0] : deployableId.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String fileName(long baseOffset) {
+        return String.format("%020d%s", baseOffset, SUFFIX);
+    }
+}
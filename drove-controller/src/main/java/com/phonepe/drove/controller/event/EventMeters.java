@@ -0,0 +1,45 @@
+/*
+ *  Copyright (c) 2024 Original Author(s), PhonePe India Pvt. Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.phonepe.drove.controller.event;
+
+import com.codahale.metrics.Meter;
+import com.phonepe.drove.controller.metrics.ClusterMetricNames;
+import com.phonepe.drove.controller.metrics.ClusterMetricsRegistry;
+import com.phonepe.drove.models.events.DroveEventType;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Meters for recorded events. Created upfront so that recording an event does not need any lookups.
+ */
+class EventMeters {
+    private final Meter allEvents;
+    private final Map<DroveEventType, Meter> eventsByType = new EnumMap<>(DroveEventType.class);
+
+    EventMeters(ClusterMetricsRegistry metricsRegistry) {
+        this.allEvents = metricsRegistry.meter(ClusterMetricNames.Meters.CLUSTER_EVENTS);
+        for (final var type : DroveEventType.values()) {
+            eventsByType.put(type, metricsRegistry.meter(ClusterMetricNames.Meters.CLUSTER_EVENTS + "." + type.name()));
+        }
+    }
+
+    void mark(DroveEventType type) {
+        allEvents.mark();
+        eventsByType.get(type).mark();
+    }
+}
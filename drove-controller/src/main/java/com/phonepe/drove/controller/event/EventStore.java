@@ -20,15 +20,77 @@ import com.phonepe.drove.models.api.DroveEventsList;
 import com.phonepe.drove.models.api.DroveEventsSummary;
 import com.phonepe.drove.models.events.DroveEvent;
 
+import java.util.List;
+import java.util.UUID;
+
 /**
  *
  */
 @SuppressWarnings("rawtypes")
 public interface EventStore {
+    /**
+     * Events read from the store along with the offset to be used to read the next batch
+     */
+    record EventBatch(List<DroveEvent> events, long nextOffset) {
+    }
+
+    /**
+     * Identifies a range of offsets without gaps in the recorded events. A new epoch starts whenever events might
+     * have been missed by the store, for example when the controller becomes the leader after another controller has
+     * been recording events. Offsets obtained under one epoch should not be used to continue reading under another.
+     *
+     * @param id          Unique id of the epoch
+     * @param startOffset Offset of the first event recorded in this epoch
+     */
+    record Epoch(String id, long startOffset) {
+        public static Epoch startingAt(long startOffset) {
+            return new Epoch(UUID.randomUUID().toString(), startOffset);
+        }
+    }
 
     void recordEvent(final DroveEvent event);
 
-    DroveEventsList latest(long lastSyncTime, int size);
+    /**
+     * @return The current epoch of the store
+     */
+    Epoch epoch();
+
+    default DroveEventsList latest(long lastSyncTime, int size) {
+        return latest(lastSyncTime, size, EventFilter.ALL);
+    }
+
+    /**
+     * Latest events matching the filter, newest first
+     *
+     * @param lastSyncTime Only events after this time are returned
+     * @param size         Maximum number of events to return
+     * @param filter       Filter for events
+     * @return Matching events and the sync time to be used for the next call
+     */
+    DroveEventsList latest(long lastSyncTime, int size, EventFilter filter);
 
     DroveEventsSummary summarize(long lastSyncTime);
+
+    /**
+     * Read events in the order they were recorded
+     *
+     * @param fromOffset Offset of the first event to be returned
+     * @param size       Maximum number of events to return
+     * @return Events with offset >= fromOffset and the offset to read from next. If no events are available, the
+     * offset that will be assigned to the next recorded event is returned.
+     */
+    default EventBatch readFrom(long fromOffset, int size) {
+        return readFrom(fromOffset, size, EventFilter.ALL);
+    }
+
+    /**
+     * Read events matching the filter in the order they were recorded. Type and deployable id constraints are
+     * served from an index.
+     *
+     * @param fromOffset Offset of the first event to be considered
+     * @param size       Maximum number of events to return
+     * @param filter     Filter for events
+     * @return Matching events with offset >= fromOffset and the offset to continue reading from
+     */
+    EventBatch readFrom(long fromOffset, int size, EventFilter filter);
 }
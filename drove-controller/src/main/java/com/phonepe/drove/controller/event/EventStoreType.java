@@ -0,0 +1,31 @@
+/*
+ *  Copyright (c) 2024 Original Author(s), PhonePe India Pvt. Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.phonepe.drove.controller.event;
+
+/**
+ * Storage used to retain cluster events for the events API
+ */
+public enum EventStoreType {
+    /**
+     * Events are kept in memory and are lost on restart or leadership change
+     */
+    IN_MEMORY,
+    /**
+     * Events are stored in memory mapped segment files on local disk and survive restarts and leadership changes
+     */
+    PERSISTENT,
+}
@@ -0,0 +1,252 @@
+/*
+ *  Copyright (c) 2024 Original Author(s), PhonePe India Pvt. Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.phonepe.drove.controller.event;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.phonepe.drove.models.api.ApiResponse;
+import com.phonepe.drove.models.api.DroveEventsBatch;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import javax.ws.rs.container.AsyncResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Serves long-poll requests for events. Requests for which no events are available are parked till new events get
+ * recorded or the requested wait time runs out.
+ * Parked requests are woken up from a separate thread. Notifications for events recorded while a wakeup is pending
+ * are coalesced into it, and the store is read once for all parked requests waiting at the same offset with the same
+ * filter.
+ */
+@Singleton
+@Slf4j
+@SuppressWarnings("rawtypes")
+public class EventStreamer {
+    private final EventStore eventStore;
+    private final ExecutorService notifier;
+    private final Set<Watcher> watchers = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean wakeupPending = new AtomicBoolean();
+
+    private static final class Watcher {
+        private final EventFilter filter;
+        private final int size;
+        private final AsyncResponse response;
+        private final String epoch;
+        private long offset;
+        private boolean done;
+
+        private Watcher(String epoch, long offset, EventFilter filter, int size, AsyncResponse response) {
+            this.epoch = epoch;
+            this.offset = offset;
+            this.filter = filter;
+            this.size = size;
+            this.response = response;
+        }
+    }
+
+    /**
+     * Watchers that would get the same data from the store
+     */
+    private record WatchKey(String epoch, long offset, EventFilter filter, int size) {
+    }
+
+    /**
+     * Result of a read for a {@link WatchKey}
+     *
+     * @param response   Response to be sent if events are available
+     * @param nextOffset Offset to read from next time if no response is to be sent
+     */
+    private record ReadResult(Optional<DroveEventsBatch> response, long nextOffset) {
+    }
+
+    @Inject
+    public EventStreamer(EventStore eventStore, @Named("EventNotifierPool") ExecutorService notifier) {
+        this.eventStore = eventStore;
+        this.notifier = notifier;
+    }
+
+    @VisibleForTesting
+    public EventStreamer(EventStore eventStore) {
+        this(eventStore, MoreExecutors.newDirectExecutorService());
+    }
+
+    /**
+     * Respond with events after the provided offset. If no such event is available, the response is sent once
+     * matching events get recorded or the wait time has elapsed.
+     *
+     * @param offset   Offset to read from. A negative value means read from the current end of the store.
+     * @param epoch    Epoch the offset belongs to. If this does not match the current epoch of the store, an empty
+     *                 response with the start offset of the current epoch is sent immediately. Optional.
+     * @param filter   Filter for events to be returned
+     * @param size     Maximum number of events to return
+     * @param maxWait  Maximum time to wait for events
+     * @param response Async response to be resumed
+     */
+    public void stream(
+            long offset,
+            String epoch,
+            EventFilter filter,
+            int size,
+            Duration maxWait,
+            AsyncResponse response) {
+        val currentEpoch = eventStore.epoch();
+        if (null != epoch && !epoch.equals(currentEpoch.id())) {
+            response.resume(ApiResponse.success(epochChanged(currentEpoch)));
+            return;
+        }
+        val startOffset = offset < 0
+                          ? eventStore.readFrom(Long.MAX_VALUE, 0).nextOffset()
+                          : offset;
+        val watcher = new Watcher(currentEpoch.id(),
+                                  startOffset,
+                                  Objects.requireNonNullElse(filter, EventFilter.ALL),
+                                  size,
+                                  response);
+        if (tryRespond(watcher)) {
+            return;
+        }
+        if (maxWait.isZero() || maxWait.isNegative()) {
+            respondEmpty(watcher);
+            return;
+        }
+        response.setTimeout(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+        response.setTimeoutHandler(r -> {
+            watchers.remove(watcher);
+            respondEmpty(watcher);
+        });
+        watchers.add(watcher);
+        //Events might have been recorded between the first check and registration
+        if (tryRespond(watcher)) {
+            watchers.remove(watcher);
+        }
+    }
+
+    /**
+     * Needs to be called after new events have been recorded in the store. Does not block, parked requests are
+     * woken up asynchronously.
+     */
+    public void eventsRecorded() {
+        if (!watchers.isEmpty() && wakeupPending.compareAndSet(false, true)) {
+            notifier.execute(this::notifyWatchers);
+        }
+    }
+
+    int watcherCount() {
+        return watchers.size();
+    }
+
+    private void notifyWatchers() {
+        //Reset before reading, so that events recorded from here on trigger another pass
+        wakeupPending.set(false);
+        try {
+            val groups = watchers.stream()
+                    .collect(Collectors.groupingBy(this::watchKey));
+            groups.forEach((key, group) -> {
+                val result = read(key);
+                group.forEach(watcher -> {
+                    if (apply(watcher, key, result)) {
+                        watchers.remove(watcher);
+                    }
+                });
+            });
+        }
+        catch (Exception e) {
+            log.error("Error notifying event watchers: " + e.getMessage(), e);
+        }
+    }
+
+    private WatchKey watchKey(Watcher watcher) {
+        synchronized (watcher) {
+            return new WatchKey(watcher.epoch, watcher.offset, watcher.filter, watcher.size);
+        }
+    }
+
+    /**
+     * Update a watcher with the result of a read made for it
+     *
+     * @return true if the watcher is done and can be dropped
+     */
+    private boolean apply(Watcher watcher, WatchKey key, ReadResult result) {
+        synchronized (watcher) {
+            if (watcher.done) {
+                return true;
+            }
+            if (watcher.offset != key.offset()) {
+                //Moved in the meantime, will be looked at in the next pass
+                return false;
+            }
+            if (result.response().isEmpty()) {
+                //Offset moves forward even if nothing matched, so that skipped events are not looked at again
+                watcher.offset = result.nextOffset();
+                return false;
+            }
+            watcher.done = true;
+            watcher.response.resume(ApiResponse.success(result.response().get()));
+            return true;
+        }
+    }
+
+    private boolean tryRespond(Watcher watcher) {
+        synchronized (watcher) {
+            if (watcher.done) {
+                return true;
+            }
+            val key = new WatchKey(watcher.epoch, watcher.offset, watcher.filter, watcher.size);
+            return apply(watcher, key, read(key));
+        }
+    }
+
+    private void respondEmpty(Watcher watcher) {
+        synchronized (watcher) {
+            if (!watcher.done) {
+                watcher.done = true;
+                watcher.response.resume(ApiResponse.success(
+                        new DroveEventsBatch(List.of(), watcher.offset, watcher.epoch)));
+            }
+        }
+    }
+
+    private ReadResult read(WatchKey key) {
+        val currentEpoch = eventStore.epoch();
+        if (!key.epoch().equals(currentEpoch.id())) {
+            //Leadership changed while waiting, offset of this watcher is meaningless now
+            return new ReadResult(Optional.of(epochChanged(currentEpoch)), currentEpoch.startOffset());
+        }
+        val batch = eventStore.readFrom(key.offset(), key.size(), key.filter());
+        return new ReadResult(batch.events().isEmpty()
+                              ? Optional.empty()
+                              : Optional.of(new DroveEventsBatch(batch.events(), batch.nextOffset(), key.epoch())),
+                              batch.nextOffset());
+    }
+
+    private static DroveEventsBatch epochChanged(EventStore.Epoch currentEpoch) {
+        return new DroveEventsBatch(List.of(), currentEpoch.startOffset(), currentEpoch.id());
+    }
+}
@@ -20,11 +20,11 @@ import com.google.common.annotations.VisibleForTesting;
 import com.phonepe.drove.common.coverageutils.IgnoreInJacocoGeneratedReport;
 import com.phonepe.drove.controller.config.ControllerOptions;
 import com.phonepe.drove.controller.managed.LeadershipEnsurer;
-import com.phonepe.drove.controller.metrics.ClusterMetricNames;
 import com.phonepe.drove.controller.metrics.ClusterMetricsRegistry;
 import com.phonepe.drove.models.api.DroveEventsList;
 import com.phonepe.drove.models.api.DroveEventsSummary;
 import com.phonepe.drove.models.events.DroveEvent;
+import com.phonepe.drove.models.events.DroveEventType;
 import io.appform.signals.signals.ScheduledSignal;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
@@ -33,20 +33,45 @@ import javax.inject.Inject;
 import javax.inject.Singleton;
 import java.time.Duration;
 import java.util.*;
-import java.util.concurrent.locks.StampedLock;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
 
 /**
- *
+ * Bounded in-memory event store based on a multi-producer ring buffer. Appends claim a sequence number and publish
+ * the event into the corresponding slot without taking any locks. Readers work on a snapshot of the sequence
+ * range and skip slots that have been overwritten. Slots that have been claimed but are not published yet act as a
+ * barrier; events after such a slot are not returned until it is published.
+ * Once the buffer is full, the oldest events get overwritten. A producer that stalls long enough to be lapped does
+ * not overwrite the newer event in its slot, its own event is dropped instead.
+ * The index used for filtered reads is not updated by appends. Filtered reads bring it up to date with the published
+ * events first.
  */
 @Singleton
 @Slf4j
 @SuppressWarnings("rawtypes")
 public class InMemoryEventStore implements EventStore {
-    private final TreeMap<Long, List<DroveEvent>> events;
-    private final StampedLock lock = new StampedLock();
+    /**
+     * Events are not strictly ordered by time across producers. Time based reads keep scanning for this long past
+     * the requested time before giving up.
+     */
+    private static final long TIME_SCAN_SLACK_MS = 1_000;
+
+    private record Slot(long sequence, long time, String deployableId, DroveEvent event) {
+    }
+
+    private final AtomicReferenceArray<Slot> slots;
+    private final int mask;
+    private final AtomicLong cursor = new AtomicLong();
+    //Sequences below this are not visible. Moved up to drop all events on leadership change.
+    private final AtomicLong floor = new AtomicLong();
+    private final long maxEventStorageDurationMs;
     private final ScheduledSignal cleaner;
-    private final ClusterMetricsRegistry metricsRegistry;
+    private final EventMeters eventMeters;
+    private final EventIndex index = new EventIndex();
+    //Sequences below this have been added to the index. Guarded by the index.
+    private long indexedUpTo = 0;
+    private volatile Epoch epoch = Epoch.startingAt(0);
 
     @Inject
     @IgnoreInJacocoGeneratedReport
@@ -58,93 +83,251 @@ public class InMemoryEventStore implements EventStore {
     @VisibleForTesting
     InMemoryEventStore(LeadershipEnsurer leadershipEnsurer, ControllerOptions options, Duration checkDuration,
                        ClusterMetricsRegistry metricsRegistry) {
-        this.metricsRegistry = metricsRegistry;
+        this.eventMeters = new EventMeters(metricsRegistry);
         leadershipEnsurer.onLeadershipStateChanged().connect(this::nuke);
-        val maxEventStorageDurationMs = Objects.requireNonNullElse(options.getMaxEventsStorageDuration(),
-                                                                   ControllerOptions.DEFAULT_MAX_EVENT_STORAGE_DURATION)
+        this.maxEventStorageDurationMs = Objects.requireNonNullElse(
+                        options.getMaxEventsStorageDuration(), ControllerOptions.DEFAULT_MAX_EVENT_STORAGE_DURATION)
                 .toMilliseconds();
-
-        this.events = new TreeMap<>();
+        val capacity = Integer.highestOneBit(
+                Math.max(Objects.requireNonNullElse(options.getEventBufferSize(),
+                                                    ControllerOptions.DEFAULT_EVENT_BUFFER_SIZE) - 1, 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
         this.cleaner = new ScheduledSignal(checkDuration);
-        this.cleaner.connect(time -> {
-            val stamp = lock.writeLock();
-            try {
-                val oldestAcceptableTime = System.currentTimeMillis() - maxEventStorageDurationMs;
-                val olderEntries = events.headMap(oldestAcceptableTime);
-                if (!olderEntries.isEmpty()) {
-                    val size = olderEntries.size();
-                    olderEntries.clear();
-                    log.info("Cleaned {} event slots older than {}", size, new Date(oldestAcceptableTime));
-                }
-                else {
-                    log.debug("No entries to clear");
-                }
-            }
-            finally {
-                lock.unlock(stamp);
-            }
-        });
+        this.cleaner.connect(time -> clearExpired());
     }
 
     @Override
     public void recordEvent(DroveEvent event) {
-        val stamp = lock.writeLock();
+        val deployableId = EventFilter.deployableId(event);
+        val sequence = cursor.getAndIncrement();
+        //A claimed slot must always get published, otherwise it blocks readers forever. An empty slot is published
+        //in its place if anything goes wrong.
+        var slot = new Slot(sequence, System.currentTimeMillis(), null, null);
         try {
-            events.computeIfAbsent(event.getTime().getTime(), i -> new ArrayList<>()).add(event);
-            metricsRegistry.markMeter(ClusterMetricNames.Meters.CLUSTER_EVENTS);
-            metricsRegistry.markMeter(ClusterMetricNames.Meters.CLUSTER_EVENTS + "." + event.getType().name());
+            slot = new Slot(sequence, event.getTime().getTime(), deployableId, event);
         }
         finally {
-            lock.unlock(stamp);
+            val published = slots.accumulateAndGet(index(sequence), slot, InMemoryEventStore::newer);
+            if (published != slot) {
+                log.warn("Event with sequence {} was dropped as its slot has been reused for sequence {}",
+                         sequence, published.sequence());
+            }
         }
+        eventMeters.mark(event.getType());
     }
 
     @Override
-    public DroveEventsList latest(long lastSyncTime, int size) {
-        val stamp = lock.readLock();
-        try {
-            return new DroveEventsList(events.tailMap(lastSyncTime)
-                                               .entrySet()
-                                               .stream()
-                                               .filter(e -> e.getKey() > lastSyncTime)
-                                               .sorted(Map.Entry.<Long, List<DroveEvent>>comparingByKey().reversed())
-                                               .map(Map.Entry::getValue)
-                                               .flatMap(Collection::stream)
-                                               .limit(size)
-                                               .toList(),
-                                       events.isEmpty() ? lastSyncTime : events.lastKey());
-        }
-        finally {
-            lock.unlock(stamp);
-        }
+    public Epoch epoch() {
+        return epoch;
+    }
+
+    @Override
+    public DroveEventsList latest(long lastSyncTime, int size, EventFilter filter) {
+        val events = new ArrayList<DroveEvent>();
+        val maxTime = new long[]{Long.MIN_VALUE};
+        scanNewestFirst(lastSyncTime,
+                        () -> {
+                            events.clear();
+                            maxTime[0] = Long.MIN_VALUE;
+                        },
+                        slot -> {
+                            if (events.size() < size && matches(slot, filter)) {
+                                events.add(slot.event());
+                            }
+                            maxTime[0] = Math.max(maxTime[0], slot.time());
+                        });
+        return new DroveEventsList(events, maxTime[0] == Long.MIN_VALUE ? lastSyncTime : maxTime[0]);
     }
 
     @Override
     public DroveEventsSummary summarize(long lastSyncTime) {
-        val stamp = lock.readLock();
-        try {
-            return new DroveEventsSummary(events.tailMap(lastSyncTime)
-                                                  .entrySet()
-                                                  .stream()
-                                                  .filter(e -> e.getKey() > lastSyncTime)
-                                                  .map(Map.Entry::getValue)
-                                                  .flatMap(Collection::stream)
-                                                  .collect(Collectors.groupingBy(DroveEvent::getType,
-                                                                                 Collectors.counting())),
-                                          events.isEmpty() ? lastSyncTime : events.lastKey());
+        val counts = new EnumMap<DroveEventType, Long>(DroveEventType.class);
+        val maxTime = new long[]{Long.MIN_VALUE};
+        scanNewestFirst(lastSyncTime,
+                        () -> {
+                            counts.clear();
+                            maxTime[0] = Long.MIN_VALUE;
+                        },
+                        slot -> {
+                            counts.merge(slot.event().getType(), 1L, Long::sum);
+                            maxTime[0] = Math.max(maxTime[0], slot.time());
+                        });
+        return new DroveEventsSummary(counts, maxTime[0] == Long.MIN_VALUE ? lastSyncTime : maxTime[0]);
+    }
+
+    @Override
+    public EventBatch readFrom(long fromOffset, int size, EventFilter filter) {
+        val high = cursor.get();
+        val start = Math.max(Math.min(fromOffset, high), lowestReadable(high));
+        return filter.isIndexed()
+               ? readIndexed(start, Math.min(high, updateIndex(high)), size, filter)
+               : readSequential(start, high, size, filter);
+    }
+
+    /**
+     * Visit published events newer than lastSyncTime in reverse order of sequence
+     *
+     * @param lastSyncTime Only events after this time are visited
+     * @param reset        Called when an unpublished slot is found. Events visited so far are after the barrier
+     *                     and need to be discarded.
+     * @param visitor      Called for every matching event
+     */
+    private void scanNewestFirst(long lastSyncTime, Runnable reset, Consumer<Slot> visitor) {
+        val high = cursor.get();
+        val low = lowestReadable(high);
+        val oldestAcceptableTime = oldestAcceptableTime();
+        val stopTime = Math.max(lastSyncTime, oldestAcceptableTime) - TIME_SCAN_SLACK_MS;
+        for (var sequence = high - 1; sequence >= low; sequence--) {
+            val slot = slots.get(index(sequence));
+            if (isUnpublished(slot, sequence)) {
+                reset.run();
+                continue;
+            }
+            if (slot.sequence() > sequence) {
+                //Overwritten by a newer event. Everything older has been overwritten as well.
+                break;
+            }
+            if (slot.time() < stopTime) {
+                break;
+            }
+            if (null != slot.event() && slot.time() > lastSyncTime && slot.time() >= oldestAcceptableTime) {
+                visitor.accept(slot);
+            }
         }
-        finally {
-            lock.unlock(stamp);
+    }
+
+    private EventBatch readSequential(long start, long high, int size, EventFilter filter) {
+        val oldestAcceptableTime = oldestAcceptableTime();
+        val events = new ArrayList<DroveEvent>();
+        var sequence = start;
+        while (sequence < high && events.size() < size) {
+            val slot = slots.get(index(sequence));
+            if (isUnpublished(slot, sequence)) {
+                break;
+            }
+            if (slot.sequence() == sequence && slot.time() >= oldestAcceptableTime && matches(slot, filter)) {
+                events.add(slot.event());
+            }
+            sequence++;
         }
+        return new EventBatch(events, sequence);
     }
 
-    private void nuke(boolean leader) {
-        val stamp = lock.writeLock();
-        try {
-            events.clear();
+    private EventBatch readIndexed(long start, long high, int size, EventFilter filter) {
+        val oldestAcceptableTime = oldestAcceptableTime();
+        val events = new ArrayList<DroveEvent>();
+        val candidates = index.candidates(filter, start);
+        var scanned = start;
+        while (events.size() < size && candidates.hasNext()) {
+            val sequence = candidates.next();
+            if (sequence >= high) {
+                break;
+            }
+            val slot = slots.get(index(sequence));
+            if (isUnpublished(slot, sequence)) {
+                return new EventBatch(events, sequence);
+            }
+            if (slot.sequence() == sequence
+                    && null != slot.event()
+                    && slot.time() >= oldestAcceptableTime
+                    && filter.matchesTags(slot.event())) {
+                events.add(slot.event());
+            }
+            scanned = sequence + 1;
         }
-        finally {
-            lock.unlock(stamp);
+        if (events.size() >= size) {
+            return new EventBatch(events, scanned);
+        }
+        //All matches have been read. Move up to the first event that is not published yet, as that might match.
+        while (scanned < high && !isUnpublished(slots.get(index(scanned)), scanned)) {
+            scanned++;
+        }
+        return new EventBatch(events, scanned);
+    }
+
+    /**
+     * Add published events to the index, stopping at the first slot that is not published yet
+     *
+     * @param high Sequence up to which events have been claimed
+     * @return Sequence up to which the index is complete
+     */
+    private long updateIndex(long high) {
+        synchronized (index) {
+            var sequence = Math.max(indexedUpTo, lowestReadable(high));
+            while (sequence < high) {
+                val slot = slots.get(index(sequence));
+                if (isUnpublished(slot, sequence)) {
+                    break;
+                }
+                if (slot.sequence() == sequence && null != slot.event()) {
+                    index.add(sequence, slot.event().getType(), slot.deployableId());
+                }
+                sequence++;
+            }
+            indexedUpTo = sequence;
+            return sequence;
+        }
+    }
+
+    private static Slot newer(Slot existing, Slot candidate) {
+        return null == existing || existing.sequence() < candidate.sequence() ? candidate : existing;
+    }
+
+    private static boolean isUnpublished(Slot slot, long sequence) {
+        //Slot is claimed but the event has not been written yet
+        return null == slot || slot.sequence() < sequence;
+    }
+
+    private static boolean matches(Slot slot, EventFilter filter) {
+        return null != slot.event()
+                && filter.matchesIndexed(slot.event().getType(), slot.deployableId())
+                && filter.matchesTags(slot.event());
+    }
+
+    private long lowestReadable(long high) {
+        return Math.max(floor.get(), high - slots.length());
+    }
+
+    private long oldestAcceptableTime() {
+        return System.currentTimeMillis() - maxEventStorageDurationMs;
+    }
+
+    private int index(long sequence) {
+        return (int) (sequence & mask);
+    }
+
+    private void clearExpired() {
+        val oldestAcceptableTime = oldestAcceptableTime();
+        //Overwritten events are no longer reachable through the index
+        index.removeBefore(lowestReadable(cursor.get()));
+        var cleared = 0;
+        for (var i = 0; i < slots.length(); i++) {
+            val slot = slots.get(i);
+            //Only the event is dropped, the sequence is retained so that readers do not treat the slot as unpublished.
+            //Slot might get reused in the meantime, so only clear if it is still the same expired one.
+            if (null != slot
+                    && null != slot.event()
+                    && slot.time() < oldestAcceptableTime
+                    && slots.compareAndSet(i, slot, new Slot(slot.sequence(), slot.time(), null, null))) {
+                cleared++;
+            }
+        }
+        if (cleared > 0) {
+            log.info("Cleaned {} events older than {}", cleared, new Date(oldestAcceptableTime));
+        }
+        else {
+            log.debug("No entries to clear");
+        }
+    }
+
+    private void nuke(boolean leader) {
+        val high = cursor.get();
+        floor.set(high);
+        synchronized (index) {
+            index.removeBefore(high);
+            indexedUpTo = Math.max(indexedUpTo, high);
         }
+        epoch = Epoch.startingAt(high);
     }
 }
@@ -0,0 +1,411 @@
+/*
+ *  Copyright (c) 2024 Original Author(s), PhonePe India Pvt. Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.phonepe.drove.controller.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.annotations.VisibleForTesting;
+import com.phonepe.drove.common.coverageutils.IgnoreInJacocoGeneratedReport;
+import com.phonepe.drove.controller.config.ControllerOptions;
+import com.phonepe.drove.controller.managed.LeadershipEnsurer;
+import com.phonepe.drove.controller.metrics.ClusterMetricsRegistry;
+import com.phonepe.drove.models.api.DroveEventsList;
+import com.phonepe.drove.models.api.DroveEventsSummary;
+import com.phonepe.drove.models.events.DroveEvent;
+import com.phonepe.drove.models.events.DroveEventType;
+import io.appform.signals.signals.ScheduledSignal;
+import io.dropwizard.lifecycle.Managed;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Event store backed by append-only memory mapped segment files. Every event gets a monotonically increasing offset
+ * that is retained across restarts of this controller. Retention is implemented by deleting segments that only
+ * contain expired events.
+ * Note that the segments live on the local disk of the controller, so offsets are specific to a controller. Events
+ * recorded while another controller was the leader will not be available here. A new {@link Epoch} is started on
+ * every leadership change so that clients can detect that offsets from before are no longer continuous.
+ * The active segment is flushed to disk periodically and all segments are flushed and closed on shutdown.
+ */
+@Singleton
+@Slf4j
+@SuppressWarnings("rawtypes")
+public class PersistentEventStore implements EventStore, Managed {
+    private static final Duration DEFAULT_FLUSH_INTERVAL = Duration.ofSeconds(1);
+
+    private record SelectedRecord(EventLogSegment segment, EventLogSegment.RecordHeader header) {
+    }
+
+    private final Path dir;
+    private final int segmentSize;
+    private final ObjectMapper mapper;
+    private final EventMeters eventMeters;
+    private final NavigableMap<Long, EventLogSegment> segments = new TreeMap<>();
+    private final EventIndex index = new EventIndex();
+    private final StampedLock lock = new StampedLock();
+    private final ScheduledSignal cleaner;
+    private final ScheduledSignal flusher;
+    private EventLogSegment active;
+    //Set on append, reset by the periodic flush. Only modified while holding the lock.
+    private volatile boolean dirty;
+    private volatile boolean closed;
+    private volatile Epoch epoch;
+
+    @Inject
+    @IgnoreInJacocoGeneratedReport
+    public PersistentEventStore(LeadershipEnsurer leadershipEnsurer, ControllerOptions options, ObjectMapper mapper,
+                                ClusterMetricsRegistry metricsRegistry) {
+        this(leadershipEnsurer, options, Duration.ofMinutes(1), mapper, metricsRegistry);
+    }
+
+    @VisibleForTesting
+    PersistentEventStore(LeadershipEnsurer leadershipEnsurer, ControllerOptions options, Duration checkDuration,
+                         ObjectMapper mapper, ClusterMetricsRegistry metricsRegistry) {
+        this.dir = Path.of(Objects.requireNonNullElse(options.getEventStorePath(),
+                                                      ControllerOptions.DEFAULT_EVENT_STORE_PATH));
+        this.segmentSize = (int) Objects.requireNonNullElse(options.getEventSegmentSize(),
+                                                            ControllerOptions.DEFAULT_EVENT_SEGMENT_SIZE)
+                .toBytes();
+        this.mapper = mapper;
+        this.eventMeters = new EventMeters(metricsRegistry);
+        val maxEventStorageDurationMs = Objects.requireNonNullElse(options.getMaxEventsStorageDuration(),
+                                                                   ControllerOptions.DEFAULT_MAX_EVENT_STORAGE_DURATION)
+                .toMilliseconds();
+        load();
+        this.epoch = Epoch.startingAt(active.getNextOffset());
+        leadershipEnsurer.onLeadershipStateChanged().connect(leader -> startNewEpoch());
+        this.cleaner = new ScheduledSignal(checkDuration);
+        this.cleaner.connect(time -> cleanup(System.currentTimeMillis() - maxEventStorageDurationMs));
+        this.flusher = new ScheduledSignal(DEFAULT_FLUSH_INTERVAL, DEFAULT_FLUSH_INTERVAL);
+        this.flusher.connect(time -> flush());
+    }
+
+    @Override
+    public void start() {
+        //Segments are loaded on creation
+    }
+
+    @Override
+    public void stop() {
+        cleaner.close();
+        flusher.close();
+        val stamp = lock.writeLock();
+        try {
+            closed = true;
+            segments.values().forEach(EventLogSegment::close);
+            log.info("Closed {} event segments. Next event offset: {}", segments.size(), active.getNextOffset());
+        }
+        finally {
+            lock.unlock(stamp);
+        }
+    }
+
+    @Override
+    public Epoch epoch() {
+        return epoch;
+    }
+
+    @Override
+    public void recordEvent(DroveEvent event) {
+        final byte[] payload;
+        try {
+            payload = mapper.writeValueAsBytes(event);
+        }
+        catch (JsonProcessingException e) {
+            log.error("Could not serialize event " + event.getId() + ": " + e.getMessage(), e);
+            return;
+        }
+        val deployableId = EventFilter.deployableId(event);
+        val stamp = lock.writeLock();
+        try {
+            if (closed) {
+                log.warn("Event store is closed. Dropping event {} of type {}", event.getId(), event.getType());
+                return;
+            }
+            val recordSize = EventLogSegment.recordSize(event.getType(), deployableId, payload);
+            if (!active.hasSpaceFor(recordSize)) {
+                roll(recordSize);
+            }
+            val offset = active.append(event.getTime().getTime(), event.getType(), deployableId, payload);
+            index.add(offset, event.getType(), deployableId);
+            dirty = true;
+            eventMeters.mark(event.getType());
+        }
+        finally {
+            lock.unlock(stamp);
+        }
+    }
+
+    @Override
+    public DroveEventsList latest(long lastSyncTime, int size, EventFilter filter) {
+        val stamp = lock.readLock();
+        try {
+            val selected = new ArrayDeque<SelectedRecord>();
+            if (size > 0) {
+                segments.values()
+                        .forEach(segment -> segment.scanFromTime(lastSyncTime, header -> {
+                            val record = new SelectedRecord(segment, header);
+                            if (header.time() > lastSyncTime && matches(record, filter)) {
+                                if (selected.size() == size) {
+                                    selected.pollFirst();
+                                }
+                                selected.addLast(record);
+                            }
+                            return true;
+                        }));
+            }
+            val events = new ArrayList<DroveEvent>(selected.size());
+            selected.descendingIterator().forEachRemaining(record -> decode(record).ifPresent(events::add));
+            return new DroveEventsList(events, maxTime().orElse(lastSyncTime));
+        }
+        finally {
+            lock.unlock(stamp);
+        }
+    }
+
+    @Override
+    public DroveEventsSummary summarize(long lastSyncTime) {
+        val stamp = lock.readLock();
+        try {
+            val counts = new EnumMap<DroveEventType, Long>(DroveEventType.class);
+            segments.values()
+                    .forEach(segment -> segment.scanFromTime(lastSyncTime, header -> {
+                        if (header.time() > lastSyncTime && header.type() != null) {
+                            counts.merge(header.type(), 1L, Long::sum);
+                        }
+                        return true;
+                    }));
+            return new DroveEventsSummary(counts, maxTime().orElse(lastSyncTime));
+        }
+        finally {
+            lock.unlock(stamp);
+        }
+    }
+
+    @Override
+    public EventBatch readFrom(long fromOffset, int size, EventFilter filter) {
+        val stamp = lock.readLock();
+        try {
+            val events = new ArrayList<DroveEvent>();
+            val lastRead = filter.isIndexed()
+                           ? readIndexed(fromOffset, size, filter, events)
+                           : readSequential(fromOffset, size, filter, events);
+            //Everything up to the end of the log has been looked at if the batch is not full
+            return new EventBatch(events, events.size() < size ? active.getNextOffset() : lastRead + 1);
+        }
+        finally {
+            lock.unlock(stamp);
+        }
+    }
+
+    @VisibleForTesting
+    int segmentCount() {
+        val stamp = lock.readLock();
+        try {
+            return segments.size();
+        }
+        finally {
+            lock.unlock(stamp);
+        }
+    }
+
+    @VisibleForTesting
+    void cleanup(long oldestAcceptableTime) {
+        val stamp = lock.writeLock();
+        try {
+            if (!active.isEmpty() && active.getMaxTime() < oldestAcceptableTime) {
+                roll(0);
+            }
+            val expired = segments.values()
+                    .stream()
+                    .filter(segment -> segment != active && segment.getMaxTime() < oldestAcceptableTime)
+                    .toList();
+            expired.forEach(segment -> {
+                segments.remove(segment.getBaseOffset());
+                segment.delete();
+            });
+            index.removeBefore(segments.firstKey());
+            if (!expired.isEmpty()) {
+                log.info("Deleted {} event segments older than {}", expired.size(), new Date(oldestAcceptableTime));
+            }
+            else {
+                log.debug("No event segments to delete");
+            }
+            active.flush();
+            dirty = false;
+        }
+        finally {
+            lock.unlock(stamp);
+        }
+    }
+
+    /**
+     * Write changes to the active segment to disk
+     */
+    @VisibleForTesting
+    void flush() {
+        //Appends need the write lock, so none can happen while the active segment is being written out
+        val stamp = lock.readLock();
+        try {
+            if (dirty && !closed) {
+                dirty = false;
+                active.flush();
+            }
+        }
+        finally {
+            lock.unlock(stamp);
+        }
+    }
+
+    private void startNewEpoch() {
+        val stamp = lock.writeLock();
+        try {
+            epoch = Epoch.startingAt(active.getNextOffset());
+            log.info("Started event epoch {} at offset {}", epoch.id(), epoch.startOffset());
+        }
+        finally {
+            lock.unlock(stamp);
+        }
+    }
+
+    @SneakyThrows
+    private void load() {
+        Files.createDirectories(dir);
+        try (val files = Files.list(dir)) {
+            files.filter(EventLogSegment::isSegmentFile)
+                    .map(EventLogSegment::open)
+                    .forEach(segment -> segments.put(segment.getBaseOffset(), segment));
+        }
+        segments.values()
+                .forEach(segment -> segment.scanFromOffset(segment.getBaseOffset(), header -> {
+                    if (null != header.type()) {
+                        index.add(header.offset(), header.type(), header.deployableId());
+                    }
+                    return true;
+                }));
+        if (segments.isEmpty()) {
+            active = EventLogSegment.create(dir, 0, segmentSize);
+            segments.put(active.getBaseOffset(), active);
+        }
+        else {
+            active = segments.lastEntry().getValue();
+        }
+        log.info("Loaded {} event segments from {}. Next event offset: {}",
+                 segments.size(), dir, active.getNextOffset());
+    }
+
+    /**
+     * Read matching records in offset order by looking up offsets from the index
+     *
+     * @return Offset of the last record looked at
+     */
+    private long readIndexed(long fromOffset, int size, EventFilter filter, List<DroveEvent> events) {
+        val candidates = index.candidates(filter, fromOffset);
+        var lastRead = fromOffset - 1;
+        while (events.size() < size && candidates.hasNext()) {
+            val offset = candidates.next();
+            val segment = segments.floorEntry(offset);
+            if (null != segment) {
+                segment.getValue()
+                        .header(offset)
+                        .flatMap(header -> decodeMatching(new SelectedRecord(segment.getValue(), header), filter))
+                        .ifPresent(events::add);
+            }
+            lastRead = offset;
+        }
+        return lastRead;
+    }
+
+    /**
+     * Read matching records in offset order by scanning all records
+     *
+     * @return Offset of the last record looked at
+     */
+    private long readSequential(long fromOffset, int size, EventFilter filter, List<DroveEvent> events) {
+        val lastRead = new AtomicLong(fromOffset - 1);
+        val startSegment = Objects.requireNonNullElse(segments.floorKey(fromOffset), segments.firstKey());
+        for (val segment : segments.tailMap(startSegment, true).values()) {
+            if (events.size() >= size) {
+                break;
+            }
+            segment.scanFromOffset(fromOffset, header -> {
+                if (matchesHeader(header, filter)) {
+                    decodeMatching(new SelectedRecord(segment, header), filter).ifPresent(events::add);
+                }
+                lastRead.set(header.offset());
+                return events.size() < size;
+            });
+        }
+        return lastRead.get();
+    }
+
+    private boolean matches(SelectedRecord record, EventFilter filter) {
+        //Tags can only be checked on the decoded event
+        return matchesHeader(record.header(), filter)
+                && (filter.tags().isEmpty() || decodeMatching(record, filter).isPresent());
+    }
+
+    private static boolean matchesHeader(EventLogSegment.RecordHeader header, EventFilter filter) {
+        return null != header.type() && filter.matchesIndexed(header.type(), header.deployableId());
+    }
+
+    private Optional<DroveEvent> decodeMatching(SelectedRecord record, EventFilter filter) {
+        return decode(record).filter(filter::matchesTags);
+    }
+
+    private void roll(int minRecordSize) {
+        val nextOffset = active.getNextOffset();
+        if (active.isEmpty()) {
+            segments.remove(active.getBaseOffset());
+            active.delete();
+        }
+        else {
+            active.flush();
+        }
+        active = EventLogSegment.create(dir, nextOffset, Math.max(segmentSize, minRecordSize + Integer.BYTES));
+        segments.put(active.getBaseOffset(), active);
+    }
+
+    private OptionalLong maxTime() {
+        return segments.values()
+                .stream()
+                .filter(segment -> !segment.isEmpty())
+                .mapToLong(EventLogSegment::getMaxTime)
+                .max();
+    }
+
+    private Optional<DroveEvent> decode(SelectedRecord record) {
+        try {
+            return Optional.of(mapper.readValue(record.segment().payload(record.header()), DroveEvent.class));
+        }
+        catch (IOException e) {
+            log.error("Could not read event at offset " + record.header().offset() + ": " + e.getMessage(), e);
+            return Optional.empty();
+        }
+    }
+}
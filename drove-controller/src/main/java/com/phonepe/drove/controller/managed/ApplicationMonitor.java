@@ -20,6 +20,7 @@ import com.google.common.annotations.VisibleForTesting;
 import com.phonepe.drove.common.CommonUtils;
 import com.phonepe.drove.controller.engine.ApplicationLifecycleManagementEngine;
 import com.phonepe.drove.controller.engine.ValidationStatus;
+import com.phonepe.drove.controller.resourcemgmt.DeployableAllocationTracker;
 import com.phonepe.drove.controller.statedb.ApplicationStateDB;
 import com.phonepe.drove.controller.statedb.ClusterStateDB;
 import com.phonepe.drove.controller.statedb.ApplicationInstanceInfoDB;
@@ -61,6 +62,7 @@ public class ApplicationMonitor implements Managed {
     private final ClusterStateDB clusterStateDB;
     private final ApplicationLifecycleManagementEngine engine;
     private final LeadershipEnsurer leadershipEnsurer;
+    private final DeployableAllocationTracker allocationTracker;
 
     @Inject
     public ApplicationMonitor(
@@ -68,12 +70,14 @@ public class ApplicationMonitor implements Managed {
             ApplicationInstanceInfoDB instanceInfoDB,
             ClusterStateDB clusterStateDB,
             ApplicationLifecycleManagementEngine engine,
-            LeadershipEnsurer leadershipEnsurer) {
+            LeadershipEnsurer leadershipEnsurer,
+            DeployableAllocationTracker allocationTracker) {
         this.applicationStateDB = applicationStateDB;
         this.instanceInfoDB = instanceInfoDB;
         this.clusterStateDB = clusterStateDB;
         this.engine = engine;
         this.leadershipEnsurer = leadershipEnsurer;
+        this.allocationTracker = allocationTracker;
     }
 
     @Override
@@ -113,7 +117,10 @@ public class ApplicationMonitor implements Managed {
                     }
 
                     val expectedInstances = app.getInstances();
-                    instanceInfoDB.markStaleInstances(appId);
+                    if (instanceInfoDB.markStaleInstances(appId) > 0) {
+                        //Lost instances do not consume resources any more
+                        allocationTracker.evictApplication(appId);
+                    }
                     val actualInstances = instances.getOrDefault(appId, 0L);
                     if (actualInstances != expectedInstances) {
                         log.error("Number of instances for app {} is currently {}. Requested: {}, needs recovery.",
@@ -39,6 +39,7 @@ import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -50,9 +51,11 @@ import com.phonepe.drove.common.discovery.Constants;
 import com.phonepe.drove.common.model.ExecutorMessageType;
 import com.phonepe.drove.common.model.MessageDeliveryStatus;
 import com.phonepe.drove.common.model.MessageHeader;
+import com.phonepe.drove.common.model.MessageResponse;
 import com.phonepe.drove.common.model.executor.BlacklistExecutorFinalizeMessage;
 import com.phonepe.drove.common.model.executor.BlacklistExecutorMessage;
 import com.phonepe.drove.common.model.executor.ExecutorAddress;
+import com.phonepe.drove.common.model.executor.ExecutorMessage;
 import com.phonepe.drove.common.model.executor.UnBlacklistExecutorMessage;
 import com.phonepe.drove.common.model.utils.Pair;
 import com.phonepe.drove.controller.engine.ApplicationLifecycleManagementEngine;
@@ -277,19 +280,20 @@ public class BlacklistingManager implements Managed {
     }
 
     private BlacklistOperationResponse blacklistExecutorsInternal(Set<String> executorIds) {
-        val successfullyBlacklistCalled = executorIds.stream()
-            .filter(executorId -> {
-                val executor = clusterResourcesDB.currentSnapshot(executorId).orElse(null);
-                if (null != executor) {
+        val eligibleExecutors = executorIds.stream()
+                .map(executorId -> clusterResourcesDB.currentSnapshot(executorId).orElse(null))
+                .filter(Objects::nonNull)
+                .filter(executor -> {
                     if (executor.getNodeData().getExecutorState().equals(ExecutorState.BLACKLISTED)) {
-                        log.warn("Executor {} is blacklisted already. We are going to skip this.", executorId);
+                        log.warn("Executor {} is blacklisted already. We are going to skip this.",
+                                 executor.getExecutorId());
                         return false;
                     }
-                    return sendExecutorMessage(executor, ExecutorMessageType.BLACKLIST_REQUESTED);
-               }
-                return false;
-            })
-        .collect(Collectors.toUnmodifiableSet());
+                    return true;
+                })
+                .toList();
+        val successfullyBlacklistCalled = sendExecutorMessages(eligibleExecutors,
+                                                               ExecutorMessageType.BLACKLIST_REQUESTED);
         if (successfullyBlacklistCalled.isEmpty()) {
             log.error("Blacklisting messages could not be sent to any of the executors: {}", executorIds);
             return failed(executorIds, "Blacklisting messages could not be sent to any of the executors.");
@@ -322,15 +326,11 @@ public class BlacklistingManager implements Managed {
     }
 
     private Set<String> unblacklistExecutorsInternal(final Set<String> executorIds) {
-        val successfullyMessageSent = executorIds.stream()
-                .filter(executorId -> {
-                    val executor = clusterResourcesDB.currentSnapshot(executorId).orElse(null);
-                    if (null != executor) {
-                        return sendExecutorMessage(executor, ExecutorMessageType.UNBLACKLIST);
-                    }
-                    return false;
-                })
-                .collect(Collectors.toUnmodifiableSet());
+        val executors = executorIds.stream()
+                .map(executorId -> clusterResourcesDB.currentSnapshot(executorId).orElse(null))
+                .filter(Objects::nonNull)
+                .toList();
+        val successfullyMessageSent = sendExecutorMessages(executors, ExecutorMessageType.UNBLACKLIST);
         val waitpolicy = blacklistingRelatedWaitPolicy(successfullyMessageSent);
         try {
             Failsafe.with(List.of(waitpolicy))
@@ -347,20 +347,42 @@ public class BlacklistingManager implements Managed {
         return finallyUnblacklisted;
     }
 
-    private boolean sendExecutorMessage(ExecutorHostInfo executor, ExecutorMessageType messageType) {
+    /*
+     * Messages are sent to all executors concurrently. Returns the ids of the executors that accepted the message.
+     */
+    private Set<String> sendExecutorMessages(List<ExecutorHostInfo> executors, ExecutorMessageType messageType) {
+        if (executors.isEmpty()) {
+            return Set.of();
+        }
+        val messages = executors.stream()
+                .map(executor -> executorMessage(executor, messageType))
+                .toList();
+        val responses = communicator.broadcast(messages).join();
+        return IntStream.range(0, executors.size())
+                .filter(i -> handleResponse(executors.get(i), messageType, responses.get(i)))
+                .mapToObj(i -> executors.get(i).getExecutorId())
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    private static ExecutorMessage executorMessage(ExecutorHostInfo executor, ExecutorMessageType messageType) {
         val address = new ExecutorAddress(executor.getExecutorId(),
                                           executor.getNodeData().getHostname(),
                                           executor.getNodeData().getPort(),
                                           executor.getNodeData()
                                                   .getTransportType());
-        val message = switch (messageType) {
+        return switch (messageType) {
             case BLACKLIST_REQUESTED -> new BlacklistExecutorMessage(MessageHeader.controllerRequest(), address);
             case BLACKLIST -> new BlacklistExecutorFinalizeMessage(MessageHeader.controllerRequest(), address);
             case UNBLACKLIST -> new UnBlacklistExecutorMessage(MessageHeader.controllerRequest(), address);
             default -> throw new IllegalArgumentException("Unsupported message type for blacklisting flow: "
                     + messageType);
         };
-        val msgResponse = communicator.send(message);
+    }
+
+    private boolean handleResponse(
+            ExecutorHostInfo executor,
+            ExecutorMessageType messageType,
+            MessageResponse msgResponse) {
         if (msgResponse.getStatus().equals(MessageDeliveryStatus.ACCEPTED)) {
             log.info("Executor {} has accepted message of type: {}", executor.getExecutorId(), messageType);
             val event = switch (messageType) {
@@ -438,13 +460,13 @@ public class BlacklistingManager implements Managed {
                 handleMovement(movementDetails);
                 processing.set(null);
                 log.info("Apps moved. Blacklisting can proceed for executors: {}", movementDetails.executorIds());
-                movementDetails.executorIds()
-                        .forEach(executorId -> {
-                            val executor = clusterResourcesDB.currentSnapshot(executorId).orElse(null);
-                            if (null != executor) {
-                                sendExecutorMessage(executor, ExecutorMessageType.BLACKLIST);
-                            }
-                        });
+                sendExecutorMessages(movementDetails.executorIds()
+                                             .stream()
+                                             .map(executorId -> clusterResourcesDB.currentSnapshot(executorId)
+                                                     .orElse(null))
+                                             .filter(Objects::nonNull)
+                                             .toList(),
+                                     ExecutorMessageType.BLACKLIST);
                 log.info("Blacklisting complete for executors: {}", movementDetails.executorIds());
             }
             catch (InterruptedException e) {
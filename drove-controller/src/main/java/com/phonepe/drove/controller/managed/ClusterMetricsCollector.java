@@ -177,6 +177,8 @@ public class ClusterMetricsCollector implements Managed, ServerLifecycleListener
         metricsRegistry.setGaugeValue(CLUSTER_CPU_FREE, clusterResources.getFreeCores());
         metricsRegistry.setGaugeValue(CLUSTER_CPU_USED, clusterResources.getUsedCores());
         metricsRegistry.setGaugeValue(CLUSTER_CPU_TOTAL, clusterResources.getTotalCores());
+        metricsRegistry.setGaugeValue(CLUSTER_CPU_FRAGMENTATION,
+                                      ControllerUtils.cpuFragmentationPercentage(liveExecutors));
         metricsRegistry.setGaugeValue(CLUSTER_MEMORY_FREE, clusterResources.getFreeMemory());
         metricsRegistry.setGaugeValue(CLUSTER_MEMORY_USED, clusterResources.getUsedMemory());
         metricsRegistry.setGaugeValue(CLUSTER_MEMORY_TOTAL, clusterResources.getTotalMemory());
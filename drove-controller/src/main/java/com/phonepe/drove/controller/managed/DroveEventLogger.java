@@ -18,6 +18,7 @@ package com.phonepe.drove.controller.managed;
 
 import com.phonepe.drove.controller.event.DroveEventBus;
 import com.phonepe.drove.controller.event.EventStore;
+import com.phonepe.drove.controller.event.EventStreamer;
 import io.dropwizard.lifecycle.Managed;
 import lombok.extern.slf4j.Slf4j;
 import ru.vyarus.dropwizard.guice.module.installer.order.Order;
@@ -34,17 +35,20 @@ import javax.inject.Singleton;
 public class DroveEventLogger implements Managed {
     private final DroveEventBus eventBus;
     private final EventStore eventStore;
+    private final EventStreamer eventStreamer;
 
     @Inject
-    public DroveEventLogger(DroveEventBus eventBus, EventStore eventStore) {
+    public DroveEventLogger(DroveEventBus eventBus, EventStore eventStore, EventStreamer eventStreamer) {
         this.eventBus = eventBus;
         this.eventStore = eventStore;
+        this.eventStreamer = eventStreamer;
     }
 
     @Override
     public void start() throws Exception {
         eventBus.onNewEvent().connect("event-logger", e -> {
             eventStore.recordEvent(e);
+            eventStreamer.eventsRecorded();
             log.info("DROVE_EVENT: {}", e);
         });
     }
@@ -0,0 +1,70 @@
+/*
+ *  Copyright (c) 2024 Original Author(s), PhonePe India Pvt. Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.phonepe.drove.controller.managed;
+
+import com.phonepe.drove.auth.core.ApplicationInstanceTokenManager;
+import com.phonepe.drove.controller.event.DroveEventBus;
+import com.phonepe.drove.models.events.events.DroveInstanceStateChangeEvent;
+import com.phonepe.drove.models.events.events.datatags.AppInstanceEventDataTag;
+import com.phonepe.drove.models.instance.InstanceState;
+import io.dropwizard.lifecycle.Managed;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import ru.vyarus.dropwizard.guice.module.installer.order.Order;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * Drops verified tokens cached by the token manager once an app instance stops running
+ */
+@Slf4j
+@Order(55)
+@Singleton
+public class InstanceTokenCacheInvalidator implements Managed {
+    private static final String HANDLER_NAME = "instance-token-cache-invalidator";
+
+    private final DroveEventBus eventBus;
+    private final ApplicationInstanceTokenManager tokenManager;
+
+    @Inject
+    public InstanceTokenCacheInvalidator(DroveEventBus eventBus, ApplicationInstanceTokenManager tokenManager) {
+        this.eventBus = eventBus;
+        this.tokenManager = tokenManager;
+    }
+
+    @Override
+    public void start() throws Exception {
+        eventBus.onNewEvent().connect(HANDLER_NAME, e -> {
+            if (e instanceof DroveInstanceStateChangeEvent instanceEvent) {
+                val metadata = instanceEvent.getMetadata();
+                if (metadata.get(AppInstanceEventDataTag.CURRENT_STATE) instanceof InstanceState state
+                        && !InstanceState.ACTIVE_STATES.contains(state)) {
+                    val appId = (String) metadata.get(AppInstanceEventDataTag.APP_ID);
+                    val instanceId = (String) metadata.get(AppInstanceEventDataTag.INSTANCE_ID);
+                    log.debug("Invalidating cached tokens for {}/{}", appId, instanceId);
+                    tokenManager.invalidate(appId, instanceId);
+                }
+            }
+        });
+    }
+
+    @Override
+    public void stop() throws Exception {
+        eventBus.onNewEvent().disconnect(HANDLER_NAME);
+    }
+}
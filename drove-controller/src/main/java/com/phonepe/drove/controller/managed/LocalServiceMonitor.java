@@ -22,6 +22,7 @@ import com.phonepe.drove.common.coverageutils.IgnoreInJacocoGeneratedReport;
 import com.phonepe.drove.controller.engine.LocalServiceLifecycleManagementEngine;
 import com.phonepe.drove.controller.engine.ValidationStatus;
 import com.phonepe.drove.controller.resourcemgmt.ClusterResourcesDB;
+import com.phonepe.drove.controller.resourcemgmt.DeployableAllocationTracker;
 import com.phonepe.drove.controller.resourcemgmt.ExecutorHostInfo;
 import com.phonepe.drove.controller.statedb.ClusterStateDB;
 import com.phonepe.drove.controller.statedb.LocalServiceStateDB;
@@ -61,6 +62,7 @@ public class LocalServiceMonitor implements Managed {
     private final LocalServiceStateDB stateDB;
     private final LocalServiceLifecycleManagementEngine localServiceEngine;
     private final LeadershipEnsurer leadershipEnsurer;
+    private final DeployableAllocationTracker allocationTracker;
     private final AtomicBoolean processingUnderway = new AtomicBoolean(false);
 
     @Inject
@@ -70,12 +72,14 @@ public class LocalServiceMonitor implements Managed {
             ClusterStateDB clusterStateDB,
             LocalServiceStateDB stateDB,
             LocalServiceLifecycleManagementEngine localServiceEngine,
-            LeadershipEnsurer leadershipEnsurer) {
+            LeadershipEnsurer leadershipEnsurer,
+            DeployableAllocationTracker allocationTracker) {
         this(clusterResourcesDB,
              clusterStateDB,
              stateDB,
              localServiceEngine,
              leadershipEnsurer,
+             allocationTracker,
              ScheduledSignal.builder()
                      .initialDelay(Duration.ofSeconds(5))
                      .interval(Duration.ofSeconds(5))
@@ -89,12 +93,14 @@ public class LocalServiceMonitor implements Managed {
             LocalServiceStateDB stateDB,
             LocalServiceLifecycleManagementEngine localServiceEngine,
             LeadershipEnsurer leadershipEnsurer,
+            DeployableAllocationTracker allocationTracker,
             ScheduledSignal refreshSignal) {
         this.clusterResourcesDB = clusterResourcesDB;
         this.clusterStateDB = clusterStateDB;
         this.stateDB = stateDB;
         this.localServiceEngine = localServiceEngine;
         this.leadershipEnsurer = leadershipEnsurer;
+        this.allocationTracker = allocationTracker;
         this.refreshSignal = refreshSignal;
     }
 
@@ -161,6 +167,7 @@ public class LocalServiceMonitor implements Managed {
             val numStale = stateDB.markStaleInstances(serviceId);
             if(numStale > 0) {
                 log.info("Marked {} instances stale for service {}", numStale, serviceId);
+                allocationTracker.evictLocalService(serviceId);
             }
             else {
                 log.debug("No stale instances found for service: {}", serviceId);
@@ -29,6 +29,7 @@ public final class ClusterMetricNames {
         public static final String CLUSTER_CPU_USED = "cluster.resources.cpu.used";
         public static final String CLUSTER_CPU_FREE = "cluster.resources.cpu.free";
         public static final String CLUSTER_CPU_TOTAL = "cluster.resources.cpu.total";
+        public static final String CLUSTER_CPU_FRAGMENTATION = "cluster.resources.cpu.fragmentation_pct";
         public static final String CLUSTER_MEMORY_USED = "cluster.resources.memory.used_mb";
         public static final String CLUSTER_MEMORY_FREE = "cluster.resources.memory.free_mb";
         public static final String CLUSTER_MEMORY_TOTAL = "cluster.resources.memory.total_mb";
@@ -49,5 +50,12 @@ public final class ClusterMetricNames {
         public static final String CLUSTER_EVENTS = "cluster.events";
     }
 
+    @UtilityClass
+    public static final class StateUpdates {
+        public static final String CLUSTER_STATE_UPDATES_QUEUED = "cluster.state_updates.queued";
+        public static final String CLUSTER_STATE_UPDATES_LAG = "cluster.state_updates.lag_ms";
+        public static final String CLUSTER_STATE_UPDATES_DROPPED_SNAPSHOTS = "cluster.state_updates.dropped_snapshots";
+    }
+
 
 }
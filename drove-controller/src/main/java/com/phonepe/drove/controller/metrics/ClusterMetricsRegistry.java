@@ -17,6 +17,7 @@
 package com.phonepe.drove.controller.metrics;
 
 import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
 import com.codahale.metrics.MetricRegistry;
 import com.google.common.annotations.VisibleForTesting;
 import com.phonepe.drove.common.coverageutils.IgnoreInJacocoGeneratedReport;
@@ -82,7 +83,21 @@ public class ClusterMetricsRegistry {
     }
 
     public void markMeter(String name) {
-        registry.meter(metricName(name)).mark();
+        meter(name).mark();
+    }
+
+    /**
+     * Get or create a meter. Use this to hold on to meters that are marked on hot paths.
+     */
+    public Meter meter(String name) {
+        return registry.meter(metricName(name));
+    }
+
+    /**
+     * Register a gauge that computes its value when read. Registering the same name again returns the existing gauge.
+     */
+    public <T> Gauge<T> gauge(String name, Gauge<T> gauge) {
+        return registry.gauge(metricName(name), () -> gauge);
     }
 
     private static String metricName(String name) {
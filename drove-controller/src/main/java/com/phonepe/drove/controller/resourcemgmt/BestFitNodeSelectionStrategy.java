@@ -0,0 +1,80 @@
+/*
+ *  Copyright (c) 2024 Original Author(s), PhonePe India Pvt. Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.phonepe.drove.controller.resourcemgmt;
+
+import lombok.val;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Bin packing. Prefers the executor (and NUMA node) that will have the least free cores left after placement.
+ * Ties are broken randomly.
+ */
+public class BestFitNodeSelectionStrategy implements NodeSelectionStrategy {
+    private static final Comparator<FitKey> FIT_ORDER = Comparator.comparingLong(FitKey::leftoverCores)
+            .thenComparingLong(FitKey::leftoverMemory);
+
+    @Override
+    public NodeSelectionStrategyType type() {
+        return NodeSelectionStrategyType.BEST_FIT;
+    }
+
+    @Override
+    public List<ExecutorHostInfo> order(
+            List<ExecutorHostInfo> candidates,
+            long requiredCores,
+            long requiredMemory) {
+        //Sort keys are computed once per executor and not on every comparison
+        val keyed = new ArrayList<FitKey>(candidates.size());
+        candidates.forEach(hostInfo -> keyed.add(fitKey(hostInfo, requiredCores, requiredMemory)));
+        Collections.shuffle(keyed);
+        keyed.sort(FIT_ORDER);
+        return keyed.stream()
+                .map(FitKey::hostInfo)
+                .toList();
+    }
+
+    @Override
+    public Comparator<ExecutorHostInfo.NumaNodeInfo> numaNodePreference() {
+        return Comparator.<ExecutorHostInfo.NumaNodeInfo>comparingInt(ExecutorHostInfo.NumaNodeInfo::getFreeCoreCount)
+                .thenComparingLong(node -> node.getMemory().getAvailable());
+    }
+
+    private record FitKey(ExecutorHostInfo hostInfo, long leftoverCores, long leftoverMemory) {
+    }
+
+    /*
+     * Leftover cores and memory are taken from the same NUMA node, the one that would be the tightest fit
+     */
+    private static FitKey fitKey(ExecutorHostInfo hostInfo, long requiredCores, long requiredMemory) {
+        return hostInfo.getNodes()
+                .values()
+                .stream()
+                .filter(node -> fits(node, requiredCores, requiredMemory))
+                .map(node -> new FitKey(hostInfo,
+                                        node.getFreeCoreCount() - requiredCores,
+                                        node.getMemory().getAvailable() - requiredMemory))
+                .min(FIT_ORDER)
+                .orElseGet(() -> new FitKey(hostInfo, Long.MAX_VALUE, Long.MAX_VALUE));
+    }
+
+    private static boolean fits(ExecutorHostInfo.NumaNodeInfo node, long requiredCores, long requiredMemory) {
+        return node.getFreeCoreCount() >= requiredCores && node.getMemory().getAvailable() >= requiredMemory;
+    }
+}
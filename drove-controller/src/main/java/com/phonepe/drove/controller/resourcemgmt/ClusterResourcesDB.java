@@ -31,6 +31,7 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 
 /**
@@ -73,10 +74,37 @@ public abstract class ClusterResourcesDB {
 
     public abstract void update(ExecutorResourceSnapshot snapshot);
 
+    /**
+     * Refresh last update time for executors whose data has not changed since the last update. Executors that are
+     * not known are added as in {@link #update(List)}.
+     *
+     * @param nodeData Latest node data for the executors
+     */
+    public abstract void touch(final List<ExecutorNodeData> nodeData);
+
     public abstract Optional<AllocatedExecutorNode> selectNodes(
             List<ResourceRequirement> requirements,
             Set<ExecutorState> allowedExecutorState, Predicate<AllocatedExecutorNode> filter);
 
+    /**
+     * Select and soft-lock resources on upto count nodes in one go. The filter is evaluated again for every
+     * selection, and the onSelected callback is invoked for each selected node before the next one is looked up. This
+     * allows callers to keep filter state (for example per-host instance counts) in sync with the selections.
+     *
+     * @param requirements         Resources needed on each node
+     * @param allowedExecutorState Executor states to be considered
+     * @param filter               Filter to check if a node is acceptable
+     * @param onSelected           Called for every node that gets selected
+     * @param count                Maximum number of nodes to be selected
+     * @return List of selected nodes. This can contain less than count elements if cluster does not have capacity.
+     */
+    public abstract List<AllocatedExecutorNode> selectNodes(
+            List<ResourceRequirement> requirements,
+            Set<ExecutorState> allowedExecutorState,
+            Predicate<AllocatedExecutorNode> filter,
+            Consumer<AllocatedExecutorNode> onSelected,
+            int count);
+
     public abstract void deselectNode(String executorId,
                                              CPUAllocation cpuAllocation,
                                              MemoryAllocation memoryAllocation) ;
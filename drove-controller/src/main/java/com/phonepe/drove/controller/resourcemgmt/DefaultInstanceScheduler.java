@@ -17,36 +17,11 @@
 package com.phonepe.drove.controller.resourcemgmt;
 
 import com.google.common.base.Strings;
-import com.google.common.collect.Sets;
 import com.phonepe.drove.controller.rule.RuleEvaluator;
-import com.phonepe.drove.controller.statedb.ApplicationInstanceInfoDB;
-import com.phonepe.drove.controller.statedb.LocalServiceStateDB;
-import com.phonepe.drove.controller.statedb.TaskDB;
 import com.phonepe.drove.controller.utils.ControllerUtils;
-import com.phonepe.drove.models.application.ApplicationSpec;
 import com.phonepe.drove.models.application.placement.PlacementPolicy;
-import com.phonepe.drove.models.application.placement.PlacementPolicyVisitor;
-import com.phonepe.drove.models.application.placement.policies.*;
-import com.phonepe.drove.models.application.requirements.ResourceType;
 import com.phonepe.drove.models.info.nodedata.ExecutorState;
-import com.phonepe.drove.models.info.nodedata.SchedulingInfo;
-import com.phonepe.drove.models.info.resources.allocation.CPUAllocation;
-import com.phonepe.drove.models.info.resources.allocation.MemoryAllocation;
-import com.phonepe.drove.models.info.resources.allocation.ResourceAllocation;
-import com.phonepe.drove.models.instance.InstanceInfo;
-import com.phonepe.drove.models.instance.InstanceState;
-import com.phonepe.drove.models.instance.LocalServiceInstanceState;
-import com.phonepe.drove.models.interfaces.DeployedInstanceInfo;
-import com.phonepe.drove.models.interfaces.DeployedInstanceInfoVisitor;
 import com.phonepe.drove.models.interfaces.DeploymentSpec;
-import com.phonepe.drove.models.interfaces.DeploymentSpecVisitor;
-import com.phonepe.drove.models.localservice.LocalServiceInstanceInfo;
-import com.phonepe.drove.models.localservice.LocalServiceSpec;
-import com.phonepe.drove.models.operation.rule.RuleCallStatus;
-import com.phonepe.drove.models.operation.rule.RuleEvalResponse;
-import com.phonepe.drove.models.task.TaskSpec;
-import com.phonepe.drove.models.taskinstance.TaskInfo;
-import com.phonepe.drove.models.taskinstance.TaskState;
 import io.appform.functionmetrics.MonitoredFunction;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
@@ -56,8 +31,6 @@ import javax.inject.Inject;
 import javax.inject.Singleton;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.function.Function;
-import java.util.stream.Collectors;
 
 /**
  *
@@ -65,50 +38,22 @@ import java.util.stream.Collectors;
 @Singleton
 @Slf4j
 public class DefaultInstanceScheduler implements InstanceScheduler {
-    private static final Set<InstanceState> RESOURCE_CONSUMING_INSTANCE_STATES = EnumSet.of(InstanceState.PENDING,
-                                                                                            InstanceState.PROVISIONING,
-                                                                                            InstanceState.STARTING,
-                                                                                            InstanceState.UNREADY,
-                                                                                            InstanceState.READY,
-                                                                                            InstanceState.HEALTHY,
-                                                                                            InstanceState.UNHEALTHY,
-                                                                                            InstanceState.DEPROVISIONING,
-                                                                                            InstanceState.STOPPING);
-    private static final Set<TaskState> RESOURCE_CONSUMING_TASK_STATES = EnumSet.of(TaskState.PENDING,
-                                                                                    TaskState.PROVISIONING,
-                                                                                    TaskState.STARTING,
-                                                                                    TaskState.RUNNING,
-                                                                                    TaskState.RUN_COMPLETED,
-                                                                                    TaskState.DEPROVISIONING);
-    private static final Set<LocalServiceInstanceState> RESOURCE_CONSUMING_LOCAL_SERVICE_INSTANCE_STATES = EnumSet.of(
-            LocalServiceInstanceState.PENDING,
-            LocalServiceInstanceState.PROVISIONING,
-            LocalServiceInstanceState.STARTING,
-            LocalServiceInstanceState.UNREADY,
-            LocalServiceInstanceState.READY,
-            LocalServiceInstanceState.HEALTHY,
-            LocalServiceInstanceState.UNHEALTHY,
-            LocalServiceInstanceState.DEPROVISIONING,
-            LocalServiceInstanceState.STOPPING);
-    private final ApplicationInstanceInfoDB instanceInfoDB;
-    private final TaskDB taskDB;
-    private final LocalServiceStateDB localServiceStateDB;
+    private final DeployableAllocationTracker allocationTracker;
     private final ClusterResourcesDB clusterResourcesDB;
     private final RuleEvaluator ruleEvaluator;
-    //Map of sessionId -> [executorId -> [ instanceId -> resources]]]
-    private final Map<String, Map<String, Map<String, InstanceResourceAllocation>>> schedulingSessionData =
-            new ConcurrentHashMap<>();
+    //Map of sessionId -> existing and tentative allocations for the session
+    private final Map<String, SchedulingSessionData> schedulingSessionData = new ConcurrentHashMap<>();
+    //Map of sessionId -> placement policy evaluator with caches for the session
+    private final Map<String, PlacementPolicyEvaluator> sessionPolicyEvaluators = new ConcurrentHashMap<>();
+    //Map of sessionId -> instanceId -> placements computed in batch that have not been claimed yet
+    private final Map<String, Map<String, InstancePlacement>> unclaimedPlacements = new ConcurrentHashMap<>();
 
     @Inject
     public DefaultInstanceScheduler(
-            ApplicationInstanceInfoDB instanceInfoDB,
-            TaskDB taskDB,
-            LocalServiceStateDB localServiceStateDB,
+            DeployableAllocationTracker allocationTracker,
             ClusterResourcesDB clusterResourcesDB,
             RuleEvaluator ruleEvaluator) {
-        this.instanceInfoDB = instanceInfoDB;
-        this.taskDB = taskDB;
-        this.localServiceStateDB = localServiceStateDB;
+        this.allocationTracker = allocationTracker;
         this.clusterResourcesDB = clusterResourcesDB;
         this.ruleEvaluator = ruleEvaluator;
     }
@@ -130,40 +75,100 @@ public class DefaultInstanceScheduler implements InstanceScheduler {
             final Set<ExecutorState> allowedStates) {
 
 
-        val sessionData = schedulingSessionData.computeIfAbsent(
-                schedulingSessionId,
-                id -> {
-                    log.info("CREATE::SID: {}", schedulingSessionId);
-                    return clusterSnapshot(deploymentSpec);
-                });
+        val sessionData = sessionData(schedulingSessionId, deploymentSpec);
+        val evaluator = policyEvaluator(schedulingSessionId, sessionData);
         val selectedNode = clusterResourcesDB.selectNodes(
                 deploymentSpec.getResources(),
                 allowedStates,
-                allocatedNode -> validateNode(placementPolicy, sessionData, allocatedNode, deploymentSpec));
+                allocatedNode -> evaluator.test(placementPolicy, allocatedNode, deploymentSpec.getEnv()));
         //If a node is found, add it to the list of allocated nodes for this session
         //Next time a request for this session comes, this will ensure that allocations done in current session
         //Are taken into consideration
-        selectedNode.ifPresent(allocatedExecutorNode -> schedulingSessionData.computeIfPresent(
-                schedulingSessionId,
-                (sid, executorAllocations) -> {
-                    val executorId = allocatedExecutorNode.getExecutorId();
-                    val currentAllocations = executorAllocations.computeIfAbsent(executorId, eId -> new HashMap<>());
-                    currentAllocations.put(instanceId,
-                                           new InstanceResourceAllocation(executorId,
-                                                                          instanceId,
-                                                                          allocatedExecutorNode.getCpu(),
-                                                                          allocatedExecutorNode.getMemory()));
-                    log.info("POST_ALLOC::SID: {} exec id: {} count: {}",
-                             sid, executorId, currentAllocations.size());
-                    return executorAllocations;
-                }));
+        selectedNode.ifPresent(allocatedExecutorNode -> recordAllocation(schedulingSessionId,
+                                                                         sessionData,
+                                                                         instanceId,
+                                                                         allocatedExecutorNode));
         return selectedNode;
     }
 
+    @Override
+    @MonitoredFunction
+    public synchronized List<InstancePlacement> scheduleBatch(
+            @NonNull final String schedulingSessionId,
+            final List<String> instanceIds,
+            final DeploymentSpec deploymentSpec) {
+        if (instanceIds.isEmpty()) {
+            return List.of();
+        }
+        val placementPolicy = ControllerUtils.computeEffectivePlacementPolicy(deploymentSpec);
+        val sessionData = sessionData(schedulingSessionId, deploymentSpec);
+        val evaluator = policyEvaluator(schedulingSessionId, sessionData);
+        val placements = new ArrayList<InstancePlacement>(instanceIds.size());
+        //Every selection is recorded in the session before the next one is evaluated, so policies like
+        //MaxNPerHost take the earlier placements in this batch into account
+        clusterResourcesDB.selectNodes(
+                deploymentSpec.getResources(),
+                EnumSet.of(ExecutorState.ACTIVE),
+                allocatedNode -> evaluator.test(placementPolicy, allocatedNode, deploymentSpec.getEnv()),
+                allocatedNode -> {
+                    val instanceId = instanceIds.get(placements.size());
+                    recordAllocation(schedulingSessionId, sessionData, instanceId, allocatedNode);
+                    placements.add(new InstancePlacement(instanceId, allocatedNode));
+                },
+                instanceIds.size());
+        val unclaimed = unclaimedPlacements.computeIfAbsent(schedulingSessionId, id -> new HashMap<>());
+        placements.forEach(placement -> unclaimed.put(placement.getInstanceId(), placement));
+        log.info("BATCH_ALLOC::SID: {} requested: {} allocated: {}",
+                 schedulingSessionId, instanceIds.size(), placements.size());
+        return List.copyOf(placements);
+    }
+
+    @Override
+    @MonitoredFunction
+    public synchronized Optional<AllocatedExecutorNode> claimPlacement(
+            @NonNull final String schedulingSessionId,
+            final InstancePlacement placement) {
+        val instanceId = placement.getInstanceId();
+        val node = placement.getNode();
+        val unclaimed = unclaimedPlacements.get(schedulingSessionId);
+        if (null == unclaimed || null == unclaimed.remove(instanceId)) {
+            log.warn("CLAIM::SID: {} placement for {} has already been released", schedulingSessionId, instanceId);
+            return Optional.empty();
+        }
+        val hostInfo = clusterResourcesDB.currentSnapshot(node.getExecutorId()).orElse(null);
+        if (null == hostInfo || !isLocked(hostInfo, node)) {
+            //Executor is gone or has reported a fresh snapshot since. Resources are no longer held for this
+            //placement, so they must not be freed again
+            log.warn("CLAIM::SID: {} resources for {} are no longer held on {}",
+                     schedulingSessionId, instanceId, node.getExecutorId());
+            val sessionData = schedulingSessionData.get(schedulingSessionId);
+            if (null != sessionData) {
+                sessionData.release(node.getExecutorId(), instanceId);
+            }
+            return Optional.empty();
+        }
+        if (!clusterResourcesDB.isActive(node.getExecutorId())) {
+            log.warn("CLAIM::SID: {} executor {} is no longer active. Releasing placement for {}",
+                     schedulingSessionId, node.getExecutorId(), instanceId);
+            discardAllocation(schedulingSessionId, instanceId, node);
+            return Optional.empty();
+        }
+        return Optional.of(node);
+    }
+
     @Override
     @MonitoredFunction
     public synchronized void finaliseSession(final String schedulingSessionId) {
+        val unclaimed = unclaimedPlacements.remove(schedulingSessionId);
+        if (null != unclaimed && !unclaimed.isEmpty()) {
+            log.info("FINALIZE::SID: {} releasing {} unclaimed placements", schedulingSessionId, unclaimed.size());
+            unclaimed.values()
+                    .forEach(placement -> discardAllocation(schedulingSessionId,
+                                                            placement.getInstanceId(),
+                                                            placement.getNode()));
+        }
         schedulingSessionData.remove(schedulingSessionId);
+        sessionPolicyEvaluators.remove(schedulingSessionId);
         log.info("FINALIZED::SID: {}", schedulingSessionId);
 
     }
@@ -174,213 +179,82 @@ public class DefaultInstanceScheduler implements InstanceScheduler {
             String schedulingSessionId,
             String instanceId,
             AllocatedExecutorNode node) {
-        schedulingSessionData.computeIfPresent(schedulingSessionId, (id, executors) -> {
-            var executorId = executorId(instanceId, node, executors);
+        val unclaimed = unclaimedPlacements.get(schedulingSessionId);
+        if (null != unclaimed) {
+            unclaimed.remove(instanceId);
+        }
+        schedulingSessionData.computeIfPresent(schedulingSessionId, (id, sessionData) -> {
+            val executorId = null != node
+                             ? node.getExecutorId()
+                             : sessionData.allocatedExecutor(instanceId).orElse(null);
             if (!Strings.isNullOrEmpty(executorId)) {
-                val updatedAllocation = executors.compute(
-                        executorId,
-                        (eId, allocation) -> {
-                            if (null != allocation) {
-                                val removed = allocation.remove(instanceId);
-                                if (removed != null) {
-                                    clusterResourcesDB.deselectNode(removed.getExecutorId(),
-                                                                    removed.getCpu(),
-                                                                    removed.getMemory());
-                                    log.info("Relinquished resources for {}/{}",
-                                             removed.getExecutorId(), removed.getInstanceId());
-                                }
-                            }
-                            return allocation;
-                        });
+                val removed = sessionData.release(executorId, instanceId);
+                if (removed != null) {
+                    clusterResourcesDB.deselectNode(removed.getExecutorId(),
+                                                    removed.getCpu(),
+                                                    removed.getMemory());
+                    log.info("Relinquished resources for {}/{}",
+                             removed.getExecutorId(), removed.getInstanceId());
+                }
                 log.info("POST_DISCARD::SID: {} exec id: {} count: {}",
                          schedulingSessionId,
                          executorId,
-                         null == updatedAllocation ? 0 : updatedAllocation.size());
+                         sessionData.instanceCount(executorId));
             }
-            return executors;
+            return sessionData;
         });
         return true;
     }
 
-    private static String executorId(
-            String instanceId,
-            AllocatedExecutorNode node,
-            Map<String, Map<String, InstanceResourceAllocation>> executors) {
-        return null != node
-               ? node.getExecutorId()
-               : executors.values()
-                       .stream().map(instances -> instances.get(instanceId))
-                       .filter(Objects::nonNull)
-                       .map(InstanceResourceAllocation::getExecutorId)
-                       .findAny()
-                       .orElse(null);
+    private SchedulingSessionData sessionData(
+            String schedulingSessionId,
+            DeploymentSpec deploymentSpec) {
+        return schedulingSessionData.computeIfAbsent(
+                schedulingSessionId,
+                id -> {
+                    log.info("CREATE::SID: {}", schedulingSessionId);
+                    return new SchedulingSessionData(allocationTracker.allocations(deploymentSpec));
+                });
     }
 
-    private Map<String, Map<String, InstanceResourceAllocation>> clusterSnapshot(DeploymentSpec deploymentSpec) {
-        return deploymentSpec.accept(new DeploymentSpecVisitor<>() {
-            @Override
-            public Map<String, Map<String, InstanceResourceAllocation>> visit(ApplicationSpec applicationSpec) {
-                return instanceInfoDB.instances(Set.of(ControllerUtils.deployableObjectId(applicationSpec)),
-                                                RESOURCE_CONSUMING_INSTANCE_STATES,
-                                                false)
-                        .values()
-                        .stream()
-                        .flatMap(Collection::stream)
-                        .map(info -> convert(info))
-                        .collect(Collectors.groupingBy(InstanceResourceAllocation::getExecutorId,
-                                                       Collectors.toMap(InstanceResourceAllocation::getInstanceId,
-                                                                        Function.identity())));
-            }
-
-            @Override
-            public Map<String, Map<String, InstanceResourceAllocation>> visit(TaskSpec taskSpec) {
-                return taskDB.tasks(Set.of(taskSpec.getSourceAppName()), RESOURCE_CONSUMING_TASK_STATES, false)
-                        .values()
-                        .stream()
-                        .flatMap(Collection::stream)
-                        .map(info -> convert(info))
-                        .collect(Collectors.groupingBy(InstanceResourceAllocation::getExecutorId,
-                                                       Collectors.toMap(InstanceResourceAllocation::getInstanceId,
-                                                                        Function.identity())));
-            }
-
-            @Override
-            public Map<String, Map<String, InstanceResourceAllocation>> visit(LocalServiceSpec localServiceSpec) {
-                return localServiceStateDB.instances(ControllerUtils.deployableObjectId(localServiceSpec),
-                                                     RESOURCE_CONSUMING_LOCAL_SERVICE_INSTANCE_STATES, false)
-                        .stream()
-                        .map(info -> convert(info))
-                        .collect(Collectors.groupingBy(InstanceResourceAllocation::getExecutorId,
-                                                       Collectors.toMap(InstanceResourceAllocation::getInstanceId,
-                                                                        Function.identity())));
-            }
-        });
+    private PlacementPolicyEvaluator policyEvaluator(
+            String schedulingSessionId,
+            SchedulingSessionData sessionData) {
+        return sessionPolicyEvaluators.computeIfAbsent(
+                schedulingSessionId,
+                id -> new PlacementPolicyEvaluator(clusterResourcesDB, ruleEvaluator, sessionData));
     }
 
-    private InstanceResourceAllocation convert(final DeployedInstanceInfo instanceInfo) {
-        return instanceInfo.accept(new DeployedInstanceInfoVisitor<>() {
-            @Override
-            public InstanceResourceAllocation visit(InstanceInfo applicationInstanceInfo) {
-                return new InstanceResourceAllocation(
-                        applicationInstanceInfo.getExecutorId(),
-                        applicationInstanceInfo.getInstanceId(),
-                        (CPUAllocation) filterAllocation(applicationInstanceInfo.getResources(), ResourceType.CPU),
-                        (MemoryAllocation) filterAllocation(applicationInstanceInfo.getResources(),
-                                                            ResourceType.MEMORY));
-            }
-
-            @Override
-            public InstanceResourceAllocation visit(TaskInfo taskInfo) {
-                return new InstanceResourceAllocation(
-                        taskInfo.getExecutorId(),
-                        taskInfo.getInstanceId(),
-                        (CPUAllocation) filterAllocation(taskInfo.getResources(), ResourceType.CPU),
-                        (MemoryAllocation) filterAllocation(taskInfo.getResources(), ResourceType.MEMORY));
-            }
-
-            @Override
-            public InstanceResourceAllocation visit(LocalServiceInstanceInfo localServiceInstanceInfo) {
-                return new InstanceResourceAllocation(
-                        localServiceInstanceInfo.getExecutorId(),
-                        localServiceInstanceInfo.getInstanceId(),
-                        (CPUAllocation) filterAllocation(localServiceInstanceInfo.getResources(), ResourceType.CPU),
-                        (MemoryAllocation) filterAllocation(localServiceInstanceInfo.getResources(),
-                                                            ResourceType.MEMORY));
-            }
-
-            private static ResourceAllocation filterAllocation(
-                    List<ResourceAllocation> applicationInstanceInfo,
-                    ResourceType resourceType) {
-                return Objects.requireNonNullElse(applicationInstanceInfo, List.<ResourceAllocation>of())
-                        .stream()
-                        .filter(resourceAllocation -> resourceAllocation.getType().equals(resourceType))
-                        .findAny()
-                        .orElse(null);
-            }
-        });
+    /*
+     * Soft locks on an executor are dropped when it reports a changed snapshot. Cores of a placement that are no longer
+     * in the allocated state mean that the placement has lost its resources.
+     */
+    private static boolean isLocked(ExecutorHostInfo hostInfo, AllocatedExecutorNode node) {
+        return node.getCpu()
+                .getCores()
+                .entrySet()
+                .stream()
+                .allMatch(entry -> {
+                    val numaNode = hostInfo.getNodes().get(entry.getKey());
+                    return null != numaNode
+                            && entry.getValue()
+                            .stream()
+                            .allMatch(coreId -> numaNode.coreState(coreId)
+                                    == ExecutorHostInfo.CoreState.ALLOCATED);
+                });
     }
 
-    private boolean validateNode(
-            final PlacementPolicy placementPolicy,
-            Map<String, Map<String, InstanceResourceAllocation>> sessionLevelData,
-            final AllocatedExecutorNode executorNode,
-            final DeploymentSpec deploymentSpec) {
-        val allocatedExecutorId = executorNode.getExecutorId();
-
-        return placementPolicy.accept(new PlacementPolicyVisitor<>() {
-            @Override
-            public Boolean visit(OnePerHostPlacementPolicy onePerHost) {
-                log.debug("Existing: {} allocated: {}", sessionLevelData.keySet(), allocatedExecutorId);
-                val existing = sessionLevelData.get(allocatedExecutorId);
-                return existing == null || existing.isEmpty();
-            }
-
-            @Override
-            public Boolean visit(MaxNPerHostPlacementPolicy maxNPerHost) {
-                val numExistingInstances = sessionLevelData.getOrDefault(allocatedExecutorId, Map.of()).size();
-                log.debug("Existing Instances: {} on allocated executor: {}",
-                          numExistingInstances, allocatedExecutorId);
-                return numExistingInstances < maxNPerHost.getMax();
-            }
-
-            @Override
-            public Boolean visit(MatchTagPlacementPolicy matchTag) {
-                return Objects.requireNonNullElse(executorNode.getTags(), Set.of()).contains(matchTag.getTag());
-            }
-
-            @Override
-            public Boolean visit(NoTagPlacementPolicy noTag) {
-                //Return false if node has any tag other than hostname
-                return Sets.difference(Objects.requireNonNullElse(executorNode.getTags(), Set.of()),
-                                       Set.of(executorNode.getHostname())).isEmpty();
-            }
-
-            @Override
-            public Boolean visit(RuleBasedPlacementPolicy ruleBased) {
-                var allExecutorLevelMetadata = sessionLevelData.keySet()
-                        .stream()
-                        .collect(Collectors.toMap(
-                                         executorId -> executorId,
-                                         executorId -> clusterResourcesDB.lastKnownSnapshot(executorId)
-                                                 .map(executorHostInfo -> executorHostInfo.getNodeData().getMetadata())
-                                                 .orElse(Map.of()))
-                                );
-
-                var schedulingInfo = SchedulingInfo.builder()
-                        .executorNodeId(executorNode.getExecutorId())
-                        .allocatedExecutorNodeMetadata(
-                                Objects.requireNonNullElse(executorNode.getMetadata(), Map.of()))
-                        .allExecutorMetadata(allExecutorLevelMetadata)
-                        .applicationEnvironment(deploymentSpec.getEnv())
-                        .build();
-
-                RuleEvalResponse evalResponse = ruleEvaluator.evaluate(ruleBased, schedulingInfo);
-                return (RuleCallStatus.SUCCESS == evalResponse.getStatus() &&
-                        evalResponse.isResult());
-            }
-
-            @Override
-            public Boolean visit(AnyPlacementPolicy anyPlacementPolicy) {
-                return true;
-            }
-
-            @Override
-            public Boolean visit(CompositePlacementPolicy compositePlacementPolicy) {
-                val combiner
-                        = Objects.requireNonNullElse(compositePlacementPolicy.getCombiner(),
-                                                     CompositePlacementPolicy.CombinerType.AND);
-                val policiesStream = compositePlacementPolicy
-                        .getPolicies()
-                        .stream();
-                return combiner == CompositePlacementPolicy.CombinerType.AND
-                       ? policiesStream.allMatch(placementPolicy -> placementPolicy.accept(this))
-                       : policiesStream.anyMatch(placementPolicy -> placementPolicy.accept(this));
-            }
-
-            @Override
-            public Boolean visit(LocalPlacementPolicy localPlacementPolicy) {
-                return true;
-            }
-        });
+    private static void recordAllocation(
+            String schedulingSessionId,
+            SchedulingSessionData sessionData,
+            String instanceId,
+            AllocatedExecutorNode allocatedExecutorNode) {
+        val executorId = allocatedExecutorNode.getExecutorId();
+        val count = sessionData.allocate(new InstanceResourceAllocation(executorId,
+                                                                        instanceId,
+                                                                        allocatedExecutorNode.getCpu(),
+                                                                        allocatedExecutorNode.getMemory()));
+        log.info("POST_ALLOC::SID: {} exec id: {} count: {}",
+                 schedulingSessionId, executorId, count);
     }
 }
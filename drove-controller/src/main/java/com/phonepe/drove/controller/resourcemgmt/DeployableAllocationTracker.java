@@ -0,0 +1,337 @@
+/*
+ *  Copyright (c) 2024 Original Author(s), PhonePe India Pvt. Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.phonepe.drove.controller.resourcemgmt;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.phonepe.drove.controller.managed.LeadershipEnsurer;
+import com.phonepe.drove.controller.statedb.ApplicationInstanceInfoDB;
+import com.phonepe.drove.controller.statedb.LocalServiceStateDB;
+import com.phonepe.drove.controller.statedb.TaskDB;
+import com.phonepe.drove.controller.utils.ControllerUtils;
+import com.phonepe.drove.models.application.ApplicationSpec;
+import com.phonepe.drove.models.instance.InstanceInfo;
+import com.phonepe.drove.models.instance.InstanceState;
+import com.phonepe.drove.models.instance.LocalServiceInstanceState;
+import com.phonepe.drove.models.interfaces.DeployedInstanceInfo;
+import com.phonepe.drove.models.interfaces.DeployedInstanceInfoVisitor;
+import com.phonepe.drove.models.interfaces.DeploymentSpec;
+import com.phonepe.drove.models.interfaces.DeploymentSpecVisitor;
+import com.phonepe.drove.models.localservice.LocalServiceInstanceInfo;
+import com.phonepe.drove.models.localservice.LocalServiceSpec;
+import com.phonepe.drove.models.task.TaskSpec;
+import com.phonepe.drove.models.taskinstance.TaskInfo;
+import com.phonepe.drove.models.taskinstance.TaskState;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Live view of the instances consuming resources on every executor, per deployable. Used by the scheduler to
+ * start sessions without reading all instances of a deployable from the state DBs.
+ * A deployable is loaded from the state DBs the first time it is requested. After that it is kept up to date by the
+ * {@link com.phonepe.drove.controller.engine.StateUpdater} as instance states are accepted. Components that change
+ * instance states outside that flow (stale instance marking, deletion etc.) need to notify the tracker so that the
+ * deployable gets reloaded. Everything is dropped on leadership change and rebuilt from the DBs on demand.
+ * Maps handed out are immutable and are replaced (copy-on-write) when instances are added or removed.
+ * Loads happen outside the map. Updates that arrive while a deployable is being loaded get chained on to the pending
+ * load and are applied once it completes.
+ */
+@Singleton
+@Slf4j
+public class DeployableAllocationTracker {
+    private enum DeployableType {
+        APPLICATION,
+        TASK,
+        LOCAL_SERVICE
+    }
+
+    private record DeployableKey(DeployableType type, String id) {
+    }
+
+    private record InstanceAllocation(DeployableKey key, String executorId, String instanceId, boolean consuming) {
+    }
+
+    private final ApplicationInstanceInfoDB instanceInfoDB;
+    private final TaskDB taskDB;
+    private final LocalServiceStateDB localServiceStateDB;
+
+    //Deployable -> executorId -> instance ids consuming resources
+    private final Map<DeployableKey, CompletableFuture<Map<String, Set<String>>>> allocations
+            = new ConcurrentHashMap<>();
+
+    @Inject
+    public DeployableAllocationTracker(
+            ApplicationInstanceInfoDB instanceInfoDB,
+            TaskDB taskDB,
+            LocalServiceStateDB localServiceStateDB,
+            LeadershipEnsurer leadershipEnsurer) {
+        this(instanceInfoDB, taskDB, localServiceStateDB);
+        leadershipEnsurer.onLeadershipStateChanged().connect(leader -> reset());
+        //Task states get written from outside the state updater as well (for example when stale tasks are marked
+        //lost). Signal is async, so only removals are picked up from here as they cannot go out of order.
+        taskDB.onStateChange().connect(this::handleTaskStateChange);
+    }
+
+    @VisibleForTesting
+    public DeployableAllocationTracker(
+            ApplicationInstanceInfoDB instanceInfoDB,
+            TaskDB taskDB,
+            LocalServiceStateDB localServiceStateDB) {
+        this.instanceInfoDB = instanceInfoDB;
+        this.taskDB = taskDB;
+        this.localServiceStateDB = localServiceStateDB;
+    }
+
+    /**
+     * Instances that are currently consuming resources for the deployable. Tasks are grouped by source app.
+     *
+     * @param deploymentSpec Spec for the deployable
+     * @return Immutable map of executor id to instance ids present on the executor
+     */
+    public Map<String, Set<String>> allocations(final DeploymentSpec deploymentSpec) {
+        val key = key(deploymentSpec);
+        val existing = allocations.get(key);
+        if (null != existing) {
+            return existing.join();
+        }
+        val loading = new CompletableFuture<Map<String, Set<String>>>();
+        val raced = allocations.putIfAbsent(key, loading);
+        if (null != raced) {
+            return raced.join();
+        }
+        //Loaded without holding any lock on the map, so that lookups for other deployables do not get blocked
+        try {
+            loading.complete(load(deploymentSpec));
+        }
+        catch (RuntimeException e) {
+            loading.completeExceptionally(e);
+            allocations.computeIfPresent(key, (k, current) -> current.isCompletedExceptionally() ? null : current);
+            throw e;
+        }
+        return allocations.getOrDefault(key, loading).join();
+    }
+
+    /**
+     * Record the latest accepted state of an instance. Ignored if the deployable has not been loaded yet, as the
+     * state will be picked up from the DB when it gets loaded.
+     *
+     * @param instanceInfo Instance info that has been accepted into the state DB
+     */
+    public void update(final DeployedInstanceInfo instanceInfo) {
+        val allocation = toAllocation(instanceInfo);
+        if (null == allocation.executorId() || null == allocation.instanceId()) {
+            return;
+        }
+        allocations.computeIfPresent(allocation.key(),
+                                     (key, current) -> chain(current, existing -> apply(existing, allocation)));
+    }
+
+    /**
+     * Drop all instances on the provided executors
+     *
+     * @param executorIds Executors that have been removed from the cluster
+     */
+    public void removeExecutors(final Collection<String> executorIds) {
+        allocations.keySet()
+                .forEach(key -> allocations.computeIfPresent(key, (k, current) -> chain(current, existing -> {
+                    if (executorIds.stream().noneMatch(existing::containsKey)) {
+                        return existing;
+                    }
+                    val updated = new HashMap<>(existing);
+                    executorIds.forEach(updated::remove);
+                    return Map.copyOf(updated);
+                })));
+    }
+
+    /**
+     * Drop tracked allocations for an application. Needs to be called when instance states for the app are changed
+     * in bulk in the DB (for example stale instances being marked lost) or the app is deleted. Allocations get
+     * reloaded from the DB the next time they are requested.
+     *
+     * @param appId Application ID
+     */
+    public void evictApplication(final String appId) {
+        evict(new DeployableKey(DeployableType.APPLICATION, appId));
+    }
+
+    /**
+     * Drop tracked allocations for a local service. See {@link #evictApplication(String)}.
+     *
+     * @param serviceId Local service ID
+     */
+    public void evictLocalService(final String serviceId) {
+        evict(new DeployableKey(DeployableType.LOCAL_SERVICE, serviceId));
+    }
+
+    /**
+     * Drop everything. Allocations get rebuilt from the state DBs as and when deployables get scheduled.
+     */
+    public void reset() {
+        log.info("Clearing all tracked allocations");
+        allocations.clear();
+    }
+
+    private void handleTaskStateChange(final TaskInfo taskInfo) {
+        if (!TaskState.ACTIVE_STATES.contains(taskInfo.getState())) {
+            update(taskInfo);
+        }
+    }
+
+    private void evict(final DeployableKey key) {
+        if (null != allocations.remove(key)) {
+            log.debug("Evicted tracked allocations for {}", key);
+        }
+    }
+
+    /**
+     * Apply a change on the tracked allocations. Gets deferred till the load completes if the deployable is still
+     * being loaded.
+     */
+    private static CompletableFuture<Map<String, Set<String>>> chain(
+            CompletableFuture<Map<String, Set<String>>> current,
+            UnaryOperator<Map<String, Set<String>>> change) {
+        if (!current.isDone() || current.isCompletedExceptionally()) {
+            return current.thenApply(change);
+        }
+        val existing = current.join();
+        val updated = change.apply(existing);
+        return updated == existing ? current : CompletableFuture.completedFuture(updated);
+    }
+
+    private static Map<String, Set<String>> apply(
+            Map<String, Set<String>> current,
+            InstanceAllocation allocation) {
+        val executorId = allocation.executorId();
+        val existing = current.getOrDefault(executorId, Set.of());
+        if (existing.contains(allocation.instanceId()) == allocation.consuming()) {
+            //Nothing changed, which is the case for most periodic updates
+            return current;
+        }
+        val instances = new HashSet<>(existing);
+        if (allocation.consuming()) {
+            instances.add(allocation.instanceId());
+        }
+        else {
+            instances.remove(allocation.instanceId());
+        }
+        val updated = new HashMap<>(current);
+        if (instances.isEmpty()) {
+            updated.remove(executorId);
+        }
+        else {
+            updated.put(executorId, Set.copyOf(instances));
+        }
+        return Map.copyOf(updated);
+    }
+
+    private Map<String, Set<String>> load(final DeploymentSpec deploymentSpec) {
+        val instances = deploymentSpec.accept(new DeploymentSpecVisitor<Stream<? extends DeployedInstanceInfo>>() {
+            @Override
+            public Stream<? extends DeployedInstanceInfo> visit(ApplicationSpec applicationSpec) {
+                return instanceInfoDB.instances(Set.of(ControllerUtils.deployableObjectId(applicationSpec)),
+                                                InstanceState.ACTIVE_STATES,
+                                                false)
+                        .values()
+                        .stream()
+                        .flatMap(Collection::stream);
+            }
+
+            @Override
+            public Stream<? extends DeployedInstanceInfo> visit(TaskSpec taskSpec) {
+                return taskDB.tasks(Set.of(taskSpec.getSourceAppName()), TaskState.ACTIVE_STATES, false)
+                        .values()
+                        .stream()
+                        .flatMap(Collection::stream);
+            }
+
+            @Override
+            public Stream<? extends DeployedInstanceInfo> visit(LocalServiceSpec localServiceSpec) {
+                return localServiceStateDB.instances(ControllerUtils.deployableObjectId(localServiceSpec),
+                                                     LocalServiceInstanceState.ACTIVE_STATES,
+                                                     false)
+                        .stream();
+            }
+        });
+        val loaded = instances.map(DeployableAllocationTracker::toAllocation)
+                .filter(allocation -> null != allocation.executorId() && null != allocation.instanceId())
+                .collect(Collectors.groupingBy(InstanceAllocation::executorId,
+                                               Collectors.mapping(InstanceAllocation::instanceId,
+                                                                  Collectors.toUnmodifiableSet())));
+        log.debug("Loaded allocations for {}: {} executors", key(deploymentSpec), loaded.size());
+        return Map.copyOf(loaded);
+    }
+
+    private static DeployableKey key(final DeploymentSpec deploymentSpec) {
+        return deploymentSpec.accept(new DeploymentSpecVisitor<>() {
+            @Override
+            public DeployableKey visit(ApplicationSpec applicationSpec) {
+                return new DeployableKey(DeployableType.APPLICATION,
+                                         ControllerUtils.deployableObjectId(applicationSpec));
+            }
+
+            @Override
+            public DeployableKey visit(TaskSpec taskSpec) {
+                return new DeployableKey(DeployableType.TASK, taskSpec.getSourceAppName());
+            }
+
+            @Override
+            public DeployableKey visit(LocalServiceSpec localServiceSpec) {
+                return new DeployableKey(DeployableType.LOCAL_SERVICE,
+                                         ControllerUtils.deployableObjectId(localServiceSpec));
+            }
+        });
+    }
+
+    private static InstanceAllocation toAllocation(final DeployedInstanceInfo instanceInfo) {
+        return instanceInfo.accept(new DeployedInstanceInfoVisitor<>() {
+            @Override
+            public InstanceAllocation visit(InstanceInfo applicationInstanceInfo) {
+                return new InstanceAllocation(
+                        new DeployableKey(DeployableType.APPLICATION, applicationInstanceInfo.getAppId()),
+                        applicationInstanceInfo.getExecutorId(),
+                        applicationInstanceInfo.getInstanceId(),
+                        InstanceState.ACTIVE_STATES.contains(applicationInstanceInfo.getState()));
+            }
+
+            @Override
+            public InstanceAllocation visit(TaskInfo taskInfo) {
+                return new InstanceAllocation(
+                        new DeployableKey(DeployableType.TASK, taskInfo.getSourceAppName()),
+                        taskInfo.getExecutorId(),
+                        taskInfo.getInstanceId(),
+                        TaskState.ACTIVE_STATES.contains(taskInfo.getState()));
+            }
+
+            @Override
+            public InstanceAllocation visit(LocalServiceInstanceInfo localServiceInstanceInfo) {
+                return new InstanceAllocation(
+                        new DeployableKey(DeployableType.LOCAL_SERVICE, localServiceInstanceInfo.getServiceId()),
+                        localServiceInstanceInfo.getExecutorId(),
+                        localServiceInstanceInfo.getInstanceId(),
+                        LocalServiceInstanceState.ACTIVE_STATES.contains(
+                                localServiceInstanceInfo.getState()));
+            }
+        });
+    }
+}
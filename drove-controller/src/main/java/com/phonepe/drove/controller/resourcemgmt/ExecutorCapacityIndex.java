@@ -0,0 +1,100 @@
+/*
+ *  Copyright (c) 2024 Original Author(s), PhonePe India Pvt. Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.phonepe.drove.controller.resourcemgmt;
+
+import lombok.val;
+
+import java.util.*;
+
+/**
+ * Index of executors bucketed by the free capacity of their NUMA nodes. Used to short-list executors that can
+ * actually fit a resource requirement without scanning the full cluster.
+ * This class is not thread safe. Callers are expected to guard access with the same lock that protects the
+ * {@link ExecutorHostInfo} objects being indexed.
+ */
+class ExecutorCapacityIndex {
+    private record NumaCapacity(long freeCores, long freeMemory) {
+        boolean fits(long requiredCores, long requiredMemory) {
+            return freeCores >= requiredCores && freeMemory >= requiredMemory;
+        }
+    }
+
+    //Free cores -> Executors having at least one NUMA node with this many free cores
+    private final NavigableMap<Long, Set<String>> executorsByFreeCores = new TreeMap<>();
+    //Executor id -> NUMA node id -> capacity
+    private final Map<String, Map<Integer, NumaCapacity>> capacities = new HashMap<>();
+
+    /**
+     * (Re)index an executor. Needs to be called every time resources on the executor change.
+     *
+     * @param hostInfo Current host info for the executor
+     */
+    void index(final ExecutorHostInfo hostInfo) {
+        val executorId = hostInfo.getExecutorId();
+        remove(executorId);
+        val numaCapacities = new HashMap<Integer, NumaCapacity>();
+        hostInfo.getNodes()
+                .forEach((numaNodeId, nodeInfo) -> {
+                    val capacity = new NumaCapacity(nodeInfo.getFreeCoreCount(),
+                                                    nodeInfo.getMemory().getAvailable());
+                    numaCapacities.put(numaNodeId, capacity);
+                    executorsByFreeCores.computeIfAbsent(capacity.freeCores(), k -> new HashSet<>())
+                            .add(executorId);
+                });
+        capacities.put(executorId, numaCapacities);
+    }
+
+    /**
+     * Remove an executor from the index
+     *
+     * @param executorId Executor to be removed
+     */
+    void remove(final String executorId) {
+        val existing = capacities.remove(executorId);
+        if (null == existing) {
+            return;
+        }
+        existing.values()
+                .forEach(capacity -> executorsByFreeCores.computeIfPresent(
+                        capacity.freeCores(),
+                        (freeCores, executors) -> {
+                            executors.remove(executorId);
+                            return executors.isEmpty() ? null : executors;
+                        }));
+    }
+
+    /**
+     * Find executors that have at least one NUMA node that can fit the provided requirement
+     *
+     * @param requiredCores  Number of cores needed on a single NUMA node
+     * @param requiredMemory Amount of memory (in MB) needed on the same NUMA node
+     * @return Unordered list of matching executor ids
+     */
+    List<String> candidates(long requiredCores, long requiredMemory) {
+        val matched = new HashSet<String>();
+        executorsByFreeCores.tailMap(requiredCores, true)
+                .values()
+                .forEach(executors -> executors.stream()
+                        .filter(executorId -> !matched.contains(executorId))
+                        .filter(executorId -> capacities.getOrDefault(executorId, Map.of())
+                                .values()
+                                .stream()
+                                .anyMatch(capacity -> capacity.fits(requiredCores, requiredMemory)))
+                        .forEach(matched::add));
+        return new ArrayList<>(matched);
+    }
+}
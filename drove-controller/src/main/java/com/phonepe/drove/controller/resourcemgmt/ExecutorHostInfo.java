@@ -17,12 +17,9 @@
 package com.phonepe.drove.controller.resourcemgmt;
 
 import com.phonepe.drove.models.info.nodedata.ExecutorNodeData;
-import lombok.AllArgsConstructor;
-import lombok.Data;
-import lombok.Value;
+import lombok.*;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.*;
 
 /**
  *
@@ -44,11 +41,158 @@ public class ExecutorHostInfo {
         long used = 0L;
     }
 
-    @Value
-    public static class NumaNodeInfo {
-        Map<Integer, CoreState> cores = new HashMap<>();
-        MemInfo memory = new MemInfo();
+    /**
+     * Core and memory state for a single NUMA node. Core states are tracked as bitmasks with a cached count of free
+     * cores, so that capacity checks and allocations do not need to walk over boxed per-core entries.
+     */
+    @ToString
+    @EqualsAndHashCode
+    public static final class NumaNodeInfo {
+        private final BitSet freeCores = new BitSet();
+        private final BitSet inUseCores = new BitSet();
+        private final BitSet allocatedCores = new BitSet();
+        private int freeCoreCount = 0;
+        @Getter
+        private final MemInfo memory = new MemInfo();
+
+        public NumaNodeInfo() {
+            //Nothing to initialise
+        }
+
+        private NumaNodeInfo(final NumaNodeInfo other) {
+            freeCores.or(other.freeCores);
+            inUseCores.or(other.inUseCores);
+            allocatedCores.or(other.allocatedCores);
+            freeCoreCount = other.freeCoreCount;
+            memory.setAvailable(other.memory.getAvailable());
+            memory.setUsed(other.memory.getUsed());
+        }
+
+        /**
+         * @return A deep copy of this node that can be modified without affecting this one
+         */
+        public NumaNodeInfo copy() {
+            return new NumaNodeInfo(this);
+        }
+
+        /**
+         * Check if this node already reflects the state reported by the executor
+         *
+         * @param reportedFree    Cores reported as free
+         * @param reportedInUse   Cores reported as in use
+         * @param availableMemory Reported free memory
+         * @param usedMemory      Reported used memory
+         * @return true if nothing needs to change
+         */
+        public boolean matches(
+                final BitSet reportedFree,
+                final BitSet reportedInUse,
+                long availableMemory,
+                long usedMemory) {
+            return allocatedCores.isEmpty()
+                    && freeCores.equals(reportedFree)
+                    && inUseCores.equals(reportedInUse)
+                    && memory.getAvailable() == availableMemory
+                    && memory.getUsed() == usedMemory;
+        }
+
+        /**
+         * Bring core states in line with the ones reported by the executor. Only cores whose state differs from the
+         * current masks are touched. Soft allocations are dropped as the executor report is authoritative.
+         *
+         * @param reportedFree  Cores reported as free
+         * @param reportedInUse Cores reported as in use. Takes precedence if a core is reported in both.
+         */
+        public void applyReportedCores(final BitSet reportedFree, final BitSet reportedInUse) {
+            val changed = (BitSet) freeCores.clone();
+            changed.xor(reportedFree);
+            val inUseChanged = (BitSet) inUseCores.clone();
+            inUseChanged.xor(reportedInUse);
+            changed.or(inUseChanged);
+            changed.or(allocatedCores);
+            changed.stream()
+                    .forEach(coreId -> {
+                        if (reportedInUse.get(coreId)) {
+                            setCoreState(coreId, CoreState.IN_USE);
+                        }
+                        else {
+                            setCoreState(coreId, reportedFree.get(coreId) ? CoreState.FREE : CoreState.UNKNOWN);
+                        }
+                    });
+        }
+
+        public int getFreeCoreCount() {
+            return freeCoreCount;
+        }
+
+        public int getTotalCoreCount() {
+            return freeCoreCount + inUseCores.cardinality() + allocatedCores.cardinality();
+        }
+
+        public CoreState coreState(int coreId) {
+            if (freeCores.get(coreId)) {
+                return CoreState.FREE;
+            }
+            if (allocatedCores.get(coreId)) {
+                return CoreState.ALLOCATED;
+            }
+            return inUseCores.get(coreId) ? CoreState.IN_USE : CoreState.UNKNOWN;
+        }
+
+        public void setCoreState(int coreId, final CoreState state) {
+            if (freeCores.get(coreId)) {
+                freeCoreCount--;
+            }
+            freeCores.clear(coreId);
+            inUseCores.clear(coreId);
+            allocatedCores.clear(coreId);
+            switch (state) {
+                case FREE -> {
+                    freeCores.set(coreId);
+                    freeCoreCount++;
+                }
+                case IN_USE -> inUseCores.set(coreId);
+                case ALLOCATED -> allocatedCores.set(coreId);
+                default -> {
+                    //Not tracked
+                }
+            }
+        }
+
+        public void setCoreStates(final Collection<Integer> coreIds, final CoreState state) {
+            coreIds.forEach(coreId -> setCoreState(coreId, state));
+        }
+
+        /**
+         * Select lowest numbered free cores on this node. Does not change any state.
+         *
+         * @param count Number of cores needed
+         * @return Immutable set of free core ids. Will be smaller than count if enough free cores are not available.
+         */
+        public Set<Integer> selectFreeCores(long count) {
+            val selected = new Integer[(int) Math.min(count, freeCoreCount)];
+            var coreId = freeCores.nextSetBit(0);
+            for (var i = 0; i < selected.length; i++) {
+                selected[i] = coreId;
+                coreId = freeCores.nextSetBit(coreId + 1);
+            }
+            return Set.of(selected);
+        }
+
+        /**
+         * A per-core view of the states. Builds a new map on every call, do not use on hot paths.
+         *
+         * @return Map of core id to state for all known cores
+         */
+        public Map<Integer, CoreState> getCores() {
+            val cores = new HashMap<Integer, CoreState>();
+            freeCores.stream().forEach(coreId -> cores.put(coreId, CoreState.FREE));
+            inUseCores.stream().forEach(coreId -> cores.put(coreId, CoreState.IN_USE));
+            allocatedCores.stream().forEach(coreId -> cores.put(coreId, CoreState.ALLOCATED));
+            return cores;
+        }
     }
+
     String executorId;
     ExecutorNodeData nodeData;
     Map<Integer, NumaNodeInfo> nodes;
@@ -16,7 +16,9 @@
 
 package com.phonepe.drove.controller.resourcemgmt;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Sets;
+import com.phonepe.drove.controller.config.ControllerOptions;
 import com.phonepe.drove.models.application.requirements.CPURequirement;
 import com.phonepe.drove.models.application.requirements.MemoryRequirement;
 import com.phonepe.drove.models.application.requirements.ResourceRequirement;
@@ -31,11 +33,15 @@ import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 
+import javax.inject.Inject;
 import javax.inject.Singleton;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
 import java.util.function.LongBinaryOperator;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -48,7 +54,28 @@ import java.util.stream.Collectors;
 public class InMemoryClusterResourcesDB extends ClusterResourcesDB {
     private static final Duration MAX_REMOVED_NODE_RETENTION_WINDOW = Duration.ofDays(2);
 
-    private final Map<String, ExecutorHostInfo> nodes = new HashMap<>();
+    /**
+     * Immutable snapshot of the cluster published at the end of every write section, so readers always see the state
+     * after the last completed write without taking the lock. The {@link ExecutorHostInfo} objects are shared with the
+     * writer side. Writers never modify a host info (or its NUMA node info) in place once it has been put in the map,
+     * they replace it with an updated copy instead.
+     */
+    private record ClusterView(
+            List<ExecutorHostInfo> allNodes,
+            List<ExecutorHostInfo> activeNodes,
+            Set<String> blacklistedNodes) {
+        static final ClusterView EMPTY = new ClusterView(List.of(), List.of(), Set.of());
+    }
+
+    /**
+     * Immutable copy of the removed executors. These change rarely, so a copy is published on every change.
+     */
+    private record RemovedNodesView(Map<String, ExecutorHostInfo> nodes, List<ExecutorHostInfo> nodeList) {
+        static final RemovedNodesView EMPTY = new RemovedNodesView(Map.of(), List.of());
+    }
+
+    //Written to only under the write lock. Point lookups read it directly without any locking.
+    private final Map<String, ExecutorHostInfo> nodes = new ConcurrentHashMap<>();
     private final Map<String, ExecutorHostInfo> removedNodes = new LinkedHashMap<>() {
 
         @Override
@@ -65,71 +92,62 @@ public class InMemoryClusterResourcesDB extends ClusterResourcesDB {
         }
     };
 
+    private final ExecutorCapacityIndex capacityIndex = new ExecutorCapacityIndex();
+
     private final StampedLock lock = new StampedLock();
 
+    //Readers of the whole cluster only ever look at this. Writers publish a new view before releasing the lock.
+    private final AtomicReference<ClusterView> view = new AtomicReference<>(ClusterView.EMPTY);
+    private final AtomicReference<RemovedNodesView> removedView = new AtomicReference<>(RemovedNodesView.EMPTY);
+
+    private final NodeSelectionStrategy selectionStrategy;
+
+    public InMemoryClusterResourcesDB() {
+        this(ControllerOptions.DEFAULT);
+    }
+
+    @Inject
+    public InMemoryClusterResourcesDB(ControllerOptions options) {
+        this(Objects.requireNonNullElse(options.getNodeSelectionStrategy(),
+                                        ControllerOptions.DEFAULT_NODE_SELECTION_STRATEGY)
+                     .createStrategy());
+    }
+
+    @VisibleForTesting
+    InMemoryClusterResourcesDB(NodeSelectionStrategy selectionStrategy) {
+        this.selectionStrategy = selectionStrategy;
+        log.info("Node selection strategy: {}", selectionStrategy.type());
+    }
+
     @Override
     @MonitoredFunction
     public long executorCount(boolean skipOffDutyNodes) {
-        val stamp = lock.readLock();
-        try {
-            return nodes.values()
-                    .stream()
-                    .filter(node -> checkOffDuty(skipOffDutyNodes, node)) //Else remove blacklisted
-                    .count();
-        }
-        finally {
-            lock.unlockRead(stamp);
-        }
+        val current = view.get();
+        return skipOffDutyNodes ? current.activeNodes().size() : current.allNodes().size();
     }
 
     @Override
     @MonitoredFunction
     public List<ExecutorHostInfo> currentSnapshot(boolean skipOffDutyNodes) {
-        val stamp = lock.readLock();
-        try {
-            return nodes.values()
-                    .stream()
-                    .filter(node -> checkOffDuty(skipOffDutyNodes, node)) //Else remove blacklisted
-                    .toList();
-        }
-        finally {
-            lock.unlockRead(stamp);
-        }
+        val current = view.get();
+        return skipOffDutyNodes ? current.activeNodes() : current.allNodes();
     }
 
     @Override
     @MonitoredFunction
     public List<ExecutorHostInfo> lastKnownSnapshots() {
-        val stamp = lock.readLock();
-        try {
-            return List.copyOf(removedNodes.values());
-        }
-        finally {
-            lock.unlockRead(stamp);
-        }
+        return removedView.get().nodeList();
     }
 
     @Override
     @MonitoredFunction
     public Optional<ExecutorHostInfo> currentSnapshot(final String executorId) {
-        val stamp = lock.readLock();
-        try {
-            return Optional.ofNullable(nodes.get(executorId));
-        }
-        finally {
-            lock.unlockRead(stamp);
-        }
+        return Optional.ofNullable(nodes.get(executorId));
     }
 
     @Override
     public Optional<ExecutorHostInfo> lastKnownSnapshot(String executorId) {
-        val stamp = lock.readLock();
-        try {
-            return Optional.ofNullable(removedNodes.get(executorId));
-        }
-        finally {
-            lock.unlockRead(stamp);
-        }
+        return Optional.ofNullable(removedView.get().nodes().get(executorId));
     }
 
     @Override
@@ -141,6 +159,7 @@ public class InMemoryClusterResourcesDB extends ClusterResourcesDB {
                     .map(nodes::remove)
                     .filter(Objects::nonNull)
                     .map(removedExecutor -> {
+                        capacityIndex.remove(removedExecutor.getExecutorId());
                         removedNodes.put(removedExecutor.getExecutorId(), removedExecutor);
                         log.debug("Executor {} is now out of the cluster", removedExecutor.getExecutorId());
                         return removedExecutor.getExecutorId();
@@ -148,6 +167,7 @@ public class InMemoryClusterResourcesDB extends ClusterResourcesDB {
             .toList();
             if(!actuallyRemoved.isEmpty()) {
                 log.info("Executors {} are removed from the cluster", actuallyRemoved);
+                publishUnsafe(true);
                 raiseEvent(Set.of(), Set.copyOf(actuallyRemoved), liveExecutorsUnsafe());
             }
         }
@@ -164,7 +184,12 @@ public class InMemoryClusterResourcesDB extends ClusterResourcesDB {
         try {
             val existingExecutorIds = liveExecutorsUnsafe();
             log.debug("Existing IDs: {}", existingExecutorIds);
-            nodeData.forEach(this::updateExecutorNodeDataUnsafe);
+            //Whole batch is published as a single view, so readers never see a partially applied batch
+            var reAdded = false;
+            for (val node : nodeData) {
+                reAdded |= updateExecutorNodeDataUnsafe(node);
+            }
+            publishUnsafe(reAdded);
             val liveExecutorIds = liveExecutorsUnsafe();
             val newNodes = Sets.difference(liveExecutorIds, existingExecutorIds);
             val missingNodes = Sets.difference(existingExecutorIds, liveExecutorIds);
@@ -182,6 +207,38 @@ public class InMemoryClusterResourcesDB extends ClusterResourcesDB {
     }
 
 
+    @Override
+    @SneakyThrows
+    @MonitoredFunction
+    public void touch(List<ExecutorNodeData> nodeData) {
+        val unknown = new ArrayList<ExecutorNodeData>();
+        val stamp = lock.writeLock();
+        try {
+            var touched = false;
+            for (val node : nodeData) {
+                val executorId = node.getState().getExecutorId();
+                val existing = nodes.get(executorId);
+                if (null == existing) {
+                    unknown.add(node);
+                }
+                else if (existing.getNodeData().getUpdated().before(node.getUpdated())) {
+                    //Content is same as existing, so resources (including soft allocations) are carried over
+                    nodes.put(executorId, new ExecutorHostInfo(executorId, node, existing.getNodes()));
+                    touched = true;
+                }
+            }
+            if (touched) {
+                publishUnsafe(false);
+            }
+        }
+        finally {
+            lock.unlockWrite(stamp);
+        }
+        if (!unknown.isEmpty()) {
+            update(unknown);
+        }
+    }
+
     @Override
     @SneakyThrows
     @MonitoredFunction
@@ -191,6 +248,7 @@ public class InMemoryClusterResourcesDB extends ClusterResourcesDB {
             val node = nodes.get(snapshot.getExecutorId());
             if (null != node) {
                 val reAdded = updateExecutorHostInfoUnsafe(updateSnapshotInNode(node, snapshot));
+                publishUnsafe(reAdded);
                 if(reAdded) {
                     raiseEvent(Set.of(snapshot.getExecutorId()), Set.of(), liveExecutorsUnsafe());
                 }
@@ -208,19 +266,55 @@ public class InMemoryClusterResourcesDB extends ClusterResourcesDB {
             List<ResourceRequirement> requirements,
             Set<ExecutorState> allowedExecutorState,
             Predicate<AllocatedExecutorNode> filter) {
+        val cpus = requiredCores(requirements);
+        val memory = requiredMemory(requirements);
         val stamp = lock.writeLock();
         try {
-            val rawNodes = new ArrayList<>(nodes.values());
-            Collections.shuffle(rawNodes);
-            return rawNodes
-                    .stream()
-                    .filter(node -> inRequiredState(node, allowedExecutorState))
-                    .map(node -> ensureResource(node, requirements))
-                    .filter(Optional::isPresent)
-                    .map(Optional::get)
-                    .filter(filter)
-                    .peek(this::softLockResources)
-                    .findFirst();
+            //Only executors that have a NUMA node that can fit the requirement are considered
+            val selected = selectNodeUnsafe(capacityIndex.candidates(cpus, memory),
+                                            cpus,
+                                            memory,
+                                            allowedExecutorState,
+                                            filter);
+            if (selected.isPresent()) {
+                publishUnsafe(false);
+            }
+            return selected;
+        }
+        finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    @SneakyThrows
+    @MonitoredFunction
+    public List<AllocatedExecutorNode> selectNodes(
+            List<ResourceRequirement> requirements,
+            Set<ExecutorState> allowedExecutorState,
+            Predicate<AllocatedExecutorNode> filter,
+            Consumer<AllocatedExecutorNode> onSelected,
+            int count) {
+        val cpus = requiredCores(requirements);
+        val memory = requiredMemory(requirements);
+        val selected = new ArrayList<AllocatedExecutorNode>(count);
+        val stamp = lock.writeLock();
+        try {
+            val candidates = capacityIndex.candidates(cpus, memory);
+            //Capacity only goes down and filters only get stricter as nodes get selected, so selection stops
+            //as soon as no node can be found
+            while (selected.size() < count) {
+                val node = selectNodeUnsafe(candidates, cpus, memory, allowedExecutorState, filter).orElse(null);
+                if (null == node) {
+                    break;
+                }
+                selected.add(node);
+                onSelected.accept(node);
+            }
+            if (!selected.isEmpty()) {
+                publishUnsafe(false);
+            }
+            return selected;
         }
         finally {
             lock.unlockWrite(stamp);
@@ -235,7 +329,9 @@ public class InMemoryClusterResourcesDB extends ClusterResourcesDB {
             MemoryAllocation memoryAllocation) {
         val stamp = lock.writeLock();
         try {
-            softUnlockResources(executorId, cpuAllocation, memoryAllocation);
+            if (softUnlockResources(executorId, cpuAllocation, memoryAllocation)) {
+                publishUnsafe(false);
+            }
         }
         finally {
             lock.unlockWrite(stamp);
@@ -245,91 +341,100 @@ public class InMemoryClusterResourcesDB extends ClusterResourcesDB {
     @Override
     @MonitoredFunction
     public boolean isBlacklisted(String executorId) {
-        val stamp = lock.readLock();
-        try {
-            return Optional.ofNullable(nodes.get(executorId))
+        return Optional.ofNullable(nodes.get(executorId))
                 .map(InMemoryClusterResourcesDB::isBlackListedInternal)
                 .orElse(false);
-        }
-        finally {
-            lock.unlockRead(stamp);
-        }
     }
 
     @Override
     @MonitoredFunction
     public Set<String> blacklistedNodes() {
-        val stamp = lock.readLock();
-        try {
-            return nodes.values()
-                    .stream()
-                    .filter(InMemoryClusterResourcesDB::isBlackListedInternal)
-                    .map(ExecutorHostInfo::getExecutorId)
-                    .collect(Collectors.toUnmodifiableSet());
-        }
-        finally {
-            lock.unlockRead(stamp);
-        }
+        return view.get().blacklistedNodes();
     }
 
     @MonitoredFunction
     @Override
     public boolean isActive(String executorId) {
-        val stamp = lock.readLock();
-        try {
-            return Optional.ofNullable(nodes.get(executorId))
-                    .map(InMemoryClusterResourcesDB::isActiveInternal)
-                    .orElse(false);
-        }
-        finally {
-            lock.unlockRead(stamp);
-        }
+        return Optional.ofNullable(nodes.get(executorId))
+                .map(InMemoryClusterResourcesDB::isActiveInternal)
+                .orElse(false);
+    }
+
+    public NodeSelectionStrategyType selectionStrategyType() {
+        return selectionStrategy.type();
+    }
+
+    private Optional<AllocatedExecutorNode> selectNodeUnsafe(
+            List<String> candidates,
+            long cpus,
+            long memory,
+            Set<ExecutorState> allowedExecutorState,
+            Predicate<AllocatedExecutorNode> filter) {
+        val eligible = candidates.stream()
+                .map(nodes::get)
+                .filter(Objects::nonNull)
+                .filter(node -> inRequiredState(node, allowedExecutorState))
+                .toList();
+        val selected = selectionStrategy.order(eligible, cpus, memory)
+                .stream()
+                .map(node -> ensureResource(node, cpus, memory, selectionStrategy.numaNodePreference()))
+                .flatMap(Optional::stream)
+                .filter(filter)
+                .findFirst();
+        selected.ifPresent(this::softLockResources);
+        return selected;
     }
 
     private static boolean inRequiredState(ExecutorHostInfo node, Set<ExecutorState> allowedStates) {
         return allowedStates.contains(node.nodeData.getExecutorState());
     }
 
+    private static long requiredCores(final List<ResourceRequirement> resources) {
+        return resources.stream()
+                .mapToLong(req -> req.accept(new ResourceRequirementVisitor<>() {
+
+                    @Override
+                    public Long visit(CPURequirement cpuRequirement) {
+                        return cpuRequirement.getCount();
+                    }
+
+                    @Override
+                    public Long visit(MemoryRequirement memoryRequirement) {
+                        return 0L;
+                    }
+                }))
+                .sum();
+    }
+
+    private static long requiredMemory(final List<ResourceRequirement> resources) {
+        return resources.stream()
+                .mapToLong(req -> req.accept(new ResourceRequirementVisitor<>() {
+
+                    @Override
+                    public Long visit(CPURequirement cpuRequirement) {
+                        return 0L;
+                    }
+
+                    @Override
+                    public Long visit(MemoryRequirement memoryRequirement) {
+                        return memoryRequirement.getSizeInMB();
+                    }
+                }))
+                .sum();
+    }
+
     private static Optional<AllocatedExecutorNode> ensureResource(
             final ExecutorHostInfo hostInfo,
-            final List<ResourceRequirement> resources) {
-        val cpus =
-                resources.stream()
-                        .mapToLong(req -> req.accept(new ResourceRequirementVisitor<>() {
-
-                            @Override
-                            public Long visit(CPURequirement cpuRequirement) {
-                                return cpuRequirement.getCount();
-                            }
-
-                            @Override
-                            public Long visit(MemoryRequirement memoryRequirement) {
-                                return 0L;
-                            }
-                        }))
-                        .sum();
-        val memory =
-                resources.stream()
-                        .mapToLong(req -> req.accept(new ResourceRequirementVisitor<>() {
-
-                            @Override
-                            public Long visit(CPURequirement cpuRequirement) {
-                                return 0L;
-                            }
-
-                            @Override
-                            public Long visit(MemoryRequirement memoryRequirement) {
-                                return memoryRequirement.getSizeInMB();
-                            }
-                        }))
-                        .sum();
-
+            long cpus,
+            long memory,
+            Comparator<ExecutorHostInfo.NumaNodeInfo> numaNodePreference) {
         //NOTE: THis ensures everything is on the SAME numa node for performance
         return hostInfo.getNodes()
                 .entrySet()
                 .stream()
-                .filter(entry -> freeCoresForNode(entry.getValue()) >= cpus && entry.getValue().getMemory()
+                .filter(entry -> entry.getValue().getFreeCoreCount() >= cpus && entry.getValue().getMemory()
                         .getAvailable() >= memory)
+                .sorted(Map.Entry.comparingByValue(numaNodePreference))
                 .map(node -> new AllocatedExecutorNode(hostInfo.getExecutorId(),
                                                        hostInfo.getNodeData().getHostname(),
                                                        hostInfo.getNodeData().getPort(),
@@ -342,7 +447,7 @@ public class InMemoryClusterResourcesDB extends ClusterResourcesDB {
                                                        Objects.requireNonNullElse(hostInfo.getNodeData().getMetadata(),
                                                                                   Map.of()),
                                                        hostInfo.getNodeData().getExecutorState()))
-                .findAny();
+                .findFirst();
     }
 
     /**
@@ -356,71 +461,71 @@ public class InMemoryClusterResourcesDB extends ClusterResourcesDB {
             final Map.Entry<Integer, ExecutorHostInfo.NumaNodeInfo> nodeInfo,
             long requiredCPUs) {
         return new CPUAllocation(Map.of(nodeInfo.getKey(),
-                                        nodeInfo.getValue()
-                                                .getCores()
-                                                .entrySet()
-                                                .stream()
-                                                .filter(entry -> entry.getValue()
-                                                        .equals(ExecutorHostInfo.CoreState.FREE))
-                                                .map(Map.Entry::getKey)
-                                                .limit(requiredCPUs)
-                                                .collect(Collectors.toUnmodifiableSet())));
-    }
-
-    private static Map<Integer, ExecutorHostInfo.NumaNodeInfo> convertToNodeInfo(final ExecutorResourceSnapshot resourceSnapshot) {
-        val numaNodes = new HashMap<Integer, ExecutorHostInfo.NumaNodeInfo>();
+                                        nodeInfo.getValue().selectFreeCores(requiredCPUs)));
+    }
+
+    /*
+     * Builds NUMA node info from the snapshot, diffing against the masks of the previous state of the executor.
+     * NUMA nodes that have not changed are reused as is, the rest are copied and only the changed cores updated.
+     */
+    private static Map<Integer, ExecutorHostInfo.NumaNodeInfo> convertToNodeInfo(
+            final ExecutorResourceSnapshot resourceSnapshot,
+            final Map<Integer, ExecutorHostInfo.NumaNodeInfo> previous) {
         val cpus = resourceSnapshot.getCpus();
         val memory = resourceSnapshot.getMemory();
-        cpus.getFreeCores()
-                .forEach((key, freeCores) -> {
-                    val nodeInfo = numaNodes.computeIfAbsent(key, k -> new ExecutorHostInfo.NumaNodeInfo());
-                    freeCores.forEach(i -> nodeInfo.getCores()
-                            .compute(i,
-                                     (core, state) -> state != ExecutorHostInfo.CoreState.ALLOCATED
-                                                      ? ExecutorHostInfo.CoreState.FREE
-                                                      : state));
-                });
-        cpus.getUsedCores()
-                .forEach((key, usedCores) -> {
-                    val nodeInfo = numaNodes.computeIfAbsent(key, k -> new ExecutorHostInfo.NumaNodeInfo());
-                    usedCores.forEach(i -> nodeInfo.getCores()
-                            .put(i, ExecutorHostInfo.CoreState.IN_USE));
-                });
-        memory.getUsedMemory()
-                .forEach((key, usedMemory) -> {
-                    val nodeInfo = numaNodes.computeIfAbsent(key, k -> new ExecutorHostInfo.NumaNodeInfo());
-                    nodeInfo.getMemory().setUsed(usedMemory);
-                });
-        memory.getFreeMemory()
-                .forEach((key, freeMemory) -> {
-                    val nodeInfo = numaNodes.computeIfAbsent(key, k -> new ExecutorHostInfo.NumaNodeInfo());
-                    nodeInfo.getMemory().setAvailable(freeMemory);
-                });
+        val freeMasks = toMasks(cpus.getFreeCores());
+        val usedMasks = toMasks(cpus.getUsedCores());
+        val numaNodeIds = new HashSet<Integer>();
+        numaNodeIds.addAll(freeMasks.keySet());
+        numaNodeIds.addAll(usedMasks.keySet());
+        numaNodeIds.addAll(memory.getUsedMemory().keySet());
+        numaNodeIds.addAll(memory.getFreeMemory().keySet());
+        val numaNodes = new HashMap<Integer, ExecutorHostInfo.NumaNodeInfo>();
+        numaNodeIds.forEach(numaNodeId -> {
+            val free = freeMasks.getOrDefault(numaNodeId, new BitSet());
+            val used = usedMasks.getOrDefault(numaNodeId, new BitSet());
+            val availableMemory = memory.getFreeMemory().getOrDefault(numaNodeId, 0L);
+            val usedMemory = memory.getUsedMemory().getOrDefault(numaNodeId, 0L);
+            val existing = previous.get(numaNodeId);
+            if (null != existing && existing.matches(free, used, availableMemory, usedMemory)) {
+                numaNodes.put(numaNodeId, existing);
+                return;
+            }
+            val nodeInfo = null == existing ? new ExecutorHostInfo.NumaNodeInfo() : existing.copy();
+            nodeInfo.applyReportedCores(free, used);
+            nodeInfo.getMemory().setAvailable(availableMemory);
+            nodeInfo.getMemory().setUsed(usedMemory);
+            numaNodes.put(numaNodeId, nodeInfo);
+        });
         return numaNodes;
     }
 
-    private static long freeCoresForNode(final ExecutorHostInfo.NumaNodeInfo node) {
-        return node.getCores()
-                .entrySet()
-                .stream()
-                .filter(e -> e.getValue()
-                        .equals(ExecutorHostInfo.CoreState.FREE)).count();
+    private static Map<Integer, BitSet> toMasks(final Map<Integer, Set<Integer>> cores) {
+        val masks = new HashMap<Integer, BitSet>();
+        Objects.<Map<Integer, Set<Integer>>>requireNonNullElse(cores, Map.of())
+                .forEach((numaNodeId, coreIds) -> {
+                    val mask = new BitSet();
+                    coreIds.forEach(mask::set);
+                    masks.put(numaNodeId, mask);
+                });
+        return masks;
     }
 
-    private static ExecutorHostInfo toHostInfo(final ExecutorNodeData node) {
+    private static ExecutorHostInfo toHostInfo(
+            final ExecutorNodeData node,
+            final ExecutorHostInfo existing) {
         val snapshot = node.getState();
-        return new ExecutorHostInfo(snapshot.getExecutorId(), node, convertToNodeInfo(snapshot));
+        return new ExecutorHostInfo(snapshot.getExecutorId(),
+                                    node,
+                                    convertToNodeInfo(snapshot, null == existing ? Map.of() : existing.getNodes()));
     }
 
     private static ExecutorHostInfo updateSnapshotInNode(
             final ExecutorHostInfo node,
             final ExecutorResourceSnapshot snapshot) {
-        return new ExecutorHostInfo(snapshot.getExecutorId(), node.getNodeData(), convertToNodeInfo(snapshot));
-    }
-
-    private static boolean checkOffDuty(boolean skipOffDutyNodes, ExecutorHostInfo node) {
-        return !skipOffDutyNodes //If off duty nodes are needed, return everything
-                || isActiveInternal(node);
+        return new ExecutorHostInfo(snapshot.getExecutorId(),
+                                    node.getNodeData(),
+                                    convertToNodeInfo(snapshot, node.getNodes()));
     }
 
     private static boolean isActiveInternal(ExecutorHostInfo node) {
@@ -431,12 +536,31 @@ public class InMemoryClusterResourcesDB extends ClusterResourcesDB {
         return node.getNodeData().getExecutorState().isBlacklisted();
     }
 
+    /**
+     * Needs to be called with the write lock held after nodes are added, removed or replaced (including replacements
+     * due to resource allocation changes). Publishes a new view for readers.
+     *
+     * @param removedNodesChanged Whether the removed nodes need to be copied into a new view
+     */
+    private void publishUnsafe(boolean removedNodesChanged) {
+        val allNodes = List.copyOf(nodes.values());
+        view.set(new ClusterView(allNodes,
+                                 allNodes.stream()
+                                         .filter(InMemoryClusterResourcesDB::isActiveInternal)
+                                         .toList(),
+                                 allNodes.stream()
+                                         .filter(InMemoryClusterResourcesDB::isBlackListedInternal)
+                                         .map(ExecutorHostInfo::getExecutorId)
+                                         .collect(Collectors.toUnmodifiableSet())));
+        if (removedNodesChanged) {
+            removedView.set(new RemovedNodesView(Map.copyOf(removedNodes), List.copyOf(removedNodes.values())));
+        }
+    }
+
     private Set<String> liveExecutorsUnsafe() {
-        // Remove nodes that have been blacklisted locally as well as those that are not in ACTIVE state
-        // ie maybe marked as blacklisted before or removed
         return nodes.values()
                 .stream()
-                .filter(entry -> ExecutorState.ACTIVE.equals(entry.getNodeData().getExecutorState()))
+                .filter(InMemoryClusterResourcesDB::isActiveInternal)
                 .map(ExecutorHostInfo::getExecutorId)
                 .collect(Collectors.toUnmodifiableSet());
     }
@@ -449,21 +573,21 @@ public class InMemoryClusterResourcesDB extends ClusterResourcesDB {
                         (av, alloc) -> av - alloc);
     }
 
-    private void softUnlockResources(
+    private boolean softUnlockResources(
             String executorId,
             CPUAllocation cpuAllocation,
             MemoryAllocation memoryAllocation) {
-        updateResources(executorId,
-                        cpuAllocation,
-                        memoryAllocation,
-                        ExecutorHostInfo.CoreState.FREE,
-                        Long::sum);
+        return updateResources(executorId,
+                               cpuAllocation,
+                               memoryAllocation,
+                               ExecutorHostInfo.CoreState.FREE,
+                               Long::sum);
     }
 
-    private void updateExecutorNodeDataUnsafe(ExecutorNodeData rawNodeData) {
+    private boolean updateExecutorNodeDataUnsafe(ExecutorNodeData rawNodeData) {
         log.debug("Updating node data for executor {}", rawNodeData.getState().getExecutorId());
-        val node = toHostInfo(rawNodeData);
-        updateExecutorHostInfoUnsafe(node);
+        val node = toHostInfo(rawNodeData, nodes.get(rawNodeData.getState().getExecutorId()));
+        return updateExecutorHostInfoUnsafe(node);
     }
 
     private boolean updateExecutorHostInfoUnsafe(ExecutorHostInfo node) {
@@ -481,6 +605,7 @@ public class InMemoryClusterResourcesDB extends ClusterResourcesDB {
             }
             return node;
         });
+        capacityIndex.index(updated);
         if (null != removedNodes.remove(updated.getExecutorId())) {
             log.info("Executor {} is back in the cluster", updated.getExecutorId());
             return true;
@@ -488,32 +613,53 @@ public class InMemoryClusterResourcesDB extends ClusterResourcesDB {
         return false;
     }
 
-    private void updateResources(
+    /*
+     * Host info for the executor is replaced with a copy that has the affected NUMA nodes updated, as the existing
+     * objects might be part of a published view. Caller needs to mark the cluster as changed once done.
+     */
+    private boolean updateResources(
             String executorId,
             CPUAllocation cpuAllocation,
             MemoryAllocation memoryAllocation,
             ExecutorHostInfo.CoreState newState,
             LongBinaryOperator memUpdater) {
+        val existing = nodes.get(executorId);
+        if (null == existing) {
+            log.warn("Resource update ignored for executor {} as it is not present in the cluster", executorId);
+            return false;
+        }
+        val numaNodes = new HashMap<>(existing.getNodes());
+        val copied = new HashSet<Integer>();
         cpuAllocation
                 .getCores()
-                .forEach((numaNodeId, coreIds) -> nodes.get(executorId)
-                        .getNodes()
-                        .entrySet()
-                        .stream()
-                        .filter(e -> Objects.equals(e.getKey(), numaNodeId))
-                        .forEach(e -> coreIds.forEach(coreId -> e.getValue().getCores()
-                                .put(coreId, newState))));
+                .forEach((numaNodeId, coreIds) -> {
+                    val numaNode = copyOnWrite(numaNodes, copied, numaNodeId);
+                    if (null != numaNode) {
+                        numaNode.setCoreStates(coreIds, newState);
+                    }
+                });
         memoryAllocation
                 .getMemoryInMB()
-                .forEach((numaNodeId, allocMem) -> nodes.get(executorId)
-                        .getNodes()
-                        .entrySet()
-                        .stream()
-                        .filter(e -> Objects.equals(e.getKey(), numaNodeId))
-                        .forEach(e -> {
-                            val memInfo = e.getValue().getMemory();
-                            memInfo.setAvailable(memUpdater.applyAsLong(memInfo.getAvailable(), allocMem));
-                        }));
-    }
-
- }
+                .forEach((numaNodeId, allocMem) -> {
+                    val numaNode = copyOnWrite(numaNodes, copied, numaNodeId);
+                    if (null != numaNode) {
+                        val memInfo = numaNode.getMemory();
+                        memInfo.setAvailable(memUpdater.applyAsLong(memInfo.getAvailable(), allocMem));
+                    }
+                });
+        val updated = new ExecutorHostInfo(executorId, existing.getNodeData(), numaNodes);
+        nodes.put(executorId, updated);
+        capacityIndex.index(updated);
+        return true;
+    }
+
+    private static ExecutorHostInfo.NumaNodeInfo copyOnWrite(
+            Map<Integer, ExecutorHostInfo.NumaNodeInfo> numaNodes,
+            Set<Integer> copied,
+            int numaNodeId) {
+        if (copied.add(numaNodeId)) {
+            numaNodes.computeIfPresent(numaNodeId, (id, numaNode) -> numaNode.copy());
+        }
+        return numaNodes.get(numaNodeId);
+    }
+}
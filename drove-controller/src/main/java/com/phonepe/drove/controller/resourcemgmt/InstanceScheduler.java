@@ -21,6 +21,8 @@ import com.phonepe.drove.models.info.nodedata.ExecutorState;
 import com.phonepe.drove.models.interfaces.DeploymentSpec;
 
 import java.util.EnumSet;
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 
@@ -52,6 +54,49 @@ public interface InstanceScheduler {
             final PlacementPolicy placementPolicy,
             final Set<ExecutorState> allowedStates);
 
+    /**
+     * Compute placements for multiple instances of the same deployable in one go. Placement policies are honoured
+     * across all instances in the batch as well as previous allocations in the session.
+     *
+     * @param schedulingSessionId Scheduling session
+     * @param instanceIds         IDs for the instances to be placed
+     * @param deploymentSpec      Spec for the deployable
+     * @return Placements for the instances. Can have less elements than instanceIds if cluster does not have capacity
+     */
+    default List<InstancePlacement> scheduleBatch(
+            final String schedulingSessionId,
+            final List<String> instanceIds,
+            final DeploymentSpec deploymentSpec) {
+        return instanceIds.stream()
+                .map(instanceId -> schedule(schedulingSessionId, instanceId, deploymentSpec)
+                        .map(node -> new InstancePlacement(instanceId, node))
+                        .orElse(null))
+                .takeWhile(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * Claim a placement computed earlier by {@link #scheduleBatch(String, List, DeploymentSpec)} just before it gets
+     * used. The placement is checked against the current state of the cluster, as the executor might have changed
+     * since the placement was computed.
+     *
+     * @param schedulingSessionId Scheduling session the placement was computed in
+     * @param placement           The placement
+     * @return The allocated node if the placement can still be used. Empty otherwise, in which case any resources
+     * held for the placement are released and the caller needs to schedule the instance afresh
+     */
+    default Optional<AllocatedExecutorNode> claimPlacement(
+            final String schedulingSessionId,
+            final InstancePlacement placement) {
+        return Optional.of(placement.getNode());
+    }
+
+    /**
+     * Close the session. Placements from {@link #scheduleBatch(String, List, DeploymentSpec)} that were never claimed
+     * get released.
+     *
+     * @param schedulingSessionId Scheduling session
+     */
     void finaliseSession(String schedulingSessionId);
 
     boolean discardAllocation(String schedulingSessionId, String instanceId, final AllocatedExecutorNode node);
@@ -0,0 +1,73 @@
+/*
+ *  Copyright (c) 2024 Original Author(s), PhonePe India Pvt. Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.phonepe.drove.controller.resourcemgmt;
+
+import lombok.val;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Decides the order in which executors are tried when placing an instance. Called with the resource DB lock held,
+ * so implementations must be cheap and must not modify the provided host info objects.
+ */
+public interface NodeSelectionStrategy {
+
+    NodeSelectionStrategyType type();
+
+    /**
+     * Order the candidates in the order of preference
+     *
+     * @param candidates     Executors that have at least one NUMA node that can fit the requirement
+     * @param requiredCores  Number of cores needed on a single NUMA node
+     * @param requiredMemory Amount of memory (in MB) needed on the same NUMA node
+     * @return A new list containing the candidates in the order they should be tried
+     */
+    List<ExecutorHostInfo> order(List<ExecutorHostInfo> candidates, long requiredCores, long requiredMemory);
+
+    /**
+     * Preference among NUMA nodes of a single executor that can fit the requirement
+     *
+     * @return Comparator that sorts the preferred NUMA node first
+     */
+    default Comparator<ExecutorHostInfo.NumaNodeInfo> numaNodePreference() {
+        return (lhs, rhs) -> 0;
+    }
+
+    static long freeCores(final ExecutorHostInfo hostInfo) {
+        return hostInfo.getNodes()
+                .values()
+                .stream()
+                .mapToLong(ExecutorHostInfo.NumaNodeInfo::getFreeCoreCount)
+                .sum();
+    }
+
+    static long totalCores(final ExecutorHostInfo hostInfo) {
+        return hostInfo.getNodes()
+                .values()
+                .stream()
+                .mapToLong(ExecutorHostInfo.NumaNodeInfo::getTotalCoreCount)
+                .sum();
+    }
+
+    /**
+     * Fraction of cores on the executor that are in use or allocated
+     */
+    static double load(final ExecutorHostInfo hostInfo) {
+        val total = totalCores(hostInfo);
+        return total == 0 ? 1.0 : (double) (total - freeCores(hostInfo)) / total;
+    }
+}
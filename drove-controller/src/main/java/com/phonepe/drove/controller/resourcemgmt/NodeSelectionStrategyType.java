@@ -0,0 +1,52 @@
+/*
+ *  Copyright (c) 2024 Original Author(s), PhonePe India Pvt. Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.phonepe.drove.controller.resourcemgmt;
+
+import java.util.function.Supplier;
+
+/**
+ * Strategies available to order candidate executors during instance placement
+ */
+public enum NodeSelectionStrategyType {
+    /**
+     * Random order. Spreads instances without considering current load.
+     */
+    SHUFFLE(ShuffleNodeSelectionStrategy::new),
+    /**
+     * Pack instances onto the NUMA node that leaves the least free cores behind. Keeps large holes open for
+     * bigger deployments.
+     */
+    BEST_FIT(BestFitNodeSelectionStrategy::new),
+    /**
+     * Spread instances onto the least utilised executors first
+     */
+    LEAST_LOADED(LeastLoadedNodeSelectionStrategy::new),
+    /**
+     * Pick two random executors and use the less loaded one. Approximates least loaded without a full sort.
+     */
+    POWER_OF_TWO_CHOICES(PowerOfTwoChoicesNodeSelectionStrategy::new),
+    ;
+
+    private final Supplier<NodeSelectionStrategy> factory;
+
+    NodeSelectionStrategyType(Supplier<NodeSelectionStrategy> factory) {
+        this.factory = factory;
+    }
+
+    public NodeSelectionStrategy createStrategy() {
+        return factory.get();
+    }
+}
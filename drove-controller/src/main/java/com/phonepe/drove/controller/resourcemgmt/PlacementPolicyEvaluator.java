@@ -0,0 +1,208 @@
+/*
+ *  Copyright (c) 2024 Original Author(s), PhonePe India Pvt. Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.phonepe.drove.controller.resourcemgmt;
+
+import com.google.common.collect.Sets;
+import com.phonepe.drove.controller.rule.RuleEvaluator;
+import com.phonepe.drove.models.application.placement.PlacementPolicy;
+import com.phonepe.drove.models.application.placement.PlacementPolicyVisitor;
+import com.phonepe.drove.models.application.placement.policies.*;
+import com.phonepe.drove.models.info.nodedata.SchedulingInfo;
+import com.phonepe.drove.models.operation.rule.RuleCallStatus;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.util.*;
+
+/**
+ * Evaluates placement policies for a single scheduling session. Policies are compiled once into a tree of predicates,
+ * with the cheaper checks evaluated first inside composites. Executor metadata and rule evaluation results are cached
+ * for the lifetime of the session.
+ * This class is not thread safe. The scheduler serialises all access to a session.
+ */
+@Slf4j
+class PlacementPolicyEvaluator {
+    private static final int COST_NONE = 0;
+    private static final int COST_LOOKUP = 1;
+    private static final int COST_RULE = 100;
+
+    private interface CompiledPolicy {
+        boolean test(AllocatedExecutorNode node, Map<String, String> env);
+
+        int cost();
+    }
+
+    private record CheckPolicy(int cost, CheckFunction check) implements CompiledPolicy {
+        @Override
+        public boolean test(AllocatedExecutorNode node, Map<String, String> env) {
+            return check.test(node, env);
+        }
+    }
+
+    @FunctionalInterface
+    private interface CheckFunction {
+        boolean test(AllocatedExecutorNode node, Map<String, String> env);
+    }
+
+    private record RuleResultKey(
+            RuleBasedPlacementPolicy rule,
+            String executorId,
+            Map<String, String> executorMetadata,
+            Map<String, String> env) {
+    }
+
+    private final ClusterResourcesDB clusterResourcesDB;
+    private final RuleEvaluator ruleEvaluator;
+    private final SchedulingSessionData sessionData;
+
+    private final Map<PlacementPolicy, CompiledPolicy> compiledPolicies = new HashMap<>();
+    private final Map<String, Map<String, String>> executorMetadata = new HashMap<>();
+    private final Map<RuleResultKey, Boolean> ruleResults = new HashMap<>();
+    private Set<String> metadataExecutors = Set.of();
+    private Map<String, Map<String, String>> allExecutorMetadata = Map.of();
+
+    PlacementPolicyEvaluator(
+            ClusterResourcesDB clusterResourcesDB,
+            RuleEvaluator ruleEvaluator,
+            SchedulingSessionData sessionData) {
+        this.clusterResourcesDB = clusterResourcesDB;
+        this.ruleEvaluator = ruleEvaluator;
+        this.sessionData = sessionData;
+    }
+
+    /**
+     * Check if the node satisfies the placement policy given the allocations already done in this session
+     *
+     * @param placementPolicy Policy to be checked
+     * @param node            Candidate node
+     * @param env             Environment of the deployable being placed
+     * @return true if the node can be used
+     */
+    boolean test(PlacementPolicy placementPolicy, AllocatedExecutorNode node, Map<String, String> env) {
+        return compiledPolicies.computeIfAbsent(placementPolicy, this::compile)
+                .test(node, Objects.requireNonNullElse(env, Map.of()));
+    }
+
+    private CompiledPolicy compile(final PlacementPolicy placementPolicy) {
+        return placementPolicy.accept(new PlacementPolicyVisitor<>() {
+            @Override
+            public CompiledPolicy visit(OnePerHostPlacementPolicy onePerHost) {
+                return new CheckPolicy(COST_LOOKUP,
+                                       (node, env) -> sessionData.instanceCount(node.getExecutorId()) == 0);
+            }
+
+            @Override
+            public CompiledPolicy visit(MaxNPerHostPlacementPolicy maxNPerHost) {
+                val max = maxNPerHost.getMax();
+                return new CheckPolicy(COST_LOOKUP,
+                                       (node, env) -> sessionData.instanceCount(node.getExecutorId()) < max);
+            }
+
+            @Override
+            public CompiledPolicy visit(MatchTagPlacementPolicy matchTag) {
+                val tag = matchTag.getTag();
+                return new CheckPolicy(COST_LOOKUP,
+                                       (node, env) -> Objects.requireNonNullElse(node.getTags(), Set.of())
+                                               .contains(tag));
+            }
+
+            @Override
+            public CompiledPolicy visit(NoTagPlacementPolicy noTag) {
+                //Return false if node has any tag other than hostname
+                return new CheckPolicy(COST_LOOKUP,
+                                       (node, env) -> Sets.difference(
+                                               Objects.requireNonNullElse(node.getTags(), Set.of()),
+                                               Set.of(node.getHostname())).isEmpty());
+            }
+
+            @Override
+            public CompiledPolicy visit(RuleBasedPlacementPolicy ruleBased) {
+                return new CheckPolicy(COST_RULE, (node, env) -> evaluateRule(ruleBased, node, env));
+            }
+
+            @Override
+            public CompiledPolicy visit(AnyPlacementPolicy anyPlacementPolicy) {
+                return new CheckPolicy(COST_NONE, (node, env) -> true);
+            }
+
+            @Override
+            public CompiledPolicy visit(CompositePlacementPolicy compositePlacementPolicy) {
+                val combiner = Objects.requireNonNullElse(compositePlacementPolicy.getCombiner(),
+                                                          CompositePlacementPolicy.CombinerType.AND);
+                //Evaluation order does not change the result, so cheap checks go first to short-circuit
+                val children = compositePlacementPolicy.getPolicies()
+                        .stream()
+                        .map(policy -> policy.accept(this))
+                        .sorted(Comparator.comparingInt(CompiledPolicy::cost))
+                        .toList();
+                val cost = children.stream().mapToInt(CompiledPolicy::cost).sum();
+                if (combiner == CompositePlacementPolicy.CombinerType.AND) {
+                    return new CheckPolicy(cost, (node, env) -> children.stream()
+                            .allMatch(child -> child.test(node, env)));
+                }
+                return new CheckPolicy(cost, (node, env) -> children.stream()
+                        .anyMatch(child -> child.test(node, env)));
+            }
+
+            @Override
+            public CompiledPolicy visit(LocalPlacementPolicy localPlacementPolicy) {
+                return new CheckPolicy(COST_NONE, (node, env) -> true);
+            }
+        });
+    }
+
+    private boolean evaluateRule(
+            RuleBasedPlacementPolicy ruleBased,
+            AllocatedExecutorNode node,
+            Map<String, String> env) {
+        val allMetadata = allExecutorMetadata();
+        val nodeMetadata = Objects.requireNonNullElse(node.getMetadata(), Map.<String, String>of());
+        return ruleResults.computeIfAbsent(
+                new RuleResultKey(ruleBased, node.getExecutorId(), nodeMetadata, env),
+                key -> {
+                    val schedulingInfo = SchedulingInfo.builder()
+                            .executorNodeId(node.getExecutorId())
+                            .allocatedExecutorNodeMetadata(nodeMetadata)
+                            .allExecutorMetadata(allMetadata)
+                            .applicationEnvironment(env)
+                            .build();
+                    val evalResponse = ruleEvaluator.evaluate(ruleBased, schedulingInfo);
+                    return RuleCallStatus.SUCCESS == evalResponse.getStatus() && evalResponse.isResult();
+                });
+    }
+
+    /**
+     * Metadata for all executors that have allocations in this session. Rebuilt only when the set of such executors
+     * changes. Rule results depend on this map, so the memoised results are dropped at the same time.
+     */
+    private Map<String, Map<String, String>> allExecutorMetadata() {
+        if (!metadataExecutors.equals(sessionData.executorIds())) {
+            metadataExecutors = Set.copyOf(sessionData.executorIds());
+            val metadata = new HashMap<String, Map<String, String>>();
+            metadataExecutors.forEach(executorId -> metadata.put(
+                    executorId,
+                    executorMetadata.computeIfAbsent(
+                            executorId,
+                            id -> clusterResourcesDB.lastKnownSnapshot(id)
+                                    .map(executorHostInfo -> executorHostInfo.getNodeData().getMetadata())
+                                    .orElse(Map.of()))));
+            allExecutorMetadata = Collections.unmodifiableMap(metadata);
+            ruleResults.clear();
+            log.debug("Rebuilt executor metadata for {} executors", metadataExecutors.size());
+        }
+        return allExecutorMetadata;
+    }
+}
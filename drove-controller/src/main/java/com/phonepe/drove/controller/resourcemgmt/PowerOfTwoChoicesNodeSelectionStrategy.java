@@ -0,0 +1,87 @@
+/*
+ *  Copyright (c) 2024 Original Author(s), PhonePe India Pvt. Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.phonepe.drove.controller.resourcemgmt;
+
+import lombok.val;
+
+import java.util.AbstractList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Samples two random executors and tries the less loaded one first. Remaining executors are used as fallback, in
+ * candidate order starting from a random position. Avoids copying, shuffling or sorting the full candidate list on
+ * every placement.
+ */
+public class PowerOfTwoChoicesNodeSelectionStrategy implements NodeSelectionStrategy {
+    @Override
+    public NodeSelectionStrategyType type() {
+        return NodeSelectionStrategyType.POWER_OF_TWO_CHOICES;
+    }
+
+    @Override
+    public List<ExecutorHostInfo> order(
+            List<ExecutorHostInfo> candidates,
+            long requiredCores,
+            long requiredMemory) {
+        val size = candidates.size();
+        if (size < 2) {
+            return List.copyOf(candidates);
+        }
+        //Candidates are viewed rotated by a random offset. The first one and one more randomly sampled from the rest
+        //are compared and moved to the front. Nothing else is copied or looked at.
+        val random = ThreadLocalRandom.current();
+        val offset = random.nextInt(size);
+        val sampled = 1 + random.nextInt(size - 1);
+        val first = NodeSelectionStrategy.load(candidates.get((sampled + offset) % size))
+                            < NodeSelectionStrategy.load(candidates.get(offset))
+                    ? sampled
+                    : 0;
+        val second = first == 0 ? sampled : 0;
+        return new AbstractList<>() {
+            @Override
+            public ExecutorHostInfo get(int index) {
+                Objects.checkIndex(index, size);
+                final int position;
+                if (index == 0) {
+                    position = first;
+                }
+                else if (index == 1) {
+                    position = second;
+                }
+                else if (index == sampled) {
+                    position = 1;
+                }
+                else {
+                    position = index;
+                }
+                return candidates.get((position + offset) % size);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override
+    public Comparator<ExecutorHostInfo.NumaNodeInfo> numaNodePreference() {
+        return Comparator.comparingInt(ExecutorHostInfo.NumaNodeInfo::getFreeCoreCount).reversed();
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ *  Copyright (c) 2024 Original Author(s), PhonePe India Pvt. Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.phonepe.drove.controller.resourcemgmt;
+
+import com.google.common.collect.Sets;
+import lombok.val;
+
+import java.util.*;
+
+/**
+ * Allocations visible to a scheduling session. Instances that existed when the session started come from an
+ * immutable snapshot shared with the {@link DeployableAllocationTracker}, tentative allocations made by the session
+ * are kept in an overlay on top of it.
+ * This class is not thread safe. The scheduler serialises all access to a session.
+ */
+class SchedulingSessionData {
+    //Executor id -> instance ids consuming resources when the session started
+    private final Map<String, Set<String>> existing;
+    //Executor id -> [instance id -> resources] for allocations done in this session
+    private final Map<String, Map<String, InstanceResourceAllocation>> allocations = new HashMap<>();
+    private final Set<String> executorIds;
+
+    SchedulingSessionData(Map<String, Set<String>> existing) {
+        this.existing = existing;
+        this.executorIds = Collections.unmodifiableSet(Sets.union(existing.keySet(), allocations.keySet()));
+    }
+
+    /**
+     * @return Live view of executors that either had instances when the session started or have been allocated to
+     * during the session
+     */
+    Set<String> executorIds() {
+        return executorIds;
+    }
+
+    int instanceCount(String executorId) {
+        return existing.getOrDefault(executorId, Set.of()).size()
+                + allocations.getOrDefault(executorId, Map.of()).size();
+    }
+
+    /**
+     * Record a tentative allocation
+     *
+     * @return Number of instances on the executor, including this one
+     */
+    int allocate(InstanceResourceAllocation allocation) {
+        allocations.computeIfAbsent(allocation.getExecutorId(), eId -> new HashMap<>())
+                .put(allocation.getInstanceId(), allocation);
+        return instanceCount(allocation.getExecutorId());
+    }
+
+    /**
+     * Remove a tentative allocation. Instances that existed before the session started are never removed.
+     *
+     * @return The removed allocation, null if there was no such allocation in this session
+     */
+    InstanceResourceAllocation release(String executorId, String instanceId) {
+        val current = allocations.get(executorId);
+        //Executor is retained even when empty, so that it stays visible to rules for the rest of the session
+        return null == current ? null : current.remove(instanceId);
+    }
+
+    /**
+     * Find the executor on which an instance has been tentatively allocated during this session
+     */
+    Optional<String> allocatedExecutor(String instanceId) {
+        return allocations.values()
+                .stream()
+                .map(instances -> instances.get(instanceId))
+                .filter(Objects::nonNull)
+                .map(InstanceResourceAllocation::getExecutorId)
+                .findAny();
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ *  Copyright (c) 2024 Original Author(s), PhonePe India Pvt. Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.phonepe.drove.controller.resourcemgmt;
+
+import lombok.val;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Tries executors in random order
+ */
+public class ShuffleNodeSelectionStrategy implements NodeSelectionStrategy {
+    @Override
+    public NodeSelectionStrategyType type() {
+        return NodeSelectionStrategyType.SHUFFLE;
+    }
+
+    @Override
+    public List<ExecutorHostInfo> order(
+            List<ExecutorHostInfo> candidates,
+            long requiredCores,
+            long requiredMemory) {
+        val ordered = new ArrayList<>(candidates);
+        Collections.shuffle(ordered);
+        return ordered;
+    }
+}
@@ -25,6 +25,8 @@ import com.phonepe.drove.controller.engine.LocalServiceLifecycleManagementEngine
 import com.phonepe.drove.controller.engine.TaskEngine;
 import com.phonepe.drove.controller.engine.ValidationStatus;
 import com.phonepe.drove.controller.engine.ValidationResult;
+import com.phonepe.drove.controller.event.EventFilter;
+import com.phonepe.drove.controller.event.EventStreamer;
 import com.phonepe.drove.controller.masking.EnforceMasking;
 import com.phonepe.drove.models.api.DryRunRuleInfo;
 import com.phonepe.drove.controller.rule.RuleEvaluator;
@@ -34,6 +36,7 @@ import com.phonepe.drove.models.api.*;
 import com.phonepe.drove.models.application.ApplicationSpec;
 import com.phonepe.drove.models.common.ClusterStateData;
 import com.phonepe.drove.models.events.DroveEvent;
+import com.phonepe.drove.models.events.DroveEventType;
 import com.phonepe.drove.models.info.nodedata.ExecutorNodeData;
 import com.phonepe.drove.models.instance.InstanceInfo;
 import com.phonepe.drove.models.instance.InstanceState;
@@ -62,11 +65,15 @@ import javax.inject.Singleton;
 import javax.validation.Valid;
 import javax.validation.constraints.*;
 import javax.ws.rs.*;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import java.net.URI;
+import java.time.Duration;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -96,6 +103,7 @@ public class Apis {
     private final ResponseEngine responseEngine;
     private final ClusterStateDB clusterStateDB;
     private final RuleEvaluator ruleEvaluator;
+    private final EventStreamer eventStreamer;
 
 
     @Inject
@@ -105,13 +113,15 @@ public class Apis {
             LocalServiceLifecycleManagementEngine localServiceEngine,
             ResponseEngine responseEngine,
             ClusterStateDB clusterStateDB,
-            RuleEvaluator ruleEvaluator) {
+            RuleEvaluator ruleEvaluator,
+            EventStreamer eventStreamer) {
         this.applicationEngine = applicationEngine;
         this.taskEngine = taskEngine;
         this.localServiceEngine = localServiceEngine;
         this.responseEngine = responseEngine;
         this.clusterStateDB = clusterStateDB;
         this.ruleEvaluator = ruleEvaluator;
+        this.eventStreamer = eventStreamer;
     }
 
     @POST
@@ -597,8 +607,51 @@ public class Apis {
     @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Events list with metadata")
     public ApiResponse<DroveEventsList> eventsList(
             @QueryParam("lastSyncTime") @DefaultValue("0") @Min(0) @Max(Long.MAX_VALUE) @Parameter(description = "Timestamp to fetch events from") long lastSyncTime,
-            @QueryParam("size") @DefaultValue("1024") @Min(0) @Max(Integer.MAX_VALUE) @Parameter(description = "Maximum number of events to return") int size) {
-        return responseEngine.eventList(lastSyncTime, size);
+            @QueryParam("size") @DefaultValue("1024") @Min(0) @Max(Integer.MAX_VALUE) @Parameter(description = "Maximum number of events to return") int size,
+            @QueryParam("type") @Parameter(description = "Event types to return. All types are returned if not specified") final Set<DroveEventType> types,
+            @QueryParam("appId") @Parameter(description = "Only return events for these apps") final Set<String> appIds,
+            @QueryParam("serviceId") @Parameter(description = "Only return events for these local services") final Set<String> serviceIds,
+            @QueryParam("tag") @Parameter(description = "Metadata matchers of the form TAG:value. All need to match") final Set<@Pattern(regexp = "[^:]+:.*") String> tags) {
+        return responseEngine.eventList(lastSyncTime, size, eventFilter(types, appIds, serviceIds, tags));
+    }
+
+    @GET
+    @Path("/cluster/events/query")
+    @Timed
+    @Operation(summary = "Query cluster events", description = "Get cluster events matching the filters in the order they were recorded. Use the returned nextOffset as the cursor for the next page", tags = {"Cluster"})
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Events with the cursor for the next page")
+    public ApiResponse<DroveEventsBatch> queryEvents(
+            @QueryParam("cursor") @DefaultValue("0") @Min(0) @Parameter(description = "Cursor to read from. Use the nextOffset returned by the last call") long cursor,
+            @QueryParam("epoch") @Parameter(description = "Epoch returned by the last call. If the epoch has changed since, an empty response with the start offset of the current epoch is returned") final String epoch,
+            @QueryParam("size") @DefaultValue("1024") @Min(1) @Max(Integer.MAX_VALUE) @Parameter(description = "Maximum number of events to return") int size,
+            @QueryParam("type") @Parameter(description = "Event types to return. All types are returned if not specified") final Set<DroveEventType> types,
+            @QueryParam("appId") @Parameter(description = "Only return events for these apps") final Set<String> appIds,
+            @QueryParam("serviceId") @Parameter(description = "Only return events for these local services") final Set<String> serviceIds,
+            @QueryParam("tag") @Parameter(description = "Metadata matchers of the form TAG:value. All need to match") final Set<@Pattern(regexp = "[^:]+:.*") String> tags) {
+        return responseEngine.queryEvents(cursor, epoch, size, eventFilter(types, appIds, serviceIds, tags));
+    }
+
+    @GET
+    @Path("/cluster/events/stream")
+    @Timed
+    @Operation(summary = "Long-poll cluster events", description = "Get cluster events recorded after the given offset. If no such events are available, the call waits till new events are recorded or the wait time elapses", tags = {"Cluster"})
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Events with the offset to continue reading from")
+    public void streamEvents(
+            @QueryParam("offset") @DefaultValue("-1") @Min(-1) @Parameter(description = "Offset to read from. Use the nextOffset returned by the last call. -1 starts from the latest event") long offset,
+            @QueryParam("epoch") @Parameter(description = "Epoch returned by the last call. If the epoch has changed since, an empty response with the start offset of the current epoch is returned immediately") final String epoch,
+            @QueryParam("type") @Parameter(description = "Event types to return. All types are returned if not specified") final Set<DroveEventType> types,
+            @QueryParam("appId") @Parameter(description = "Only return events for these apps") final Set<String> appIds,
+            @QueryParam("serviceId") @Parameter(description = "Only return events for these local services") final Set<String> serviceIds,
+            @QueryParam("tag") @Parameter(description = "Metadata matchers of the form TAG:value. All need to match") final Set<@Pattern(regexp = "[^:]+:.*") String> tags,
+            @QueryParam("size") @DefaultValue("1024") @Min(1) @Max(Integer.MAX_VALUE) @Parameter(description = "Maximum number of events to return") int size,
+            @QueryParam("waitMs") @DefaultValue("30000") @Min(0) @Max(60_000) @Parameter(description = "Maximum time in milliseconds to wait for new events") long waitMs,
+            @Suspended final AsyncResponse asyncResponse) {
+        eventStreamer.stream(offset,
+                             epoch,
+                             eventFilter(types, appIds, serviceIds, tags),
+                             size,
+                             Duration.ofMillis(waitMs),
+                             asyncResponse);
     }
 
     @GET
@@ -655,6 +708,21 @@ public class Apis {
         return ControllerUtils.commandValidationFailure(res.getMessages());
     }
 
+    private static EventFilter eventFilter(
+            Set<DroveEventType> types,
+            Set<String> appIds,
+            Set<String> serviceIds,
+            Set<String> tags) {
+        val deployableIds = new HashSet<String>();
+        if (null != appIds) {
+            deployableIds.addAll(appIds);
+        }
+        if (null != serviceIds) {
+            deployableIds.addAll(serviceIds);
+        }
+        return EventFilter.of(types, deployableIds, tags);
+    }
+
     private static Response maintenanceModeError() {
         return ControllerUtils.commandValidationFailure("Cluster is in maintenance mode");
     }
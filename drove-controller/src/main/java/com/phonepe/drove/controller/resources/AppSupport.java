@@ -19,23 +19,20 @@ package com.phonepe.drove.controller.resources;
 import com.codahale.metrics.annotation.Timed;
 import com.phonepe.drove.auth.model.*;
 import com.phonepe.drove.controller.statedb.ApplicationInstanceInfoDB;
-import com.phonepe.drove.controller.statedb.ApplicationStateDB;
 import com.phonepe.drove.models.api.ApiResponse;
-import com.phonepe.drove.models.application.ApplicationInfo;
-import com.phonepe.drove.models.instance.InstanceInfo;
 import com.phonepe.drove.models.instance.InstanceState;
 import io.dropwizard.auth.Auth;
 import lombok.val;
 
 import javax.annotation.security.RolesAllowed;
 import javax.inject.Inject;
-import javax.ws.rs.GET;
-import javax.ws.rs.Path;
-import javax.ws.rs.Produces;
-import javax.ws.rs.QueryParam;
+import javax.ws.rs.*;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
-import java.util.*;
-import java.util.stream.Collectors;
+import javax.ws.rs.core.Response;
+import java.util.Arrays;
+import java.util.Set;
 
 import static com.phonepe.drove.models.instance.InstanceState.*;
 
@@ -48,51 +45,62 @@ import static com.phonepe.drove.models.instance.InstanceState.*;
 @Timed
 public class AppSupport {
 
-    private final ApplicationStateDB appDB;
     private final ApplicationInstanceInfoDB instanceInfoDB;
+    private final SiblingInstancesView siblingInstancesView;
 
     @Inject
-    public AppSupport(ApplicationStateDB appDB, ApplicationInstanceInfoDB instanceInfoDB) {
-        this.appDB = appDB;
+    public AppSupport(ApplicationInstanceInfoDB instanceInfoDB, SiblingInstancesView siblingInstancesView) {
         this.instanceInfoDB = instanceInfoDB;
+        this.siblingInstancesView = siblingInstancesView;
     }
 
+    /**
+     * Returns instances of the calling app (or all apps with the same name if forApp is set). The response carries
+     * an ETag for the version of the list. Clients polling this api should send it back in If-None-Match to receive
+     * a 304 with no body if nothing has changed in the meantime.
+     */
     @GET
     @Path("/instances")
-    public ApiResponse<List<InstanceInfo>> siblingInstances(
+    public Response siblingInstances(
             @Auth final DroveUser droveUser,
             @QueryParam("state") final Set<InstanceState> requiredStates,
-            @QueryParam("forApp") boolean forApp) {
+            @QueryParam("forApp") boolean forApp,
+            @HeaderParam(HttpHeaders.IF_NONE_MATCH) final String ifNoneMatch) {
         val info = extractInstanceInfo(droveUser);
         if (info == null) {
-            return ApiResponse.failure(
-                    "This api is applicable for calls by app instances from inside the cluster only");
+            return Response.ok(ApiResponse.failure(
+                    "This api is applicable for calls by app instances from inside the cluster only"))
+                    .build();
         }
         if (!hasAccess(info)) {
-            return ApiResponse.failure(
-                    "Please send valid token for you app instance. " +
-                            "The token value is available in the DROVE_APP_INSTANCE_AUTH_TOKEN environment variable");
+            return Response.ok(ApiResponse.failure(
+                            "Please send valid token for you app instance. " +
+                                    "The token value is available in the DROVE_APP_INSTANCE_AUTH_TOKEN environment " +
+                                    "variable"))
+                    .build();
         }
         val states = null == requiredStates || requiredStates.isEmpty()
                      ? RUNNING_STATES
                      : requiredStates;
-        val relevantAppIds = forApp
-                             ? appDB.application(info.getAppId())
-                                     .map(appInfo -> appInfo.getSpec().getName())
-                                     .map(appName -> appDB.applications(0, Integer.MAX_VALUE)
-                                             .stream()
-                                             .filter(appInfo -> appInfo.getSpec().getName().equals(appName))
-                                             .map(ApplicationInfo::getAppId)
-                                             .collect(Collectors.toUnmodifiableSet()))
-                                     .orElse(Set.of())
-                             : Set.of(info.getAppId());
+        val view = siblingInstancesView.instances(info.getAppId(), forApp, states);
+        val etag = new EntityTag(view.version());
+        if (matches(ifNoneMatch, view.version())) {
+            return Response.notModified(etag).build();
+        }
+        return Response.ok(ApiResponse.success(view.instances()))
+                .tag(etag)
+                .build();
+    }
 
-        return ApiResponse.success(instanceInfoDB.instances(relevantAppIds, states)
-                                           .values()
-                                           .stream()
-                                           .flatMap(Collection::stream)
-                                           .sorted(Comparator.comparing(InstanceInfo::getInstanceId))
-                                           .toList());
+    private static boolean matches(String ifNoneMatch, String version) {
+        if (null == ifNoneMatch || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        return Arrays.stream(ifNoneMatch.split(","))
+                .map(String::strip)
+                .map(tag -> tag.startsWith("W/") ? tag.substring(2) : tag)
+                .map(tag -> tag.replace("\"", ""))
+                .anyMatch(tag -> tag.equals("*") || tag.equals(version));
     }
 
     private boolean hasAccess(DroveApplicationInstanceInfo info) {
@@ -43,6 +43,7 @@ import com.phonepe.drove.controller.engine.ControllerCommunicator;
 import com.phonepe.drove.controller.engine.LocalServiceLifecycleManagementEngine;
 import com.phonepe.drove.controller.engine.TaskEngine;
 import com.phonepe.drove.controller.event.DroveEventBus;
+import com.phonepe.drove.controller.event.EventFilter;
 import com.phonepe.drove.controller.event.EventStore;
 import com.phonepe.drove.controller.managed.BlacklistingManager;
 import com.phonepe.drove.controller.resourcemgmt.ClusterResourcesDB;
@@ -62,6 +63,7 @@ import com.phonepe.drove.models.api.AppSummary;
 import com.phonepe.drove.models.api.BlacklistOperationResponse;
 import com.phonepe.drove.models.api.ClusterSummary;
 import com.phonepe.drove.models.api.DashboardData;
+import com.phonepe.drove.models.api.DroveEventsBatch;
 import com.phonepe.drove.models.api.DroveEventsList;
 import com.phonepe.drove.models.api.DroveEventsSummary;
 import com.phonepe.drove.models.api.ExecutorSummary;
@@ -370,7 +372,21 @@ public class ResponseEngine {
     }
 
     public ApiResponse<DroveEventsList> eventList(long lastSyncTime, int size) {
-        return ApiResponse.success(eventStore.latest(lastSyncTime, size));
+        return eventList(lastSyncTime, size, EventFilter.ALL);
+    }
+
+    public ApiResponse<DroveEventsList> eventList(long lastSyncTime, int size, EventFilter filter) {
+        return ApiResponse.success(eventStore.latest(lastSyncTime, size, filter));
+    }
+
+    public ApiResponse<DroveEventsBatch> queryEvents(long cursor, String epoch, int size, EventFilter filter) {
+        val currentEpoch = eventStore.epoch();
+        if (null != epoch && !epoch.equals(currentEpoch.id())) {
+            //Cursor is from a different offset sequence, client needs to start over from the current epoch
+            return ApiResponse.success(new DroveEventsBatch(List.of(), currentEpoch.startOffset(), currentEpoch.id()));
+        }
+        val batch = eventStore.readFrom(cursor, size, filter);
+        return ApiResponse.success(new DroveEventsBatch(batch.events(), batch.nextOffset(), currentEpoch.id()));
     }
 
     public ApiResponse<DroveEventsSummary> summarize(long lastSyncTime) {
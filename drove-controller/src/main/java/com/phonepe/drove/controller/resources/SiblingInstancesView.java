@@ -0,0 +1,207 @@
+/*
+ *  Copyright (c) 2024 Original Author(s), PhonePe India Pvt. Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.phonepe.drove.controller.resources;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.hash.Hashing;
+import com.phonepe.drove.common.coverageutils.IgnoreInJacocoGeneratedReport;
+import com.phonepe.drove.controller.event.DroveEventBus;
+import com.phonepe.drove.controller.managed.LeadershipEnsurer;
+import com.phonepe.drove.controller.statedb.ApplicationInstanceInfoDB;
+import com.phonepe.drove.controller.statedb.ApplicationStateDB;
+import com.phonepe.drove.models.application.ApplicationInfo;
+import com.phonepe.drove.models.events.DroveEvent;
+import com.phonepe.drove.models.events.events.DroveAppStateChangeEvent;
+import com.phonepe.drove.models.events.events.DroveInstanceStateChangeEvent;
+import com.phonepe.drove.models.events.events.datatags.AppEventDataTag;
+import com.phonepe.drove.models.events.events.datatags.AppInstanceEventDataTag;
+import com.phonepe.drove.models.instance.InstanceInfo;
+import com.phonepe.drove.models.instance.InstanceState;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Precomputed lists of instances returned to app instances by {@link AppSupport}. A view covers either a single app
+ * or all apps sharing a name. Views are built on first access and dropped when an app or instance they cover changes
+ * state. They are rebuilt at least every {@link #MAX_VIEW_AGE} so that instances that have gone stale drop out.
+ * Every view carries a version derived from the membership of the view, which remains the same across rebuilds
+ * unless instances have actually been added, removed or changed state.
+ */
+@Singleton
+@Slf4j
+public class SiblingInstancesView {
+    static final Duration MAX_VIEW_AGE = Duration.ofSeconds(5);
+
+    /**
+     * Instances sorted by instance id, along with the version of the list
+     */
+    public record View(String version, List<InstanceInfo> instances) {
+    }
+
+    /**
+     * Exactly one of appName (view for all apps with the name) and appId (view for a single app) is set
+     */
+    private record ViewKey(String appName, String appId, Set<InstanceState> states) {
+    }
+
+    private record CachedView(View view, long builtAt) {
+    }
+
+    private final ApplicationStateDB appDB;
+    private final ApplicationInstanceInfoDB instanceInfoDB;
+    private final long maxViewAgeMs;
+    private final Map<ViewKey, CachedView> views = new ConcurrentHashMap<>();
+    private final AtomicLong changeCount = new AtomicLong();
+
+    @Inject
+    @IgnoreInJacocoGeneratedReport
+    public SiblingInstancesView(
+            ApplicationStateDB appDB,
+            ApplicationInstanceInfoDB instanceInfoDB,
+            DroveEventBus eventBus,
+            LeadershipEnsurer leadershipEnsurer) {
+        this(appDB, instanceInfoDB, eventBus, leadershipEnsurer, MAX_VIEW_AGE);
+    }
+
+    @VisibleForTesting
+    SiblingInstancesView(
+            ApplicationStateDB appDB,
+            ApplicationInstanceInfoDB instanceInfoDB,
+            DroveEventBus eventBus,
+            LeadershipEnsurer leadershipEnsurer,
+            Duration maxViewAge) {
+        this.appDB = appDB;
+        this.instanceInfoDB = instanceInfoDB;
+        this.maxViewAgeMs = maxViewAge.toMillis();
+        eventBus.onNewEvent().connect(this::handleEvent);
+        leadershipEnsurer.onLeadershipStateChanged().connect(leader -> clear());
+    }
+
+    /**
+     * Instances visible to instances of an app
+     *
+     * @param appId  App the calling instance belongs to
+     * @param forApp If true, instances of all apps with the same name are returned
+     * @param states Only instances in these states are returned
+     * @return Current view
+     */
+    @SuppressWarnings("java:S1874")
+    public View instances(String appId, boolean forApp, Set<InstanceState> states) {
+        final ViewKey key;
+        if (forApp) {
+            val appName = appDB.application(appId).map(appInfo -> appInfo.getSpec().getName()).orElse(null);
+            if (null == appName) {
+                return build(Set.of(), states);
+            }
+            key = new ViewKey(appName, null, Set.copyOf(states));
+        }
+        else {
+            key = new ViewKey(null, appId, Set.copyOf(states));
+        }
+        val now = System.currentTimeMillis();
+        val cached = views.get(key);
+        if (null != cached && now - cached.builtAt() < maxViewAgeMs) {
+            return cached.view();
+        }
+        val changesBefore = changeCount.get();
+        val appIds = null != key.appId()
+                     ? Set.of(key.appId())
+                     : appDB.applications(0, Integer.MAX_VALUE)
+                             .stream()
+                             .filter(appInfo -> appInfo.getSpec().getName().equals(key.appName()))
+                             .map(ApplicationInfo::getAppId)
+                             .collect(Collectors.toUnmodifiableSet());
+        val view = new CachedView(build(appIds, key.states()), now);
+        views.put(key, view);
+        //A change that came in while building might not be reflected in the view
+        if (changeCount.get() != changesBefore) {
+            views.remove(key, view);
+        }
+        return view.view();
+    }
+
+    @VisibleForTesting
+    int viewCount() {
+        return views.size();
+    }
+
+    private View build(Set<String> appIds, Set<InstanceState> states) {
+        val instances = appIds.isEmpty()
+                        ? List.<InstanceInfo>of()
+                        : instanceInfoDB.instances(appIds, states)
+                                .values()
+                                .stream()
+                                .flatMap(Collection::stream)
+                                .sorted(Comparator.comparing(InstanceInfo::getInstanceId))
+                                .toList();
+        return new View(version(instances), instances);
+    }
+
+    @SuppressWarnings("UnstableApiUsage")
+    private static String version(List<InstanceInfo> instances) {
+        //Only data relevant to membership is considered, timestamps change on every update from the executor
+        val hasher = Hashing.murmur3_128().newHasher();
+        instances.forEach(instance -> {
+            hasher.putString(instance.getInstanceId(), StandardCharsets.UTF_8)
+                    .putString(Objects.toString(instance.getExecutorId()), StandardCharsets.UTF_8)
+                    .putString(instance.getState().name(), StandardCharsets.UTF_8);
+            val localInfo = instance.getLocalInfo();
+            if (null != localInfo) {
+                hasher.putString(Objects.toString(localInfo.getHostname()), StandardCharsets.UTF_8)
+                        .putString(String.valueOf(new TreeMap<>(Objects.requireNonNullElse(localInfo.getPorts(),
+                                                                                          Map.of()))),
+                                   StandardCharsets.UTF_8);
+            }
+        });
+        return hasher.hash().toString();
+    }
+
+    @SuppressWarnings("rawtypes")
+    private void handleEvent(DroveEvent event) {
+        if (event instanceof DroveInstanceStateChangeEvent instanceEvent) {
+            val metadata = instanceEvent.getMetadata();
+            invalidate(metadata.get(AppInstanceEventDataTag.APP_ID), metadata.get(AppInstanceEventDataTag.APP_NAME));
+        }
+        else if (event instanceof DroveAppStateChangeEvent appEvent) {
+            val metadata = appEvent.getMetadata();
+            invalidate(metadata.get(AppEventDataTag.APP_ID), metadata.get(AppEventDataTag.APP_NAME));
+        }
+    }
+
+    private void invalidate(Object appId, Object appName) {
+        changeCount.incrementAndGet();
+        if (null == appId && null == appName) {
+            return;
+        }
+        views.keySet().removeIf(key -> (null != key.appId() && key.appId().equals(appId))
+                || (null != key.appName() && key.appName().equals(appName)));
+    }
+
+    private void clear() {
+        changeCount.incrementAndGet();
+        views.clear();
+    }
+}
@@ -13,79 +13,192 @@
  *  See the License for the specific language governing permissions and
  *  limitations under the License.
  */
-
 package com.phonepe.drove.controller.statedb;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Sets;
 import com.phonepe.drove.controller.managed.LeadershipEnsurer;
 import com.phonepe.drove.models.instance.InstanceInfo;
 import com.phonepe.drove.models.instance.InstanceState;
 import io.appform.functionmetrics.MonitoredFunction;
+import io.appform.signals.signals.ScheduledSignal;
+import io.dropwizard.lifecycle.Managed;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
+import ru.vyarus.dropwizard.guice.module.installer.order.Order;
 
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.locks.StampedLock;
-import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import static com.phonepe.drove.models.instance.InstanceState.ACTIVE_STATES;
+import static com.phonepe.drove.models.instance.InstanceState.LOST;
+
 /**
- *
+ * Write-behind in memory index of instance data. All reads and writes are served from memory, writes are flushed
+ * to the underlying store asynchronously. Multiple writes to the same instance between two flushes are coalesced into
+ * a single write. Data for an app is loaded from the store the first time the app is accessed.
+ * <p>
+ * A successful update only means the change has been accepted by the leader. Pending changes are flushed on shutdown
+ * (before leadership is released) and dropped if leadership is lost, so that a deposed leader never overwrites data
+ * written by the new one. Changes lost in a crash are recovered from the instance state executors report periodically.
  */
 @Singleton
 @Slf4j
-public class CachingProxyApplicationInstanceInfoDB implements ApplicationInstanceInfoDB {
+@Order(12)
+public class CachingProxyApplicationInstanceInfoDB implements ApplicationInstanceInfoDB, Managed {
+    private static final Duration DEFAULT_FLUSH_INTERVAL = Duration.ofMillis(250);
+
+    private record InstanceKey(String appId, String instanceId) {
+    }
+
+    /**
+     * Latest un-flushed change for an instance. A null instance info denotes deletion.
+     */
+    private record PendingWrite(InstanceInfo instanceInfo) {
+    }
+
+    /**
+     * Instances for a single app, with a secondary index on state
+     */
+    private static final class AppInstances {
+        private final Map<String, InstanceInfo> instances = new HashMap<>();
+        private final Map<InstanceState, Set<String>> byState = new EnumMap<>(InstanceState.class);
+
+        void put(InstanceInfo instanceInfo) {
+            val existing = instances.put(instanceInfo.getInstanceId(), instanceInfo);
+            if (null != existing) {
+                unindex(existing);
+            }
+            byState.computeIfAbsent(instanceInfo.getState(), state -> new HashSet<>())
+                    .add(instanceInfo.getInstanceId());
+        }
+
+        boolean remove(String instanceId) {
+            val existing = instances.remove(instanceId);
+            if (null == existing) {
+                return false;
+            }
+            unindex(existing);
+            return true;
+        }
+
+        InstanceInfo get(String instanceId) {
+            return instances.get(instanceId);
+        }
+
+        Collection<InstanceInfo> all() {
+            return instances.values();
+        }
+
+        List<InstanceInfo> inStates(Set<InstanceState> states, Date validUpdateDate) {
+            val matched = new ArrayList<InstanceInfo>();
+            byState.forEach((state, instanceIds) -> {
+                if (states.contains(state)) {
+                    instanceIds.stream()
+                            .map(instances::get)
+                            .filter(instanceInfo -> null == validUpdateDate
+                                    || instanceInfo.getUpdated().after(validUpdateDate))
+                            .forEach(matched::add);
+                }
+            });
+            return matched;
+        }
+
+        private void unindex(InstanceInfo instanceInfo) {
+            val ids = byState.get(instanceInfo.getState());
+            if (null != ids) {
+                ids.remove(instanceInfo.getInstanceId());
+                if (ids.isEmpty()) {
+                    byState.remove(instanceInfo.getState());
+                }
+            }
+        }
+    }
+
     private final ApplicationInstanceInfoDB root;
 
-    private final Map<String, Map<String, InstanceInfo>> cache = new HashMap<>();
+    private final Map<String, AppInstances> cache = new HashMap<>();
     private final StampedLock lock = new StampedLock();
 
+    private final Map<InstanceKey, PendingWrite> pendingWrites = new ConcurrentHashMap<>();
+    //Held while writing to the store, so that bulk operations do not interleave with a flush
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final ScheduledSignal flusher;
+
     @Inject
     public CachingProxyApplicationInstanceInfoDB(
             @Named("StoredInstanceInfoDB") final ApplicationInstanceInfoDB root,
             final LeadershipEnsurer leadershipEnsurer) {
+        this(root, leadershipEnsurer, DEFAULT_FLUSH_INTERVAL);
+    }
+
+    @VisibleForTesting
+    CachingProxyApplicationInstanceInfoDB(
+            final ApplicationInstanceInfoDB root,
+            final LeadershipEnsurer leadershipEnsurer,
+            final Duration flushInterval) {
         this.root = root;
         leadershipEnsurer.onLeadershipStateChanged().connect(this::purge);
+        this.flusher = new ScheduledSignal(flushInterval, flushInterval);
+        this.flusher.connect("FLUSHER", time -> flush());
         log.info("Created object");
     }
 
-   @Override
-   @MonitoredFunction
+    @Override
+    public void start() {
+        //Flusher is started on creation
+    }
+
+    @Override
+    public void stop() {
+        flusher.close();
+        flush();
+        if (!pendingWrites.isEmpty()) {
+            log.warn("{} instance changes could not be written to the store during shutdown", pendingWrites.size());
+        }
+        log.info("Instance info db stopped");
+    }
+
+    @Override
+    @MonitoredFunction
     public Map<String, List<InstanceInfo>> instances(
             Collection<String> appIds,
             Set<InstanceState> validStates,
             boolean skipStaleCheck) {
-        if(appIds.isEmpty()) {
+        if (appIds.isEmpty()) {
             return Map.of();
         }
         var stamp = lock.readLock();
         try {
             val availableApps = cache.keySet();
-            if(!availableApps.containsAll(appIds)) {
-                val status = lock.tryConvertToWriteLock(stamp);
-                if (status == 0) { //Did not lock, try explicit lock
-                    lock.unlockRead(stamp);
-                    stamp = lock.writeLock();
-                }
-                else {
-                    stamp = status;
-                }
+            if (!availableApps.containsAll(appIds)) {
+                stamp = toWriteLock(stamp);
                 val missingApps = Sets.difference(Set.copyOf(appIds), availableApps);
                 log.info("Loading instance data for: {}", missingApps);
                 reloadInstancesForApps(missingApps);
             }
 
-            val validUpdateDate = new Date(System.currentTimeMillis() - MAX_ACCEPTABLE_UPDATE_INTERVAL.toMillis());
-            return appIds.stream()
-                    .map(cache::get)
-                    .filter(Objects::nonNull)
-                    .flatMap(instances -> instances.values().stream())
-                    .filter(instanceInfo -> validStates.contains(instanceInfo.getState()))
-                    .filter(instanceInfo -> skipStaleCheck || instanceInfo.getUpdated().after(validUpdateDate))
-                    .collect(Collectors.groupingBy(InstanceInfo::getAppId, Collectors.toUnmodifiableList()));
+            val validUpdateDate = skipStaleCheck
+                                  ? null
+                                  : new Date(System.currentTimeMillis() - MAX_ACCEPTABLE_UPDATE_INTERVAL.toMillis());
+            val result = new HashMap<String, List<InstanceInfo>>();
+            appIds.forEach(appId -> {
+                val appInstances = cache.get(appId);
+                if (null != appInstances) {
+                    val matched = appInstances.inStates(validStates, validUpdateDate);
+                    if (!matched.isEmpty()) {
+                        result.put(appId, List.copyOf(matched));
+                    }
+                }
+            });
+            return result;
         }
         finally {
             lock.unlock(stamp);
@@ -95,28 +208,31 @@ public class CachingProxyApplicationInstanceInfoDB implements ApplicationInstanc
     @Override
     @MonitoredFunction
     public Optional<InstanceInfo> instance(String appId, String instanceId) {
-        return instances(appId, EnumSet.allOf(InstanceState.class), 0, Integer.MAX_VALUE, true)
-                .stream()
-                .filter(instanceInfo -> instanceInfo.getInstanceId().equals(instanceId))
-                .findAny();
+        var stamp = lock.readLock();
+        try {
+            if (!cache.containsKey(appId)) {
+                stamp = toWriteLock(stamp);
+                reloadInstancesForApps(List.of(appId));
+            }
+            return Optional.ofNullable(cache.get(appId).get(instanceId));
+        }
+        finally {
+            lock.unlock(stamp);
+        }
     }
 
+    /**
+     * Update instance data in memory and queue it to be written to the store.
+     *
+     * @return Always true as the change is accepted immediately. Store failures are retried on subsequent flushes
+     */
     @Override
     @MonitoredFunction
     public boolean updateInstanceState(String appId, String instanceId, InstanceInfo instanceInfo) {
         val stamp = lock.writeLock();
         try {
-            val status = root.updateInstanceState(appId, instanceId, instanceInfo);
-            if (status) {
-                cache.compute(appId, (aId, oldInstances) -> {
-                    val instances = null != oldInstances
-                                    ? oldInstances
-                                    : new HashMap<String, InstanceInfo>();
-                    instances.put(instanceId, instanceInfo);
-                    return instances;
-                });
-            }
-            return status;
+            updateUnsafe(appId, instanceId, instanceInfo);
+            return true;
         }
         finally {
             lock.unlock(stamp);
@@ -128,11 +244,14 @@ public class CachingProxyApplicationInstanceInfoDB implements ApplicationInstanc
     public boolean deleteInstanceState(String appId, String instanceId) {
         val stamp = lock.writeLock();
         try {
-            val status = root.deleteInstanceState(appId, instanceId);
-            if (status) {
-                removeCacheEntry(appId, instanceId);
+            if (!cache.containsKey(appId)) {
+                reloadInstancesForApps(List.of(appId));
             }
-            return status;
+            if (!cache.get(appId).remove(instanceId)) {
+                return false;
+            }
+            pendingWrites.put(new InstanceKey(appId, instanceId), new PendingWrite(null));
+            return true;
         }
         finally {
             lock.unlock(stamp);
@@ -142,16 +261,24 @@ public class CachingProxyApplicationInstanceInfoDB implements ApplicationInstanc
     @Override
     @MonitoredFunction
     public boolean deleteAllInstancesForApp(String appId) {
-        val stamp = lock.writeLock();
+        flushLock.lock();
         try {
-            val status = root.deleteAllInstancesForApp(appId);
-            if (status) {
-                cache.remove(appId);
+            val stamp = lock.writeLock();
+            try {
+                //Instances that were never flushed exist only in memory and are deleted by dropping the writes
+                val hadPendingWrites = pendingWrites.keySet().removeIf(key -> key.appId().equals(appId));
+                val status = root.deleteAllInstancesForApp(appId) || hadPendingWrites;
+                if (status) {
+                    cache.remove(appId);
+                }
+                return status;
+            }
+            finally {
+                lock.unlock(stamp);
             }
-            return status;
         }
         finally {
-            lock.unlock(stamp);
+            flushLock.unlock();
         }
     }
 
@@ -160,48 +287,138 @@ public class CachingProxyApplicationInstanceInfoDB implements ApplicationInstanc
     public long markStaleInstances(String appId) {
         val stamp = lock.writeLock();
         try {
-            val count = root.markStaleInstances(appId);
-            if (count > 0) {
+            if (!cache.containsKey(appId)) {
                 reloadInstancesForApps(List.of(appId));
             }
-            return count;
+            val validUpdateDate = new Date(System.currentTimeMillis() - MAX_ACCEPTABLE_UPDATE_INTERVAL.toMillis());
+            //Find all instances in active states that have not been updated in stipulated time and mark them lost
+            val staleInstances = cache.get(appId)
+                    .all()
+                    .stream()
+                    .filter(instanceInfo -> ACTIVE_STATES.contains(instanceInfo.getState())
+                            && instanceInfo.getUpdated().before(validUpdateDate))
+                    .toList();
+            staleInstances.forEach(instanceInfo -> {
+                log.warn("Found stale instance {}/{}. Current state: {} Last updated at: {}",
+                         appId, instanceInfo.getInstanceId(), instanceInfo.getState(), instanceInfo.getUpdated());
+                updateUnsafe(appId,
+                             instanceInfo.getInstanceId(),
+                             new InstanceInfo(instanceInfo.getAppId(),
+                                              instanceInfo.getAppName(),
+                                              instanceInfo.getInstanceId(),
+                                              instanceInfo.getExecutorId(),
+                                              instanceInfo.getLocalInfo(),
+                                              instanceInfo.getResources(),
+                                              LOST,
+                                              instanceInfo.getMetadata(),
+                                              "Instance lost",
+                                              instanceInfo.getCreated(),
+                                              new Date()));
+            });
+            return staleInstances.size();
         }
         finally {
             lock.unlock(stamp);
         }
     }
 
-    private void reloadInstancesForApps(Collection<String> appIds) {
-        val appsWithInstances = root.instances(appIds, EnumSet.allOf(InstanceState.class), true)
-                .entrySet()
-                .stream()
-                .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().stream()
-                        .collect(Collectors.toMap(InstanceInfo::getInstanceId, Function.identity()))));
-        cache.putAll(appsWithInstances);
-        //For apps that don't have any running nodes (in monitoring states etc), add empty maps
-        val appsWithoutInstances = Sets.difference(Set.copyOf(appIds), cache.keySet());
-        appsWithoutInstances.forEach(appId -> cache.put(appId, new HashMap<>()));
-        log.info("Loaded app instance data {}. Empty: {}", appsWithInstances.keySet(), appsWithoutInstances);
+    /**
+     * Write all pending changes to the underlying store. Failed writes are retried on the next flush unless the
+     * instance has been changed again in the meantime.
+     */
+    @VisibleForTesting
+    void flush() {
+        flushLock.lock();
+        try {
+            if (pendingWrites.isEmpty()) {
+                return;
+            }
+            var written = 0;
+            var failed = 0;
+            for (val key : List.copyOf(pendingWrites.keySet())) {
+                val write = pendingWrites.remove(key);
+                if (null == write) {
+                    continue;
+                }
+                if (writeToRoot(key, write)) {
+                    written++;
+                }
+                else {
+                    failed++;
+                    pendingWrites.putIfAbsent(key, write);
+                }
+            }
+            log.debug("Flushed {} instance changes. Failed: {}", written, failed);
+        }
+        finally {
+            flushLock.unlock();
+        }
     }
 
-    private void purge(boolean leader) {
-        val stamp = lock.writeLock();
+    private boolean writeToRoot(InstanceKey key, PendingWrite write) {
         try {
-            cache.clear();
+            return null == write.instanceInfo()
+                   ? root.deleteInstanceState(key.appId(), key.instanceId())
+                   : root.updateInstanceState(key.appId(), key.instanceId(), write.instanceInfo());
         }
-        finally {
-            lock.unlock(stamp);
+        catch (Exception e) {
+            log.error("Error writing instance data for {}/{}: {}", key.appId(), key.instanceId(), e.getMessage());
+            return false;
+        }
+    }
+
+    private void updateUnsafe(String appId, String instanceId, InstanceInfo instanceInfo) {
+        if (!cache.containsKey(appId)) {
+            reloadInstancesForApps(List.of(appId));
+        }
+        cache.get(appId).put(instanceInfo);
+        pendingWrites.put(new InstanceKey(appId, instanceId), new PendingWrite(instanceInfo));
+    }
+
+    private long toWriteLock(long stamp) {
+        val status = lock.tryConvertToWriteLock(stamp);
+        if (status == 0) { //Did not lock, try explicit lock
+            lock.unlockRead(stamp);
+            return lock.writeLock();
         }
+        return status;
+    }
+
+    private void reloadInstancesForApps(Collection<String> appIds) {
+        val appsWithInstances = root.instances(appIds, EnumSet.allOf(InstanceState.class), true);
+        appIds.forEach(appId -> {
+            val appInstances = new AppInstances();
+            appsWithInstances.getOrDefault(appId, List.of()).forEach(appInstances::put);
+            cache.put(appId, appInstances);
+        });
+        log.info("Loaded app instance data {}. Empty: {}",
+                 appsWithInstances.keySet(),
+                 appIds.stream()
+                         .filter(appId -> !appsWithInstances.containsKey(appId))
+                         .collect(Collectors.toUnmodifiableSet()));
     }
 
-    private void removeCacheEntry(String appId, String instanceId) {
-        val instances = cache.get(appId);
-        if (null != instances) {
-            instances.remove(instanceId);
-            if (instances.isEmpty()) {
-                cache.remove(appId);
-                log.debug("Removing cache key: {}", appId);
+    private void purge(boolean leader) {
+        flushLock.lock();
+        try {
+            val stamp = lock.writeLock();
+            try {
+                //A controller that lost leadership must not write to the store anymore, the new leader owns the data
+                //now and executors will report current instance states to it. On becoming leader there is nothing
+                //pending as followers do not accept writes.
+                if (!pendingWrites.isEmpty()) {
+                    log.warn("Leadership changed. Leader: {}. Discarding {} unflushed instance changes",
+                             leader, pendingWrites.size());
+                    pendingWrites.clear();
+                }
+                cache.clear();
+            }
+            finally {
+                lock.unlock(stamp);
             }
         }
+        finally {
+            flushLock.unlock();
+        }
     }
 }
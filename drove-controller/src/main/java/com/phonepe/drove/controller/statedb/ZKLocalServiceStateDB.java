@@ -17,6 +17,7 @@
 package com.phonepe.drove.controller.statedb;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.phonepe.drove.common.zookeeper.ZkDataCodec;
 import com.phonepe.drove.models.instance.LocalServiceInstanceState;
 import com.phonepe.drove.models.localservice.LocalServiceInfo;
 import com.phonepe.drove.models.localservice.LocalServiceInstanceInfo;
@@ -47,12 +48,16 @@ public class ZKLocalServiceStateDB implements LocalServiceStateDB {
     private static final String SERVICE_INSTANCES_PATH = "/localserviceinstances";
 
     private final CuratorFramework curatorFramework;
-    private final ObjectMapper mapper;
+    private final ZkDataCodec codec;
 
-    @Inject
     public ZKLocalServiceStateDB(CuratorFramework curatorFramework, ObjectMapper mapper) {
+        this(curatorFramework, new ZkDataCodec(mapper));
+    }
+
+    @Inject
+    public ZKLocalServiceStateDB(CuratorFramework curatorFramework, ZkDataCodec codec) {
         this.curatorFramework = curatorFramework;
-        this.mapper = mapper;
+        this.codec = codec;
     }
 
     @Override
@@ -60,7 +65,7 @@ public class ZKLocalServiceStateDB implements LocalServiceStateDB {
     public Optional<LocalServiceInfo> service(final String serviceId) {
         return Optional.ofNullable(readNodeData(curatorFramework,
                                                 servicePath(serviceId),
-                                                mapper,
+                                                codec,
                                                 LocalServiceInfo.class));
     }
 
@@ -68,14 +73,13 @@ public class ZKLocalServiceStateDB implements LocalServiceStateDB {
     @MonitoredFunction
     public List<LocalServiceInfo> services(int start, int size) {
         try {
-            return readChildrenNodes(curatorFramework,
-                                     SERVICE_STATE_PATH,
-                                     start,
-                                     size,
-                                     path -> readNodeData(curatorFramework,
-                                                          servicePath(path),
-                                                          mapper,
-                                                          LocalServiceInfo.class));
+            return readChildrenNodeData(curatorFramework,
+                                        SERVICE_STATE_PATH,
+                                        start,
+                                        size,
+                                        ZKLocalServiceStateDB::servicePath,
+                                        codec,
+                                        LocalServiceInfo.class);
         }
         catch (Exception e) {
             log.error("Error reading application list: " + e.getMessage(), e);
@@ -86,7 +90,7 @@ public class ZKLocalServiceStateDB implements LocalServiceStateDB {
     @Override
     @MonitoredFunction
     public boolean updateService(String serviceId, LocalServiceInfo info) {
-        return setNodeData(curatorFramework, servicePath(serviceId), mapper, info.withUpdated(new Date()));
+        return setNodeData(curatorFramework, servicePath(serviceId), codec, info.withUpdated(new Date()));
     }
 
     @Override
@@ -98,7 +102,7 @@ public class ZKLocalServiceStateDB implements LocalServiceStateDB {
     public Optional<LocalServiceInstanceInfo> instance(String serviceId, String instanceId) {
         return Optional.ofNullable(readNodeData(curatorFramework,
                                                 instancePath(serviceId, instanceId),
-                                                mapper,
+                                                codec,
                                                 LocalServiceInstanceInfo.class));
     }
 
@@ -128,7 +132,7 @@ public class ZKLocalServiceStateDB implements LocalServiceStateDB {
     public boolean updateInstanceState(String serviceId, String instanceId, LocalServiceInstanceInfo instanceInfo) {
         return setNodeData(curatorFramework,
                            instancePath(serviceId, instanceId),
-                           mapper,
+                           codec,
                            instanceInfo);
     }
 
@@ -162,13 +166,12 @@ public class ZKLocalServiceStateDB implements LocalServiceStateDB {
             int size,
             Predicate<LocalServiceInstanceInfo> filter) {
         val parentPath = instancePath(staleCheck);
-        return readChildrenNodes(curatorFramework,
-                                 parentPath, start, size,
-                                 instanceId -> readNodeData(curatorFramework,
-                                                            instanceInfoPath(parentPath, instanceId),
-                                                            mapper,
-                                                            LocalServiceInstanceInfo.class,
-                                                            filter));
+        return readChildrenNodeData(curatorFramework,
+                                    parentPath, start, size,
+                                    instanceId -> instanceInfoPath(parentPath, instanceId),
+                                    codec,
+                                    LocalServiceInstanceInfo.class,
+                                    filter);
     }
 
     private static String servicePath(String appId) {
@@ -17,6 +17,7 @@
 package com.phonepe.drove.controller.statedb;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.phonepe.drove.common.zookeeper.ZkDataCodec;
 import com.phonepe.drove.models.instance.InstanceInfo;
 import com.phonepe.drove.models.instance.InstanceState;
 import io.appform.functionmetrics.MonitoredFunction;
@@ -46,12 +47,16 @@ public class ZkApplicationInstanceInfoDB implements ApplicationInstanceInfoDB {
     private static final String INSTANCE_STATE_PATH = "/instances";
 
     private final CuratorFramework curatorFramework;
-    private final ObjectMapper mapper;
+    private final ZkDataCodec codec;
 
-    @Inject
     public ZkApplicationInstanceInfoDB(CuratorFramework curatorFramework, ObjectMapper mapper) {
+        this(curatorFramework, new ZkDataCodec(mapper));
+    }
+
+    @Inject
+    public ZkApplicationInstanceInfoDB(CuratorFramework curatorFramework, ZkDataCodec codec) {
         this.curatorFramework = curatorFramework;
-        this.mapper = mapper;
+        this.codec = codec;
     }
 
     @Override
@@ -75,7 +80,7 @@ public class ZkApplicationInstanceInfoDB implements ApplicationInstanceInfoDB {
     public Optional<InstanceInfo> instance(String appId, String instanceId) {
         return Optional.ofNullable(readNodeData(curatorFramework,
                                                 instancePath(appId, instanceId),
-                                                mapper,
+                                                codec,
                                                 InstanceInfo.class));
     }
 
@@ -85,7 +90,7 @@ public class ZkApplicationInstanceInfoDB implements ApplicationInstanceInfoDB {
             String appId, String instanceId, InstanceInfo instanceInfo) {
         return setNodeData(curatorFramework,
                            instancePath(appId, instanceId),
-                           mapper,
+                           codec,
                            instanceInfo);
     }
 
@@ -151,13 +156,12 @@ public class ZkApplicationInstanceInfoDB implements ApplicationInstanceInfoDB {
             int size,
             Predicate<InstanceInfo> filter) {
         val parentPath = instancePath(appId);
-        return readChildrenNodes(curatorFramework,
-                                 parentPath, start, size,
-                                 instanceId -> readNodeData(curatorFramework,
-                                                            instanceInfoPath(parentPath, instanceId),
-                                                            mapper,
-                                                            InstanceInfo.class,
-                                                            filter));
+        return readChildrenNodeData(curatorFramework,
+                                    parentPath, start, size,
+                                    instanceId -> instanceInfoPath(parentPath, instanceId),
+                                    codec,
+                                    InstanceInfo.class,
+                                    filter);
     }
 
 }
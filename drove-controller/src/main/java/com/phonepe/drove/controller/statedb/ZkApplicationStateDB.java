@@ -17,6 +17,7 @@
 package com.phonepe.drove.controller.statedb;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.phonepe.drove.common.zookeeper.ZkDataCodec;
 import com.phonepe.drove.models.application.ApplicationInfo;
 import io.appform.functionmetrics.MonitoredFunction;
 import lombok.extern.slf4j.Slf4j;
@@ -40,26 +41,29 @@ public class ZkApplicationStateDB implements ApplicationStateDB {
     private static final String APPLICATION_STATE_PATH = "/applications";
 
     private final CuratorFramework curatorFramework;
-    private final ObjectMapper mapper;
+    private final ZkDataCodec codec;
 
-    @Inject
     public ZkApplicationStateDB(CuratorFramework curatorFramework, ObjectMapper mapper) {
+        this(curatorFramework, new ZkDataCodec(mapper));
+    }
+
+    @Inject
+    public ZkApplicationStateDB(CuratorFramework curatorFramework, ZkDataCodec codec) {
         this.curatorFramework = curatorFramework;
-        this.mapper = mapper;
+        this.codec = codec;
     }
 
     @Override
     @MonitoredFunction
     public List<ApplicationInfo> applications(int start, int size) {
         try {
-            return readChildrenNodes(curatorFramework,
-                                             APPLICATION_STATE_PATH,
-                                             start,
-                                             size,
-                                             path -> readNodeData(curatorFramework,
-                                                                          appInfoPath(path),
-                                                                          mapper,
-                                                                          ApplicationInfo.class));
+            return readChildrenNodeData(curatorFramework,
+                                        APPLICATION_STATE_PATH,
+                                        start,
+                                        size,
+                                        ZkApplicationStateDB::appInfoPath,
+                                        codec,
+                                        ApplicationInfo.class);
         }
         catch (Exception e) {
             log.error("Error reading application list: " + e.getMessage(), e);
@@ -72,7 +76,7 @@ public class ZkApplicationStateDB implements ApplicationStateDB {
     public Optional<ApplicationInfo> application(String appId) {
         return Optional.ofNullable(readNodeData(curatorFramework,
                                                 appInfoPath(appId),
-                                                mapper,
+                                                codec,
                                                 ApplicationInfo.class));
     }
 
@@ -80,7 +84,7 @@ public class ZkApplicationStateDB implements ApplicationStateDB {
     @MonitoredFunction
     public boolean updateApplicationState(
             String appId, ApplicationInfo applicationInfo) {
-        return setNodeData(curatorFramework, appInfoPath(appId), mapper, applicationInfo);
+        return setNodeData(curatorFramework, appInfoPath(appId), codec, applicationInfo);
     }
 
 
@@ -17,6 +17,7 @@
 package com.phonepe.drove.controller.statedb;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.phonepe.drove.common.zookeeper.ZkDataCodec;
 import com.phonepe.drove.common.zookeeper.ZkUtils;
 import com.phonepe.drove.models.common.ClusterState;
 import com.phonepe.drove.models.common.ClusterStateData;
@@ -37,17 +38,21 @@ public class ZkClusterStateDB implements ClusterStateDB {
     private static final String PATH = "/cluster/maintenance";
 
     private final CuratorFramework curatorFramework;
-    private final ObjectMapper mapper;
+    private final ZkDataCodec codec;
 
-    @Inject
     public ZkClusterStateDB(CuratorFramework curatorFramework, ObjectMapper mapper) {
+        this(curatorFramework, new ZkDataCodec(mapper));
+    }
+
+    @Inject
+    public ZkClusterStateDB(CuratorFramework curatorFramework, ZkDataCodec codec) {
         this.curatorFramework = curatorFramework;
-        this.mapper = mapper;
+        this.codec = codec;
     }
 
     @Override
     public Optional<ClusterStateData> setClusterState(ClusterState state) {
-        if(ZkUtils.setNodeData(curatorFramework, PATH, mapper, new ClusterStateData(state, new Date()))) {
+        if(ZkUtils.setNodeData(curatorFramework, PATH, codec, new ClusterStateData(state, new Date()))) {
             return currentState();
         }
         return Optional.empty();
@@ -55,6 +60,6 @@ public class ZkClusterStateDB implements ClusterStateDB {
 
     @Override
     public Optional<ClusterStateData> currentState() {
-        return Optional.ofNullable(ZkUtils.readNodeData(curatorFramework, PATH, mapper, ClusterStateData.class));
+        return Optional.ofNullable(ZkUtils.readNodeData(curatorFramework, PATH, codec, ClusterStateData.class));
     }
 }
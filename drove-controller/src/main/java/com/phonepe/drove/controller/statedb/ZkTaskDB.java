@@ -17,6 +17,7 @@
 package com.phonepe.drove.controller.statedb;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.phonepe.drove.common.zookeeper.ZkDataCodec;
 import com.phonepe.drove.common.zookeeper.ZkUtils;
 import com.phonepe.drove.models.taskinstance.TaskInfo;
 import com.phonepe.drove.models.taskinstance.TaskState;
@@ -44,12 +45,16 @@ public class ZkTaskDB extends TaskDB {
     private static final String TASK_STATE_PATH = "/tasks";
 
     private final CuratorFramework curatorFramework;
-    private final ObjectMapper mapper;
+    private final ZkDataCodec codec;
 
-    @Inject
     public ZkTaskDB(CuratorFramework curatorFramework, ObjectMapper mapper) {
+        this(curatorFramework, new ZkDataCodec(mapper));
+    }
+
+    @Inject
+    public ZkTaskDB(CuratorFramework curatorFramework, ZkDataCodec codec) {
         this.curatorFramework = curatorFramework;
-        this.mapper = mapper;
+        this.codec = codec;
     }
 
     @Override
@@ -81,14 +86,13 @@ public class ZkTaskDB extends TaskDB {
         log.info("The following task parent app paths have been identified: {}", appIds);
         appIds.forEach(appPath -> {
             try {
-                val children = ZkUtils.readChildrenNodes(curatorFramework,
-                                                         appPath,
-                                                         0,
-                                                         Integer.MAX_VALUE,
-                                                         path -> ZkUtils.readNodeData(curatorFramework,
-                                                                                      appPath + "/" + path,
-                                                                                      mapper,
-                                                                                      TaskInfo.class));
+                val children = ZkUtils.readChildrenNodeData(curatorFramework,
+                                                            appPath,
+                                                            0,
+                                                            Integer.MAX_VALUE,
+                                                            path -> appPath + "/" + path,
+                                                            codec,
+                                                            TaskInfo.class);
                 children.stream()
                         .filter(filter)
                         .forEach(node -> deleteTask(node.getSourceAppName(), node.getTaskId()));
@@ -104,7 +108,7 @@ public class ZkTaskDB extends TaskDB {
     public Optional<TaskInfo> task(String sourceAppName, String taskId) {
         return Optional.ofNullable(readNodeData(curatorFramework,
                                                 instancePath(sourceAppName, taskId),
-                                                mapper,
+                                                codec,
                                                 TaskInfo.class));
     }
 
@@ -113,7 +117,7 @@ public class ZkTaskDB extends TaskDB {
     protected boolean updateTaskImpl(String sourceAppName, String taskId, TaskInfo instanceInfo) {
         return setNodeData(curatorFramework,
                            instancePath(sourceAppName, taskId),
-                           mapper,
+                           codec,
                            instanceInfo);
     }
 
@@ -130,13 +134,12 @@ public class ZkTaskDB extends TaskDB {
             int size,
             Predicate<TaskInfo> filter) {
         val parentPath = instancePath(appId);
-        return readChildrenNodes(curatorFramework,
-                                 parentPath, start, size,
-                                 instanceId -> readNodeData(curatorFramework,
-                                                            instanceInfoPath(parentPath, instanceId),
-                                                            mapper,
-                                                            TaskInfo.class,
-                                                            filter));
+        return readChildrenNodeData(curatorFramework,
+                                    parentPath, start, size,
+                                    instanceId -> instanceInfoPath(parentPath, instanceId),
+                                    codec,
+                                    TaskInfo.class,
+                                    filter);
     }
 
     private static String instancePath(final String sourceAppId) {
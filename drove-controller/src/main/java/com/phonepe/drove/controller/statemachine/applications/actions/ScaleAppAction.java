@@ -126,6 +126,17 @@ public class ScaleAppAction extends AppAsyncAction {
             val numNew = required - currentInstancesCount;
             val schedulingSessionId = context.getSchedulingSessionId();
             log.info("{} new instances to be started. Sched session ID: {}", numNew, schedulingSessionId);
+            //Compute placements in one pass for the first wave of jobs only. Later waves start much later, by
+            //when placements might have gone stale. Jobs that do not get a placement here will try to schedule
+            //themselves when they run. Unclaimed placements are released when the session is finalised
+            val numPrecomputed = Math.min(numNew, parallelism);
+            val placements = scheduler.scheduleBatch(schedulingSessionId,
+                                                     LongStream.range(0, numPrecomputed)
+                                                             .mapToObj(i -> instanceIdGenerator.generate(
+                                                                     applicationSpec))
+                                                             .toList(),
+                                                     applicationSpec);
+            log.info("Pre-computed placements for {} of {} new instances", placements.size(), numNew);
             return Optional.of(JobTopology.<Boolean>builder()
                                        .withThreadFactory(threadFactory)
                                        .addParallel(
@@ -140,7 +151,10 @@ public class ScaleAppAction extends AppAsyncAction {
                                                                                                                retrySpecFactory,
                                                                                                                instanceIdGenerator,
                                                                                                                tokenManager,
-                                                                                                               httpCaller))
+                                                                                                               httpCaller,
+                                                                                                               i < placements.size()
+                                                                                                               ? placements.get((int) i)
+                                                                                                               : null))
                                                        .toList())
                                        .build());
         }
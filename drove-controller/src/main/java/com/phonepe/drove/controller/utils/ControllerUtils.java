@@ -868,6 +868,28 @@ public class ControllerUtils {
                                                               freeMemory + usedMemory);
     }
 
+    /**
+     * Percentage of free cores that sit on partially used NUMA nodes. Free cores on completely empty NUMA nodes are
+     * not considered fragmented as they can still host the largest possible instance.
+     *
+     * @param executors Executors to consider
+     * @return Fragmented free cores as a percentage (0-100) of all free cores
+     */
+    public static long cpuFragmentationPercentage(final List<ExecutorHostInfo> executors) {
+        var freeCores = 0L;
+        var fragmentedCores = 0L;
+        for (val executor : executors) {
+            for (val numaNode : executor.getNodes().values()) {
+                val free = numaNode.getFreeCoreCount();
+                freeCores += free;
+                if (free < numaNode.getTotalCoreCount()) {
+                    fragmentedCores += free;
+                }
+            }
+        }
+        return freeCores == 0 ? 0 : (fragmentedCores * 100) / freeCores;
+    }
+
     public static long totalMemory(DeploymentSpec spec, long instances) {
         return instances * spec.getResources()
                 .stream()
@@ -20,6 +20,7 @@ import com.codahale.metrics.SharedMetricRegistries;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.phonepe.drove.controller.resourcemgmt.ClusterResourcesDB;
 import com.phonepe.drove.controller.resourcemgmt.DefaultInstanceScheduler;
+import com.phonepe.drove.controller.resourcemgmt.DeployableAllocationTracker;
 import com.phonepe.drove.controller.rule.RuleEvalStrategy;
 import com.phonepe.drove.controller.rule.RuleEvaluator;
 import com.phonepe.drove.controller.rule.hope.HopeRuleInstance;
@@ -58,7 +59,9 @@ public class ControllerTestBase {
                                         RuleBasedPlacementPolicy.RuleType.HOPE, HopeRuleInstance.create(MAPPER),
                                         RuleBasedPlacementPolicy.RuleType.MVEL, MvelRuleInstance.create())
                     );
-        val sch = new DefaultInstanceScheduler(instanceDB, tdb, localServiceDB, cdb, re);
+        val sch = new DefaultInstanceScheduler(new DeployableAllocationTracker(instanceDB, tdb, localServiceDB),
+                                               cdb,
+                                               re);
         return new Pair(tdb, sch);
 
     }
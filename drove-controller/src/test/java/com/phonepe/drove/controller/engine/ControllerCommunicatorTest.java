@@ -0,0 +1,128 @@
+/*
+ *  Copyright (c) 2024 Original Author(s), PhonePe India Pvt. Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.phonepe.drove.controller.engine;
+
+import com.phonepe.drove.common.model.ExecutorMessageType;
+import com.phonepe.drove.common.model.MessageDeliveryStatus;
+import com.phonepe.drove.common.model.MessageHeader;
+import com.phonepe.drove.common.model.MessageResponse;
+import com.phonepe.drove.common.model.executor.BlacklistExecutorMessage;
+import com.phonepe.drove.common.model.executor.ExecutorAddress;
+import com.phonepe.drove.common.model.executor.ExecutorMessage;
+import com.phonepe.drove.common.net.MessageSender;
+import com.phonepe.drove.controller.managed.LeadershipEnsurer;
+import com.phonepe.drove.models.info.nodedata.NodeTransportType;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests {@link ControllerCommunicator}
+ */
+class ControllerCommunicatorTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testBroadcastLimitsInFlightMessagesPerExecutor() {
+        val sender = (MessageSender<ExecutorMessageType, ExecutorMessage>) mock(MessageSender.class);
+        val outstanding = new ArrayList<CompletableFuture<MessageResponse>>();
+        when(sender.sendAsync(any(ExecutorMessage.class)))
+                .thenAnswer(invocationOnMock -> {
+                    val future = new CompletableFuture<MessageResponse>();
+                    synchronized (outstanding) {
+                        outstanding.add(future);
+                    }
+                    return future;
+                });
+        val comm = new ControllerCommunicator(mock(StateUpdater.class), sender, mock(LeadershipEnsurer.class), 2);
+        val messages = new ArrayList<ExecutorMessage>();
+        IntStream.range(0, 5).forEach(i -> messages.add(message("E1")));
+        messages.add(message("E2"));
+        val result = comm.broadcast(messages);
+
+        assertEquals(3, outstanding.size());
+        assertEquals(2, comm.inFlightMessages("E1"));
+        assertEquals(1, comm.inFlightMessages("E2"));
+
+        //Completing a message frees up the slot for the next queued one
+        while (!result.isDone()) {
+            final List<CompletableFuture<MessageResponse>> current;
+            synchronized (outstanding) {
+                current = List.copyOf(outstanding);
+                outstanding.clear();
+            }
+            assertFalse(current.isEmpty());
+            current.forEach(f -> f.complete(new MessageResponse(MessageHeader.controllerRequest(),
+                                                                MessageDeliveryStatus.ACCEPTED)));
+            assertTrue(comm.inFlightMessages("E1") <= 2);
+        }
+        val responses = result.join();
+        assertEquals(messages.size(), responses.size());
+        assertTrue(responses.stream().allMatch(r -> r.getStatus() == MessageDeliveryStatus.ACCEPTED));
+        assertEquals(0, comm.inFlightMessages("E1"));
+        assertEquals(0, comm.inFlightMessages("E2"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testSendAsyncFailure() {
+        val sender = (MessageSender<ExecutorMessageType, ExecutorMessage>) mock(MessageSender.class);
+        when(sender.sendAsync(any(ExecutorMessage.class)))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("Test error")));
+        val comm = new ControllerCommunicator(mock(StateUpdater.class), sender, mock(LeadershipEnsurer.class), 1);
+        val responses = comm.broadcast(List.of(message("E1"), message("E1"))).join();
+        assertEquals(2, responses.size());
+        assertTrue(responses.stream().allMatch(r -> r.getStatus() == MessageDeliveryStatus.FAILED));
+        assertEquals(0, comm.inFlightMessages("E1"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testSynchronousCompletionsDoNotRecurse() {
+        val sender = (MessageSender<ExecutorMessageType, ExecutorMessage>) mock(MessageSender.class);
+        val first = new CompletableFuture<MessageResponse>();
+        when(sender.sendAsync(any(ExecutorMessage.class)))
+                .thenReturn(first)
+                .thenReturn(CompletableFuture.completedFuture(
+                        new MessageResponse(MessageHeader.controllerRequest(), MessageDeliveryStatus.ACCEPTED)));
+        val comm = new ControllerCommunicator(mock(StateUpdater.class), sender, mock(LeadershipEnsurer.class), 1);
+        val numMessages = 100_000;
+        val result = comm.broadcast(IntStream.range(0, numMessages).mapToObj(i -> message("E1")).toList());
+        assertFalse(result.isDone());
+
+        //Every queued message completes synchronously once the first one is done
+        first.complete(new MessageResponse(MessageHeader.controllerRequest(), MessageDeliveryStatus.ACCEPTED));
+        val responses = result.join();
+        assertEquals(numMessages, responses.size());
+        assertTrue(responses.stream().allMatch(r -> r.getStatus() == MessageDeliveryStatus.ACCEPTED));
+        assertEquals(0, comm.inFlightMessages("E1"));
+    }
+
+    private static ExecutorMessage message(String executorId) {
+        return new BlacklistExecutorMessage(MessageHeader.controllerRequest(),
+                                            new ExecutorAddress(executorId, "localhost", 3000, NodeTransportType.HTTP));
+    }
+}
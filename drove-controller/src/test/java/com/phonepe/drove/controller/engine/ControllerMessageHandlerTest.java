@@ -19,6 +19,7 @@ package com.phonepe.drove.controller.engine;
 import com.phonepe.drove.common.model.MessageDeliveryStatus;
 import com.phonepe.drove.common.model.MessageHeader;
 import com.phonepe.drove.common.model.controller.ExecutorSnapshotMessage;
+import com.phonepe.drove.common.model.controller.InstanceStateBatchReportMessage;
 import com.phonepe.drove.common.model.controller.InstanceStateReportMessage;
 import com.phonepe.drove.common.model.controller.LocalServiceInstanceStateReportMessage;
 import com.phonepe.drove.common.model.controller.TaskStateReportMessage;
@@ -33,6 +34,7 @@ import lombok.val;
 import org.junit.jupiter.api.Test;
 
 import java.util.Date;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.phonepe.drove.controller.ControllerTestUtils.*;
@@ -211,4 +213,51 @@ class ControllerMessageHandlerTest {
         assertEquals(1, ctr.get());
         assertEquals(MessageDeliveryStatus.FAILED, r.getStatus());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testInstanceStateBatchReportMessage() {
+        val su = mock(StateUpdater.class);
+        val cmh = new ControllerMessageHandler(su);
+
+        val spec = appSpec();
+        val aid = ControllerUtils.deployableObjectId(spec);
+        val instances = List.of(generateInstanceInfo(aid, spec, 1), generateInstanceInfo(aid, spec, 2));
+        val task = generateTaskInfo(taskSpec(), 1, TaskState.RUNNING, new Date(), null, false);
+        val snapshot = generateExecutorNode(1).getState();
+        val ctr = new AtomicInteger();
+        doAnswer(invocationOnMock -> {
+            ctr.incrementAndGet();
+            assertEquals(snapshot, invocationOnMock.getArgument(0));
+            assertEquals(instances, invocationOnMock.getArgument(1));
+            assertEquals(List.of(task), invocationOnMock.getArgument(2));
+            assertEquals(List.of(), invocationOnMock.getArgument(3));
+            return true;
+        }).when(su).updateBatch(any(), anyList(), anyList(), anyList());
+
+        val r = new InstanceStateBatchReportMessage(MessageHeader.executorRequest(),
+                                                    snapshot,
+                                                    instances,
+                                                    List.of(task),
+                                                    null)
+                .accept(cmh);
+        assertEquals(1, ctr.get());
+        assertEquals(MessageDeliveryStatus.ACCEPTED, r.getStatus());
+    }
+
+    @Test
+    void testInstanceStateBatchReportMessageWithoutSnapshot() {
+        val su = mock(StateUpdater.class);
+        val cmh = new ControllerMessageHandler(su);
+
+        val spec = appSpec();
+        val aid = ControllerUtils.deployableObjectId(spec);
+        val r = new InstanceStateBatchReportMessage(MessageHeader.executorRequest(),
+                                                    null,
+                                                    List.of(generateInstanceInfo(aid, spec, 1)),
+                                                    null,
+                                                    null)
+                .accept(cmh);
+        assertEquals(MessageDeliveryStatus.REJECTED, r.getStatus());
+        verify(su, never()).updateBatch(any(), any(), any(), any());
+    }
+}
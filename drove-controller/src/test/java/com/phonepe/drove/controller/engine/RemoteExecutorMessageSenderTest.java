@@ -16,20 +16,26 @@
 
 package com.phonepe.drove.controller.engine;
 
+import com.codahale.metrics.MetricRegistry;
 import com.github.tomakehurst.wiremock.junit5.WireMockRuntimeInfo;
 import com.github.tomakehurst.wiremock.junit5.WireMockTest;
 import com.phonepe.drove.auth.config.ClusterAuthenticationConfig;
-import com.phonepe.drove.common.CommonUtils;
+import com.phonepe.drove.common.CommonTestUtils;
 import com.phonepe.drove.common.model.MessageHeader;
 import com.phonepe.drove.common.model.MessageResponse;
 import com.phonepe.drove.common.model.executor.BlacklistExecutorMessage;
 import com.phonepe.drove.common.model.executor.ExecutorAddress;
+import com.phonepe.drove.common.net.ClusterMessagingClient;
+import com.phonepe.drove.common.net.ClusterMessagingConfig;
 import com.phonepe.drove.controller.ControllerTestBase;
 import com.phonepe.drove.controller.ControllerTestUtils;
+import com.phonepe.drove.controller.resourcemgmt.InMemoryClusterResourcesDB;
 import com.phonepe.drove.models.info.nodedata.NodeTransportType;
 import lombok.val;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 import static com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder.okForJson;
 import static com.github.tomakehurst.wiremock.client.WireMock.post;
 import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
@@ -45,7 +51,11 @@ class RemoteExecutorMessageSenderTest extends ControllerTestBase {
 
     @Test
     void testSend(final WireMockRuntimeInfo wm) {
-        val ms = new RemoteExecutorMessageSender(ClusterAuthenticationConfig.DEFAULT, MAPPER, CommonUtils.createHttpClient(false));
+        val ms = new RemoteExecutorMessageSender(ClusterAuthenticationConfig.DEFAULT,
+                                                 MAPPER,
+                                                 new ClusterMessagingClient(ClusterMessagingConfig.DEFAULT,
+                                                                            new MetricRegistry()),
+                                                 new InMemoryClusterResourcesDB());
 
         assertTrue(true);
 
@@ -59,4 +69,19 @@ class RemoteExecutorMessageSenderTest extends ControllerTestBase {
                                                                               wm.getHttpPort(),
                                                                               NodeTransportType.HTTP))).getStatus());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testLatencyTimerRemovedWithExecutor() {
+        val registry = new MetricRegistry();
+        val resourcesDB = new InMemoryClusterResourcesDB();
+        try (val client = new ClusterMessagingClient(ClusterMessagingConfig.DEFAULT, registry)) {
+            new RemoteExecutorMessageSender(ClusterAuthenticationConfig.DEFAULT, MAPPER, client, resourcesDB);
+            val node = ControllerTestUtils.generateExecutorNode(1);
+            resourcesDB.update(List.of(node));
+            registry.timer("com.phonepe.drove.messaging.latency.host00001_8080");
+            resourcesDB.remove(List.of(ControllerTestUtils.executorId(1)));
+            CommonTestUtils.waitUntil(() -> registry.getTimers().isEmpty());
+            assertTrue(registry.getTimers().isEmpty());
+        }
+    }
+}
@@ -16,11 +16,15 @@
 
 package com.phonepe.drove.controller.engine;
 
+import com.codahale.metrics.MetricRegistry;
 import com.phonepe.drove.common.CommonTestUtils;
+import com.phonepe.drove.common.discovery.NodeDataDeltaUtils;
 import com.phonepe.drove.common.discovery.NodeDataStore;
 import com.phonepe.drove.controller.ControllerTestUtils;
 import com.phonepe.drove.controller.event.DroveEventBus;
+import com.phonepe.drove.controller.metrics.ClusterMetricsRegistry;
 import com.phonepe.drove.controller.resourcemgmt.ClusterResourcesDB;
+import com.phonepe.drove.controller.resourcemgmt.DeployableAllocationTracker;
 import com.phonepe.drove.controller.statedb.ApplicationInstanceInfoDB;
 import com.phonepe.drove.controller.statedb.LocalServiceStateDB;
 import com.phonepe.drove.controller.statedb.TaskDB;
@@ -30,21 +34,29 @@ import com.phonepe.drove.models.info.resources.PhysicalLayout;
 import com.phonepe.drove.models.info.resources.available.AvailableCPU;
 import com.phonepe.drove.models.info.resources.available.AvailableMemory;
 import com.phonepe.drove.models.instance.InstanceInfo;
+import com.phonepe.drove.models.instance.InstanceState;
 import com.phonepe.drove.models.instance.LocalServiceInstanceState;
 import com.phonepe.drove.models.localservice.LocalServiceInstanceInfo;
 import com.phonepe.drove.models.taskinstance.TaskInfo;
+import lombok.SneakyThrows;
 import lombok.val;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
 
 import static com.phonepe.drove.controller.ControllerTestUtils.*;
+import static com.phonepe.drove.controller.metrics.ClusterMetricNames.StateUpdates.*;
 import static com.phonepe.drove.controller.utils.ControllerUtils.deployableObjectId;
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
@@ -94,13 +106,128 @@ class StateUpdaterTest {
             return true;
         }).when(lsDB).updateInstanceState(anyString(), anyString(), any(LocalServiceInstanceInfo.class));
         val droveEventBus = mock(DroveEventBus.class);
-        val su = new StateUpdater(cDB, taskDB, iiDB, lsDB, nds, droveEventBus);
+        val su = new StateUpdater(cDB,
+                                  taskDB,
+                                  iiDB,
+                                  lsDB,
+                                  nds,
+                                  new DeployableAllocationTracker(iiDB, taskDB, lsDB),
+                                  droveEventBus);
         su.updateClusterResources(nodes);
         su.updateClusterResources(List.of());
         CommonTestUtils.waitUntil(() -> counter.get() == 3);
         assertEquals(3, counter.get());
     }
 
+    @Test
+    @SneakyThrows
+    void testStaleSnapshotsDropped() {
+        val cDB = mock(ClusterResourcesDB.class);
+        val taskDB = mock(TaskDB.class);
+        val iiDB = mock(ApplicationInstanceInfoDB.class);
+        val lsDB = mock(LocalServiceStateDB.class);
+        val metricRegistry = new MetricRegistry();
+        val updateCount = new AtomicInteger();
+        val blocker = new CountDownLatch(1);
+        doAnswer(invocationOnMock -> {
+            //Hold the worker on the first update so that more snapshots get queued behind it
+            if (updateCount.incrementAndGet() == 1) {
+                blocker.await();
+            }
+            return null;
+        }).when(cDB).update(anyList());
+        //Latest snapshot has the same content as the first one
+        doAnswer(invocationOnMock -> updateCount.incrementAndGet()).when(cDB).touch(anyList());
+        val su = new StateUpdater(cDB,
+                                  taskDB,
+                                  iiDB,
+                                  lsDB,
+                                  mock(NodeDataStore.class),
+                                  new DeployableAllocationTracker(iiDB, taskDB, lsDB),
+                                  mock(DroveEventBus.class),
+                                  2,
+                                  Duration.ofSeconds(45),
+                                  new ClusterMetricsRegistry(metricRegistry));
+        su.updateClusterResources(List.of(generateExecutorNode(0)));
+        CommonTestUtils.waitUntil(() -> updateCount.get() == 1);
+        IntStream.range(0, 3).forEach(i -> su.updateClusterResources(List.of(generateExecutorNode(0))));
+        assertEquals(3, metricRegistry.getGauges().get("com.phonepe.drove." + CLUSTER_STATE_UPDATES_QUEUED).getValue());
+        //Queued snapshots are waiting behind the blocked update
+        CommonTestUtils.waitUntil(
+                () -> (Long) metricRegistry.getGauges().get("com.phonepe.drove." + CLUSTER_STATE_UPDATES_LAG).getValue() > 0);
+        blocker.countDown();
+        CommonTestUtils.waitUntil(() -> updateCount.get() == 2);
+        CommonTestUtils.waitUntil(
+                () -> metricRegistry.getGauges().get("com.phonepe.drove." + CLUSTER_STATE_UPDATES_QUEUED).getValue()
+                        .equals(0));
+        assertEquals(0L, metricRegistry.getGauges().get("com.phonepe.drove." + CLUSTER_STATE_UPDATES_LAG).getValue());
+        assertEquals(2, updateCount.get());
+        assertEquals(2, metricRegistry.meter("com.phonepe.drove." + CLUSTER_STATE_UPDATES_DROPPED_SNAPSHOTS).getCount());
+    }
+
+    @Test
+    void testUnchangedSnapshotsSkipped() {
+        val cDB = mock(ClusterResourcesDB.class);
+        val taskDB = mock(TaskDB.class);
+        val iiDB = mock(ApplicationInstanceInfoDB.class);
+        val lsDB = mock(LocalServiceStateDB.class);
+        val nds = mock(NodeDataStore.class);
+        val appSpec = appSpec(1);
+        val appId = deployableObjectId(appSpec);
+        val lookups = new AtomicInteger();
+        val writes = new AtomicInteger();
+        val touches = new AtomicInteger();
+        doAnswer(invocationOnMock -> {
+            lookups.incrementAndGet();
+            return Optional.empty();
+        }).when(iiDB).instance(anyString(), anyString());
+        when(iiDB.updateInstanceState(anyString(), anyString(), any(InstanceInfo.class))).thenReturn(true);
+        doAnswer(invocationOnMock -> writes.incrementAndGet() > 0).when(nds).updateNodeData(any());
+        doAnswer(invocationOnMock -> touches.incrementAndGet()).when(cDB).touch(anyList());
+        val su = new StateUpdater(cDB,
+                                  taskDB,
+                                  iiDB,
+                                  lsDB,
+                                  nds,
+                                  new DeployableAllocationTracker(iiDB, taskDB, lsDB),
+                                  mock(DroveEventBus.class));
+        val instance = generateInstanceInfo(appId, appSpec, 0, InstanceState.HEALTHY, new Date(1_000), null);
+        val node = executorHost(8080, List.of(instance), List.of(), List.of()).getNodeData();
+
+        su.updateClusterResources(List.of(withContent(node, 1_000, List.of(instance))));
+        CommonTestUtils.waitUntil(() -> writes.get() == 1);
+        assertEquals(1, lookups.get());
+
+        //Same content, no lookups and no write back
+        su.updateClusterResources(List.of(withContent(node, 2_000, List.of(instance))));
+        CommonTestUtils.waitUntil(() -> touches.get() == 1);
+        assertEquals(1, lookups.get());
+        assertEquals(1, writes.get());
+
+        //Instance state changed, gets processed fully
+        val stopping = generateInstanceInfo(appId, appSpec, 0, InstanceState.STOPPING, new Date(3_000), null);
+        su.updateClusterResources(List.of(withContent(node, 3_000, List.of(stopping))));
+        CommonTestUtils.waitUntil(() -> writes.get() == 2);
+        assertEquals(2, lookups.get());
+
+        //Same content on the next refresh, store data is still fresh enough
+        su.updateClusterResources(List.of(withContent(node, 23_000, List.of(stopping))));
+        CommonTestUtils.waitUntil(() -> touches.get() == 2);
+        assertEquals(2, writes.get());
+
+        //Same content but store data would go stale before the next refresh
+        su.updateClusterResources(List.of(withContent(node, 43_000, List.of(stopping))));
+        CommonTestUtils.waitUntil(() -> writes.get() == 3);
+        assertEquals(3, touches.get());
+        assertEquals(2, lookups.get());
+    }
+
+    @Test
+    void testNodeDataRewriteInterval() {
+        assertEquals(Duration.ofSeconds(25), StateUpdater.nodeDataRewriteInterval(Duration.ofSeconds(45)));
+        assertEquals(Duration.ZERO, StateUpdater.nodeDataRewriteInterval(Duration.ofSeconds(15)));
+    }
+
     @Test
     void testRemove() {
         val cDB = mock(ClusterResourcesDB.class);
@@ -137,7 +264,13 @@ class StateUpdaterTest {
         }).when(iiDB).deleteInstanceState(anyString(), anyString());
         val droveEventBus = mock(DroveEventBus.class);
 
-        val su = new StateUpdater(cDB, taskDB, iiDB, lsDB, nds, droveEventBus);
+        val su = new StateUpdater(cDB,
+                                  taskDB,
+                                  iiDB,
+                                  lsDB,
+                                  nds,
+                                  new DeployableAllocationTracker(iiDB, taskDB, lsDB),
+                                  droveEventBus);
         su.remove(List.of(executor.getExecutorId()));
         CommonTestUtils.waitUntil(() -> count.get() == 2);
         assertEquals(2, count.get());
@@ -191,7 +324,13 @@ class StateUpdaterTest {
         }).when(lsDB).updateInstanceState(anyString(), anyString(), any(LocalServiceInstanceInfo.class));
         val droveEventBus = mock(DroveEventBus.class);
 
-        val su = new StateUpdater(cDB, taskDB, iiDB, lsDB, nds, droveEventBus);
+        val su = new StateUpdater(cDB,
+                                  taskDB,
+                                  iiDB,
+                                  lsDB,
+                                  nds,
+                                  new DeployableAllocationTracker(iiDB, taskDB, lsDB),
+                                  droveEventBus);
         val resourceSnapshot = new ExecutorResourceSnapshot(EXECUTOR_ID,
                                                           new AvailableCPU(Map.of(), Map.of()),
                                                           new AvailableMemory(Map.of(), Map.of()),
@@ -202,4 +341,163 @@ class StateUpdaterTest {
         CommonTestUtils.waitUntil(() -> counter.get() == 6);
         assertEquals(6, counter.get());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testUpdateBatch() {
+        val cDB = mock(ClusterResourcesDB.class);
+        val lsDB = mock(LocalServiceStateDB.class);
+        val taskDB = mock(TaskDB.class);
+        val iiDB = mock(ApplicationInstanceInfoDB.class);
+        val nds = mock(NodeDataStore.class);
+
+        val appSpec = appSpec(1);
+        val appId = deployableObjectId(appSpec);
+        val taskSpec = taskSpec();
+        val serviceSpec = localServiceSpec();
+        val serviceId = deployableObjectId(serviceSpec);
+
+        val appInstances = IntStream.range(0, 5)
+                .mapToObj(i -> generateInstanceInfo(appId, appSpec, i))
+                .toList();
+        val taskInstance = generateTaskInfo(taskSpec, 0);
+        val serviceInstance = generateLocalServiceInstanceInfo(serviceId,
+                                                               serviceSpec,
+                                                               0,
+                                                               LocalServiceInstanceState.HEALTHY,
+                                                               new Date(),
+                                                               "");
+        val resourceUpdates = new AtomicInteger();
+        val stateUpdates = new AtomicInteger();
+        doAnswer(invocationOnMock -> {
+            resourceUpdates.incrementAndGet();
+            return null;
+        }).when(cDB).update(any(ExecutorResourceSnapshot.class));
+        doAnswer(invocationOnMock -> stateUpdates.incrementAndGet() > 0)
+                .when(iiDB).updateInstanceState(anyString(), anyString(), any(InstanceInfo.class));
+        doAnswer(invocationOnMock -> stateUpdates.incrementAndGet() > 0)
+                .when(taskDB).updateTask(anyString(), anyString(), any(TaskInfo.class));
+        doAnswer(invocationOnMock -> stateUpdates.incrementAndGet() > 0)
+                .when(lsDB).updateInstanceState(anyString(), anyString(), any(LocalServiceInstanceInfo.class));
+
+        val su = new StateUpdater(cDB,
+                                  taskDB,
+                                  iiDB,
+                                  lsDB,
+                                  nds,
+                                  new DeployableAllocationTracker(iiDB, taskDB, lsDB),
+                                  mock(DroveEventBus.class));
+        val resourceSnapshot = new ExecutorResourceSnapshot(EXECUTOR_ID,
+                                                          new AvailableCPU(Map.of(), Map.of()),
+                                                          new AvailableMemory(Map.of(), Map.of()),
+                                                          new PhysicalLayout(Map.of(), Map.of()));
+        assertTrue(su.updateBatch(resourceSnapshot, appInstances, List.of(taskInstance), List.of(serviceInstance)));
+        CommonTestUtils.waitUntil(() -> resourceUpdates.get() == 1);
+        assertEquals(7, stateUpdates.get());
+        assertEquals(1, resourceUpdates.get());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testDeltaUpdates() {
+        val cDB = mock(ClusterResourcesDB.class);
+        val taskDB = mock(TaskDB.class);
+        val iiDB = mock(ApplicationInstanceInfoDB.class);
+        val lsDB = mock(LocalServiceStateDB.class);
+        val nds = mock(NodeDataStore.class);
+        val appSpec = appSpec(1);
+        val appId = deployableObjectId(appSpec);
+        val base = ControllerTestUtils.executorHost(8080,
+                                                    List.of(generateInstanceInfo(appId, appSpec, 0),
+                                                            generateInstanceInfo(appId, appSpec, 1)),
+                                                    List.of(),
+                                                    List.of())
+                .getNodeData();
+        val changedInstance = generateInstanceInfo(appId, appSpec, 1, InstanceState.UNHEALTHY, new Date(), null);
+        val addedInstance = generateInstanceInfo(appId, appSpec, 2);
+        val current = ExecutorNodeData.from(base,
+                                            base.getState(),
+                                            List.of(changedInstance, addedInstance),
+                                            base.getTasks(),
+                                            base.getServiceInstances(),
+                                            base.getTags(),
+                                            base.getExecutorState(),
+                                            base.getMetadata());
+        val delta = NodeDataDeltaUtils.diff(base, current);
+        assertEquals(List.of(changedInstance, addedInstance), delta.getInstances());
+        assertEquals(Set.of(base.getInstances().get(0).getInstanceId()), delta.getRemovedInstances());
+        assertNull(delta.getState());
+        assertNull(delta.getTags());
+
+        //Tags and metadata that get cleared are sent as empty collections
+        val tagged = ExecutorNodeData.from(base,
+                                           base.getState(),
+                                           base.getInstances(),
+                                           base.getTasks(),
+                                           base.getServiceInstances(),
+                                           Set.of("tag1"),
+                                           base.getExecutorState(),
+                                           Map.of("key", "value"));
+        val cleared = new ExecutorNodeData(tagged.getHostname(),
+                                           tagged.getPort(),
+                                           tagged.getTransportType(),
+                                           new Date(),
+                                           tagged.getState(),
+                                           tagged.getInstances(),
+                                           tagged.getTasks(),
+                                           tagged.getServiceInstances(),
+                                           null,
+                                           null,
+                                           tagged.getExecutorState());
+        val clearingDelta = NodeDataDeltaUtils.diff(tagged, cleared);
+        assertEquals(Set.of(), clearingDelta.getTags());
+        assertEquals(Map.of(), clearingDelta.getMetadata());
+        val applied = NodeDataDeltaUtils.apply(tagged, clearingDelta);
+        assertTrue(applied.getTags().isEmpty());
+        assertTrue(applied.getMetadata().isEmpty());
+
+        val updated = new AtomicReference<List<ExecutorNodeData>>();
+        doAnswer(invocationOnMock -> {
+            updated.set((List<ExecutorNodeData>) invocationOnMock.getArgument(0, List.class));
+            return null;
+        }).when(cDB).update(anyList());
+        when(iiDB.updateInstanceState(anyString(), anyString(), any(InstanceInfo.class))).thenReturn(true);
+        val su = new StateUpdater(cDB,
+                                  taskDB,
+                                  iiDB,
+                                  lsDB,
+                                  nds,
+                                  new DeployableAllocationTracker(iiDB, taskDB, lsDB),
+                                  mock(DroveEventBus.class));
+        val executorId = base.getState().getExecutorId();
+        //No base snapshot yet, needs resync
+        assertFalse(su.applyDelta(executorId, 2, delta));
+
+        su.trackSnapshot(base, 1);
+        assertTrue(su.applyDelta(executorId, 2, delta));
+        CommonTestUtils.waitUntil(() -> updated.get() != null);
+        assertEquals(current, updated.get().get(0));
+
+        //Sequence gap drops the base till the next snapshot
+        assertFalse(su.applyDelta(executorId, 4, delta));
+        assertFalse(su.applyDelta(executorId, 3, delta));
+
+        //Unsequenced snapshot disables deltas
+        su.trackSnapshot(base, 5);
+        su.trackSnapshot(base, 0);
+        assertFalse(su.applyDelta(executorId, 6, delta));
+    }
+
+    private static ExecutorNodeData withContent(ExecutorNodeData node, long updated, List<InstanceInfo> instances) {
+        return new ExecutorNodeData(node.getHostname(),
+                                    node.getPort(),
+                                    node.getTransportType(),
+                                    new Date(updated),
+                                    node.getState(),
+                                    instances,
+                                    node.getTasks(),
+                                    node.getServiceInstances(),
+                                    node.getTags(),
+                                    node.getMetadata(),
+                                    node.getExecutorState());
+    }
+}
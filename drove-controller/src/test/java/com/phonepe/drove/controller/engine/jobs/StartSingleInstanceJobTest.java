@@ -29,6 +29,7 @@ import com.phonepe.drove.controller.engine.ControllerCommunicator;
 import com.phonepe.drove.controller.engine.ControllerRetrySpecFactory;
 import com.phonepe.drove.controller.engine.InstanceIdGenerator;
 import com.phonepe.drove.controller.engine.RandomInstanceIdGenerator;
+import com.phonepe.drove.controller.resourcemgmt.InstancePlacement;
 import com.phonepe.drove.controller.resourcemgmt.InstanceScheduler;
 import com.phonepe.drove.controller.statedb.ApplicationInstanceInfoDB;
 import com.phonepe.drove.controller.utils.ControllerUtils;
@@ -52,6 +53,9 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -117,6 +121,81 @@ class StartSingleInstanceJobTest extends ControllerTestBase {
         assertTrue(testStatus.get());
     }
 
+    @Test
+    void testJobWithPrecomputedPlacement() {
+        val instanceScheduler = mock(InstanceScheduler.class);
+        val instanceInfoDB = mock(ApplicationInstanceInfoDB.class);
+        val comm = mock(ControllerCommunicator.class);
+        val sessionId = UUID.randomUUID().toString();
+        val allocatedExecutorNode = ControllerTestUtils.allocatedExecutorNode(8080);
+        val instanceId = instanceIdGenerator.generate(APP_SPEC);
+        val placement = new InstancePlacement(instanceId, allocatedExecutorNode);
+        when(instanceScheduler.claimPlacement(sessionId, placement)).thenReturn(Optional.of(allocatedExecutorNode));
+        when(comm.send(any(StartInstanceMessage.class)))
+                .thenAnswer((Answer<MessageResponse>) invocationOnMock
+                        -> new MessageResponse(invocationOnMock.<StartInstanceMessage>getArgument(0).getHeader(),
+                                               MessageDeliveryStatus.ACCEPTED));
+        val appId = ControllerUtils.deployableObjectId(APP_SPEC);
+        when(instanceInfoDB.instance(appId, instanceId))
+                .thenReturn(Optional.of(new InstanceInfo(appId,
+                                                         APP_SPEC.getName(),
+                                                         instanceId,
+                                                         allocatedExecutorNode.getExecutorId(),
+                                                         new LocalInstanceInfo(allocatedExecutorNode.getHostname(),
+                                                                               Map.of()),
+                                                         List.of(allocatedExecutorNode.getCpu(),
+                                                                 allocatedExecutorNode.getMemory()),
+                                                         InstanceState.HEALTHY,
+                                                         Collections.emptyMap(),
+                                                         null,
+                                                         new Date(),
+                                                         new Date())));
+        val rf = mock(ControllerRetrySpecFactory.class);
+        when(rf.jobRetrySpec()).thenReturn(ControllerTestUtils.NO_RETRY_SPEC);
+        when(rf.instanceStateCheckRetrySpec(any(Long.class))).thenReturn(ControllerTestUtils.NO_RETRY_SPEC);
+        val job = new StartSingleInstanceJob(APP_SPEC,
+                                             ControllerTestUtils.DEFAULT_CLUSTER_OP,
+                                             instanceScheduler,
+                                             instanceInfoDB,
+                                             comm,
+                                             sessionId,
+                                             rf,
+                                             instanceIdGenerator,
+                                             tokenManager,
+                                             httpCaller(),
+                                             placement);
+        val testStatus = new AtomicBoolean();
+        val exec = new JobExecutor<Boolean>(MoreExecutors.newDirectExecutorService());
+        exec.schedule(Collections.singletonList(job), new BooleanResponseCombiner(), r -> {
+            testStatus.set(r.getResult());
+        });
+        assertTrue(testStatus.get());
+        verify(instanceScheduler, never()).schedule(anyString(), anyString(), any());
+        verify(instanceScheduler, never()).discardAllocation(anyString(), anyString(), any());
+    }
+
+    @Test
+    void testCancelReleasesUnusedPlacement() {
+        val instanceScheduler = mock(InstanceScheduler.class);
+        val sessionId = UUID.randomUUID().toString();
+        val allocatedExecutorNode = ControllerTestUtils.allocatedExecutorNode(8080);
+        val instanceId = instanceIdGenerator.generate(APP_SPEC);
+        val job = new StartSingleInstanceJob(APP_SPEC,
+                                             ControllerTestUtils.DEFAULT_CLUSTER_OP,
+                                             instanceScheduler,
+                                             mock(ApplicationInstanceInfoDB.class),
+                                             mock(ControllerCommunicator.class),
+                                             sessionId,
+                                             mock(ControllerRetrySpecFactory.class),
+                                             instanceIdGenerator,
+                                             tokenManager,
+                                             httpCaller(),
+                                             new InstancePlacement(instanceId, allocatedExecutorNode));
+        job.cancel();
+        job.cancel();
+        verify(instanceScheduler, times(1)).discardAllocation(sessionId, instanceId, allocatedExecutorNode);
+    }
+
     @Test
     void testJobNoNode() {
         val appSpec = appSpec();
@@ -0,0 +1,116 @@
+/*
+ *  Copyright (c) 2024 Original Author(s), PhonePe India Pvt. Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.phonepe.drove.controller.event;
+
+import com.phonepe.drove.controller.utils.EventUtils;
+import com.phonepe.drove.models.events.DroveEvent;
+import com.phonepe.drove.models.events.events.DroveAppStateChangeEvent;
+import com.phonepe.drove.models.events.events.DroveClusterMaintenanceModeSetEvent;
+import lombok.experimental.UtilityClass;
+import lombok.val;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static com.phonepe.drove.models.events.DroveEventType.APP_STATE_CHANGE;
+import static com.phonepe.drove.models.events.DroveEventType.MAINTENANCE_MODE_SET;
+import static com.phonepe.drove.models.events.events.datatags.AppEventDataTag.APP_ID;
+import static com.phonepe.drove.models.events.events.datatags.AppEventDataTag.CURRENT_STATE;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Common checks for filtered reads on {@link EventStore} implementations
+ */
+@UtilityClass
+@SuppressWarnings("rawtypes")
+class EventStoreTestUtils {
+
+    /**
+     * Records 30 events. Offsets 0, 3, 6... are for APP_1 (RUNNING), 1, 4, 7... for APP_2 (MONITORING) and the rest
+     * are cluster events without any deployable id.
+     */
+    void recordMixedEvents(EventStore eventStore) {
+        IntStream.range(0, 30)
+                .forEach(i -> eventStore.recordEvent(switch (i % 3) {
+                    case 0 -> new DroveAppStateChangeEvent(Map.of(APP_ID, "APP_1", CURRENT_STATE, "RUNNING"));
+                    case 1 -> new DroveAppStateChangeEvent(Map.of(APP_ID, "APP_2", CURRENT_STATE, "MONITORING"));
+                    default -> new DroveClusterMaintenanceModeSetEvent(EventUtils.controllerMetadata());
+                }));
+    }
+
+    void assertFiltering(EventStore eventStore) {
+        val app1 = new EventFilter(Set.of(), Set.of("APP_1"), Map.of());
+        val all = eventStore.readFrom(0, Integer.MAX_VALUE, app1);
+        assertEquals(10, all.events().size());
+        assertTrue(all.events().stream().allMatch(event -> "APP_1".equals(EventFilter.deployableId(event))));
+        assertEquals(30, all.nextOffset());
+
+        //Cursor moves just past the last returned event
+        val pages = new ArrayList<DroveEvent>();
+        var cursor = 0L;
+        val first = eventStore.readFrom(cursor, 4, app1);
+        assertEquals(4, first.events().size());
+        assertEquals(10, first.nextOffset());
+        cursor = first.nextOffset();
+        pages.addAll(first.events());
+        while (true) {
+            val page = eventStore.readFrom(cursor, 4, app1);
+            if (page.events().isEmpty()) {
+                assertEquals(30, page.nextOffset());
+                break;
+            }
+            pages.addAll(page.events());
+            cursor = page.nextOffset();
+        }
+        assertEquals(all.events().stream().map(DroveEvent::getId).toList(),
+                     pages.stream().map(DroveEvent::getId).toList());
+
+        assertEquals(10, eventStore.readFrom(0, Integer.MAX_VALUE,
+                                             new EventFilter(Set.of(MAINTENANCE_MODE_SET), null, null))
+                .events()
+                .size());
+        assertEquals(10, eventStore.readFrom(0, Integer.MAX_VALUE,
+                                             new EventFilter(Set.of(APP_STATE_CHANGE), Set.of("APP_2"), null))
+                .events()
+                .size());
+        assertEquals(20, eventStore.readFrom(0, Integer.MAX_VALUE,
+                                             new EventFilter(null, Set.of("APP_1", "APP_2"), null))
+                .events()
+                .size());
+        assertTrue(eventStore.readFrom(0, Integer.MAX_VALUE,
+                                       new EventFilter(Set.of(MAINTENANCE_MODE_SET), Set.of("APP_1"), null))
+                           .events()
+                           .isEmpty());
+
+        //Tag only filters are evaluated on every event
+        val running = EventFilter.of(null, null, Set.of("CURRENT_STATE:RUNNING"));
+        val tagged = eventStore.readFrom(0, 4, running);
+        assertEquals(4, tagged.events().size());
+        assertEquals(10, tagged.nextOffset());
+        assertTrue(eventStore.readFrom(0, Integer.MAX_VALUE,
+                                       EventFilter.of(null, Set.of("APP_2"), Set.of("CURRENT_STATE:RUNNING")))
+                           .events()
+                           .isEmpty());
+
+        val latest = eventStore.latest(0, 5, app1);
+        assertEquals(5, latest.getEvents().size());
+        assertEquals(all.events().get(9).getId(), latest.getEvents().get(0).getId());
+        assertEquals(all.events().get(5).getId(), latest.getEvents().get(4).getId());
+    }
+}
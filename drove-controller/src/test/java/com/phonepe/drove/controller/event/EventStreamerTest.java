@@ -0,0 +1,197 @@
+/*
+ *  Copyright (c) 2024 Original Author(s), PhonePe India Pvt. Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.phonepe.drove.controller.event;
+
+import com.codahale.metrics.SharedMetricRegistries;
+import com.phonepe.drove.controller.config.ControllerOptions;
+import com.phonepe.drove.controller.managed.LeadershipEnsurer;
+import com.phonepe.drove.controller.metrics.ClusterMetricsRegistry;
+import com.phonepe.drove.controller.utils.EventUtils;
+import com.phonepe.drove.models.api.ApiResponse;
+import com.phonepe.drove.models.api.DroveEventsBatch;
+import com.phonepe.drove.models.events.events.DroveClusterMaintenanceModeRemovedEvent;
+import com.phonepe.drove.models.events.events.DroveClusterMaintenanceModeSetEvent;
+import io.appform.signals.signals.ConsumingSyncSignal;
+import lombok.val;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.TimeoutHandler;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.IntStream;
+
+import static com.phonepe.drove.models.events.DroveEventType.MAINTENANCE_MODE_REMOVED;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ *
+ */
+class EventStreamerTest {
+    private ConsumingSyncSignal<Boolean> leadershipSignal;
+    private InMemoryEventStore eventStore;
+    private EventStreamer streamer;
+
+    @BeforeEach
+    void setup() {
+        val leadershipEnsurer = mock(LeadershipEnsurer.class);
+        leadershipSignal = new ConsumingSyncSignal<>();
+        when(leadershipEnsurer.onLeadershipStateChanged()).thenReturn(leadershipSignal);
+        eventStore = new InMemoryEventStore(leadershipEnsurer, ControllerOptions.DEFAULT,
+                                            new ClusterMetricsRegistry(SharedMetricRegistries.getOrCreate("test")));
+        streamer = new EventStreamer(eventStore);
+    }
+
+    @Test
+    void testImmediateResponse() {
+        eventStore.recordEvent(new DroveClusterMaintenanceModeSetEvent(EventUtils.controllerMetadata()));
+        eventStore.recordEvent(new DroveClusterMaintenanceModeRemovedEvent(EventUtils.controllerMetadata()));
+        val response = mock(AsyncResponse.class);
+        streamer.stream(0, null, EventFilter.ALL, 10, Duration.ofSeconds(30), response);
+
+        val batch = resumedWith(response);
+        assertEquals(2, batch.getEvents().size());
+        assertEquals(2, batch.getNextOffset());
+        assertEquals(0, streamer.watcherCount());
+    }
+
+    @Test
+    void testWaitForEvents() {
+        val response = mock(AsyncResponse.class);
+        streamer.stream(-1, null, new EventFilter(Set.of(MAINTENANCE_MODE_REMOVED), null, null), 10, Duration.ofSeconds(30), response);
+        verify(response, never()).resume(any(Object.class));
+        assertEquals(1, streamer.watcherCount());
+
+        //Filtered out event does not wake up the watcher
+        eventStore.recordEvent(new DroveClusterMaintenanceModeSetEvent(EventUtils.controllerMetadata()));
+        streamer.eventsRecorded();
+        verify(response, never()).resume(any(Object.class));
+
+        val removed = new DroveClusterMaintenanceModeRemovedEvent(EventUtils.controllerMetadata());
+        eventStore.recordEvent(removed);
+        streamer.eventsRecorded();
+        val batch = resumedWith(response);
+        assertEquals(1, batch.getEvents().size());
+        assertEquals(removed.getId(), batch.getEvents().get(0).getId());
+        assertEquals(2, batch.getNextOffset());
+        assertEquals(0, streamer.watcherCount());
+    }
+
+    @Test
+    void testTimeout() {
+        eventStore.recordEvent(new DroveClusterMaintenanceModeSetEvent(EventUtils.controllerMetadata()));
+        val response = mock(AsyncResponse.class);
+        streamer.stream(1, null, EventFilter.ALL, 10, Duration.ofSeconds(1), response);
+        val handler = ArgumentCaptor.forClass(TimeoutHandler.class);
+        verify(response).setTimeoutHandler(handler.capture());
+        handler.getValue().handleTimeout(response);
+
+        val batch = resumedWith(response);
+        assertTrue(batch.getEvents().isEmpty());
+        assertEquals(1, batch.getNextOffset());
+        assertEquals(0, streamer.watcherCount());
+    }
+
+    @Test
+    void testNoWait() {
+        val response = mock(AsyncResponse.class);
+        streamer.stream(0, null, EventFilter.ALL, 10, Duration.ZERO, response);
+        val batch = resumedWith(response);
+        assertTrue(batch.getEvents().isEmpty());
+        assertEquals(0, batch.getNextOffset());
+        assertEquals(0, streamer.watcherCount());
+    }
+
+    @Test
+    void testEpochChange() {
+        eventStore.recordEvent(new DroveClusterMaintenanceModeSetEvent(EventUtils.controllerMetadata()));
+        val oldEpoch = eventStore.epoch().id();
+        val response = mock(AsyncResponse.class);
+        streamer.stream(1, oldEpoch, EventFilter.ALL, 10, Duration.ofSeconds(30), response);
+        assertEquals(1, streamer.watcherCount());
+
+        //Waiting watcher is told about the new epoch as soon as it is woken up
+        leadershipSignal.dispatch(true);
+        val newEpoch = eventStore.epoch();
+        assertNotEquals(oldEpoch, newEpoch.id());
+        streamer.eventsRecorded();
+        val batch = resumedWith(response);
+        assertTrue(batch.getEvents().isEmpty());
+        assertEquals(newEpoch.id(), batch.getEpoch());
+        assertEquals(newEpoch.startOffset(), batch.getNextOffset());
+        assertEquals(0, streamer.watcherCount());
+
+        //Requests with an old epoch get a response right away
+        val staleResponse = mock(AsyncResponse.class);
+        streamer.stream(1, oldEpoch, EventFilter.ALL, 10, Duration.ofSeconds(30), staleResponse);
+        assertEquals(newEpoch.id(), resumedWith(staleResponse).getEpoch());
+        assertEquals(0, streamer.watcherCount());
+    }
+
+    @Test
+    void testWakeupsAreCoalesced() {
+        val store = spy(eventStore);
+        val pendingWakeups = new ArrayList<Runnable>();
+        val notifier = mock(ExecutorService.class);
+        doAnswer(invocation -> pendingWakeups.add(invocation.getArgument(0))).when(notifier).execute(any());
+        val coalescingStreamer = new EventStreamer(store, notifier);
+
+        val responses = IntStream.range(0, 3)
+                .mapToObj(i -> {
+                    val response = mock(AsyncResponse.class);
+                    coalescingStreamer.stream(-1, null, EventFilter.ALL, 10, Duration.ofSeconds(30), response);
+                    return response;
+                })
+                .toList();
+        val filteredResponse = mock(AsyncResponse.class);
+        coalescingStreamer.stream(-1, null, new EventFilter(Set.of(MAINTENANCE_MODE_REMOVED), null, null), 10,
+                                  Duration.ofSeconds(30), filteredResponse);
+        assertEquals(4, coalescingStreamer.watcherCount());
+
+        IntStream.range(0, 5).forEach(i -> {
+            store.recordEvent(new DroveClusterMaintenanceModeSetEvent(EventUtils.controllerMetadata()));
+            coalescingStreamer.eventsRecorded();
+        });
+        assertEquals(1, pendingWakeups.size());
+
+        //One read for the three identical watchers and one for the filtered one
+        clearInvocations(store);
+        pendingWakeups.get(0).run();
+        verify(store, times(2)).readFrom(anyLong(), anyInt(), any());
+        responses.forEach(response -> assertEquals(5, resumedWith(response).getEvents().size()));
+        verify(filteredResponse, never()).resume(any(Object.class));
+        assertEquals(1, coalescingStreamer.watcherCount());
+
+        //Next notification schedules a new wakeup
+        coalescingStreamer.eventsRecorded();
+        assertEquals(2, pendingWakeups.size());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static DroveEventsBatch resumedWith(AsyncResponse response) {
+        val captor = ArgumentCaptor.forClass(Object.class);
+        verify(response).resume(captor.capture());
+        val apiResponse = (ApiResponse<DroveEventsBatch>) captor.getValue();
+        return apiResponse.getData();
+    }
+}
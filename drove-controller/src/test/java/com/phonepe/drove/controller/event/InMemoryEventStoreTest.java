@@ -22,12 +22,17 @@ import com.phonepe.drove.controller.config.ControllerOptions;
 import com.phonepe.drove.controller.managed.LeadershipEnsurer;
 import com.phonepe.drove.controller.metrics.ClusterMetricsRegistry;
 import com.phonepe.drove.controller.utils.EventUtils;
+import com.phonepe.drove.models.events.DroveEvent;
 import com.phonepe.drove.models.events.events.DroveClusterMaintenanceModeSetEvent;
 import io.appform.signals.signals.ConsumingSyncSignal;
+import lombok.SneakyThrows;
 import lombok.val;
 import org.junit.jupiter.api.Test;
 
 import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
 import java.util.stream.IntStream;
 
 import static com.phonepe.drove.controller.config.ControllerOptions.DEFAULT;
@@ -57,6 +62,10 @@ class InMemoryEventStoreTest {
         val summary = es.summarize(0);
         assertNotNull(es);
         assertEquals(1, summary.getEventsCount().getOrDefault(MAINTENANCE_MODE_SET, -1L));
+        val batch = es.readFrom(0, 10);
+        assertEquals(1, batch.events().size());
+        assertEquals(1, batch.nextOffset());
+        assertTrue(es.readFrom(batch.nextOffset(), 10).events().isEmpty());
     }
 
     @Test
@@ -114,6 +123,96 @@ class InMemoryEventStoreTest {
             val res = es.latest(0, 10);
             assertNotNull(res);
             assertTrue(res.getEvents().isEmpty());
+            val batch = es.readFrom(0, 10);
+            assertTrue(batch.events().isEmpty());
+            assertEquals(1, batch.nextOffset());
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void testFailedRecordDoesNotBlockReaders() {
+        val leadershipEnsurer = mock(LeadershipEnsurer.class);
+        when(leadershipEnsurer.onLeadershipStateChanged()).thenReturn(new ConsumingSyncSignal<>());
+        val es = new InMemoryEventStore(leadershipEnsurer, ControllerOptions.DEFAULT,
+                                        new ClusterMetricsRegistry(SharedMetricRegistries.getOrCreate("test")));
+        val brokenEvent = mock(DroveEvent.class);
+        when(brokenEvent.getType()).thenReturn(MAINTENANCE_MODE_SET);
+        when(brokenEvent.getMetadata()).thenReturn(Map.of());
+        when(brokenEvent.getTime()).thenThrow(new IllegalStateException("Test failure"));
+        assertThrows(IllegalStateException.class, () -> es.recordEvent(brokenEvent));
+        es.recordEvent(new DroveClusterMaintenanceModeSetEvent(EventUtils.controllerMetadata()));
+
+        assertEquals(1, es.latest(0, 10).getEvents().size());
+        val batch = es.readFrom(0, 10);
+        assertEquals(1, batch.events().size());
+        assertEquals(2, batch.nextOffset());
+        val indexed = es.readFrom(0, 10, new EventFilter(Set.of(MAINTENANCE_MODE_SET), Set.of(), Map.of()));
+        assertEquals(1, indexed.events().size());
+        assertEquals(2, indexed.nextOffset());
+    }
+
+    @Test
+    void testFiltering() {
+        val leadershipEnsurer = mock(LeadershipEnsurer.class);
+        when(leadershipEnsurer.onLeadershipStateChanged()).thenReturn(new ConsumingSyncSignal<>());
+        val es = new InMemoryEventStore(leadershipEnsurer, ControllerOptions.DEFAULT,
+                                        new ClusterMetricsRegistry(SharedMetricRegistries.getOrCreate("test")));
+        EventStoreTestUtils.recordMixedEvents(es);
+        EventStoreTestUtils.assertFiltering(es);
+    }
+
+    @Test
+    void testBufferOverflow() {
+        val leadershipEnsurer = mock(LeadershipEnsurer.class);
+        when(leadershipEnsurer.onLeadershipStateChanged()).thenReturn(new ConsumingSyncSignal<>());
+        val es = new InMemoryEventStore(leadershipEnsurer, DEFAULT.withEventBufferSize(16),
+                                        new ClusterMetricsRegistry(SharedMetricRegistries.getOrCreate("test")));
+        val events = IntStream.range(0, 40)
+                .mapToObj(i -> new DroveClusterMaintenanceModeSetEvent(EventUtils.controllerMetadata()))
+                .toList();
+        events.forEach(es::recordEvent);
+
+        val res = es.latest(0, Integer.MAX_VALUE);
+        assertEquals(16, res.getEvents().size());
+        assertEquals(events.get(39).getId(), res.getEvents().get(0).getId());
+        assertEquals(16, es.summarize(0).getEventsCount().get(MAINTENANCE_MODE_SET));
+
+        val batch = es.readFrom(0, Integer.MAX_VALUE);
+        assertEquals(16, batch.events().size());
+        assertEquals(events.get(24).getId(), batch.events().get(0).getId());
+        assertEquals(40, batch.nextOffset());
+        val partial = es.readFrom(30, 5);
+        assertEquals(5, partial.events().size());
+        assertEquals(events.get(30).getId(), partial.events().get(0).getId());
+        assertEquals(35, partial.nextOffset());
+        assertEquals(40, es.readFrom(Long.MAX_VALUE, 0).nextOffset());
+    }
+
+    @Test
+    @SneakyThrows
+    void testConcurrentAppends() {
+        val leadershipEnsurer = mock(LeadershipEnsurer.class);
+        when(leadershipEnsurer.onLeadershipStateChanged()).thenReturn(new ConsumingSyncSignal<>());
+        val es = new InMemoryEventStore(leadershipEnsurer, ControllerOptions.DEFAULT,
+                                        new ClusterMetricsRegistry(SharedMetricRegistries.getOrCreate("test")));
+        val executor = Executors.newFixedThreadPool(4);
+        try {
+            val futures = IntStream.range(0, 4)
+                    .mapToObj(t -> executor.submit(() -> IntStream.range(0, 1000)
+                            .forEach(i -> es.recordEvent(
+                                    new DroveClusterMaintenanceModeSetEvent(EventUtils.controllerMetadata())))))
+                    .toList();
+            for (val future : futures) {
+                future.get();
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+        val batch = es.readFrom(0, Integer.MAX_VALUE);
+        assertEquals(4000, batch.events().size());
+        assertEquals(4000, batch.nextOffset());
+        assertEquals(4000, batch.events().stream().map(DroveEvent::getId).distinct().count());
+        assertEquals(4000, es.latest(0, Integer.MAX_VALUE).getEvents().size());
+    }
+}
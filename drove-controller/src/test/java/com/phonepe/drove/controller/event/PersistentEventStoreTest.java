@@ -0,0 +1,171 @@
+/*
+ *  Copyright (c) 2024 Original Author(s), PhonePe India Pvt. Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.phonepe.drove.controller.event;
+
+import com.codahale.metrics.SharedMetricRegistries;
+import com.phonepe.drove.controller.ControllerTestBase;
+import com.phonepe.drove.controller.managed.LeadershipEnsurer;
+import com.phonepe.drove.controller.metrics.ClusterMetricsRegistry;
+import com.phonepe.drove.controller.utils.EventUtils;
+import com.phonepe.drove.models.events.events.DroveClusterMaintenanceModeRemovedEvent;
+import com.phonepe.drove.models.events.events.DroveClusterMaintenanceModeSetEvent;
+import io.appform.signals.signals.ConsumingSyncSignal;
+import io.dropwizard.util.DataSize;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.stream.IntStream;
+
+import static com.phonepe.drove.controller.config.ControllerOptions.DEFAULT;
+import static com.phonepe.drove.models.events.DroveEventType.MAINTENANCE_MODE_REMOVED;
+import static com.phonepe.drove.models.events.DroveEventType.MAINTENANCE_MODE_SET;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ *
+ */
+class PersistentEventStoreTest extends ControllerTestBase {
+
+    @TempDir
+    Path dir;
+
+    private final ConsumingSyncSignal<Boolean> leadershipSignal = new ConsumingSyncSignal<>();
+
+    @Test
+    void test() {
+        val es = createStore(DataSize.megabytes(1));
+        val set = new DroveClusterMaintenanceModeSetEvent(EventUtils.controllerMetadata());
+        val removed = new DroveClusterMaintenanceModeRemovedEvent(EventUtils.controllerMetadata());
+        es.recordEvent(set);
+        es.recordEvent(removed);
+
+        val res = es.latest(0, 10);
+        assertEquals(2, res.getEvents().size());
+        assertEquals(removed.getId(), res.getEvents().get(0).getId());
+        assertEquals(set.getId(), res.getEvents().get(1).getId());
+        assertEquals(removed.getTime().getTime(), res.getLastSyncTime());
+        assertEquals(1, es.latest(0, 1).getEvents().size());
+        assertTrue(es.latest(res.getLastSyncTime(), 10).getEvents().isEmpty());
+
+        val summary = es.summarize(0);
+        assertEquals(1, summary.getEventsCount().get(MAINTENANCE_MODE_SET));
+        assertEquals(1, summary.getEventsCount().get(MAINTENANCE_MODE_REMOVED));
+
+        val batch = es.readFrom(1, 10);
+        assertEquals(1, batch.events().size());
+        assertEquals(removed.getId(), batch.events().get(0).getId());
+        assertEquals(2, batch.nextOffset());
+        val empty = es.readFrom(batch.nextOffset(), 10);
+        assertTrue(empty.events().isEmpty());
+        assertEquals(2, empty.nextOffset());
+    }
+
+    @Test
+    void testRecoveryAfterRestart() {
+        val es = createStore(DataSize.kilobytes(4));
+        IntStream.range(0, 100)
+                .forEach(i -> es.recordEvent(new DroveClusterMaintenanceModeSetEvent(EventUtils.controllerMetadata())));
+        assertTrue(es.segmentCount() > 1);
+        val before = es.readFrom(0, Integer.MAX_VALUE);
+        assertEquals(100, before.events().size());
+
+        val reopened = createStore(DataSize.kilobytes(4));
+        assertEquals(es.segmentCount(), reopened.segmentCount());
+        val after = reopened.readFrom(0, Integer.MAX_VALUE);
+        assertEquals(100, after.events().size());
+        assertEquals(100, after.nextOffset());
+        IntStream.range(0, 100)
+                .forEach(i -> assertEquals(before.events().get(i).getId(), after.events().get(i).getId()));
+        assertEquals(100, reopened.latest(0, Integer.MAX_VALUE).getEvents().size());
+
+        reopened.recordEvent(new DroveClusterMaintenanceModeSetEvent(EventUtils.controllerMetadata()));
+        assertEquals(101, reopened.readFrom(100, 10).nextOffset());
+    }
+
+    @Test
+    void testFiltering() {
+        val es = createStore(DataSize.kilobytes(4));
+        EventStoreTestUtils.recordMixedEvents(es);
+        assertTrue(es.segmentCount() > 1);
+        EventStoreTestUtils.assertFiltering(es);
+
+        //Index is rebuilt from the segments on restart
+        EventStoreTestUtils.assertFiltering(createStore(DataSize.kilobytes(4)));
+    }
+
+    @Test
+    void testRetention() {
+        val es = createStore(DataSize.kilobytes(4));
+        IntStream.range(0, 100)
+                .forEach(i -> es.recordEvent(new DroveClusterMaintenanceModeSetEvent(EventUtils.controllerMetadata())));
+        es.cleanup(0);
+        assertEquals(100, es.readFrom(0, Integer.MAX_VALUE).events().size());
+
+        es.cleanup(System.currentTimeMillis() + 1);
+        assertEquals(1, es.segmentCount());
+        assertTrue(es.latest(0, Integer.MAX_VALUE).getEvents().isEmpty());
+        assertTrue(es.summarize(0).getEventsCount().isEmpty());
+        val batch = es.readFrom(0, Integer.MAX_VALUE);
+        assertTrue(batch.events().isEmpty());
+        assertEquals(100, batch.nextOffset());
+
+        //Offsets continue from where they were before the cleanup, even after a restart
+        val reopened = createStore(DataSize.kilobytes(4));
+        reopened.recordEvent(new DroveClusterMaintenanceModeSetEvent(EventUtils.controllerMetadata()));
+        val next = reopened.readFrom(0, 10);
+        assertEquals(1, next.events().size());
+        assertEquals(101, next.nextOffset());
+    }
+
+    @Test
+    void testEpochAndShutdown() {
+        val es = createStore(DataSize.megabytes(1));
+        IntStream.range(0, 10)
+                .forEach(i -> es.recordEvent(new DroveClusterMaintenanceModeSetEvent(EventUtils.controllerMetadata())));
+        es.flush();
+        val epoch = es.epoch();
+
+        //Offsets continue across leadership changes, but the epoch changes as events might have been missed
+        leadershipSignal.dispatch(true);
+        val newEpoch = es.epoch();
+        assertNotEquals(epoch.id(), newEpoch.id());
+        assertEquals(10, newEpoch.startOffset());
+
+        es.stop();
+        es.recordEvent(new DroveClusterMaintenanceModeSetEvent(EventUtils.controllerMetadata()));
+        val reopened = createStore(DataSize.megabytes(1));
+        assertEquals(10, reopened.readFrom(0, Integer.MAX_VALUE).events().size());
+        assertNotEquals(newEpoch.id(), reopened.epoch().id());
+        assertEquals(10, reopened.epoch().startOffset());
+    }
+
+    private PersistentEventStore createStore(DataSize segmentSize) {
+        val leadershipEnsurer = mock(LeadershipEnsurer.class);
+        when(leadershipEnsurer.onLeadershipStateChanged()).thenReturn(leadershipSignal);
+        return new PersistentEventStore(leadershipEnsurer,
+                                        DEFAULT.withEventStorePath(dir.toString())
+                                                .withEventSegmentSize(segmentSize),
+                                        Duration.ofMinutes(1),
+                                        MAPPER,
+                                        new ClusterMetricsRegistry(SharedMetricRegistries.getOrCreate("test")));
+    }
+}
@@ -19,6 +19,7 @@ package com.phonepe.drove.controller.managed;
 import com.phonepe.drove.controller.ControllerTestUtils;
 import com.phonepe.drove.controller.engine.ApplicationLifecycleManagementEngine;
 import com.phonepe.drove.controller.engine.ValidationResult;
+import com.phonepe.drove.controller.resourcemgmt.DeployableAllocationTracker;
 import com.phonepe.drove.controller.statedb.ApplicationStateDB;
 import com.phonepe.drove.controller.statedb.ClusterStateDB;
 import com.phonepe.drove.controller.statedb.ApplicationInstanceInfoDB;
@@ -60,9 +61,15 @@ class ApplicationMonitorTest {
         val clusterStateDB = mock(ClusterStateDB.class);
         val appEngine = mock(ApplicationLifecycleManagementEngine.class);
         val leadershipEnsurer = mock(LeadershipEnsurer.class);
+        val allocationTracker = mock(DeployableAllocationTracker.class);
         when(leadershipEnsurer.isLeader()).thenReturn(true);
 
-        val monitor = new ApplicationMonitor(stateDB, instanceInfoDB, clusterStateDB, appEngine, leadershipEnsurer);
+        val monitor = new ApplicationMonitor(stateDB,
+                                             instanceInfoDB,
+                                             clusterStateDB,
+                                             appEngine,
+                                             leadershipEnsurer,
+                                             allocationTracker);
 
         val specs = IntStream.rangeClosed(1, 100)
                 .mapToObj(ControllerTestUtils::appSpec)
@@ -81,9 +88,14 @@ class ApplicationMonitorTest {
                     ids.add(invocationOnMock.getArgument(0, ApplicationRecoverOperation.class).getAppId());
                     return ValidationResult.success();
                 });
+        val staleAppId = specs.get(0).getAppId();
+        when(instanceInfoDB.markStaleInstances(staleAppId)).thenReturn(2L);
         monitor.checkAllApps(new Date());
 
         assertTrue(ids.isEmpty());
+        //Only apps that had instances marked stale are reloaded by the allocation tracker
+        verify(allocationTracker, times(1)).evictApplication(anyString());
+        verify(allocationTracker).evictApplication(staleAppId);
     }
 
     @Test
@@ -94,9 +106,15 @@ class ApplicationMonitorTest {
         val clusterStateDB = mock(ClusterStateDB.class);
         val appEngine = mock(ApplicationLifecycleManagementEngine.class);
         val leadershipEnsurer = mock(LeadershipEnsurer.class);
+        val allocationTracker = mock(DeployableAllocationTracker.class);
         when(leadershipEnsurer.isLeader()).thenReturn(true);
 
-        val monitor = new ApplicationMonitor(stateDB, instanceInfoDB, clusterStateDB, appEngine, leadershipEnsurer);
+        val monitor = new ApplicationMonitor(stateDB,
+                                             instanceInfoDB,
+                                             clusterStateDB,
+                                             appEngine,
+                                             leadershipEnsurer,
+                                             allocationTracker);
 
         val specs = IntStream.rangeClosed(1, 100)
                 .mapToObj(ControllerTestUtils::appSpec)
@@ -128,9 +146,15 @@ class ApplicationMonitorTest {
         val clusterStateDB = mock(ClusterStateDB.class);
         val appEngine = mock(ApplicationLifecycleManagementEngine.class);
         val leadershipEnsurer = mock(LeadershipEnsurer.class);
+        val allocationTracker = mock(DeployableAllocationTracker.class);
         when(leadershipEnsurer.isLeader()).thenReturn(true);
 
-        val monitor = new ApplicationMonitor(stateDB, instanceInfoDB, clusterStateDB, appEngine, leadershipEnsurer);
+        val monitor = new ApplicationMonitor(stateDB,
+                                             instanceInfoDB,
+                                             clusterStateDB,
+                                             appEngine,
+                                             leadershipEnsurer,
+                                             allocationTracker);
 
         val specs = IntStream.rangeClosed(1, 100)
                 .mapToObj(ControllerTestUtils::appSpec)
@@ -164,9 +188,15 @@ class ApplicationMonitorTest {
         val clusterStateDB = mock(ClusterStateDB.class);
         val appEngine = mock(ApplicationLifecycleManagementEngine.class);
         val leadershipEnsurer = mock(LeadershipEnsurer.class);
+        val allocationTracker = mock(DeployableAllocationTracker.class);
         when(leadershipEnsurer.isLeader()).thenReturn(true);
 
-        val monitor = new ApplicationMonitor(stateDB, instanceInfoDB, clusterStateDB, appEngine, leadershipEnsurer);
+        val monitor = new ApplicationMonitor(stateDB,
+                                             instanceInfoDB,
+                                             clusterStateDB,
+                                             appEngine,
+                                             leadershipEnsurer,
+                                             allocationTracker);
 
         val specs = IntStream.rangeClosed(1, 100)
                 .mapToObj(ControllerTestUtils::appSpec)
@@ -203,7 +233,12 @@ class ApplicationMonitorTest {
             return List.of();
         });
 
-        val monitor = new ApplicationMonitor(stateDB, instanceInfoDB, clusterStateDB, appEngine, leadershipEnsurer);
+        val monitor = new ApplicationMonitor(stateDB,
+                                             instanceInfoDB,
+                                             clusterStateDB,
+                                             appEngine,
+                                             leadershipEnsurer,
+                                             mock(DeployableAllocationTracker.class));
         monitor.start();
         assertFalse(checked.get());
 
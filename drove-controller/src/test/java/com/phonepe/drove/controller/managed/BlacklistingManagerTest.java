@@ -23,17 +23,21 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import java.time.Duration;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -90,25 +94,23 @@ class BlacklistingManagerTest {
         val clusterResourcesDB = new InMemoryClusterResourcesDB();
         val communicator = mock(ControllerCommunicator.class);
         val acceptedCount = new AtomicInteger(0);
-        when(communicator.send(any(ExecutorMessage.class)))
-            .thenAnswer(param -> {
-                val message = param.getArgument(0, ExecutorMessage.class);
-                if(message instanceof BlacklistExecutorMessage) {
-                    if(5 == acceptedCount.incrementAndGet()) {
-                        clusterResourcesDB.update(IntStream.range(0, numExecutors)
-                                .mapToObj(i -> ControllerTestUtils.generateExecutorNode(i, Set.of(), true))
-                                .toList());
-                    }
+        stubBroadcast(communicator, message -> {
+            if(message instanceof BlacklistExecutorMessage) {
+                if(5 == acceptedCount.incrementAndGet()) {
+                    clusterResourcesDB.update(IntStream.range(0, numExecutors)
+                            .mapToObj(i -> ControllerTestUtils.generateExecutorNode(i, Set.of(), true))
+                            .toList());
                 }
-                if(message instanceof UnBlacklistExecutorMessage) {
-                    if(0 == acceptedCount.decrementAndGet()) {
-                        clusterResourcesDB.update(IntStream.range(0, numExecutors)
-                                .mapToObj(i -> ControllerTestUtils.generateExecutorNode(i, Set.of(), false))
-                                .toList());
-                    }
+            }
+            if(message instanceof UnBlacklistExecutorMessage) {
+                if(0 == acceptedCount.decrementAndGet()) {
+                    clusterResourcesDB.update(IntStream.range(0, numExecutors)
+                            .mapToObj(i -> ControllerTestUtils.generateExecutorNode(i, Set.of(), false))
+                            .toList());
                 }
-                return new MessageResponse(MessageHeader.controllerRequest(), MessageDeliveryStatus.ACCEPTED);
-            });
+            }
+            return new MessageResponse(MessageHeader.controllerRequest(), MessageDeliveryStatus.ACCEPTED);
+        });
         val eventBus = new DroveEventBus();
         val bmm = new BlacklistingManager(le,
                                           applicationEngine,
@@ -173,8 +175,7 @@ class BlacklistingManagerTest {
         val s = new ConsumingSyncSignal<Boolean>();
         when(le.onLeadershipStateChanged()).thenReturn(s);
         val communicator = mock(ControllerCommunicator.class);
-        when(communicator.send(any(ExecutorMessage.class)))
-            .thenReturn(new MessageResponse(MessageHeader.controllerRequest(), MessageDeliveryStatus.ACCEPTED));
+        stubBroadcast(communicator, message -> new MessageResponse(MessageHeader.controllerRequest(), MessageDeliveryStatus.ACCEPTED));
         val eventBus = new DroveEventBus();
         val bmm = new BlacklistingManager(le,
                                           applicationEngine,
@@ -223,7 +224,7 @@ class BlacklistingManagerTest {
         when(le.onLeadershipStateChanged()).thenReturn(s);
 
         val communicator = mock(ControllerCommunicator.class);
-        when(communicator.send(any(ExecutorMessage.class))).thenReturn(new MessageResponse(MessageHeader.controllerRequest(), MessageDeliveryStatus.ACCEPTED));
+        stubBroadcast(communicator, message -> new MessageResponse(MessageHeader.controllerRequest(), MessageDeliveryStatus.ACCEPTED));
         val eventBus = new DroveEventBus();
         val bmm = new BlacklistingManager(le,
                                           applicationEngine,
@@ -267,7 +268,7 @@ class BlacklistingManagerTest {
         when(le.onLeadershipStateChanged()).thenReturn(s);
 
         val communicator = mock(ControllerCommunicator.class);
-        when(communicator.send(any(ExecutorMessage.class))).thenReturn(new MessageResponse(MessageHeader.controllerRequest(), MessageDeliveryStatus.ACCEPTED));
+        stubBroadcast(communicator, message -> new MessageResponse(MessageHeader.controllerRequest(), MessageDeliveryStatus.ACCEPTED));
         val eventBus = new DroveEventBus();
         val bmm = new BlacklistingManager(le,
                                           applicationEngine,
@@ -317,7 +318,7 @@ class BlacklistingManagerTest {
         when(le.onLeadershipStateChanged()).thenReturn(s);
 
         val communicator = mock(ControllerCommunicator.class);
-        when(communicator.send(any(ExecutorMessage.class))).thenReturn(new MessageResponse(MessageHeader.controllerRequest(), MessageDeliveryStatus.ACCEPTED));
+        stubBroadcast(communicator, message -> new MessageResponse(MessageHeader.controllerRequest(), MessageDeliveryStatus.ACCEPTED));
         val eventBus = new DroveEventBus();
         val bmm = new BlacklistingManager(le,
                                           applicationEngine,
@@ -369,7 +370,7 @@ class BlacklistingManagerTest {
         when(le.onLeadershipStateChanged()).thenReturn(s);
 
         val communicator = mock(ControllerCommunicator.class);
-        when(communicator.send(any(ExecutorMessage.class))).thenReturn(new MessageResponse(MessageHeader.controllerRequest(), MessageDeliveryStatus.ACCEPTED));
+        stubBroadcast(communicator, message -> new MessageResponse(MessageHeader.controllerRequest(), MessageDeliveryStatus.ACCEPTED));
         val eventBus = new DroveEventBus();
         val bmm = new BlacklistingManager(le,
                                           applicationEngine,
@@ -398,8 +399,7 @@ class BlacklistingManagerTest {
         val clusterResourcesDB = mock(ClusterResourcesDB.class);
         when(clusterResourcesDB.currentSnapshot(anyString())).thenReturn(Optional.of(executor));
         val communicator = mock(ControllerCommunicator.class);
-        when(communicator.send(any(ExecutorMessage.class)))
-                .thenReturn(new MessageResponse(MessageHeader.controllerRequest(), MessageDeliveryStatus.FAILED));
+        stubBroadcast(communicator, message -> new MessageResponse(MessageHeader.controllerRequest(), MessageDeliveryStatus.FAILED));
         val eventBus = new DroveEventBus();
         val bmm = new BlacklistingManager(le,
                                           applicationEngine,
@@ -466,6 +466,17 @@ class BlacklistingManagerTest {
         bmm.stop();
     }
 
+    @SuppressWarnings("unchecked")
+    private static void stubBroadcast(
+            ControllerCommunicator communicator,
+            Function<ExecutorMessage, MessageResponse> responder) {
+        when(communicator.broadcast(anyCollection()))
+                .thenAnswer(param -> CompletableFuture.completedFuture(
+                        ((Collection<ExecutorMessage>) param.getArgument(0)).stream()
+                                .map(responder)
+                                .toList()));
+    }
+
     private static ClusterOpSpec clusterOpSpec() {
         return new ClusterOpSpec(io.dropwizard.util.Duration.milliseconds(100), 1, FailureStrategy.STOP);
     }
@@ -18,7 +18,9 @@ package com.phonepe.drove.controller.managed;
 
 import com.phonepe.drove.common.CommonTestUtils;
 import com.phonepe.drove.controller.event.DroveEventBus;
+import com.phonepe.drove.controller.event.EventFilter;
 import com.phonepe.drove.controller.event.EventStore;
+import com.phonepe.drove.controller.event.EventStreamer;
 import com.phonepe.drove.models.api.DroveEventsList;
 import com.phonepe.drove.models.api.DroveEventsSummary;
 import com.phonepe.drove.models.events.DroveEvent;
@@ -47,7 +49,12 @@ class DroveEventLoggerTest {
             }
 
             @Override
-            public DroveEventsList latest(long lastSyncTime, int size) {
+            public Epoch epoch() {
+                return Epoch.startingAt(0);
+            }
+
+            @Override
+            public DroveEventsList latest(long lastSyncTime, int size, EventFilter filter) {
                 return null;
             }
 
@@ -55,9 +62,14 @@ class DroveEventLoggerTest {
             public DroveEventsSummary summarize(long lastSyncTime) {
                 return null;
             }
+
+            @Override
+            public EventBatch readFrom(long fromOffset, int size, EventFilter filter) {
+                return null;
+            }
         };
         val eventBus = new DroveEventBus();
-        val logger = new DroveEventLogger(eventBus, eStore);
+        val logger = new DroveEventLogger(eventBus, eStore, new EventStreamer(eStore));
         logger.start();
         eventBus.publish(new DroveClusterMaintenanceModeSetEvent(Map.of()));
         CommonTestUtils.waitUntil(called::get);
@@ -0,0 +1,57 @@
+/*
+ *  Copyright (c) 2024 Original Author(s), PhonePe India Pvt. Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.phonepe.drove.controller.managed;
+
+import com.phonepe.drove.auth.core.ApplicationInstanceTokenManager;
+import com.phonepe.drove.common.CommonTestUtils;
+import com.phonepe.drove.controller.event.DroveEventBus;
+import com.phonepe.drove.models.events.events.DroveInstanceStateChangeEvent;
+import com.phonepe.drove.models.events.events.datatags.AppInstanceEventDataTag;
+import com.phonepe.drove.models.instance.InstanceState;
+import lombok.SneakyThrows;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.mockito.Mockito.*;
+
+/**
+ *
+ */
+class InstanceTokenCacheInvalidatorTest {
+    @Test
+    @SneakyThrows
+    void test() {
+        val tokenManager = mock(ApplicationInstanceTokenManager.class);
+        val eventBus = new DroveEventBus();
+        val invalidator = new InstanceTokenCacheInvalidator(eventBus, tokenManager);
+        invalidator.start();
+        eventBus.publish(instanceEvent("inst1", InstanceState.HEALTHY));
+        eventBus.publish(instanceEvent("inst2", InstanceState.STOPPED));
+        CommonTestUtils.waitUntil(() -> !mockingDetails(tokenManager).getInvocations().isEmpty());
+        invalidator.stop();
+        verify(tokenManager, times(1)).invalidate("test_app", "inst2");
+        verify(tokenManager, never()).invalidate("test_app", "inst1");
+    }
+
+    private static DroveInstanceStateChangeEvent instanceEvent(String instanceId, InstanceState state) {
+        return new DroveInstanceStateChangeEvent(Map.of(AppInstanceEventDataTag.APP_ID, "test_app",
+                                                        AppInstanceEventDataTag.INSTANCE_ID, instanceId,
+                                                        AppInstanceEventDataTag.CURRENT_STATE, state));
+    }
+}
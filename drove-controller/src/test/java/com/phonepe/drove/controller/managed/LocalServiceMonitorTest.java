@@ -21,6 +21,7 @@ import com.phonepe.drove.controller.ControllerTestUtils;
 import com.phonepe.drove.controller.engine.LocalServiceLifecycleManagementEngine;
 import com.phonepe.drove.controller.engine.ValidationResult;
 import com.phonepe.drove.controller.resourcemgmt.ClusterResourcesDB;
+import com.phonepe.drove.controller.resourcemgmt.DeployableAllocationTracker;
 import com.phonepe.drove.controller.statedb.ClusterStateDB;
 import com.phonepe.drove.controller.statedb.LocalServiceStateDB;
 import com.phonepe.drove.controller.utils.ControllerUtils;
@@ -64,12 +65,14 @@ class LocalServiceMonitorTest {
     private final LocalServiceLifecycleManagementEngine localServiceEngine =
             mock(LocalServiceLifecycleManagementEngine.class);
     private final LeadershipEnsurer leadershipEnsurer = mock(LeadershipEnsurer.class);
+    private final DeployableAllocationTracker allocationTracker = mock(DeployableAllocationTracker.class);
     private final LocalServiceMonitor monitor = new LocalServiceMonitor(
             clusterResourcesDB,
             clusterStateDB,
             stateDB,
             localServiceEngine,
             leadershipEnsurer,
+            allocationTracker,
             ScheduledSignal.builder()
                     .interval(Duration.ofMillis(300))
                     .build()
@@ -81,7 +84,8 @@ class LocalServiceMonitorTest {
               clusterStateDB,
               stateDB,
               localServiceEngine,
-              leadershipEnsurer);
+              leadershipEnsurer,
+              allocationTracker);
     }
 
     @Test
@@ -30,6 +30,7 @@ import org.junit.jupiter.api.Test;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 import static com.phonepe.drove.controller.ControllerTestUtils.appSpec;
@@ -289,4 +290,85 @@ class DefaultInstanceSchedulerTest extends ControllerTestBase {
         sched.discardAllocation(schedId, instanceId, node);
         assertNotNull(sched.schedule(schedId, instanceId, spec).orElse(null));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testBatchScheduling() {
+        val rdb = new InMemoryClusterResourcesDB();
+        val sched = createDefaultInstanceScheduler(rdb).getValue();
+        val spec = appSpec();
+
+        rdb.update(IntStream.rangeClosed(1, 5).mapToObj(ControllerTestUtils::generateExecutorNode).toList());
+        val schedId = "SCHED_ID_1";
+        val placements = sched.scheduleBatch(schedId,
+                                             IntStream.rangeClosed(1, 30).mapToObj(i -> "I" + i).toList(),
+                                             spec);
+        //Cluster can fit only 25 instances
+        assertEquals(25, placements.size());
+        assertEquals(IntStream.rangeClosed(1, 25).mapToObj(i -> "I" + i).toList(),
+                     placements.stream().map(InstancePlacement::getInstanceId).toList());
+        assertNull(sched.schedule(schedId, "I26", spec).orElse(null));
+        val discarded = placements.get(0);
+        sched.discardAllocation(schedId, discarded.getInstanceId(), discarded.getNode());
+        assertEquals(1, sched.scheduleBatch(schedId, List.of("I26", "I27"), spec).size());
+    }
+
+    @Test
+    void testBatchSchedulingMaxNPerHostPlacementPolicy() {
+        val rdb = new InMemoryClusterResourcesDB();
+        val sched = createDefaultInstanceScheduler(rdb).getValue();
+        val spec = appSpec().withPlacementPolicy(new MaxNPerHostPlacementPolicy(2));
+        rdb.update(IntStream.rangeClosed(1, 5).mapToObj(ControllerTestUtils::generateExecutorNode).toList());
+        val schedId = "SCHED_ID_1";
+        assertNotNull(sched.schedule(schedId, "I0", spec).orElse(null));
+        val placements = sched.scheduleBatch(schedId,
+                                             IntStream.rangeClosed(1, 20).mapToObj(i -> "I" + i).toList(),
+                                             spec);
+        //One instance was already placed in this session
+        assertEquals(9, placements.size());
+        assertTrue(placements.stream()
+                           .collect(Collectors.groupingBy(placement -> placement.getNode().getExecutorId(),
+                                                          Collectors.counting()))
+                           .values()
+                           .stream()
+                           .allMatch(count -> count <= 2));
+        assertNull(sched.schedule(schedId, "I21", spec).orElse(null));
+    }
+
+    @Test
+    void testClaimPlacement() {
+        val rdb = new InMemoryClusterResourcesDB();
+        val sched = createDefaultInstanceScheduler(rdb).getValue();
+        val spec = appSpec();
+        rdb.update(IntStream.rangeClosed(1, 5).mapToObj(ControllerTestUtils::generateExecutorNode).toList());
+        val schedId = "SCHED_ID_1";
+        val placements = sched.scheduleBatch(schedId, List.of("I1", "I2"), spec);
+        assertEquals(2, placements.size());
+        val first = placements.get(0);
+        assertEquals(first.getNode(), sched.claimPlacement(schedId, first).orElse(null));
+        //Already claimed
+        assertNull(sched.claimPlacement(schedId, first).orElse(null));
+
+        //Fresh snapshots from executors drop the soft locks, so the placement cannot be used anymore
+        rdb.update(IntStream.rangeClosed(1, 5).mapToObj(ControllerTestUtils::generateExecutorNode).toList());
+        assertNull(sched.claimPlacement(schedId, placements.get(1)).orElse(null));
+    }
+
+    @Test
+    void testFinaliseReleasesUnclaimedPlacements() {
+        val rdb = new InMemoryClusterResourcesDB();
+        val sched = createDefaultInstanceScheduler(rdb).getValue();
+        val spec = appSpec();
+        rdb.update(IntStream.rangeClosed(1, 5).mapToObj(ControllerTestUtils::generateExecutorNode).toList());
+        val placements = sched.scheduleBatch("SCHED_ID_1",
+                                             IntStream.rangeClosed(1, 25).mapToObj(i -> "I" + i).toList(),
+                                             spec);
+        assertEquals(25, placements.size());
+        assertNull(sched.schedule("SCHED_ID_2", "I26", spec).orElse(null));
+        sched.finaliseSession("SCHED_ID_1");
+        sched.finaliseSession("SCHED_ID_2");
+        assertEquals(25,
+                     sched.scheduleBatch("SCHED_ID_3",
+                                         IntStream.rangeClosed(26, 50).mapToObj(i -> "I" + i).toList(),
+                                         spec).size());
+    }
+}
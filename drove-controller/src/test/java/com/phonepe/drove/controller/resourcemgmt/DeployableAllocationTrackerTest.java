@@ -0,0 +1,175 @@
+/*
+ *  Copyright (c) 2024 Original Author(s), PhonePe India Pvt. Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.phonepe.drove.controller.resourcemgmt;
+
+import com.phonepe.drove.common.CommonTestUtils;
+import com.phonepe.drove.controller.ControllerTestBase;
+import com.phonepe.drove.controller.managed.LeadershipEnsurer;
+import com.phonepe.drove.controller.testsupport.InMemoryApplicationInstanceInfoDB;
+import com.phonepe.drove.controller.testsupport.InMemoryLocalServiceStateDB;
+import com.phonepe.drove.controller.testsupport.InMemoryTaskDB;
+import com.phonepe.drove.controller.utils.ControllerUtils;
+import com.phonepe.drove.models.instance.InstanceInfo;
+import com.phonepe.drove.models.instance.InstanceState;
+import com.phonepe.drove.models.taskinstance.TaskState;
+import io.appform.signals.signals.ConsumingSyncSignal;
+import lombok.SneakyThrows;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static com.phonepe.drove.controller.ControllerTestUtils.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ *
+ */
+class DeployableAllocationTrackerTest extends ControllerTestBase {
+
+    @Test
+    void testTrackingAllocations() {
+        val instanceDB = new InMemoryApplicationInstanceInfoDB();
+        val tracker = new DeployableAllocationTracker(instanceDB,
+                                                      new InMemoryTaskDB(),
+                                                      new InMemoryLocalServiceStateDB());
+        val spec = appSpec();
+        val appId = ControllerUtils.deployableObjectId(spec);
+        val instances = IntStream.rangeClosed(1, 3)
+                .mapToObj(i -> generateInstanceInfo(appId, spec, i))
+                .toList();
+        instances.forEach(instance -> instanceDB.updateInstanceState(appId, instance.getInstanceId(), instance));
+
+        //Loaded from DB on first access
+        val loaded = tracker.allocations(spec);
+        assertEquals(Map.of(EXECUTOR_ID, Set.of("AI-00001", "AI-00002", "AI-00003")), loaded);
+
+        //Updates are applied on a copy
+        tracker.update(generateInstanceInfo(appId, spec, 1, InstanceState.STOPPED, new Date(), null));
+        tracker.update(generateInstanceInfo(appId, spec, 4, InstanceState.PENDING, new Date(), null));
+        assertEquals(Map.of(EXECUTOR_ID, Set.of("AI-00002", "AI-00003", "AI-00004")), tracker.allocations(spec));
+        assertEquals(3, loaded.get(EXECUTOR_ID).size());
+        assertTrue(loaded.get(EXECUTOR_ID).contains("AI-00001"));
+
+        //Updates for deployables that are not loaded yet are ignored
+        val otherSpec = appSpec(2);
+        val otherAppId = ControllerUtils.deployableObjectId(otherSpec);
+        tracker.update(generateInstanceInfo(otherAppId, otherSpec, 1));
+        assertTrue(tracker.allocations(otherSpec).isEmpty());
+
+        tracker.removeExecutors(List.of(EXECUTOR_ID));
+        assertTrue(tracker.allocations(spec).isEmpty());
+    }
+
+    @Test
+    void testOutOfBandUpdates() {
+        val instanceDB = new InMemoryApplicationInstanceInfoDB();
+        val taskDB = new InMemoryTaskDB();
+        val leadershipChanged = new ConsumingSyncSignal<Boolean>();
+        val leadershipEnsurer = mock(LeadershipEnsurer.class);
+        when(leadershipEnsurer.onLeadershipStateChanged()).thenReturn(leadershipChanged);
+        val tracker = new DeployableAllocationTracker(instanceDB,
+                                                      taskDB,
+                                                      new InMemoryLocalServiceStateDB(),
+                                                      leadershipEnsurer);
+        val spec = appSpec();
+        val appId = ControllerUtils.deployableObjectId(spec);
+        IntStream.rangeClosed(1, 3)
+                .mapToObj(i -> generateInstanceInfo(appId, spec, i))
+                .forEach(instance -> instanceDB.updateInstanceState(appId, instance.getInstanceId(), instance));
+        assertEquals(Map.of(EXECUTOR_ID, Set.of("AI-00001", "AI-00002", "AI-00003")), tracker.allocations(spec));
+
+        //Bulk changes in the DB get picked up once the app is evicted
+        val lost = generateInstanceInfo(appId, spec, 1, InstanceState.LOST, new Date(), null);
+        instanceDB.updateInstanceState(appId, lost.getInstanceId(), lost);
+        assertEquals(3, tracker.allocations(spec).get(EXECUTOR_ID).size());
+        tracker.evictApplication(appId);
+        assertEquals(Map.of(EXECUTOR_ID, Set.of("AI-00002", "AI-00003")), tracker.allocations(spec));
+
+        //Everything is rebuilt on leadership change
+        val otherLost = generateInstanceInfo(appId, spec, 2, InstanceState.LOST, new Date(), null);
+        instanceDB.updateInstanceState(appId, otherLost.getInstanceId(), otherLost);
+        leadershipChanged.dispatch(true);
+        assertEquals(Map.of(EXECUTOR_ID, Set.of("AI-00003")), tracker.allocations(spec));
+
+        //Tasks that are not running any more are dropped irrespective of who wrote the state
+        val taskSpec = taskSpec();
+        val task = generateTaskInfo(taskSpec, 1);
+        taskDB.updateTask(taskSpec.getSourceAppName(), taskSpec.getTaskId(), task);
+        assertEquals(Map.of(EXECUTOR_ID, Set.of(task.getInstanceId())), tracker.allocations(taskSpec));
+        taskDB.updateTask(taskSpec.getSourceAppName(),
+                          taskSpec.getTaskId(),
+                          generateTaskInfo(taskSpec, 1, TaskState.LOST));
+        CommonTestUtils.waitUntil(() -> tracker.allocations(taskSpec).isEmpty());
+        assertTrue(tracker.allocations(taskSpec).isEmpty());
+    }
+
+    @Test
+    @SneakyThrows
+    void testUpdatesDuringLoad() {
+        val spec = appSpec();
+        val appId = ControllerUtils.deployableObjectId(spec);
+        val loadStarted = new CountDownLatch(1);
+        val loadAllowed = new CountDownLatch(1);
+        val instanceDB = new InMemoryApplicationInstanceInfoDB() {
+            @Override
+            @SneakyThrows
+            public Map<String, List<InstanceInfo>> instances(
+                    Collection<String> appIds,
+                    Set<InstanceState> validStates,
+                    boolean skipStaleCheck) {
+                if (appIds.contains(appId)) {
+                    loadStarted.countDown();
+                    assertTrue(loadAllowed.await(10, TimeUnit.SECONDS));
+                }
+                return super.instances(appIds, validStates, skipStaleCheck);
+            }
+        };
+        val tracker = new DeployableAllocationTracker(instanceDB,
+                                                      new InMemoryTaskDB(),
+                                                      new InMemoryLocalServiceStateDB());
+        val instance = generateInstanceInfo(appId, spec, 1);
+        instanceDB.updateInstanceState(appId, instance.getInstanceId(), instance);
+        val executor = Executors.newSingleThreadExecutor();
+        try {
+            val loaded = executor.submit(() -> tracker.allocations(spec));
+            assertTrue(loadStarted.await(10, TimeUnit.SECONDS));
+
+            //Other deployables are not blocked by the pending load
+            assertTrue(tracker.allocations(appSpec(2)).isEmpty());
+
+            //Updates received during the load are applied once it completes
+            tracker.update(generateInstanceInfo(appId, spec, 2, InstanceState.PENDING, new Date(), null));
+            loadAllowed.countDown();
+            assertEquals(Map.of(EXECUTOR_ID, Set.of("AI-00001", "AI-00002")), tracker.allocations(spec));
+            assertEquals(Map.of(EXECUTOR_ID, Set.of("AI-00001", "AI-00002")), loaded.get(10, TimeUnit.SECONDS));
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -20,6 +20,7 @@ import com.google.common.collect.Sets;
 import com.phonepe.drove.common.CommonTestUtils;
 import com.phonepe.drove.controller.ControllerTestBase;
 import com.phonepe.drove.controller.ControllerTestUtils;
+import com.phonepe.drove.controller.config.ControllerOptions;
 import com.phonepe.drove.models.application.requirements.CPURequirement;
 import com.phonepe.drove.models.application.requirements.MemoryRequirement;
 import com.phonepe.drove.models.info.ExecutorResourceSnapshot;
@@ -31,10 +32,15 @@ import com.phonepe.drove.models.info.resources.available.AvailableMemory;
 import lombok.val;
 import org.junit.jupiter.api.Test;
 
+import java.util.Date;
 import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -193,6 +199,45 @@ class InMemoryClusterResourcesDBTest extends ControllerTestBase {
                               .orElse(null));
     }
 
+    @Test
+    void testSnapshotUpdatesOnlyTouchChangedNumaNodes() {
+        val db = new InMemoryClusterResourcesDB();
+        val node = ControllerTestUtils.generateExecutorNode(1);
+        val executorId = node.getState().getExecutorId();
+        val layout = node.getState().getLayout();
+        db.update(List.of(node));
+        val original = db.currentSnapshot(executorId).orElseThrow();
+
+        //Same state reported again, numa node info is reused as is
+        db.update(List.of(node));
+        assertSame(original.getNodes().get(0), db.currentSnapshot(executorId).orElseThrow().getNodes().get(0));
+
+        //One core moves to in use, numa node is replaced and only the changed core is updated
+        db.update(new ExecutorResourceSnapshot(executorId,
+                                               new AvailableCPU(Map.of(0, Set.of(0, 1, 2, 3)),
+                                                                Map.of(0, Set.of(4))),
+                                               new AvailableMemory(Map.of(0, 5 * 512L), Map.of(0, 0L)),
+                                               layout));
+        val updated = db.currentSnapshot(executorId).orElseThrow().getNodes().get(0);
+        assertNotSame(original.getNodes().get(0), updated);
+        assertEquals(4, updated.getFreeCoreCount());
+        assertEquals(ExecutorHostInfo.CoreState.IN_USE, updated.coreState(4));
+        assertEquals(ExecutorHostInfo.CoreState.FREE, updated.coreState(0));
+        //Original info is left untouched
+        assertEquals(5, original.getNodes().get(0).getFreeCoreCount());
+
+        //Cores no longer reported at all become unknown
+        db.update(new ExecutorResourceSnapshot(executorId,
+                                               new AvailableCPU(Map.of(0, Set.of(0, 1)),
+                                                                Map.of(0, Set.of(4))),
+                                               new AvailableMemory(Map.of(0, 5 * 512L), Map.of(0, 0L)),
+                                               layout));
+        val shrunk = db.currentSnapshot(executorId).orElseThrow().getNodes().get(0);
+        assertEquals(2, shrunk.getFreeCoreCount());
+        assertEquals(ExecutorHostInfo.CoreState.UNKNOWN, shrunk.coreState(2));
+        assertEquals(3, shrunk.getTotalCoreCount());
+    }
+
     @Test
     void testBlacklisting() {
         val db = new InMemoryClusterResourcesDB();
@@ -282,6 +327,85 @@ class InMemoryClusterResourcesDBTest extends ControllerTestBase {
         }
     }
 
+    @Test
+    void testSoftLocksDoNotModifyPublishedSnapshots() {
+        val db = new InMemoryClusterResourcesDB();
+        val node = ControllerTestUtils.generateExecutorNode(1);
+        val executorId = node.getState().getExecutorId();
+        db.update(List.of(node));
+        val before = db.currentSnapshot(executorId).orElseThrow();
+        val beforeMemory = before.getNodes().get(0).getMemory().getAvailable();
+
+        val allocated = db.selectNodes(List.of(new CPURequirement(2), new MemoryRequirement(128)),
+                                       EnumSet.of(ExecutorState.ACTIVE),
+                                       allocatedNode -> true)
+                .orElseThrow();
+        //Objects handed out earlier are left untouched, the allocation is visible in a new view
+        assertEquals(5, freeCores(before));
+        assertEquals(beforeMemory, before.getNodes().get(0).getMemory().getAvailable());
+        val locked = db.currentSnapshot(executorId).orElseThrow();
+        assertNotSame(before, locked);
+        assertEquals(3, freeCores(locked));
+        assertEquals(beforeMemory - 128, locked.getNodes().get(0).getMemory().getAvailable());
+
+        db.deselectNode(executorId, allocated.getCpu(), allocated.getMemory());
+        assertEquals(3, freeCores(locked));
+        val unlocked = db.currentSnapshot(executorId).orElseThrow();
+        assertEquals(5, freeCores(unlocked));
+        assertEquals(beforeMemory, unlocked.getNodes().get(0).getMemory().getAvailable());
+
+        //Batch selection publishes all allocations together
+        val batch = db.selectNodes(List.of(new CPURequirement(1), new MemoryRequirement(128)),
+                                   EnumSet.of(ExecutorState.ACTIVE),
+                                   allocatedNode -> true,
+                                   allocatedNode -> {},
+                                   3);
+        assertEquals(3, batch.size());
+        assertEquals(5, freeCores(unlocked));
+        assertEquals(2, freeCores(db.currentSnapshot(executorId).orElseThrow()));
+
+        //Unknown executors are ignored
+        assertDoesNotThrow(() -> db.deselectNode("UNKNOWN", allocated.getCpu(), allocated.getMemory()));
+    }
+
+    @Test
+    void testTouch() {
+        val db = new InMemoryClusterResourcesDB();
+        val node = ControllerTestUtils.generateExecutorNode(1);
+        val executorId = node.getState().getExecutorId();
+        db.update(List.of(node));
+        assertNotNull(db.selectNodes(List.of(new CPURequirement(2), new MemoryRequirement(128)),
+                                     EnumSet.of(ExecutorState.ACTIVE),
+                                     allocatedNode -> true)
+                              .orElse(null));
+        val before = db.currentSnapshot(executorId).orElseThrow();
+        val freeCores = freeCores(before);
+
+        val touched = new ExecutorNodeData(node.getHostname(),
+                                           node.getPort(),
+                                           node.getTransportType(),
+                                           new Date(node.getUpdated().getTime() + 1_000),
+                                           node.getState(),
+                                           node.getInstances(),
+                                           node.getTasks(),
+                                           node.getServiceInstances(),
+                                           node.getTags(),
+                                           node.getMetadata(),
+                                           node.getExecutorState());
+        db.touch(List.of(touched));
+        val hostInfo = db.currentSnapshot(executorId).orElseThrow();
+        assertEquals(touched.getUpdated(), hostInfo.getNodeData().getUpdated());
+        //Previously published data is not modified
+        assertEquals(node.getUpdated(), before.getNodeData().getUpdated());
+        //Soft allocations are retained
+        assertEquals(freeCores, freeCores(hostInfo));
+
+        //Unknown executors get added
+        val other = ControllerTestUtils.generateExecutorNode(2);
+        db.touch(List.of(other));
+        assertTrue(db.currentSnapshot(other.getState().getExecutorId()).isPresent());
+    }
+
     @Test
     void testUpdatedSignal() {
         val db = new InMemoryClusterResourcesDB();
@@ -380,4 +504,187 @@ class InMemoryClusterResourcesDBTest extends ControllerTestBase {
                 .collect(Collectors.toUnmodifiableSet()));
     }
 
+    @Test
+    void testSelectionOnlyPicksNodesWithCapacity() {
+        val db = new InMemoryClusterResourcesDB();
+        db.update(IntStream.rangeClosed(1, 10)
+                          .mapToObj(ControllerTestUtils::generateExecutorNode)
+                          .toList());
+        //Each executor has 5 free cores on numa node 0, so each allocation needs to land on a different executor
+        val allocated = IntStream.rangeClosed(1, 10)
+                .mapToObj(i -> db.selectNodes(List.of(new CPURequirement(4), new MemoryRequirement(128)),
+                                              EnumSet.of(ExecutorState.ACTIVE),
+                                              node -> true)
+                        .orElse(null))
+                .toList();
+        assertTrue(allocated.stream().allMatch(Objects::nonNull));
+        assertEquals(10, allocated.stream().map(AllocatedExecutorNode::getExecutorId).distinct().count());
+        assertNull(db.selectNodes(List.of(new CPURequirement(4), new MemoryRequirement(128)),
+                                  EnumSet.of(ExecutorState.ACTIVE),
+                                  node -> true)
+                           .orElse(null));
+        //Leftover single core on every executor can still be allocated
+        assertNotNull(db.selectNodes(List.of(new CPURequirement(1), new MemoryRequirement(128)),
+                                     EnumSet.of(ExecutorState.ACTIVE),
+                                     node -> true)
+                              .orElse(null));
+
+        //Freeing up resources makes the executor eligible again
+        val freed = allocated.get(0);
+        db.deselectNode(freed.getExecutorId(), freed.getCpu(), freed.getMemory());
+        assertEquals(freed.getExecutorId(),
+                     db.selectNodes(List.of(new CPURequirement(4), new MemoryRequirement(128)),
+                                    EnumSet.of(ExecutorState.ACTIVE),
+                                    node -> true)
+                             .map(AllocatedExecutorNode::getExecutorId)
+                             .orElse(null));
+
+        //Removed executors are never selected
+        db.remove(List.of(freed.getExecutorId()));
+        db.deselectNode(allocated.get(1).getExecutorId(), allocated.get(1).getCpu(), allocated.get(1).getMemory());
+        assertEquals(allocated.get(1).getExecutorId(),
+                     db.selectNodes(List.of(new CPURequirement(4), new MemoryRequirement(128)),
+                                    EnumSet.of(ExecutorState.ACTIVE),
+                                    node -> true)
+                             .map(AllocatedExecutorNode::getExecutorId)
+                             .orElse(null));
+    }
+
+    @Test
+    void testBestFitPacksExecutors() {
+        val db = new InMemoryClusterResourcesDB(ControllerOptions.DEFAULT.withNodeSelectionStrategy(
+                NodeSelectionStrategyType.BEST_FIT));
+        assertEquals(NodeSelectionStrategyType.BEST_FIT, db.selectionStrategyType());
+        db.update(IntStream.rangeClosed(1, 5)
+                          .mapToObj(ControllerTestUtils::generateExecutorNode)
+                          .toList());
+        val first = db.selectNodes(List.of(new CPURequirement(1), new MemoryRequirement(128)),
+                                   EnumSet.of(ExecutorState.ACTIVE),
+                                   node -> true)
+                .orElseThrow();
+        //Executor with least leftover gets picked till it is full
+        IntStream.range(0, 4)
+                .forEach(i -> assertEquals(first.getExecutorId(),
+                                           db.selectNodes(List.of(new CPURequirement(1),
+                                                                  new MemoryRequirement(128)),
+                                                          EnumSet.of(ExecutorState.ACTIVE),
+                                                          node -> true)
+                                                   .map(AllocatedExecutorNode::getExecutorId)
+                                                   .orElse(null)));
+        assertNotEquals(first.getExecutorId(),
+                        db.selectNodes(List.of(new CPURequirement(1), new MemoryRequirement(128)),
+                                       EnumSet.of(ExecutorState.ACTIVE),
+                                       node -> true)
+                                .map(AllocatedExecutorNode::getExecutorId)
+                                .orElse(null));
+    }
+
+    @Test
+    void testBestFitComparesLeftoverOfSameNumaNode() {
+        //Tightest core fit and tightest memory fit are on different NUMA nodes of this executor
+        val split = new ExecutorHostInfo("E1", null, Map.of(0, numaNode(2, 10_000), 1, numaNode(9, 130)));
+        val packed = new ExecutorHostInfo("E2", null, Map.of(0, numaNode(2, 200)));
+        assertEquals(List.of("E2", "E1"),
+                     new BestFitNodeSelectionStrategy()
+                             .order(List.of(split, packed), 1, 128)
+                             .stream()
+                             .map(ExecutorHostInfo::getExecutorId)
+                             .toList());
+    }
+
+    @Test
+    void testLeastLoadedSpreadsInstances() {
+        val db = new InMemoryClusterResourcesDB(ControllerOptions.DEFAULT.withNodeSelectionStrategy(
+                NodeSelectionStrategyType.LEAST_LOADED));
+        db.update(IntStream.rangeClosed(1, 5)
+                          .mapToObj(ControllerTestUtils::generateExecutorNode)
+                          .toList());
+        val selected = db.selectNodes(List.of(new CPURequirement(1), new MemoryRequirement(128)),
+                                      EnumSet.of(ExecutorState.ACTIVE),
+                                      node -> true,
+                                      node -> {},
+                                      10);
+        assertEquals(10, selected.size());
+        //Every executor gets exactly two instances
+        assertEquals(Set.of(2L),
+                     Set.copyOf(selected.stream()
+                                        .collect(Collectors.groupingBy(AllocatedExecutorNode::getExecutorId,
+                                                                       Collectors.counting()))
+                                        .values()));
+    }
+
+    @Test
+    void testPowerOfTwoChoicesAllocatesAll() {
+        val db = new InMemoryClusterResourcesDB(NodeSelectionStrategyType.POWER_OF_TWO_CHOICES.createStrategy());
+        db.update(IntStream.rangeClosed(1, 5)
+                          .mapToObj(ControllerTestUtils::generateExecutorNode)
+                          .toList());
+        val selected = db.selectNodes(List.of(new CPURequirement(1), new MemoryRequirement(128)),
+                                      EnumSet.of(ExecutorState.ACTIVE),
+                                      node -> true,
+                                      node -> {},
+                                      30);
+        assertEquals(25, selected.size());
+    }
+
+    @Test
+    void testPowerOfTwoChoicesOrderIsPermutation() {
+        val strategy = NodeSelectionStrategyType.POWER_OF_TWO_CHOICES.createStrategy();
+        IntStream.rangeClosed(0, 6)
+                .forEach(count -> {
+                    val candidates = IntStream.range(0, count)
+                            .mapToObj(i -> ControllerTestUtils.executorHost(i, 8080 + i, List.of(), List.of(), List.of()))
+                            .toList();
+                    IntStream.range(0, 50)
+                            .forEach(i -> {
+                                val ordered = strategy.order(candidates, 1, 128);
+                                assertEquals(count, ordered.size());
+                                assertEquals(Set.copyOf(candidates), Set.copyOf(ordered));
+                            });
+                });
+    }
+
+    @Test
+    void testReadsDoNotBlockOnSelection() {
+        val db = new InMemoryClusterResourcesDB();
+        db.update(IntStream.rangeClosed(1, 5)
+                          .mapToObj(ControllerTestUtils::generateExecutorNode)
+                          .toList());
+        val readsCompleted = new AtomicBoolean();
+        //Filter gets called with the write lock held
+        val selected = db.selectNodes(List.of(new CPURequirement(1), new MemoryRequirement(128)),
+                                      EnumSet.of(ExecutorState.ACTIVE),
+                                      node -> {
+                                          val reads = CompletableFuture.supplyAsync(
+                                                  () -> db.executorCount(true) == 5
+                                                          && db.currentSnapshot(false).size() == 5
+                                                          && db.isActive(node.getExecutorId())
+                                                          && !db.isBlacklisted(node.getExecutorId())
+                                                          && db.blacklistedNodes().isEmpty());
+                                          try {
+                                              readsCompleted.set(reads.get(5, TimeUnit.SECONDS));
+                                          }
+                                          catch (Exception e) {
+                                              readsCompleted.set(false);
+                                          }
+                                          return true;
+                                      });
+        assertTrue(selected.isPresent());
+        assertTrue(readsCompleted.get());
+    }
+
+    private static int freeCores(ExecutorHostInfo hostInfo) {
+        return hostInfo.getNodes()
+                .values()
+                .stream()
+                .mapToInt(ExecutorHostInfo.NumaNodeInfo::getFreeCoreCount)
+                .sum();
+    }
+
+    private static ExecutorHostInfo.NumaNodeInfo numaNode(int freeCores, long availableMemory) {
+        val node = new ExecutorHostInfo.NumaNodeInfo();
+        node.setCoreStates(IntStream.range(0, freeCores).boxed().toList(), ExecutorHostInfo.CoreState.FREE);
+        node.getMemory().setAvailable(availableMemory);
+        return node;
+    }
 }
@@ -0,0 +1,176 @@
+/*
+ *  Copyright (c) 2024 Original Author(s), PhonePe India Pvt. Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.phonepe.drove.controller.resourcemgmt;
+
+import lombok.SneakyThrows;
+import lombok.val;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Compares the bitmask based {@link ExecutorHostInfo.NumaNodeInfo} with the older map based core tracking.
+ * Run using the main method from the IDE or from the test classpath.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NumaCoreAllocationBenchmark {
+
+    private static final int REQUIRED_CORES = 8;
+
+    @Param({"128", "256"})
+    private int coresPerHost;
+
+    private Set<Integer> freeCores;
+    private Set<Integer> usedCores;
+    private Set<Integer> changedFreeCores;
+    private Set<Integer> changedUsedCores;
+    private BitSet reportedFree;
+    private BitSet reportedInUse;
+    private BitSet changedFree;
+    private BitSet changedInUse;
+    private Map<Integer, ExecutorHostInfo.CoreState> mapNode;
+    private ExecutorHostInfo.NumaNodeInfo bitsetNode;
+
+    @Setup
+    public void setup() {
+        //Half the cores are in use, rest are free
+        freeCores = IntStream.range(0, coresPerHost)
+                .filter(i -> i % 2 == 0)
+                .boxed()
+                .collect(Collectors.toUnmodifiableSet());
+        usedCores = IntStream.range(0, coresPerHost)
+                .filter(i -> i % 2 != 0)
+                .boxed()
+                .collect(Collectors.toUnmodifiableSet());
+        //Next report has an instance started on the lowest free cores
+        val started = freeCores.stream().sorted().limit(REQUIRED_CORES).collect(Collectors.toUnmodifiableSet());
+        changedFreeCores = freeCores.stream()
+                .filter(coreId -> !started.contains(coreId))
+                .collect(Collectors.toUnmodifiableSet());
+        changedUsedCores = Stream.concat(usedCores.stream(), started.stream())
+                .collect(Collectors.toUnmodifiableSet());
+        reportedFree = toMask(freeCores);
+        reportedInUse = toMask(usedCores);
+        changedFree = toMask(changedFreeCores);
+        changedInUse = toMask(changedUsedCores);
+        mapNode = toMap(freeCores, usedCores);
+        bitsetNode = toBitset(freeCores, usedCores);
+    }
+
+    @Benchmark
+    public long freeCoreCountMap() {
+        return mapNode.entrySet()
+                .stream()
+                .filter(e -> e.getValue().equals(ExecutorHostInfo.CoreState.FREE))
+                .count();
+    }
+
+    @Benchmark
+    public long freeCoreCountBitset() {
+        return bitsetNode.getFreeCoreCount();
+    }
+
+    @Benchmark
+    public void allocateAndReleaseMap(Blackhole blackhole) {
+        val allocated = mapNode.entrySet()
+                .stream()
+                .filter(entry -> entry.getValue().equals(ExecutorHostInfo.CoreState.FREE))
+                .map(Map.Entry::getKey)
+                .limit(REQUIRED_CORES)
+                .collect(Collectors.toUnmodifiableSet());
+        allocated.forEach(coreId -> mapNode.put(coreId, ExecutorHostInfo.CoreState.ALLOCATED));
+        allocated.forEach(coreId -> mapNode.put(coreId, ExecutorHostInfo.CoreState.FREE));
+        blackhole.consume(allocated);
+    }
+
+    @Benchmark
+    public void allocateAndReleaseBitset(Blackhole blackhole) {
+        val allocated = bitsetNode.selectFreeCores(REQUIRED_CORES);
+        bitsetNode.setCoreStates(allocated, ExecutorHostInfo.CoreState.ALLOCATED);
+        bitsetNode.setCoreStates(allocated, ExecutorHostInfo.CoreState.FREE);
+        blackhole.consume(allocated);
+    }
+
+    /**
+     * Map based tracking rebuilt the core states from every report. Two reports are applied so that the state is back
+     * to where it started, same as {@link #applyReportedCoresBitset()}.
+     */
+    @Benchmark
+    public void applyReportedCoresMap(Blackhole blackhole) {
+        blackhole.consume(toMap(changedFreeCores, changedUsedCores));
+        blackhole.consume(toMap(freeCores, usedCores));
+    }
+
+    @Benchmark
+    public ExecutorHostInfo.NumaNodeInfo applyReportedCoresBitset() {
+        bitsetNode.applyReportedCores(changedFree, changedInUse);
+        bitsetNode.applyReportedCores(reportedFree, reportedInUse);
+        return bitsetNode;
+    }
+
+    @Benchmark
+    public ExecutorHostInfo.NumaNodeInfo applyUnchangedReportBitset() {
+        bitsetNode.applyReportedCores(reportedFree, reportedInUse);
+        return bitsetNode;
+    }
+
+    private static Map<Integer, ExecutorHostInfo.CoreState> toMap(Set<Integer> free, Set<Integer> used) {
+        val cores = new HashMap<Integer, ExecutorHostInfo.CoreState>();
+        free.forEach(i -> cores.compute(i,
+                                        (core, state) -> state != ExecutorHostInfo.CoreState.ALLOCATED
+                                                         ? ExecutorHostInfo.CoreState.FREE
+                                                         : state));
+        used.forEach(i -> cores.put(i, ExecutorHostInfo.CoreState.IN_USE));
+        return cores;
+    }
+
+    private static BitSet toMask(Set<Integer> cores) {
+        val mask = new BitSet();
+        cores.forEach(mask::set);
+        return mask;
+    }
+
+    private static ExecutorHostInfo.NumaNodeInfo toBitset(Set<Integer> free, Set<Integer> used) {
+        val node = new ExecutorHostInfo.NumaNodeInfo();
+        node.setCoreStates(free, ExecutorHostInfo.CoreState.FREE);
+        node.setCoreStates(used, ExecutorHostInfo.CoreState.IN_USE);
+        return node;
+    }
+
+    @SneakyThrows
+    public static void main(String[] args) {
+        new Runner(new OptionsBuilder()
+                           .include(NumaCoreAllocationBenchmark.class.getSimpleName())
+                           .build())
+                .run();
+    }
+}
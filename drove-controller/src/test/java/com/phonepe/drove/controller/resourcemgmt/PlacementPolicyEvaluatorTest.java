@@ -0,0 +1,87 @@
+/*
+ *  Copyright (c) 2024 Original Author(s), PhonePe India Pvt. Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.phonepe.drove.controller.resourcemgmt;
+
+import com.phonepe.drove.controller.rule.RuleEvaluator;
+import com.phonepe.drove.models.application.placement.policies.CompositePlacementPolicy;
+import com.phonepe.drove.models.application.placement.policies.MatchTagPlacementPolicy;
+import com.phonepe.drove.models.application.placement.policies.RuleBasedPlacementPolicy;
+import com.phonepe.drove.models.info.nodedata.ExecutorState;
+import com.phonepe.drove.models.info.nodedata.NodeTransportType;
+import com.phonepe.drove.models.operation.rule.RuleCallStatus;
+import com.phonepe.drove.models.operation.rule.RuleEvalResponse;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ *
+ */
+class PlacementPolicyEvaluatorTest {
+
+    @Test
+    void testCheapChecksShortCircuitAndRulesAreMemoised() {
+        val ruleEvaluator = mock(RuleEvaluator.class);
+        when(ruleEvaluator.evaluate(any(), any()))
+                .thenReturn(RuleEvalResponse.builder().status(RuleCallStatus.SUCCESS).result(true).build());
+        val rdb = mock(ClusterResourcesDB.class);
+        when(rdb.lastKnownSnapshot(anyString())).thenReturn(Optional.empty());
+        val sessionData = new SchedulingSessionData(Map.of());
+        val evaluator = new PlacementPolicyEvaluator(rdb, ruleEvaluator, sessionData);
+        //Rule is listed first, but the tag check is cheaper and needs to be evaluated first
+        val policy = new CompositePlacementPolicy(
+                List.of(new RuleBasedPlacementPolicy("true", RuleBasedPlacementPolicy.RuleType.MVEL),
+                        new MatchTagPlacementPolicy("test")),
+                CompositePlacementPolicy.CombinerType.AND);
+        val tagged = node("E1", Set.of("test"));
+        val untagged = node("E2", Set.of());
+
+        assertFalse(evaluator.test(policy, untagged, Map.of()));
+        verify(ruleEvaluator, never()).evaluate(any(), any());
+
+        assertTrue(evaluator.test(policy, tagged, Map.of()));
+        assertTrue(evaluator.test(policy, tagged, Map.of()));
+        verify(ruleEvaluator, times(1)).evaluate(any(), any());
+
+        //New executor in session changes the metadata visible to rules, so results need to be recomputed
+        sessionData.allocate(new InstanceResourceAllocation("E3", "I1", null, null));
+        assertTrue(evaluator.test(policy, tagged, Map.of()));
+        verify(ruleEvaluator, times(2)).evaluate(any(), any());
+        verify(rdb, times(1)).lastKnownSnapshot("E3");
+    }
+
+    private static AllocatedExecutorNode node(String executorId, Set<String> tags) {
+        return new AllocatedExecutorNode(executorId,
+                                         executorId + ".host",
+                                         3000,
+                                         NodeTransportType.HTTP,
+                                         null,
+                                         null,
+                                         tags,
+                                         Map.of(),
+                                         ExecutorState.ACTIVE);
+    }
+}
@@ -23,6 +23,9 @@ import com.phonepe.drove.controller.ControllerTestUtils;
 import com.phonepe.drove.controller.engine.ApplicationLifecycleManagementEngine;
 import com.phonepe.drove.controller.engine.LocalServiceLifecycleManagementEngine;
 import com.phonepe.drove.controller.engine.TaskEngine;
+import com.phonepe.drove.controller.event.EventFilter;
+import com.phonepe.drove.controller.event.EventStore;
+import com.phonepe.drove.controller.event.EventStreamer;
 import com.phonepe.drove.controller.rule.RuleEvaluator;
 import com.phonepe.drove.controller.statedb.ClusterStateDB;
 import com.phonepe.drove.controller.utils.ControllerUtils;
@@ -32,6 +35,7 @@ import com.phonepe.drove.models.application.ApplicationSpec;
 import com.phonepe.drove.models.application.ApplicationState;
 import com.phonepe.drove.models.common.ClusterState;
 import com.phonepe.drove.models.common.ClusterStateData;
+import com.phonepe.drove.models.events.DroveEventType;
 import com.phonepe.drove.models.events.events.DroveClusterMaintenanceModeSetEvent;
 import com.phonepe.drove.models.info.nodedata.ExecutorNodeData;
 import com.phonepe.drove.models.info.nodedata.ExecutorState;
@@ -95,9 +99,11 @@ class ApisTest {
     private static final ClusterStateDB clusterStateDB = mock(ClusterStateDB.class);
 
     private static final RuleEvaluator ruleEvaluator = mock(RuleEvaluator.class);
+    private static final EventStore eventStore = mock(EventStore.class);
 
     private static final ResourceExtension EXT = ResourceExtension.builder()
-            .addResource(new Apis(applicationEngine, taskEngine, localServiceEngine, responseEngine, clusterStateDB, ruleEvaluator))
+            .addResource(new Apis(applicationEngine, taskEngine, localServiceEngine, responseEngine, clusterStateDB, ruleEvaluator,
+                                  new EventStreamer(eventStore)))
             .setTestContainerFactory(new GrizzlyWebTestContainerFactory())
             .addProvider(new AuthDynamicFeature(
                     new DummyAuthFilter.Builder()
@@ -113,6 +119,7 @@ class ApisTest {
         reset(taskEngine);
         reset(responseEngine);
         reset(clusterStateDB);
+        reset(eventStore);
     }
 
     @Test
@@ -1082,6 +1089,65 @@ class ApisTest {
         assertEquals(ApiErrorCode.SUCCESS, r.getStatus());
     }
 
+    @Test
+    @SuppressWarnings("rawtypes")
+    void streamEvents() {
+        when(eventStore.epoch()).thenReturn(new EventStore.Epoch("E1", 0));
+        when(eventStore.readFrom(anyLong(), anyInt(), any()))
+                .thenReturn(new EventStore.EventBatch(
+                        List.of(new DroveClusterMaintenanceModeSetEvent(EventUtils.controllerMetadata())), 1));
+        val r = EXT.target("/v1/cluster/events/stream")
+                .queryParam("offset", 0)
+                .request()
+                .get(new GenericType<ApiResponse<Map<String, Object>>>() {
+                });
+        assertEquals(ApiErrorCode.SUCCESS, r.getStatus());
+        assertEquals(1, ((List) r.getData().get("events")).size());
+        assertEquals(1, ((Number) r.getData().get("nextOffset")).intValue());
+        assertEquals("E1", r.getData().get("epoch"));
+    }
+
+    @Test
+    @SuppressWarnings("rawtypes")
+    void queryEvents() {
+        val filter = new EventFilter(Set.of(DroveEventType.MAINTENANCE_MODE_SET),
+                                     Set.of("TEST_APP-1", "TEST_SERVICE-1"),
+                                     Map.of("CURRENT_STATE", "HEALTHY"));
+        when(responseEngine.queryEvents(10, "E1", 5, filter))
+                .thenReturn(ApiResponse.success(new DroveEventsBatch(
+                        List.of(new DroveClusterMaintenanceModeSetEvent(EventUtils.controllerMetadata())), 21, "E1")));
+        val r = EXT.target("/v1/cluster/events/query")
+                .queryParam("cursor", 10)
+                .queryParam("epoch", "E1")
+                .queryParam("size", 5)
+                .queryParam("type", "MAINTENANCE_MODE_SET")
+                .queryParam("appId", "TEST_APP-1")
+                .queryParam("serviceId", "TEST_SERVICE-1")
+                .queryParam("tag", "CURRENT_STATE:HEALTHY")
+                .request()
+                .get(new GenericType<ApiResponse<Map<String, Object>>>() {
+                });
+        assertEquals(ApiErrorCode.SUCCESS, r.getStatus());
+        assertEquals(1, ((List) r.getData().get("events")).size());
+        assertEquals(21, ((Number) r.getData().get("nextOffset")).intValue());
+        assertEquals("E1", r.getData().get("epoch"));
+    }
+
+    @Test
+    void streamEventsTimeout() {
+        when(eventStore.epoch()).thenReturn(new EventStore.Epoch("E1", 0));
+        when(eventStore.readFrom(anyLong(), anyInt(), any())).thenReturn(new EventStore.EventBatch(List.of(), 5));
+        val r = EXT.target("/v1/cluster/events/stream")
+                .queryParam("offset", 5)
+                .queryParam("waitMs", 100)
+                .request()
+                .get(new GenericType<ApiResponse<Map<String, Object>>>() {
+                });
+        assertEquals(ApiErrorCode.SUCCESS, r.getStatus());
+        assertTrue(((List<?>) r.getData().get("events")).isEmpty());
+        assertEquals(5, ((Number) r.getData().get("nextOffset")).intValue());
+    }
+
     @Test
     void endpoints() {
         val endpoints = IntStream.rangeClosed(1, 10)
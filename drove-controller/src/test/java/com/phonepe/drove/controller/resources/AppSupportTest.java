@@ -17,13 +17,20 @@
 package com.phonepe.drove.controller.resources;
 
 import com.phonepe.drove.auth.model.*;
+import com.phonepe.drove.controller.event.DroveEventBus;
+import com.phonepe.drove.controller.managed.LeadershipEnsurer;
 import com.phonepe.drove.controller.statedb.ApplicationInstanceInfoDB;
 import com.phonepe.drove.controller.statedb.ApplicationStateDB;
 import com.phonepe.drove.controller.utils.ControllerUtils;
 import com.phonepe.drove.models.api.ApiErrorCode;
+import com.phonepe.drove.models.api.ApiResponse;
 import com.phonepe.drove.models.application.ApplicationInfo;
+import com.phonepe.drove.models.events.events.DroveInstanceStateChangeEvent;
+import com.phonepe.drove.models.events.events.datatags.AppInstanceEventDataTag;
 import com.phonepe.drove.models.info.nodedata.NodeType;
 import com.phonepe.drove.models.instance.InstanceInfo;
+import com.phonepe.drove.models.instance.InstanceState;
+import io.appform.signals.signals.ConsumingSyncSignal;
 import lombok.val;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentMatchers;
@@ -32,14 +39,14 @@ import java.util.*;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
+import static com.phonepe.drove.common.CommonTestUtils.waitUntil;
 import static com.phonepe.drove.controller.ControllerTestUtils.appSpec;
 import static com.phonepe.drove.controller.ControllerTestUtils.generateInstanceInfo;
 import static com.phonepe.drove.models.instance.InstanceState.*;
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 /**
  *
@@ -63,9 +70,9 @@ class AppSupportTest {
         val aInfo = new ApplicationInfo(appId, spec, 5, new Date(), new Date());
         when(appDB.application(appId)).thenReturn(Optional.of(aInfo));
         when(appDB.applications(0, Integer.MAX_VALUE)).thenReturn(List.of(aInfo));
-        val as = new AppSupport(appDB, instanceInfoDB);
+        val as = appSupport(appDB, instanceInfoDB, new DroveEventBus());
         {
-            val r = as.siblingInstances(
+            val r = siblingInstances(as, 
                     new DroveApplicationInstance("test",
                                                  new DroveApplicationInstanceInfo(appId,
                                                                                   callingInstance.getInstanceId(),
@@ -76,7 +83,7 @@ class AppSupportTest {
             assertEquals(instances, r.getData());
         }
         {
-            val r = as.siblingInstances(
+            val r = siblingInstances(as, 
                     new DroveApplicationInstance("test",
                                                  new DroveApplicationInstanceInfo(appId,
                                                                                   callingInstance.getInstanceId(),
@@ -105,8 +112,8 @@ class AppSupportTest {
         val aInfo = new ApplicationInfo(appId, spec, 5, new Date(), new Date());
         when(appDB.application(appId)).thenReturn(Optional.of(aInfo));
         when(appDB.applications(0, Integer.MAX_VALUE)).thenReturn(List.of(aInfo));
-        val as = new AppSupport(appDB, instanceInfoDB);
-        val r = as.siblingInstances(
+        val as = appSupport(appDB, instanceInfoDB, new DroveEventBus());
+        val r = siblingInstances(as, 
                 new DroveApplicationInstance("test",
                                              new DroveApplicationInstanceInfo(appId,
                                                                               callingInstance.getInstanceId(),
@@ -134,9 +141,9 @@ class AppSupportTest {
         val aInfo = new ApplicationInfo(appId, spec, 5, new Date(), new Date());
         when(appDB.application(appId)).thenReturn(Optional.of(aInfo));
         when(appDB.applications(0, Integer.MAX_VALUE)).thenReturn(List.of(aInfo));
-        val as = new AppSupport(appDB, instanceInfoDB);
+        val as = appSupport(appDB, instanceInfoDB, new DroveEventBus());
         {
-            val r = as.siblingInstances(new DroveClusterNode("test-node", NodeType.EXECUTOR),
+            val r = siblingInstances(as, new DroveClusterNode("test-node", NodeType.EXECUTOR),
                                         Set.of(),
                                         false);
             assertEquals(ApiErrorCode.FAILED, r.getStatus());
@@ -144,7 +151,7 @@ class AppSupportTest {
                          r.getMessage());
         }
         {
-            val r = as.siblingInstances(
+            val r = siblingInstances(as, 
                     new DroveExternalUser("test-user", DroveUserRole.EXTERNAL_READ_ONLY, null),
                     Set.of(),
                     false);
@@ -171,9 +178,9 @@ class AppSupportTest {
         val aInfo = new ApplicationInfo(appId, spec, 5, new Date(), new Date());
         when(appDB.application(appId)).thenReturn(Optional.of(aInfo));
         when(appDB.applications(0, Integer.MAX_VALUE)).thenReturn(List.of(aInfo));
-        val as = new AppSupport(appDB, instanceInfoDB);
+        val as = appSupport(appDB, instanceInfoDB, new DroveEventBus());
         {
-            val r = as.siblingInstances(
+            val r = siblingInstances(as, 
                     new DroveApplicationInstance("test",
                                                  new DroveApplicationInstanceInfo("wrong-app",
                                                                                   callingInstance.getInstanceId(),
@@ -187,7 +194,7 @@ class AppSupportTest {
                          r.getMessage());
         }
         {
-            val r = as.siblingInstances(
+            val r = siblingInstances(as, 
                     new DroveApplicationInstance("test",
                                                  new DroveApplicationInstanceInfo(appId,
                                                                                   "wrong-instance",
@@ -201,7 +208,7 @@ class AppSupportTest {
                          r.getMessage());
         }
         {
-            val r = as.siblingInstances(
+            val r = siblingInstances(as, 
                     new DroveApplicationInstance("test",
                                                  new DroveApplicationInstanceInfo(appId,
                                                                                   callingInstance.getInstanceId(),
@@ -265,9 +272,9 @@ class AppSupportTest {
             return specs.stream().filter(appInfo -> appInfo.getAppId().equals(appId)).findFirst();
         });
         when(appDB.applications(0, Integer.MAX_VALUE)).thenReturn(specs);
-        val as = new AppSupport(appDB, instanceInfoDB);
+        val as = appSupport(appDB, instanceInfoDB, new DroveEventBus());
         {
-            val r = as.siblingInstances(
+            val r = siblingInstances(as, 
                     new DroveApplicationInstance("test",
                                                  new DroveApplicationInstanceInfo(callingInstance.getAppId(),
                                                                                   callingInstance.getInstanceId(),
@@ -278,7 +285,7 @@ class AppSupportTest {
             assertEquals(50, r.getData().size());
         }
         {
-            val r = as.siblingInstances(
+            val r = siblingInstances(as, 
                     new DroveApplicationInstance("test",
                                                  new DroveApplicationInstanceInfo(callingInstance.getAppId(),
                                                                                   callingInstance.getInstanceId(),
@@ -289,4 +296,83 @@ class AppSupportTest {
             assertEquals(5, r.getData().size());
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void testNotModified() {
+        val spec = appSpec();
+        val appId = ControllerUtils.deployableObjectId(spec);
+        val instanceInfoDB = mock(ApplicationInstanceInfoDB.class);
+        val callingInstance = generateInstanceInfo(appId, spec, 1);
+        when(instanceInfoDB.instance(appId, callingInstance.getInstanceId()))
+                .thenReturn(Optional.of(callingInstance));
+        val instances = IntStream.rangeClosed(1, 5)
+                .mapToObj(i -> generateInstanceInfo(appId, spec, i))
+                .toList();
+        when(instanceInfoDB.instances(Set.of(appId), RUNNING_STATES))
+                .thenReturn(Map.of(appId, instances));
+        val appDB = mock(ApplicationStateDB.class);
+        val eventBus = new DroveEventBus();
+        val view = siblingInstancesView(appDB, instanceInfoDB, eventBus);
+        val as = new AppSupport(instanceInfoDB, view);
+        val user = new DroveApplicationInstance("test",
+                                                new DroveApplicationInstanceInfo(appId,
+                                                                                 callingInstance.getInstanceId(),
+                                                                                 callingInstance.getExecutorId()));
+        val first = as.siblingInstances(user, Set.of(), false, null);
+        assertEquals(200, first.getStatus());
+        val etag = first.getEntityTag();
+        assertNotNull(etag);
+        assertEquals(304, as.siblingInstances(user, Set.of(), false, "\"" + etag.getValue() + "\"").getStatus());
+        assertEquals(304, as.siblingInstances(user, Set.of(), false, "W/\"" + etag.getValue() + "\"").getStatus());
+        assertEquals(304, as.siblingInstances(user, Set.of(), false, "\"xx\", *").getStatus());
+        assertEquals(200, as.siblingInstances(user, Set.of(), false, "\"xx\"").getStatus());
+
+        //Served from the view till something changes
+        verify(instanceInfoDB, times(1)).instances(Set.of(appId), RUNNING_STATES);
+
+        //Same membership, rebuilt view has the same version
+        eventBus.publish(new DroveInstanceStateChangeEvent(
+                Map.of(AppInstanceEventDataTag.APP_ID, appId,
+                       AppInstanceEventDataTag.APP_NAME, spec.getName())));
+        waitUntil(() -> view.viewCount() == 0);
+        assertEquals(304, as.siblingInstances(user, Set.of(), false, "\"" + etag.getValue() + "\"").getStatus());
+        verify(instanceInfoDB, times(2)).instances(Set.of(appId), RUNNING_STATES);
+
+        //Instance gone, version changes
+        when(instanceInfoDB.instances(Set.of(appId), RUNNING_STATES))
+                .thenReturn(Map.of(appId, instances.subList(0, 4)));
+        eventBus.publish(new DroveInstanceStateChangeEvent(
+                Map.of(AppInstanceEventDataTag.APP_ID, appId,
+                       AppInstanceEventDataTag.APP_NAME, spec.getName())));
+        waitUntil(() -> view.viewCount() == 0);
+        val changed = as.siblingInstances(user, Set.of(), false, "\"" + etag.getValue() + "\"");
+        assertEquals(200, changed.getStatus());
+        assertNotEquals(etag, changed.getEntityTag());
+        assertEquals(instances.subList(0, 4), ((ApiResponse<?>) changed.getEntity()).getData());
+    }
+
+    private static AppSupport appSupport(
+            ApplicationStateDB appDB,
+            ApplicationInstanceInfoDB instanceInfoDB,
+            DroveEventBus eventBus) {
+        return new AppSupport(instanceInfoDB, siblingInstancesView(appDB, instanceInfoDB, eventBus));
+    }
+
+    private static SiblingInstancesView siblingInstancesView(
+            ApplicationStateDB appDB,
+            ApplicationInstanceInfoDB instanceInfoDB,
+            DroveEventBus eventBus) {
+        val leadershipEnsurer = mock(LeadershipEnsurer.class);
+        when(leadershipEnsurer.onLeadershipStateChanged()).thenReturn(new ConsumingSyncSignal<>());
+        return new SiblingInstancesView(appDB, instanceInfoDB, eventBus, leadershipEnsurer);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ApiResponse<List<InstanceInfo>> siblingInstances(
+            AppSupport as,
+            DroveUser user,
+            Set<InstanceState> states,
+            boolean forApp) {
+        return (ApiResponse<List<InstanceInfo>>) as.siblingInstances(user, states, forApp, null).getEntity();
+    }
+}
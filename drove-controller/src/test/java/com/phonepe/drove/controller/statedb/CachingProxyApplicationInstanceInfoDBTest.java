@@ -25,10 +25,12 @@ import io.appform.signals.signals.ConsumingSyncSignal;
 import lombok.val;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.EnumSet;
 import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static com.phonepe.drove.common.CommonUtils.sublist;
 import static com.phonepe.drove.controller.ControllerTestUtils.appSpec;
@@ -36,8 +38,9 @@ import static com.phonepe.drove.controller.ControllerTestUtils.generateInstanceI
 import static com.phonepe.drove.controller.utils.ControllerUtils.deployableObjectId;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
 
 /**
  *
@@ -100,4 +103,65 @@ class CachingProxyApplicationInstanceInfoDBTest extends ControllerTestBase {
         }
 
     }
-}
\ No newline at end of file
+
+    @Test
+    void testWritesAreCoalescedAndFlushed() {
+        val leadershipEnsurer = mock(LeadershipEnsurer.class);
+        when(leadershipEnsurer.onLeadershipStateChanged()).thenReturn(new ConsumingSyncSignal<>());
+
+        val root = spy(new InMemoryApplicationInstanceInfoDB());
+        val db = new CachingProxyApplicationInstanceInfoDB(root, leadershipEnsurer, Duration.ofHours(1));
+        val spec = appSpec();
+        val appId = deployableObjectId(spec);
+
+        Stream.of(InstanceState.PENDING, InstanceState.STARTING, InstanceState.HEALTHY)
+                .map(state -> generateInstanceInfo(appId, spec, 1, state))
+                .forEach(ii -> db.updateInstanceState(appId, ii.getInstanceId(), ii));
+        val instanceId = generateInstanceInfo(appId, spec, 1).getInstanceId();
+        assertEquals(InstanceState.HEALTHY, db.instance(appId, instanceId).orElseThrow().getState());
+        assertEquals(1, db.instanceCount(appId, InstanceState.HEALTHY));
+        assertEquals(0, db.instanceCount(appId, InstanceState.STARTING));
+        assertTrue(root.instance(appId, instanceId).isEmpty());
+
+        db.flush();
+        verify(root, times(1)).updateInstanceState(eq(appId), eq(instanceId), any());
+        assertEquals(InstanceState.HEALTHY, root.instance(appId, instanceId).orElseThrow().getState());
+
+        //Update followed by delete results in only the delete reaching the store
+        val other = generateInstanceInfo(appId, spec, 2);
+        db.updateInstanceState(appId, other.getInstanceId(), other);
+        db.deleteInstanceState(appId, other.getInstanceId());
+        db.flush();
+        verify(root, never()).updateInstanceState(eq(appId), eq(other.getInstanceId()), any());
+        verify(root, times(1)).deleteInstanceState(appId, other.getInstanceId());
+        assertTrue(db.instance(appId, other.getInstanceId()).isEmpty());
+    }
+
+    @Test
+    void testPendingWritesFlushedOnStopAndDroppedOnLeadershipLoss() {
+        val leadershipSignal = new ConsumingSyncSignal<Boolean>();
+        val leadershipEnsurer = mock(LeadershipEnsurer.class);
+        when(leadershipEnsurer.onLeadershipStateChanged()).thenReturn(leadershipSignal);
+
+        val root = spy(new InMemoryApplicationInstanceInfoDB());
+        val db = new CachingProxyApplicationInstanceInfoDB(root, leadershipEnsurer, Duration.ofHours(1));
+        val spec = appSpec();
+        val appId = deployableObjectId(spec);
+
+        //Writes accepted before leadership is lost never reach the store
+        val lost = generateInstanceInfo(appId, spec, 1);
+        db.updateInstanceState(appId, lost.getInstanceId(), lost);
+        leadershipSignal.dispatch(false);
+        db.stop();
+        verify(root, never()).updateInstanceState(eq(appId), eq(lost.getInstanceId()), any());
+        assertTrue(root.instance(appId, lost.getInstanceId()).isEmpty());
+
+        //Writes accepted while leader are written out on stop
+        val db2 = new CachingProxyApplicationInstanceInfoDB(root, leadershipEnsurer, Duration.ofHours(1));
+        val flushed = generateInstanceInfo(appId, spec, 2);
+        db2.updateInstanceState(appId, flushed.getInstanceId(), flushed);
+        assertTrue(root.instance(appId, flushed.getInstanceId()).isEmpty());
+        db2.stop();
+        assertTrue(root.instance(appId, flushed.getInstanceId()).isPresent());
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ *  Copyright (c) 2024 Original Author(s), PhonePe India Pvt. Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.phonepe.drove.controller.statedb;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.phonepe.drove.common.CommonUtils;
+import com.phonepe.drove.common.zookeeper.ZkDataCodec;
+import com.phonepe.drove.common.zookeeper.ZkDataFormat;
+import com.phonepe.drove.controller.ControllerTestUtils;
+import com.phonepe.drove.models.info.nodedata.ExecutorNodeData;
+import com.phonepe.drove.models.info.nodedata.NodeData;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Compares payload size and encode/decode times of the {@link ZkDataFormat}s on executor node data with a realistic
+ * number of instances. Payload sizes get logged during setup.
+ * Run using the main method from the IDE or from the test classpath.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Slf4j
+public class ZkDataCodecBenchmark {
+
+    @Param({"JSON", "SMILE", "SMILE_LZ4"})
+    private ZkDataFormat format;
+
+    @Param({"16", "128"})
+    private int instancesPerExecutor;
+
+    private ZkDataCodec codec;
+    private ExecutorNodeData nodeData;
+    private byte[] encoded;
+
+    @Setup
+    @SneakyThrows
+    public void setup() {
+        val mapper = new ObjectMapper();
+        CommonUtils.configureMapper(mapper);
+        codec = new ZkDataCodec(mapper, format);
+        val spec = ControllerTestUtils.appSpec();
+        val node = ControllerTestUtils.generateExecutorNode(0);
+        nodeData = new ExecutorNodeData(node.getHostname(),
+                                        node.getPort(),
+                                        node.getTransportType(),
+                                        node.getUpdated(),
+                                        node.getState(),
+                                        IntStream.range(0, instancesPerExecutor)
+                                                .mapToObj(i -> ControllerTestUtils.generateInstanceInfo(
+                                                        "APP_" + (i % 8), spec, i))
+                                                .toList(),
+                                        node.getTasks(),
+                                        node.getServiceInstances(),
+                                        node.getTags(),
+                                        node.getMetadata(),
+                                        node.getExecutorState());
+        encoded = codec.encode(nodeData);
+        log.info("Format: {} Instances: {} Payload size: {} bytes", format, instancesPerExecutor, encoded.length);
+    }
+
+    @Benchmark
+    @SneakyThrows
+    public byte[] encode() {
+        return codec.encode(nodeData);
+    }
+
+    @Benchmark
+    @SneakyThrows
+    public NodeData decode() {
+        return codec.decode(encoded, NodeData.class);
+    }
+
+    @SneakyThrows
+    public static void main(String[] args) {
+        new Runner(new OptionsBuilder()
+                           .include(ZkDataCodecBenchmark.class.getSimpleName())
+                           .build())
+                .run();
+    }
+}
@@ -0,0 +1,31 @@
+/*
+ *  Copyright (c) 2024 Original Author(s), PhonePe India Pvt. Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.phonepe.drove.eventslistener;
+
+import com.phonepe.drove.models.events.DroveEvent;
+
+import java.util.List;
+
+/**
+ * Handles events received by {@link DroveRemoteEventListener}. Returning normally acknowledges the batch and allows
+ * the offset to move past it. If an exception is thrown, the same batch is retried after the poll interval.
+ */
+@FunctionalInterface
+@SuppressWarnings("rawtypes")
+public interface DroveEventBatchHandler {
+    void handle(final List<DroveEvent> events) throws Exception;
+}
@@ -0,0 +1,174 @@
+/*
+ *  Copyright (c) 2024 Original Author(s), PhonePe India Pvt. Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.phonepe.drove.eventslistener;
+
+import io.appform.signals.signals.ScheduledSignal;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Stores offset in a file so that it survives process restarts. Updates are kept in memory and written out
+ * periodically and on close. Each write goes to a temporary file that is synced to disk and then atomically renamed
+ * over the offset file, so the file always contains a complete offset. A crash loses at most one flush interval worth
+ * of updates, which means some events will be delivered again.
+ * The offset is written on the first line. If a stream position is known, its offset and epoch follow on the next two
+ * lines.
+ */
+@Slf4j
+public class DroveEventPollingOffsetFileStore implements DroveEventPollingOffsetStore, AutoCloseable {
+    private static final String FLUSHER_NAME = "OFFSET_FLUSHER";
+
+    private record StoredState(long offset, DroveEventStreamPosition position) {
+        static final StoredState EMPTY = new StoredState(0, null);
+
+        String serialize() {
+            if (null == position) {
+                return Long.toString(offset);
+            }
+            return offset + "\n" + position.getOffset() + "\n" + Objects.requireNonNullElse(position.getEpoch(), "");
+        }
+    }
+
+    private final Path path;
+    private final Path tempPath;
+    private final AtomicReference<StoredState> currentState;
+    private final AtomicReference<StoredState> flushedState;
+    private final ScheduledSignal flusher;
+
+    public DroveEventPollingOffsetFileStore(final Path path) {
+        this(path, Duration.ofSeconds(1));
+    }
+
+    /**
+     * Create the store
+     *
+     * @param path          File to store the offset in. Parent directories are created if needed.
+     * @param flushInterval Interval at which updated offsets are written to disk
+     */
+    public DroveEventPollingOffsetFileStore(final Path path, final Duration flushInterval) {
+        this.path = Objects.requireNonNull(path, "Please provide path for the offset file");
+        this.tempPath = path.resolveSibling(path.getFileName() + ".tmp");
+        this.currentState = new AtomicReference<>(read(path));
+        this.flushedState = new AtomicReference<>(currentState.get());
+        this.flusher = new ScheduledSignal(Objects.requireNonNullElse(flushInterval, Duration.ofSeconds(1)));
+        this.flusher.connect(FLUSHER_NAME, time -> flush());
+    }
+
+    @Override
+    public long getLastOffset() {
+        return currentState.get().offset();
+    }
+
+    @Override
+    public void setLastOffset(long offset) {
+        currentState.updateAndGet(state -> new StoredState(offset, state.position()));
+    }
+
+    @Override
+    public Optional<DroveEventStreamPosition> getLastPosition() {
+        return Optional.ofNullable(currentState.get().position());
+    }
+
+    @Override
+    public void setLastPosition(DroveEventStreamPosition position) {
+        currentState.updateAndGet(state -> new StoredState(state.offset(), position));
+    }
+
+    /**
+     * Write the current offset and position to disk if they have changed since the last flush
+     *
+     * @return true if the file is up-to-date with the current offset and position
+     */
+    public synchronized boolean flush() {
+        val state = currentState.get();
+        if (state.equals(flushedState.get())) {
+            return true;
+        }
+        try {
+            write(state);
+            flushedState.set(state);
+            return true;
+        }
+        catch (IOException e) {
+            log.error("Error writing offset to " + path + ". Will retry on next flush: " + e.getMessage(), e);
+            return false;
+        }
+    }
+
+    @Override
+    public void close() {
+        flusher.disconnect(FLUSHER_NAME);
+        flusher.close();
+        flush();
+    }
+
+    private void write(StoredState state) throws IOException {
+        val dir = path.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        try (val channel = FileChannel.open(tempPath,
+                                            StandardOpenOption.CREATE,
+                                            StandardOpenOption.WRITE,
+                                            StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(ByteBuffer.wrap(state.serialize().getBytes(StandardCharsets.UTF_8)));
+            channel.force(true);
+        }
+        Files.move(tempPath, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        syncDirectory(dir);
+    }
+
+    private static StoredState read(Path path) {
+        if (!Files.exists(path)) {
+            return StoredState.EMPTY;
+        }
+        try {
+            val lines = Files.readString(path, StandardCharsets.UTF_8).trim().split("\n", 3);
+            val offset = Long.parseLong(lines[0].trim());
+            if (lines.length < 2) {
+                return new StoredState(offset, null);
+            }
+            val epoch = lines.length > 2 && !lines[2].isBlank() ? lines[2].trim() : null;
+            return new StoredState(offset, new DroveEventStreamPosition(Long.parseLong(lines[1].trim()), epoch));
+        }
+        catch (IOException | NumberFormatException e) {
+            log.warn("Could not read offset from {}. Starting from 0: {}", path, e.getMessage());
+            return StoredState.EMPTY;
+        }
+    }
+
+    private static void syncDirectory(Path dir) {
+        //Makes the rename durable. Not supported on all platforms, the rename itself is still atomic.
+        try (val channel = FileChannel.open(dir, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+        catch (IOException e) {
+            log.debug("Could not sync directory {}: {}", dir, e.getMessage());
+        }
+    }
+}
@@ -16,13 +16,16 @@
 
 package com.phonepe.drove.eventslistener;
 
+import java.util.Optional;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Stores offset in memory. If process restarts, this will get reset to 0.
  */
 public class DroveEventPollingOffsetInMemoryStore implements DroveEventPollingOffsetStore {
     private final AtomicLong currentOffset = new AtomicLong();
+    private final AtomicReference<DroveEventStreamPosition> currentPosition = new AtomicReference<>();
 
     @Override
     public long getLastOffset() {
@@ -33,4 +36,14 @@ public class DroveEventPollingOffsetInMemoryStore implements DroveEventPollingOf
     public void setLastOffset(long offset) {
         currentOffset.set(offset);
     }
+
+    @Override
+    public Optional<DroveEventStreamPosition> getLastPosition() {
+        return Optional.ofNullable(currentPosition.get());
+    }
+
+    @Override
+    public void setLastPosition(DroveEventStreamPosition position) {
+        currentPosition.set(position);
+    }
 }
@@ -16,10 +16,24 @@
 
 package com.phonepe.drove.eventslistener;
 
+import java.util.Optional;
+
 /**
  * Stores and returns last polling offset.
  */
 public interface DroveEventPollingOffsetStore {
     long getLastOffset();
     void setLastOffset(long offset);
+
+    /**
+     * @return Position in the event log of the controller up to which events have been handled. If not available,
+     * the listener reads all events the controller has and skips the ones older than the last offset.
+     */
+    default Optional<DroveEventStreamPosition> getLastPosition() {
+        return Optional.empty();
+    }
+
+    default void setLastPosition(DroveEventStreamPosition position) {
+        //Not stored by default
+    }
 }
@@ -19,9 +19,13 @@ package com.phonepe.drove.eventslistener;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.phonepe.drove.client.DroveClient;
+import com.phonepe.drove.client.DroveClientConfig;
 import com.phonepe.drove.models.api.ApiErrorCode;
 import com.phonepe.drove.models.api.ApiResponse;
+import com.phonepe.drove.models.api.DroveEventsBatch;
+import com.phonepe.drove.models.api.DroveEventsList;
 import com.phonepe.drove.models.events.DroveEvent;
+import com.phonepe.drove.models.events.DroveEventType;
 import io.appform.signals.signals.ConsumingFireForgetSignal;
 import io.appform.signals.signals.ScheduledSignal;
 import lombok.Builder;
@@ -29,53 +33,196 @@ import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 
 import java.time.Duration;
-import java.time.Instant;
-import java.util.Date;
-import java.util.List;
-import java.util.Objects;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Streams remote events. Invokes signal with received events. Uses {@link DroveEventPollingOffsetStore} to store and
- * retrieve last sync time. Default poll is at 10 seconds interval and default storage is in-memory.
+ * retrieve last sync time and the position in the event log of the controller. Default poll is at 10 seconds interval
+ * and default storage is in-memory. Every poll pages forward through the events the controller has from the last
+ * position, so no events are missed if more events than fit in a page are generated between polls.
+ * In streaming mode, events are long-polled from the controller and are received within milliseconds of being
+ * generated. Each long-poll call waits for up to 30 seconds on the controller by default. The operation timeout of the
+ * {@link DroveClient} used for streaming needs to be longer than that, so pass a separate stream client with a
+ * suitable operation timeout if the main client uses a short one. Otherwise the wait time is reduced to fit the
+ * operation timeout, which increases the number of calls made to the controller.
+ * When streaming starts, events are read by paging forward from the last position before long-polling from there.
+ * If the position is not known or the controller has changed since (detected by a change in epoch), all events the
+ * controller has are read and the ones up to the last sync time are skipped. If streaming fails, it is retried after
+ * the poll interval. Controllers that do not support cursor based reads are polled for the latest events instead.
+ * Received events are put on a bounded queue and handed over to the signal and the {@link DroveEventBatchHandler}
+ * in batches from a separate thread. Polling stops while the queue is full. The stored offset is based on event times
+ * assigned by the controller. It is moved forward, along with the stored position, only after the handler has
+ * acknowledged the events, so events
+ * might be delivered more than once but are not lost across restarts when a durable offset store like
+ * {@link DroveEventPollingOffsetFileStore} is used.
  */
 @SuppressWarnings("rawtypes")
 @Slf4j
 public class DroveRemoteEventListener implements AutoCloseable {
     private static final String POLLER_NAME = "EVENT_POLLER";
+    private static final String LATEST_API = "/apis/v1/cluster/events/latest";
+    private static final String STREAM_API = "/apis/v1/cluster/events/stream";
+    private static final String QUERY_API = "/apis/v1/cluster/events/query";
+    private static final Duration MAX_STREAM_WAIT = Duration.ofSeconds(60);
+    //Same as the default wait time on the controller
+    private static final Duration DEFAULT_STREAM_WAIT = Duration.ofSeconds(30);
+    //Used by the native transport if no operation timeout is configured
+    private static final Duration DEFAULT_OPERATION_TIMEOUT = Duration.ofSeconds(1);
+    private static final int DEFAULT_BATCH_SIZE = 256;
+    private static final int DEFAULT_QUEUE_CAPACITY = 4096;
+
+    /**
+     * An event along with the offset that can be stored once it has been handled. Entries without an event only move
+     * the offset and the position forward.
+     */
+    private record PendingEvent(DroveEvent event, long offset, DroveEventStreamPosition position) {
+    }
 
     private final DroveClient droveClient;
+    private final DroveClient streamClient;
     private final ObjectMapper mapper;
     private final DroveEventPollingOffsetStore offsetStore;
+    private final Duration pollInterval;
+    private final boolean streaming;
+    private final Set<DroveEventType> eventTypes;
+    private final Duration streamWaitTime;
+    private final DroveEventBatchHandler eventHandler;
+    private final int batchSize;
 
     private final ConsumingFireForgetSignal<List<DroveEvent>> eventReceived = new ConsumingFireForgetSignal<>();
     private final ScheduledSignal checkForEventSignal;
+    private final ExecutorService streamExecutor;
+    private final ExecutorService dispatchExecutor = Executors.newSingleThreadExecutor();
+    private final BlockingQueue<PendingEvent> queue;
+    private final AtomicLong unacknowledgedEvents = new AtomicLong();
+    //Sync time up to which events have been received. The offset store lags behind this till events are handled.
+    private final AtomicLong syncTime = new AtomicLong();
+    //Position in the event log of the controller up to which events have been received. Null if not known.
+    private final AtomicReference<DroveEventStreamPosition> position = new AtomicReference<>();
+    private final AtomicBoolean running = new AtomicBoolean();
+    //Set if the controller does not support cursor based reads
+    private final AtomicBoolean queryApiMissing = new AtomicBoolean();
+    private volatile List<PendingEvent> inFlight = List.of();
 
+    public DroveRemoteEventListener(
+            final DroveClient droveClient,
+            final ObjectMapper mapper,
+            final DroveEventPollingOffsetStore offsetStore,
+            final Duration pollInterval) {
+        this(droveClient, mapper, offsetStore, pollInterval, false, null, null, null, 0, 0, null);
+    }
 
+    /**
+     * Create a listener
+     *
+     * @param droveClient    Client to make calls to the controller
+     * @param mapper         Object mapper
+     * @param offsetStore    Store for last sync time. Default is in-memory.
+     * @param pollInterval   Interval for polling. Default is 10 seconds. In streaming mode, this is the delay before
+     *                       streaming is retried after a failure. Failed handler calls are retried after this delay.
+     * @param streaming      Use long-poll based streaming instead of periodic polling
+     * @param eventTypes     Only events of these types are received. Default is all types.
+     * @param streamWaitTime Maximum time a single streaming call waits for events on the controller. Default is 30
+     *                       seconds. Reduced if the operation timeout of the stream client is not long enough.
+     * @param eventHandler   Handler that acknowledges events by returning normally. Offsets are stored only after
+     *                       this returns. Optional.
+     * @param batchSize      Maximum number of events passed to the signal and handler at a time. Also used as the
+     *                       page size when reading events from the controller. Default is 256.
+     * @param queueCapacity  Maximum number of received events waiting to be handled. Default is 4096.
+     * @param streamClient   Client used for long-poll calls in streaming mode. Should have an operation timeout
+     *                       longer than the stream wait time. Default is the drove client.
+     */
     @Builder
     public DroveRemoteEventListener(
             final DroveClient droveClient,
             final ObjectMapper mapper,
             final DroveEventPollingOffsetStore offsetStore,
-            final Duration pollInterval) {
+            final Duration pollInterval,
+            final boolean streaming,
+            final Set<DroveEventType> eventTypes,
+            final Duration streamWaitTime,
+            final DroveEventBatchHandler eventHandler,
+            final int batchSize,
+            final int queueCapacity,
+            final DroveClient streamClient) {
         this.droveClient = Objects.requireNonNull(droveClient, "Please provide drove client");
+        this.streamClient = Objects.requireNonNullElse(streamClient, droveClient);
         this.mapper = Objects.requireNonNull(mapper, "Please provide object mapper");
         this.offsetStore = Objects.requireNonNullElse(offsetStore, new DroveEventPollingOffsetInMemoryStore());
-        this.checkForEventSignal = new ScheduledSignal(Objects.requireNonNullElse(pollInterval, Duration.ofSeconds(10)));
+        this.pollInterval = Objects.requireNonNullElse(pollInterval, Duration.ofSeconds(10));
+        this.streaming = streaming;
+        this.eventTypes = null == eventTypes ? Set.of() : Set.copyOf(eventTypes);
+        this.streamWaitTime = streamWaitTime(Objects.requireNonNullElse(streamWaitTime, DEFAULT_STREAM_WAIT),
+                                             this.streamClient,
+                                             streaming);
+        this.eventHandler = eventHandler;
+        this.batchSize = batchSize > 0 ? batchSize : DEFAULT_BATCH_SIZE;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity > 0 ? queueCapacity : DEFAULT_QUEUE_CAPACITY);
+        this.checkForEventSignal = streaming ? null : new ScheduledSignal(this.pollInterval);
+        this.streamExecutor = streaming ? Executors.newSingleThreadExecutor() : null;
     }
 
     public ConsumingFireForgetSignal<List<DroveEvent>> onEventReceived() {
         return eventReceived;
     }
 
+    /**
+     * @return Number of events that have been received but not yet acknowledged
+     */
+    public long lagInEvents() {
+        return Math.max(0, unacknowledgedEvents.get());
+    }
+
+    /**
+     * @return Time in milliseconds since the oldest event that has not been acknowledged yet was generated. Zero if
+     * all received events have been acknowledged.
+     */
+    public long lagInMillis() {
+        return Stream.concat(inFlight.stream(), queue.stream())
+                .map(PendingEvent::event)
+                .filter(Objects::nonNull)
+                .findFirst()
+                .map(event -> Math.max(0, System.currentTimeMillis() - event.getTime().getTime()))
+                .orElse(0L);
+    }
+
     public void start() {
-        checkForEventSignal.connect(POLLER_NAME, this::checkForEvents);
+        running.set(true);
+        syncTime.set(offsetStore.getLastOffset());
+        position.set(offsetStore.getLastPosition().orElse(null));
+        dispatchExecutor.submit(this::dispatchEvents);
+        if (streaming) {
+            streamExecutor.submit(this::streamEvents);
+        }
+        else {
+            checkForEventSignal.connect(POLLER_NAME, this::checkForEvents);
+        }
     }
 
     private void checkForEvents(Date triggerTime) {
+        if (!queryApiMissing.get()) {
+            catchUp();
+        }
+        if (queryApiMissing.get()) {
+            pollLatest();
+        }
+    }
+
+    /**
+     * Used for controllers that do not support cursor based reads. Only the latest events are returned, so events
+     * might be missed if too many are generated between two polls.
+     */
+    private void pollLatest() {
         try {
             val request = new DroveClient.Request(DroveClient.Method.GET,
-                                                  "/apis/v1/cluster/events?lastSyncTime=" + offsetStore.getLastOffset());
-            val time = Instant.now();
+                                                  LATEST_API + "?lastSyncTime=" + syncTime.get()
+                                                          + typeParams());
             val response = droveClient.execute(request);
             if (null == response) {
                 log.warn("Received no response from drove");
@@ -83,18 +230,25 @@ public class DroveRemoteEventListener implements AutoCloseable {
             else {
                 if (response.statusCode() == 200) {
                     val apiResponse = mapper.readValue(response.body(),
-                                                       new TypeReference<ApiResponse<List<DroveEvent>>>() {
+                                                       new TypeReference<ApiResponse<DroveEventsList>>() {
                                                        });
 
                     if (apiResponse.getStatus().equals(ApiErrorCode.SUCCESS)) {
-                        val newEvents = Objects.<List<DroveEvent>>requireNonNullElse(apiResponse.getData(), List.of());
-                        if (!newEvents.isEmpty()) {
-                            eventReceived.dispatch(newEvents);
+                        val data = apiResponse.getData();
+                        if (null == data) {
+                            log.debug("No new event received from Drove");
+                            return;
                         }
-                        else {
+                        //Latest events are returned first
+                        val newEvents = new ArrayList<>(Objects.<List<DroveEvent>>requireNonNullElse(
+                                data.getEvents(), List.of()));
+                        Collections.reverse(newEvents);
+                        if (newEvents.isEmpty()) {
                             log.debug("No new event received from Drove");
                         }
-                        offsetStore.setLastOffset(time.toEpochMilli());
+                        if (enqueue(newEvents) && enqueue(new PendingEvent(null, data.getLastSyncTime(), null))) {
+                            syncTime.accumulateAndGet(data.getLastSyncTime(), Math::max);
+                        }
                         return;
                     }
                     log.error("Error reading event list. Error message: {}:{}",
@@ -107,9 +261,342 @@ public class DroveRemoteEventListener implements AutoCloseable {
         }
     }
 
+    private void streamEvents() {
+        var caughtUp = false;
+        while (running.get()) {
+            if (!caughtUp) {
+                //Read everything after the last position and continue streaming from where that ends
+                caughtUp = catchUp();
+                if (!caughtUp) {
+                    if (queryApiMissing.get()) {
+                        //Controller does not support cursor based reads, so at least get the latest events
+                        pollLatest();
+                    }
+                    log.warn("Event streaming failed. Will retry after {}", pollInterval);
+                    waitBeforeRetry();
+                }
+                continue;
+            }
+            val current = position.get();
+            val batch = readStream(current.getOffset(), current.getEpoch(), streamWaitTime).orElse(null);
+            if (null == batch) {
+                log.warn("Event streaming failed. Will retry after {}", pollInterval);
+                caughtUp = false;
+                waitBeforeRetry();
+                continue;
+            }
+            if (null != current.getEpoch() && !current.getEpoch().equals(batch.getEpoch())) {
+                log.info("Event epoch changed from {} to {}. Controller has probably changed. Resyncing.",
+                         current.getEpoch(), batch.getEpoch());
+                position.set(null);
+                caughtUp = false;
+                continue;
+            }
+            //Older controllers do not send the epoch
+            if (batch.getNextOffset() < current.getOffset()) {
+                log.info("Event offset moved back from {} to {}. Controller has probably changed. Resyncing.",
+                         current.getOffset(), batch.getNextOffset());
+                position.set(null);
+                caughtUp = false;
+                continue;
+            }
+            val newEvents = Objects.<List<DroveEvent>>requireNonNullElse(batch.getEvents(), List.of());
+            if (!enqueue(newEvents, new DroveEventStreamPosition(batch.getNextOffset(), batch.getEpoch()))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Page forward from the last position till the head of the stream is reached. If the position is not known, or
+     * belongs to an older epoch, all events the controller has are read and the ones up to the last sync time are
+     * skipped as they have been received already.
+     *
+     * @return true if the head of the stream has been reached
+     */
+    private boolean catchUp() {
+        val lastSyncTime = syncTime.get();
+        val start = position.get();
+        var rescan = null == start;
+        var cursor = rescan ? 0L : start.getOffset();
+        var epoch = rescan ? null : start.getEpoch();
+        var received = 0;
+        while (running.get()) {
+            val page = readEvents(droveClient, QUERY_API + "?cursor=" + cursor
+                    + "&size=" + batchSize
+                    + (null == epoch ? "" : "&epoch=" + epoch)
+                    + typeParams())
+                    .orElse(null);
+            if (null == page) {
+                return false;
+            }
+            if (null != epoch && !epoch.equals(page.getEpoch())) {
+                log.info("Event epoch changed from {} to {} while catching up. Reading all events after {}.",
+                         epoch, page.getEpoch(), lastSyncTime);
+                rescan = true;
+                cursor = 0;
+                epoch = null;
+                continue;
+            }
+            epoch = page.getEpoch();
+            val events = Objects.<List<DroveEvent>>requireNonNullElse(page.getEvents(), List.of());
+            val newEvents = rescan
+                            ? events.stream()
+                                    .filter(event -> event.getTime().getTime() > lastSyncTime)
+                                    .toList()
+                            : events;
+            if (!enqueue(newEvents, new DroveEventStreamPosition(page.getNextOffset(), epoch))) {
+                return false;
+            }
+            received += newEvents.size();
+            //A page that is not full ends at the head of the stream
+            if (events.size() < batchSize || page.getNextOffset() <= cursor) {
+                if (received > 0) {
+                    log.info("Caught up on {} events. Now at offset {}", received, page.getNextOffset());
+                }
+                return true;
+            }
+            cursor = page.getNextOffset();
+        }
+        return false;
+    }
+
+    private Optional<DroveEventsBatch> readStream(long offset, String epoch, Duration waitTime) {
+        return readEvents(streamClient, STREAM_API + "?offset=" + offset
+                + (null == epoch ? "" : "&epoch=" + epoch)
+                + "&waitMs=" + waitTime.toMillis()
+                + typeParams());
+    }
+
+    private Optional<DroveEventsBatch> readEvents(DroveClient client, String api) {
+        try {
+            val request = new DroveClient.Request(DroveClient.Method.GET, api);
+            val response = client.execute(request);
+            if (null == response) {
+                log.warn("Received no response from drove");
+                return Optional.empty();
+            }
+            if (response.statusCode() != 200) {
+                log.warn("Event read call failed with status {}", response.statusCode());
+                if (response.statusCode() == 404 && api.startsWith(QUERY_API)
+                        && !queryApiMissing.getAndSet(true)) {
+                    log.warn("Controller does not support cursor based reads. Falling back to polling latest events, "
+                                     + "events might be missed if too many are generated between polls.");
+                }
+                return Optional.empty();
+            }
+            val apiResponse = mapper.readValue(response.body(),
+                                               new TypeReference<ApiResponse<DroveEventsBatch>>() {
+                                               });
+            if (apiResponse.getStatus().equals(ApiErrorCode.SUCCESS) && null != apiResponse.getData()) {
+                return Optional.of(apiResponse.getData());
+            }
+            log.error("Error reading events. Error message: {}:{}",
+                      apiResponse.getStatus(), apiResponse.getMessage());
+        }
+        catch (Exception e) {
+            log.error("Error reading drove events: " + e.getMessage(), e);
+        }
+        return Optional.empty();
+    }
+
+    private String typeParams() {
+        return eventTypes.stream()
+                .map(type -> "&type=" + type.name())
+                .collect(Collectors.joining());
+    }
+
+    /**
+     * Queue events followed by the position they end at. The position gets stored once all of them are handled.
+     *
+     * @return false if the listener was stopped before everything could be queued
+     */
+    private boolean enqueue(List<DroveEvent> events, DroveEventStreamPosition next) {
+        if (!enqueue(events)) {
+            return false;
+        }
+        events.forEach(event -> syncTime.accumulateAndGet(event.getTime().getTime() - 1, Math::max));
+        position.set(next);
+        return enqueue(new PendingEvent(null, syncTime.get(), next));
+    }
+
+    /**
+     * Queue events in the order they were generated. Blocks while the queue is full.
+     *
+     * @return false if the listener was stopped before all events could be queued
+     */
+    private boolean enqueue(List<DroveEvent> events) {
+        for (val event : events) {
+            //Older controllers do not filter by type
+            if (!eventTypes.isEmpty() && !eventTypes.contains(event.getType())) {
+                continue;
+            }
+            //Other events generated in the same millisecond might not have been received yet, so the offset
+            //stays just before this event
+            if (!enqueue(new PendingEvent(event, event.getTime().getTime() - 1, null))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean enqueue(PendingEvent pendingEvent) {
+        val isEvent = null != pendingEvent.event();
+        if (isEvent) {
+            unacknowledgedEvents.incrementAndGet();
+        }
+        try {
+            while (running.get()) {
+                if (queue.offer(pendingEvent, 1, TimeUnit.SECONDS)) {
+                    return true;
+                }
+                log.debug("Event queue is full. Waiting for events to be handled");
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (isEvent) {
+            unacknowledgedEvents.decrementAndGet();
+        }
+        return false;
+    }
+
+    private void dispatchEvents() {
+        val batch = new ArrayList<PendingEvent>(batchSize);
+        while (running.get()) {
+            try {
+                val first = queue.poll(1, TimeUnit.SECONDS);
+                if (null == first) {
+                    continue;
+                }
+                batch.add(first);
+                fillBatch(batch);
+                inFlight = List.copyOf(batch);
+                val events = batch.stream()
+                        .map(PendingEvent::event)
+                        .filter(Objects::nonNull)
+                        .toList();
+                if (!deliver(events)) {
+                    return;
+                }
+                val offset = batch.stream().mapToLong(PendingEvent::offset).max().orElseThrow();
+                if (offset > offsetStore.getLastOffset()) {
+                    offsetStore.setLastOffset(offset);
+                }
+                batch.stream()
+                        .map(PendingEvent::position)
+                        .filter(Objects::nonNull)
+                        .reduce((previous, latest) -> latest)
+                        .ifPresent(offsetStore::setLastPosition);
+                unacknowledgedEvents.addAndGet(-events.size());
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            finally {
+                batch.clear();
+                inFlight = List.of();
+            }
+        }
+    }
+
+    /**
+     * Pass events to the signal and the handler. Handler calls are retried till they succeed.
+     *
+     * @return true if the events have been acknowledged
+     */
+    /**
+     * Events read in one call are followed by an entry without an event. Keep collecting till that is reached or the
+     * batch is full, so that the dispatcher does not hand over a partial read just because it woke up while the
+     * reader was still queueing it.
+     */
+    private void fillBatch(List<PendingEvent> batch) throws InterruptedException {
+        queue.drainTo(batch, batchSize - batch.size());
+        while (running.get() && batch.size() < batchSize && null != batch.get(batch.size() - 1).event()) {
+            val next = queue.poll(1, TimeUnit.SECONDS);
+            if (null != next) {
+                batch.add(next);
+                queue.drainTo(batch, batchSize - batch.size());
+            }
+        }
+    }
+
+    private boolean deliver(List<DroveEvent> events) {
+        if (events.isEmpty()) {
+            return true;
+        }
+        eventReceived.dispatch(events);
+        if (null == eventHandler) {
+            return true;
+        }
+        while (running.get()) {
+            try {
+                eventHandler.handle(events);
+                return true;
+            }
+            catch (Exception e) {
+                log.error("Error handling " + events.size() + " events. Will retry after " + pollInterval
+                                  + ": " + e.getMessage(), e);
+                waitBeforeRetry();
+            }
+        }
+        return false;
+    }
+
+    private void waitBeforeRetry() {
+        try {
+            Thread.sleep(pollInterval.toMillis());
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running.set(false);
+        }
+    }
+
+    private static Duration streamWaitTime(Duration requested, DroveClient streamClient, boolean streaming) {
+        val operationTimeout = Optional.ofNullable(streamClient.getClientConfig())
+                .map(DroveClientConfig::getOperationTimeout)
+                .orElse(DEFAULT_OPERATION_TIMEOUT);
+        //Leave some headroom for the network round trip
+        val maxWaitTime = operationTimeout.multipliedBy(4).dividedBy(5);
+        var waitTime = requested.compareTo(MAX_STREAM_WAIT) > 0 ? MAX_STREAM_WAIT : requested;
+        if (waitTime.compareTo(maxWaitTime) > 0) {
+            if (streaming) {
+                log.warn("Operation timeout {} of the stream client is too short for a stream wait time of {}. "
+                                 + "Wait time reduced to {}. Provide a stream client with a longer operation timeout "
+                                 + "to reduce calls to the controller.",
+                         operationTimeout, waitTime, maxWaitTime);
+            }
+            waitTime = maxWaitTime;
+        }
+        return waitTime;
+    }
+
     @Override
     public void close() {
-        checkForEventSignal.disconnect(POLLER_NAME);
-        checkForEventSignal.close();
+        running.set(false);
+        if (streaming) {
+            shutdown(streamExecutor, streamWaitTime.toMillis() + 1_000, "Event stream");
+        }
+        else {
+            checkForEventSignal.disconnect(POLLER_NAME);
+            checkForEventSignal.close();
+        }
+        //Events that have not been acknowledged yet will be received again after restart
+        shutdown(dispatchExecutor, 1_000, "Event dispatcher");
+    }
+
+    private static void shutdown(ExecutorService executorService, long waitMillis, String name) {
+        executorService.shutdownNow();
+        try {
+            if (!executorService.awaitTermination(waitMillis, TimeUnit.MILLISECONDS)) {
+                log.warn("{} did not shut down in time", name);
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
     }
 }
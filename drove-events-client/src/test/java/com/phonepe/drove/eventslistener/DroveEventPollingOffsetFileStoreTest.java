@@ -0,0 +1,95 @@
+/*
+ *  Copyright (c) 2024 Original Author(s), PhonePe India Pvt. Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.phonepe.drove.eventslistener;
+
+import lombok.val;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ */
+class DroveEventPollingOffsetFileStoreTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testPersistence() {
+        val path = dir.resolve("offsets/events.offset");
+        try (val store = new DroveEventPollingOffsetFileStore(path, Duration.ofMinutes(1))) {
+            assertEquals(0, store.getLastOffset());
+            store.setLastOffset(100);
+            assertEquals(100, store.getLastOffset());
+            assertFalse(Files.exists(path));
+            assertTrue(store.flush());
+            assertTrue(Files.exists(path));
+            assertFalse(Files.exists(dir.resolve("offsets/events.offset.tmp")));
+            store.setLastOffset(200);
+        }
+        //Pending update is written on close
+        try (val store = new DroveEventPollingOffsetFileStore(path)) {
+            assertEquals(200, store.getLastOffset());
+        }
+    }
+
+    @Test
+    void testPeriodicFlush() {
+        val path = dir.resolve("events.offset");
+        try (val store = new DroveEventPollingOffsetFileStore(path, Duration.ofMillis(100))) {
+            store.setLastOffset(42);
+            Awaitility.await()
+                    .atMost(Duration.ofSeconds(10))
+                    .until(() -> Files.exists(path) && Files.readString(path).equals("42"));
+        }
+    }
+
+    @Test
+    void testPositionPersistence() {
+        val path = dir.resolve("events.offset");
+        try (val store = new DroveEventPollingOffsetFileStore(path, Duration.ofMinutes(1))) {
+            assertTrue(store.getLastPosition().isEmpty());
+            store.setLastOffset(100);
+            store.setLastPosition(new DroveEventStreamPosition(20, "E1"));
+        }
+        try (val store = new DroveEventPollingOffsetFileStore(path, Duration.ofMinutes(1))) {
+            assertEquals(100, store.getLastOffset());
+            assertEquals(new DroveEventStreamPosition(20, "E1"), store.getLastPosition().orElse(null));
+            store.setLastPosition(new DroveEventStreamPosition(30, null));
+        }
+        try (val store = new DroveEventPollingOffsetFileStore(path)) {
+            assertEquals(100, store.getLastOffset());
+            assertEquals(new DroveEventStreamPosition(30, null), store.getLastPosition().orElse(null));
+        }
+    }
+
+    @Test
+    void testCorruptFile() throws Exception {
+        val path = dir.resolve("events.offset");
+        Files.writeString(path, "blah");
+        try (val store = new DroveEventPollingOffsetFileStore(path)) {
+            assertEquals(0, store.getLastOffset());
+        }
+    }
+}
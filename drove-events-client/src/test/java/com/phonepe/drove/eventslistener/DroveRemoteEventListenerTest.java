@@ -18,15 +18,18 @@ package com.phonepe.drove.eventslistener;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.MapperFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
 import com.github.tomakehurst.wiremock.junit5.WireMockRuntimeInfo;
 import com.github.tomakehurst.wiremock.junit5.WireMockTest;
 import com.phonepe.drove.client.DroveClient;
 import com.phonepe.drove.client.DroveClientConfig;
 import com.phonepe.drove.client.transport.basic.DroveHttpNativeTransport;
+import com.phonepe.drove.models.events.DroveEventType;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
@@ -40,12 +43,19 @@ import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -58,6 +68,7 @@ class DroveRemoteEventListenerTest {
     @Test
     @SneakyThrows
     void listenerTestSuccess(final WireMockRuntimeInfo wm) {
+        //Query api is not stubbed, so this behaves like a controller that does not support cursor based reads
         val clientConfig = new DroveClientConfig(List.of(wm.getHttpBaseUrl()),
                                                  Duration.ofSeconds(30),
                                                  Duration.ofSeconds(2),
@@ -65,7 +76,7 @@ class DroveRemoteEventListenerTest {
         val json = Files.readString(Paths.get(Objects.requireNonNull(
                 getClass().getClassLoader().getResource("events-response.json")).toURI()));
 
-        stubFor(get("/apis/v1/cluster/events?lastSyncTime=0").willReturn(ok(json)));
+        stubFor(get("/apis/v1/cluster/events/latest?lastSyncTime=0").willReturn(okJson(latestResponse(json))));
         val client = new DroveClient(clientConfig,
                                      List.of(), new DroveHttpNativeTransport(clientConfig));
         val mapper = new ObjectMapper();
@@ -282,4 +293,435 @@ class DroveRemoteEventListenerTest {
             }
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    @SneakyThrows
+    void testStreaming(final WireMockRuntimeInfo wm) {
+        val clientConfig = new DroveClientConfig(List.of(wm.getHttpBaseUrl()),
+                                                 Duration.ofSeconds(30),
+                                                 Duration.ofSeconds(2),
+                                                 Duration.ofSeconds(2));
+        val mapper = mapper();
+        val json = Files.readString(Paths.get(Objects.requireNonNull(
+                getClass().getClassLoader().getResource("events-response.json")).toURI()));
+        val events = mapper.readTree(json).get("data");
+
+        stubFor(get("/apis/v1/cluster/events/query?cursor=0&size=256")
+                        .willReturn(okJson(streamResponse(mapper, mapper.createArrayNode(), 0))));
+        stubFor(get("/apis/v1/cluster/events/stream?offset=0&waitMs=1600")
+                        .willReturn(okJson(streamResponse(mapper, events, events.size()))));
+        stubFor(get("/apis/v1/cluster/events/stream?offset=" + events.size() + "&waitMs=1600")
+                        .willReturn(okJson(streamResponse(mapper, mapper.createArrayNode(), events.size()))
+                                            .withFixedDelay(100)));
+        val client = new DroveClient(clientConfig,
+                                     List.of(), new DroveHttpNativeTransport(clientConfig));
+        val listener = DroveRemoteEventListener.builder()
+                .droveClient(client)
+                .mapper(mapper)
+                .streaming(true)
+                .build();
+        val ctr = new AtomicLong();
+        listener.onEventReceived().connect(received -> ctr.addAndGet(received.size()));
+
+        listener.start();
+
+        Awaitility.await()
+                .atMost(Duration.ofMinutes(1))
+                .until(() -> ctr.get() > 0);
+        assertEquals(33, ctr.get());
+        listener.close();
+    }
+
+    @Test
+    @SneakyThrows
+    void testStreamClientTimeout() {
+        val mapper = mapper();
+        val droveClient = mock(DroveClient.class);
+        when(droveClient.getClientConfig())
+                .thenReturn(new DroveClientConfig(List.of(), null, null, Duration.ofSeconds(1)));
+        when(droveClient.execute(ArgumentMatchers.any()))
+                .thenReturn(new DroveClient.Response(
+                        200, Map.of(), streamResponse(mapper, mapper.createArrayNode(), 0)));
+        val streamClient = mock(DroveClient.class);
+        when(streamClient.getClientConfig())
+                .thenReturn(new DroveClientConfig(List.of(), null, null, Duration.ofSeconds(45)));
+        val streamApis = new CopyOnWriteArrayList<String>();
+        when(streamClient.execute(ArgumentMatchers.any()))
+                .thenAnswer(invocationOnMock -> {
+                    final DroveClient.Request request = invocationOnMock.getArgument(0);
+                    streamApis.add(request.api());
+                    Thread.sleep(50);
+                    return new DroveClient.Response(
+                            200, Map.of(), streamResponse(mapper, mapper.createArrayNode(), 0));
+                });
+        val listener = DroveRemoteEventListener.builder()
+                .droveClient(droveClient)
+                .streamClient(streamClient)
+                .mapper(mapper)
+                .streaming(true)
+                .build();
+
+        listener.start();
+
+        //Long polls go to the stream client with the default controller side wait time
+        Awaitility.await()
+                .atMost(Duration.ofMinutes(1))
+                .until(() -> streamApis.stream().anyMatch(api -> api.contains("waitMs=30000")));
+        verify(droveClient, never()).execute(argThat(request -> request.api().contains("/stream")));
+        listener.close();
+    }
+
+    @Test
+    @SneakyThrows
+    void testStreamingResyncsOnEpochChange() {
+        val mapper = mapper();
+        val catchUps = new AtomicLong();
+        val resumedInNewEpoch = new AtomicBoolean();
+        val droveClient = mock(DroveClient.class);
+        when(droveClient.execute(ArgumentMatchers.any()))
+                .thenAnswer(invocationOnMock -> {
+                    final DroveClient.Request request = invocationOnMock.getArgument(0);
+                    val api = request.api();
+                    if (api.startsWith("/apis/v1/cluster/events/query")) {
+                        val epoch = catchUps.incrementAndGet() == 1 ? "E1" : "E2";
+                        return new DroveClient.Response(
+                                200, Map.of(), streamResponse(mapper, mapper.createArrayNode(), 10, epoch));
+                    }
+                    if (api.contains("epoch=E2")) {
+                        resumedInNewEpoch.set(true);
+                    }
+                    Thread.sleep(50);
+                    //Offset of the new epoch is lower than the one the client has
+                    return new DroveClient.Response(
+                            200, Map.of(), streamResponse(mapper, mapper.createArrayNode(), 2, "E2"));
+                });
+        val listener = DroveRemoteEventListener.builder()
+                .droveClient(droveClient)
+                .mapper(mapper)
+                .pollInterval(Duration.ofSeconds(1))
+                .streaming(true)
+                .build();
+
+        listener.start();
+
+        Awaitility.await()
+                .atMost(Duration.ofMinutes(1))
+                .until(resumedInNewEpoch::get);
+        assertEquals(2, catchUps.get());
+        listener.close();
+    }
+
+    @Test
+    @SneakyThrows
+    void testCatchUpPagesThroughEvents() {
+        val mapper = mapper();
+        val json = Files.readString(Paths.get(Objects.requireNonNull(
+                getClass().getClassLoader().getResource("events-response.json")).toURI()));
+        val events = (ArrayNode) mapper.readTree(json).get("data");
+        val pageSize = 10;
+        val cursors = new CopyOnWriteArrayList<Long>();
+        val streamCalls = new CopyOnWriteArrayList<String>();
+        val droveClient = mock(DroveClient.class);
+        when(droveClient.execute(ArgumentMatchers.any()))
+                .thenAnswer(invocationOnMock -> {
+                    final DroveClient.Request request = invocationOnMock.getArgument(0);
+                    val api = request.api();
+                    if (api.startsWith("/apis/v1/cluster/events/query")) {
+                        val cursor = Integer.parseInt(api.replaceAll(".*cursor=(\\d+).*", "$1"));
+                        cursors.add((long) cursor);
+                        val page = mapper.createArrayNode();
+                        IntStream.range(cursor, Math.min(cursor + pageSize, events.size()))
+                                .forEach(i -> page.add(events.get(i)));
+                        return new DroveClient.Response(
+                                200, Map.of(), streamResponse(mapper, page, cursor + page.size(), "E1"));
+                    }
+                    streamCalls.add(api);
+                    Thread.sleep(50);
+                    return new DroveClient.Response(
+                            200, Map.of(), streamResponse(mapper, mapper.createArrayNode(), events.size(), "E1"));
+                });
+        val listener = DroveRemoteEventListener.builder()
+                .droveClient(droveClient)
+                .mapper(mapper)
+                .streaming(true)
+                .batchSize(pageSize)
+                .build();
+        val ctr = new AtomicLong();
+        listener.onEventReceived().connect(received -> ctr.addAndGet(received.size()));
+
+        listener.start();
+
+        //More events than a single page are read, and streaming continues from the end of the last page
+        Awaitility.await()
+                .atMost(Duration.ofMinutes(1))
+                .until(() -> ctr.get() == events.size()
+                        && streamCalls.stream()
+                        .anyMatch(api -> api.startsWith("/apis/v1/cluster/events/stream?offset="
+                                                                + events.size() + "&epoch=E1")));
+        assertEquals(List.of(0L, 10L, 20L, 30L), cursors);
+        listener.close();
+    }
+
+    @Test
+    @SneakyThrows
+    void testStreamingFallback() {
+        val json = latestResponse(Files.readString(Paths.get(Objects.requireNonNull(
+                getClass().getClassLoader().getResource("events-response.json")).toURI())));
+        val droveClient = mock(DroveClient.class);
+        when(droveClient.execute(ArgumentMatchers.any()))
+                .thenAnswer(invocationOnMock -> {
+                    final DroveClient.Request request = invocationOnMock.getArgument(0);
+                    return request.api().startsWith("/apis/v1/cluster/events/stream")
+                           ? new DroveClient.Response(404, Map.of(), "")
+                           : new DroveClient.Response(200, Map.of(), json);
+                });
+        val listener = DroveRemoteEventListener.builder()
+                .droveClient(droveClient)
+                .mapper(mapper())
+                .pollInterval(Duration.ofSeconds(1))
+                .streaming(true)
+                .eventTypes(Set.of(DroveEventType.MAINTENANCE_MODE_SET))
+                .build();
+        val ctr = new AtomicLong();
+        listener.onEventReceived().connect(events -> {
+            events.forEach(event -> assertEquals(DroveEventType.MAINTENANCE_MODE_SET, event.getType()));
+            ctr.addAndGet(events.size());
+        });
+
+        listener.start();
+
+        Awaitility.await()
+                .atMost(Duration.ofMinutes(1))
+                .until(() -> ctr.get() > 0);
+        listener.close();
+    }
+
+    @Test
+    @SneakyThrows
+    void testAcknowledgement() {
+        val mapper = mapper();
+        val events = eventsJson(mapper);
+        val droveClient = pagingClient(mapper, events, new CopyOnWriteArrayList<>());
+        val offsetStore = new DroveEventPollingOffsetInMemoryStore();
+        val handled = new AtomicLong();
+        val failed = new AtomicBoolean();
+        val batchSizes = new CopyOnWriteArrayList<Integer>();
+        val committedOffsets = new CopyOnWriteArrayList<Long>();
+        val lastEventTime = new AtomicLong();
+        val listener = DroveRemoteEventListener.builder()
+                .droveClient(droveClient)
+                .mapper(mapper)
+                .offsetStore(offsetStore)
+                .pollInterval(Duration.ofSeconds(1))
+                .batchSize(10)
+                .eventHandler(received -> {
+                    if (!failed.getAndSet(true)) {
+                        throw new IllegalStateException("Test failure");
+                    }
+                    committedOffsets.add(offsetStore.getLastOffset());
+                    batchSizes.add(received.size());
+                    received.forEach(event -> lastEventTime.accumulateAndGet(event.getTime().getTime(), Math::max));
+                    handled.addAndGet(received.size());
+                })
+                .build();
+        listener.start();
+
+        Awaitility.await()
+                .atMost(Duration.ofMinutes(1))
+                .until(() -> handled.get() == 33 && listener.lagInEvents() == 0);
+        //Failed batch is redelivered, so every event is acknowledged exactly once
+        Awaitility.await()
+                .atMost(Duration.ofMinutes(1))
+                .until(() -> offsetStore.getLastPosition()
+                        .map(position -> position.equals(new DroveEventStreamPosition(events.size(), "E1")))
+                        .orElse(false));
+        assertEquals(lastEventTime.get() - 1, offsetStore.getLastOffset());
+        //Nothing is committed before the failed batch is acknowledged
+        assertEquals(0, committedOffsets.get(0));
+        assertTrue(batchSizes.stream().allMatch(size -> size <= 10));
+        assertEquals(0, listener.lagInEvents());
+        assertEquals(0, listener.lagInMillis());
+        listener.close();
+    }
+
+    @Test
+    @SneakyThrows
+    void testPollingPagesThroughEvents() {
+        val mapper = mapper();
+        val events = eventsJson(mapper);
+        val cursors = new CopyOnWriteArrayList<Long>();
+        val droveClient = pagingClient(mapper, events, cursors);
+        val listener = DroveRemoteEventListener.builder()
+                .droveClient(droveClient)
+                .mapper(mapper)
+                .pollInterval(Duration.ofSeconds(1))
+                .batchSize(10)
+                .build();
+        val ctr = new AtomicLong();
+        listener.onEventReceived().connect(received -> ctr.addAndGet(received.size()));
+
+        listener.start();
+
+        //More events than a single page are generated between polls, none of them are missed
+        Awaitility.await()
+                .atMost(Duration.ofMinutes(1))
+                .until(() -> cursors.size() > 4 && ctr.get() == events.size());
+        assertEquals(List.of(0L, 10L, 20L, 30L, (long) events.size()), cursors.subList(0, 5));
+        verify(droveClient, never()).execute(argThat(request -> request.api().contains("/latest")));
+        listener.close();
+    }
+
+    @Test
+    @SneakyThrows
+    void testResumeFromStoredPosition() {
+        val mapper = mapper();
+        val events = eventsJson(mapper);
+        val cursors = new CopyOnWriteArrayList<Long>();
+        val droveClient = pagingClient(mapper, events, cursors);
+        val offsetStore = new DroveEventPollingOffsetInMemoryStore();
+        offsetStore.setLastPosition(new DroveEventStreamPosition(20, "E1"));
+        val listener = DroveRemoteEventListener.builder()
+                .droveClient(droveClient)
+                .mapper(mapper)
+                .offsetStore(offsetStore)
+                .streaming(true)
+                .batchSize(10)
+                .build();
+        val ctr = new AtomicLong();
+        listener.onEventReceived().connect(received -> ctr.addAndGet(received.size()));
+
+        listener.start();
+
+        //Only the events after the stored position are read
+        Awaitility.await()
+                .atMost(Duration.ofMinutes(1))
+                .until(() -> ctr.get() == events.size() - 20);
+        assertEquals(List.of(20L, 30L), cursors);
+        verify(droveClient, atLeastOnce())
+                .execute(argThat(request -> request.api()
+                        .startsWith("/apis/v1/cluster/events/query?cursor=20&size=10&epoch=E1")));
+        listener.close();
+    }
+
+    @Test
+    @SneakyThrows
+    void testRescanOnStoredEpochChange() {
+        val mapper = mapper();
+        val events = eventsJson(mapper);
+        val cursors = new CopyOnWriteArrayList<Long>();
+        val droveClient = pagingClient(mapper, events, cursors);
+        val offsetStore = new DroveEventPollingOffsetInMemoryStore();
+        //Position from an older controller, events up to the last sync time have been received already.
+        //Some events are stamped with the time they are read at, so the sync time is kept ahead of all of them
+        offsetStore.setLastPosition(new DroveEventStreamPosition(100, "E0"));
+        offsetStore.setLastOffset(System.currentTimeMillis() + Duration.ofDays(1).toMillis());
+        val listener = DroveRemoteEventListener.builder()
+                .droveClient(droveClient)
+                .mapper(mapper)
+                .offsetStore(offsetStore)
+                .pollInterval(Duration.ofSeconds(1))
+                .batchSize(10)
+                .build();
+        val ctr = new AtomicLong();
+        listener.onEventReceived().connect(received -> ctr.addAndGet(received.size()));
+
+        listener.start();
+
+        Awaitility.await()
+                .atMost(Duration.ofMinutes(1))
+                .until(() -> offsetStore.getLastPosition()
+                        .map(position -> "E1".equals(position.getEpoch()))
+                        .orElse(false));
+        assertEquals(List.of(100L, 0L, 10L, 20L, 30L), cursors.subList(0, 5));
+        assertEquals(0, ctr.get());
+        listener.close();
+    }
+
+    /**
+     * Client that serves events in pages of the requested size through the query api, and empty long-polls
+     */
+    private static DroveClient pagingClient(ObjectMapper mapper, ArrayNode events, List<Long> cursors) {
+        val droveClient = mock(DroveClient.class);
+        when(droveClient.execute(ArgumentMatchers.any()))
+                .thenAnswer(invocationOnMock -> {
+                    final DroveClient.Request request = invocationOnMock.getArgument(0);
+                    val api = request.api();
+                    if (api.startsWith("/apis/v1/cluster/events/query")) {
+                        val cursor = Integer.parseInt(api.replaceAll(".*cursor=(\\d+).*", "$1"));
+                        cursors.add((long) cursor);
+                        if (!api.contains("epoch=") || api.contains("epoch=E1")) {
+                            val size = Integer.parseInt(api.replaceAll(".*size=(\\d+).*", "$1"));
+                            val page = mapper.createArrayNode();
+                            IntStream.range(cursor, Math.min(cursor + size, events.size()))
+                                    .forEach(i -> page.add(events.get(i)));
+                            return new DroveClient.Response(
+                                    200, Map.of(), streamResponse(mapper, page, cursor + page.size(), "E1"));
+                        }
+                        //Epoch has changed, start offset of the current epoch is returned
+                        return new DroveClient.Response(
+                                200, Map.of(), streamResponse(mapper, mapper.createArrayNode(), 0, "E1"));
+                    }
+                    Thread.sleep(50);
+                    return new DroveClient.Response(
+                            200, Map.of(), streamResponse(mapper, mapper.createArrayNode(), events.size(), "E1"));
+                });
+        return droveClient;
+    }
+
+    @SneakyThrows
+    private ArrayNode eventsJson(ObjectMapper mapper) {
+        val json = Files.readString(Paths.get(Objects.requireNonNull(
+                getClass().getClassLoader().getResource("events-response.json")).toURI()));
+        return (ArrayNode) mapper.readTree(json).get("data");
+    }
+
+    @SneakyThrows
+    private static String latestResponse(String eventsResponse) {
+        return latestResponse(eventsResponse, -1);
+    }
+
+    /**
+     * Converts a response of the old events api to a response of the latest events api
+     */
+    @SneakyThrows
+    private static String latestResponse(String eventsResponse, long lastSyncTime) {
+        val mapper = mapper();
+        val events = mapper.readTree(eventsResponse).get("data");
+        var syncTime = lastSyncTime;
+        for (val event : events) {
+            syncTime = Math.max(syncTime, event.get("time").asLong());
+        }
+        val response = mapper.createObjectNode();
+        response.put("status", "SUCCESS");
+        response.putObject("data")
+                .put("lastSyncTime", Math.max(syncTime, 0))
+                .set("events", events);
+        return mapper.writeValueAsString(response);
+    }
+
+    private static String streamResponse(ObjectMapper mapper, JsonNode events, long nextOffset) {
+        return streamResponse(mapper, events, nextOffset, null);
+    }
+
+    @SneakyThrows
+    private static String streamResponse(ObjectMapper mapper, JsonNode events, long nextOffset, String epoch) {
+        val response = mapper.createObjectNode();
+        response.put("status", "SUCCESS");
+        response.putObject("data")
+                .put("nextOffset", nextOffset)
+                .put("epoch", epoch)
+                .set("events", events);
+        return mapper.writeValueAsString(response);
+    }
+
+    private static ObjectMapper mapper() {
+        val mapper = new ObjectMapper();
+        mapper.registerModule(new ParameterNamesModule());
+        mapper.setSerializationInclusion(JsonInclude.Include.NON_EMPTY);
+        mapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        mapper.disable(SerializationFeature.FAIL_ON_EMPTY_BEANS);
+        mapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        mapper.enable(MapperFeature.ACCEPT_CASE_INSENSITIVE_ENUMS);
+        return mapper;
+    }
+}
@@ -17,6 +17,7 @@
 package com.phonepe.drove.executor;
 
 import com.phonepe.drove.auth.config.ClusterAuthenticationConfig;
+import com.phonepe.drove.common.net.ClusterMessagingConfig;
 import com.phonepe.drove.common.zookeeper.ZkConfig;
 import com.phonepe.drove.executor.discovery.ControllerConfig;
 import com.phonepe.drove.executor.dockerauth.DockerAuthConfig;
@@ -46,6 +47,9 @@ public class AppConfig extends Configuration {
     @Valid
     private ClusterAuthenticationConfig clusterAuth;
 
+    @Valid
+    private ClusterMessagingConfig clusterMessaging;
+
     @Valid
     private ExecutorOptions options;
 
@@ -36,8 +36,11 @@ import com.phonepe.drove.common.discovery.leadership.LeadershipObserver;
 import com.phonepe.drove.common.discovery.leadership.ZkLeadershipObserver;
 import com.phonepe.drove.common.model.ControllerMessageType;
 import com.phonepe.drove.common.model.controller.ControllerMessage;
+import com.phonepe.drove.common.net.ClusterMessagingClient;
+import com.phonepe.drove.common.net.ClusterMessagingConfig;
 import com.phonepe.drove.common.net.MessageSender;
 import com.phonepe.drove.common.zookeeper.ZkConfig;
+import com.phonepe.drove.common.zookeeper.ZkDataCodec;
 import com.phonepe.drove.executor.discovery.ControllerConfig;
 import com.phonepe.drove.executor.discovery.RemoteLeadershipObserver;
 import com.phonepe.drove.executor.discovery.RemoteNodeDataStore;
@@ -54,6 +57,7 @@ import com.phonepe.drove.executor.resourcemgmt.resourceloaders.NumaCtlBasedResou
 import com.phonepe.drove.executor.resourcemgmt.resourceloaders.OverProvisioningResourceLoader;
 import com.phonepe.drove.executor.resourcemgmt.resourceloaders.ResourceLoader;
 import com.phonepe.drove.executor.utils.ExecutorUtils;
+import io.dropwizard.lifecycle.AutoCloseableManager;
 import io.dropwizard.setup.Environment;
 import io.dropwizard.util.Duration;
 import lombok.AccessLevel;
@@ -242,6 +246,20 @@ public class ExecutorCoreModule extends AbstractModule {
         return Objects.requireNonNullElse(appConfig.getClusterAuth(), ClusterAuthenticationConfig.DEFAULT);
     }
 
+    @Provides
+    @Singleton
+    public ClusterMessagingClient clusterMessagingClient(
+            final AppConfig appConfig,
+            final MetricRegistry metricRegistry,
+            final Environment environment) {
+        val client = new ClusterMessagingClient(
+                Objects.requireNonNullElse(appConfig.getClusterMessaging(), ClusterMessagingConfig.DEFAULT),
+                metricRegistry);
+        //Registered ahead of the managed objects that send messages, so it gets stopped after them
+        environment.lifecycle().manage(new AutoCloseableManager(client));
+        return client;
+    }
+
     @Provides
     @Singleton
     public LogInfo logInfo(final AppConfig appConfig) {
@@ -272,15 +290,28 @@ public class ExecutorCoreModule extends AbstractModule {
     @Singleton
     public NodeDataStore nodeDataStore(
             final RemoteUpdateMode updateMode,
+            @Nullable final ZkConfig zkConfig,
+            @Nullable final ControllerConfig controllerConfig,
             @Nullable final CuratorFramework curatorFramework,
             final ObjectMapper mapper,
             final ExecutorCommunicator executorCommunicator) {
         return switch (updateMode) {
-            case STORE -> new ZkNodeDataStore(curatorFramework, mapper);
-            case RPC -> new RemoteNodeDataStore(executorCommunicator);
+            case STORE -> new ZkNodeDataStore(
+                    curatorFramework, new ZkDataCodec(mapper, Objects.requireNonNull(zkConfig).getDataFormat()));
+            case RPC -> remoteNodeDataStore(executorCommunicator, Objects.requireNonNull(controllerConfig));
         };
     }
 
+    private static RemoteNodeDataStore remoteNodeDataStore(
+            ExecutorCommunicator executorCommunicator,
+            ControllerConfig controllerConfig) {
+        val fullSnapshotInterval = Objects.requireNonNullElse(controllerConfig.getFullSnapshotInterval(),
+                                                              ControllerConfig.DEFAULT_FULL_SNAPSHOT_INTERVAL);
+        return new RemoteNodeDataStore(executorCommunicator,
+                                       controllerConfig.isDeltaUpdates(),
+                                       fullSnapshotInterval.toJavaDuration());
+    }
+
     @Provides
     @Singleton
     public LeadershipObserver leadershipObserver(
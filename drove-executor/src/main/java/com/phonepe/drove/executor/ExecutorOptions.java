@@ -55,6 +55,9 @@ public class ExecutorOptions {
     public static final Duration DEFAULT_CONTROLLER_CONNECT_TIMEOUT = Duration.seconds(1);
     public static final Duration DEFAULT_CONTROLLER_RESPONSE_TIMEOUT = Duration.seconds(1);
 
+    public static final Duration DEFAULT_STATE_UPDATE_DEBOUNCE_WINDOW = Duration.milliseconds(50);
+    public static final Duration DEFAULT_STATE_UPDATE_MAX_LATENCY = Duration.milliseconds(500);
+
     public static final ExecutorOptions DEFAULT = new ExecutorOptions(null,
                                                                       true,
                                                                       DEFAULT_MAX_OPEN_FILES,
@@ -66,7 +69,9 @@ public class ExecutorOptions {
                                                                       null,
                                                                       DEFAULT_UPDATE_MODE,
                                                                       DEFAULT_CONTROLLER_CONNECT_TIMEOUT,
-                                                                      DEFAULT_CONTROLLER_RESPONSE_TIMEOUT);
+                                                                      DEFAULT_CONTROLLER_RESPONSE_TIMEOUT,
+                                                                      DEFAULT_STATE_UPDATE_DEBOUNCE_WINDOW,
+                                                                      DEFAULT_STATE_UPDATE_MAX_LATENCY);
 
     @Length(max = 255)
     String hostname;
@@ -96,4 +101,10 @@ public class ExecutorOptions {
 
     Duration controllerConnectTimeout;
     Duration controllerResponseTimeout;
+
+    @DurationRange(max = 5, unit = TimeUnit.SECONDS)
+    Duration stateUpdateDebounceWindow;
+
+    @DurationRange(max = 30, unit = TimeUnit.SECONDS)
+    Duration stateUpdateMaxLatency;
 }
@@ -35,6 +35,7 @@ import java.util.concurrent.TimeUnit;
 @Jacksonized
 public class ControllerConfig {
     public static final Duration DEFAULT_CHECK_INTERVAL = Duration.seconds(10);
+    public static final Duration DEFAULT_FULL_SNAPSHOT_INTERVAL = Duration.minutes(5);
 
     @NotEmpty
     List<URL> endpoints;
@@ -42,4 +43,16 @@ public class ControllerConfig {
     @Builder.Default
     @DurationRange(min = 3, max = 60, unit = TimeUnit.SECONDS)
     Duration leadershipCheckInterval = DEFAULT_CHECK_INTERVAL;
+
+    /**
+     * Send only changes in node data to the controller. Enable only after all controllers have been upgraded.
+     */
+    boolean deltaUpdates;
+
+    /**
+     * Interval at which full node data is sent to the controller even if delta updates are enabled
+     */
+    @Builder.Default
+    @DurationRange(min = 30, max = 3600, unit = TimeUnit.SECONDS)
+    Duration fullSnapshotInterval = DEFAULT_FULL_SNAPSHOT_INTERVAL;
 }
@@ -16,19 +16,21 @@
 
 package com.phonepe.drove.executor.discovery;
 
+import com.codahale.metrics.MetricRegistry;
 import com.google.common.base.Strings;
 import com.phonepe.drove.common.CommonUtils;
 import com.phonepe.drove.common.discovery.Constants;
 import com.phonepe.drove.common.discovery.NodeDataStore;
+import com.phonepe.drove.executor.ExecutorOptions;
 import com.phonepe.drove.executor.engine.ApplicationInstanceEngine;
 import com.phonepe.drove.executor.engine.LocalServiceInstanceEngine;
 import com.phonepe.drove.executor.engine.TaskInstanceEngine;
 import com.phonepe.drove.executor.managed.ExecutorIdManager;
 import com.phonepe.drove.executor.resourcemgmt.ResourceConfig;
-import com.phonepe.drove.executor.resourcemgmt.ResourceInfo;
 import com.phonepe.drove.executor.resourcemgmt.ResourceManager;
 import com.phonepe.drove.executor.managed.MetadataManager;
 import com.phonepe.drove.executor.managed.ExecutorStateManager;
+import com.phonepe.drove.executor.utils.CoalescingPublisher;
 import com.phonepe.drove.executor.utils.ExecutorUtils;
 import com.phonepe.drove.models.info.nodedata.ExecutorNodeData;
 import com.phonepe.drove.models.info.nodedata.NodeTransportType;
@@ -44,6 +46,7 @@ import java.time.Instant;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
+import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.Lock;
@@ -58,6 +61,7 @@ import java.util.concurrent.locks.ReentrantLock;
 @Order(40)
 public class NodeDataUpdater implements Managed {
     private static final String STATE_CHANGE_HANDLER_NAME = "state-change-notifier";
+    private static final String NODE_DATA_KEY = "node-data";
 
     private final NodeDataStore nodeDataStore;
     private final ResourceManager resourceDB;
@@ -67,6 +71,7 @@ public class NodeDataUpdater implements Managed {
     private final ResourceConfig resourceConfig;
     private final ExecutorStateManager executorStateManager;
     private final MetadataManager metadataManager;
+    private final CoalescingPublisher<String, Date> refreshPublisher;
     private ExecutorNodeData currentData;
     private final ScheduledSignal refreshSignal = new ScheduledSignal(Constants.EXECUTOR_REFRESH_INTERVAL);
     private final AtomicBoolean started = new AtomicBoolean();
@@ -81,7 +86,9 @@ public class NodeDataUpdater implements Managed {
             TaskInstanceEngine taskInstanceEngine, LocalServiceInstanceEngine localServiceInstanceEngine,
             ResourceConfig resourceConfig,
             ExecutorStateManager executorStateManager,
-            MetadataManager metadataManager) {
+            MetadataManager metadataManager,
+            ExecutorOptions executorOptions,
+            MetricRegistry metricRegistry) {
 
         this.nodeDataStore = nodeDataStore;
         this.resourceDB = resourceDB;
@@ -91,16 +98,26 @@ public class NodeDataUpdater implements Managed {
         this.resourceConfig = resourceConfig;
         this.executorStateManager = executorStateManager;
         this.metadataManager = metadataManager;
+        //Instance state changes, resource updates and executor state changes arrive in bursts during deployments.
+        //These are coalesced so that a burst results in a single node data write
+        this.refreshPublisher = new CoalescingPublisher<>(
+                "node-data",
+                Objects.requireNonNullElse(executorOptions.getStateUpdateDebounceWindow(),
+                                           ExecutorOptions.DEFAULT_STATE_UPDATE_DEBOUNCE_WINDOW).toJavaDuration(),
+                Objects.requireNonNullElse(executorOptions.getStateUpdateMaxLatency(),
+                                           ExecutorOptions.DEFAULT_STATE_UPDATE_MAX_LATENCY).toJavaDuration(),
+                triggers -> refreshNodeState(),
+                metricRegistry);
         this.refreshSignal.connect(this::refresh);
-        this.applicationInstanceEngine.onStateChange().connect(info -> refresh(new Date()));
+        this.applicationInstanceEngine.onStateChange().connect(info -> scheduleRefresh());
         executorIdManager.onHostInfoGenerated()
                 .connect(this::hostInfoAvailable);
     }
 
     @Override
     public void start() throws Exception {
-        resourceDB.onResourceUpdated().connect(STATE_CHANGE_HANDLER_NAME, this::refreshNodeState);
-        executorStateManager.onStateChange().connect(STATE_CHANGE_HANDLER_NAME, state -> refreshNodeState());
+        resourceDB.onResourceUpdated().connect(STATE_CHANGE_HANDLER_NAME, resources -> scheduleRefresh());
+        executorStateManager.onStateChange().connect(STATE_CHANGE_HANDLER_NAME, state -> scheduleRefresh());
     }
 
     @Override
@@ -108,6 +125,7 @@ public class NodeDataUpdater implements Managed {
         resourceDB.onResourceUpdated().disconnect(STATE_CHANGE_HANDLER_NAME);
         executorStateManager.onStateChange().disconnect(STATE_CHANGE_HANDLER_NAME);
         refreshSignal.close();
+        refreshPublisher.close();
     }
 
 
@@ -128,6 +146,10 @@ public class NodeDataUpdater implements Managed {
         log.info("Node data updated at: {}", Instant.now());
     }
 
+    private void scheduleRefresh() {
+        refreshPublisher.submit(NODE_DATA_KEY, new Date());
+    }
+
     private void refreshNodeState(int port, NodeTransportType transportType, String hostname, String executorId) {
         val resourceState = resourceDB.currentState();
         try {
@@ -154,10 +176,6 @@ public class NodeDataUpdater implements Managed {
 
     private void refreshNodeState() {
         val resourceState = resourceDB.currentState();
-        refreshNodeState(resourceState);
-    }
-
-    private void refreshNodeState(ResourceInfo resourceState) {
         try {
             stateLock.lock();
             if (!started.get()) {
@@ -19,27 +19,55 @@ package com.phonepe.drove.executor.discovery;
 import com.phonepe.drove.common.discovery.NodeDataStore;
 import com.phonepe.drove.common.model.MessageDeliveryStatus;
 import com.phonepe.drove.common.model.MessageHeader;
+import com.phonepe.drove.common.discovery.NodeDataDeltaUtils;
+import com.phonepe.drove.common.model.controller.ControllerMessage;
+import com.phonepe.drove.common.model.controller.ExecutorSnapshotDeltaMessage;
 import com.phonepe.drove.common.model.controller.ExecutorSnapshotMessage;
 import com.phonepe.drove.executor.engine.ExecutorCommunicator;
 import com.phonepe.drove.models.info.nodedata.*;
-import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * This node data store is to be used by executors to send data to controller only. It is not supposed to
  * store any data locally. Depending on config, it might route to either ZK or HTTP calls. In case HTTP call
  * fails, it will route the call to ZK.
+ * If delta updates are enabled, every update carries a sequence number and only changes since the last accepted
+ * update are sent. A full snapshot is sent periodically, and whenever the previous update was not accepted.
  */
 @Slf4j
 @Singleton
-@AllArgsConstructor(onConstructor_ = {@Inject})
 public class RemoteNodeDataStore implements NodeDataStore {
     private final ExecutorCommunicator communicator;
+    private final boolean deltaUpdates;
+    private final Duration fullSnapshotInterval;
+
+    private final Lock sendLock = new ReentrantLock();
+    private long sequence = 0;
+    private ExecutorNodeData lastAccepted;
+    private Instant lastFullSnapshotTime = Instant.EPOCH;
+
+    @Inject
+    public RemoteNodeDataStore(ExecutorCommunicator communicator) {
+        this(communicator, false, ControllerConfig.DEFAULT_FULL_SNAPSHOT_INTERVAL.toJavaDuration());
+    }
+
+    public RemoteNodeDataStore(
+            ExecutorCommunicator communicator,
+            boolean deltaUpdates,
+            Duration fullSnapshotInterval) {
+        this.communicator = communicator;
+        this.deltaUpdates = deltaUpdates;
+        this.fullSnapshotInterval = fullSnapshotInterval;
+    }
 
     @Override
     @SuppressWarnings("java:S1301")
@@ -79,9 +107,46 @@ public class RemoteNodeDataStore implements NodeDataStore {
     }
 
     private boolean sendRemoteMessage(ExecutorNodeData executorNodeData) {
+        if (!deltaUpdates) {
+            return send(new ExecutorSnapshotMessage(MessageHeader.controllerRequest(), executorNodeData));
+        }
+        sendLock.lock();
+        try {
+            val currentSequence = ++sequence;
+            val now = Instant.now();
+            val sendFullSnapshot = null == lastAccepted
+                    || null == executorNodeData.getState()
+                    || now.isAfter(lastFullSnapshotTime.plus(fullSnapshotInterval));
+            val accepted = sendFullSnapshot
+                           ? send(new ExecutorSnapshotMessage(MessageHeader.controllerRequest(),
+                                                              executorNodeData,
+                                                              currentSequence))
+                           : send(new ExecutorSnapshotDeltaMessage(MessageHeader.controllerRequest(),
+                                                                   executorNodeData.getState().getExecutorId(),
+                                                                   currentSequence,
+                                                                   NodeDataDeltaUtils.diff(lastAccepted,
+                                                                                           executorNodeData)));
+            if (accepted) {
+                lastAccepted = executorNodeData;
+                if (sendFullSnapshot) {
+                    lastFullSnapshotTime = now;
+                }
+            }
+            else {
+                log.info("Update with sequence {} was not accepted. Full snapshot will be sent next",
+                         currentSequence);
+                lastAccepted = null;
+            }
+            return accepted;
+        }
+        finally {
+            sendLock.unlock();
+        }
+    }
+
+    private boolean send(ControllerMessage message) {
         try {
-            val response = communicator
-                            .send(new ExecutorSnapshotMessage(MessageHeader.controllerRequest(), executorNodeData));
+            val response = communicator.send(message);
             return response.getStatus().equals(MessageDeliveryStatus.ACCEPTED);
         }
         catch (Exception e) {
@@ -22,13 +22,13 @@ import com.phonepe.drove.common.model.ControllerMessageType;
 import com.phonepe.drove.common.model.MessageDeliveryStatus;
 import com.phonepe.drove.common.model.MessageResponse;
 import com.phonepe.drove.common.model.controller.ControllerMessage;
+import com.phonepe.drove.common.net.ClusterMessagingClient;
 import com.phonepe.drove.common.net.RemoteHost;
 import com.phonepe.drove.common.net.RemoteMessageSender;
 import com.phonepe.drove.executor.discovery.ManagedLeadershipObserver;
 import com.phonepe.drove.models.info.nodedata.NodeType;
 import lombok.extern.slf4j.Slf4j;
 import dev.failsafe.RetryPolicy;
-import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 
 import javax.inject.Inject;
 import javax.inject.Provider;
@@ -49,8 +49,8 @@ public class RemoteControllerMessageSender extends RemoteMessageSender<Controlle
             Provider<ManagedLeadershipObserver> observer,
             ObjectMapper mapper,
             ClusterAuthenticationConfig clusterAuthenticationConfig,
-            CloseableHttpClient httpClient) {
-        super(mapper, clusterAuthenticationConfig, NodeType.EXECUTOR, httpClient);
+            ClusterMessagingClient messagingClient) {
+        super(mapper, clusterAuthenticationConfig, NodeType.EXECUTOR, messagingClient);
         this.observer = observer;
     }
 
@@ -16,16 +16,20 @@
 
 package com.phonepe.drove.executor.managed;
 
+import com.codahale.metrics.MetricRegistry;
 import com.phonepe.drove.common.model.MessageDeliveryStatus;
 import com.phonepe.drove.common.model.MessageHeader;
+import com.phonepe.drove.common.model.controller.InstanceStateBatchReportMessage;
 import com.phonepe.drove.common.model.controller.InstanceStateReportMessage;
 import com.phonepe.drove.common.model.controller.LocalServiceInstanceStateReportMessage;
 import com.phonepe.drove.common.model.controller.TaskStateReportMessage;
+import com.phonepe.drove.executor.ExecutorOptions;
 import com.phonepe.drove.executor.engine.ApplicationInstanceEngine;
 import com.phonepe.drove.executor.engine.ExecutorCommunicator;
 import com.phonepe.drove.executor.engine.LocalServiceInstanceEngine;
 import com.phonepe.drove.executor.engine.TaskInstanceEngine;
 import com.phonepe.drove.executor.resourcemgmt.ResourceManager;
+import com.phonepe.drove.executor.utils.CoalescingPublisher;
 import com.phonepe.drove.executor.utils.ExecutorUtils;
 import com.phonepe.drove.models.instance.InstanceInfo;
 import com.phonepe.drove.models.localservice.LocalServiceInstanceInfo;
@@ -37,6 +41,9 @@ import ru.vyarus.dropwizard.guice.module.installer.order.Order;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
 
 /**
  *
@@ -51,6 +58,10 @@ public class ExecutorInstanceStateChangeNotifier implements Managed {
     private final ApplicationInstanceEngine applicationInstanceEngine;
     private final TaskInstanceEngine taskInstanceEngine;
     private final LocalServiceInstanceEngine localServiceInstanceEngine;
+    private final CoalescingPublisher<ReportKey, Object> reportPublisher;
+
+    private record ReportKey(Class<?> type, String id) {
+    }
 
     @Inject
     public ExecutorInstanceStateChangeNotifier(
@@ -58,19 +69,39 @@ public class ExecutorInstanceStateChangeNotifier implements Managed {
             ExecutorCommunicator communicator,
             ApplicationInstanceEngine applicationInstanceEngine,
             TaskInstanceEngine taskInstanceEngine,
-            LocalServiceInstanceEngine localServiceInstanceEngine) {
+            LocalServiceInstanceEngine localServiceInstanceEngine,
+            ExecutorOptions executorOptions,
+            MetricRegistry metricRegistry) {
         this.resourceDB = resourceDB;
         this.communicator = communicator;
         this.applicationInstanceEngine = applicationInstanceEngine;
         this.taskInstanceEngine = taskInstanceEngine;
         this.localServiceInstanceEngine = localServiceInstanceEngine;
+        //Only the latest state for an instance pending in the debounce window gets reported
+        this.reportPublisher = new CoalescingPublisher<>(
+                "instance-state-reports",
+                Objects.requireNonNullElse(executorOptions.getStateUpdateDebounceWindow(),
+                                           ExecutorOptions.DEFAULT_STATE_UPDATE_DEBOUNCE_WINDOW).toJavaDuration(),
+                Objects.requireNonNullElse(executorOptions.getStateUpdateMaxLatency(),
+                                           ExecutorOptions.DEFAULT_STATE_UPDATE_MAX_LATENCY).toJavaDuration(),
+                this::sendReports,
+                metricRegistry);
     }
 
     @Override
     public void start() throws Exception {
-        applicationInstanceEngine.onStateChange().connect(STATE_CHANGE_HANDLER_NAME, this::handleStateChange);
-        taskInstanceEngine.onStateChange().connect(STATE_CHANGE_HANDLER_NAME, this::handleStateChange);
-        localServiceInstanceEngine.onStateChange().connect(STATE_CHANGE_HANDLER_NAME, this::handleStateChange);
+        applicationInstanceEngine.onStateChange()
+                .connect(STATE_CHANGE_HANDLER_NAME,
+                         info -> reportPublisher.submit(new ReportKey(InstanceInfo.class, info.getInstanceId()),
+                                                        info));
+        taskInstanceEngine.onStateChange()
+                .connect(STATE_CHANGE_HANDLER_NAME,
+                         task -> reportPublisher.submit(new ReportKey(TaskInfo.class, task.getInstanceId()),
+                                                        task));
+        localServiceInstanceEngine.onStateChange()
+                .connect(STATE_CHANGE_HANDLER_NAME,
+                         info -> reportPublisher.submit(
+                                 new ReportKey(LocalServiceInstanceInfo.class, info.getInstanceId()), info));
         log.info("State updater started");
     }
 
@@ -79,30 +110,91 @@ public class ExecutorInstanceStateChangeNotifier implements Managed {
         applicationInstanceEngine.onStateChange().disconnect(STATE_CHANGE_HANDLER_NAME);
         taskInstanceEngine.onStateChange().disconnect(STATE_CHANGE_HANDLER_NAME);
         localServiceInstanceEngine.onStateChange().disconnect(STATE_CHANGE_HANDLER_NAME);
+        reportPublisher.close();
         log.info("State updater stopped");
     }
 
-    private void handleStateChange(final InstanceInfo instanceInfo) {
+    private void sendReports(List<Object> reports) {
+        if (reports.size() == 1) {
+            ensureDelivered(sendReport(reports.get(0)) ? 0 : 1);
+            return;
+        }
+        val instances = new ArrayList<InstanceInfo>();
+        val tasks = new ArrayList<TaskInfo>();
+        val serviceInstances = new ArrayList<LocalServiceInstanceInfo>();
+        var executorId = (String) null;
+        for (val report : reports) {
+            if (report instanceof InstanceInfo instanceInfo) {
+                instances.add(instanceInfo);
+                executorId = instanceInfo.getExecutorId();
+            }
+            else if (report instanceof TaskInfo task) {
+                tasks.add(task);
+                executorId = task.getExecutorId();
+            }
+            else if (report instanceof LocalServiceInstanceInfo localServiceInstanceInfo) {
+                serviceInstances.add(localServiceInstanceInfo);
+                executorId = localServiceInstanceInfo.getExecutorId();
+            }
+        }
+        log.debug("Sending batched state report for {} instances, {} tasks and {} local service instances",
+                  instances.size(), tasks.size(), serviceInstances.size());
+        val snapshot = ExecutorUtils.executorSnapshot(resourceDB.currentState(), executorId);
+        val resp = communicator.send(new InstanceStateBatchReportMessage(MessageHeader.executorRequest(),
+                                                                         snapshot,
+                                                                         instances,
+                                                                         tasks,
+                                                                         serviceInstances)).getStatus();
+        if (!resp.equals(MessageDeliveryStatus.ACCEPTED)) {
+            //Controllers that do not understand batches yet will fail the message. Fall back to individual reports.
+            log.info("Batched state report failed with status: {}. Sending reports individually.", resp);
+            ensureDelivered(reports.stream().filter(report -> !sendReport(report)).count());
+        }
+    }
+
+    /**
+     * Throwing makes the publisher hold on to the reports and retry them, unless newer state has been reported since
+     */
+    private static void ensureDelivered(long undelivered) {
+        if (undelivered > 0) {
+            throw new IllegalStateException("Could not deliver " + undelivered + " state reports to controller");
+        }
+    }
+
+    private boolean sendReport(Object report) {
+        if (report instanceof InstanceInfo instanceInfo) {
+            return handleStateChange(instanceInfo);
+        }
+        if (report instanceof TaskInfo task) {
+            return handleStateChange(task);
+        }
+        if (report instanceof LocalServiceInstanceInfo localServiceInstanceInfo) {
+            return handleStateChange(localServiceInstanceInfo);
+        }
+        return true;
+    }
+
+    private boolean handleStateChange(final InstanceInfo instanceInfo) {
         log.debug("Received app instance state change notification: {}", instanceInfo);
         val executorId = instanceInfo.getExecutorId();
         val snapshot = ExecutorUtils.executorSnapshot(resourceDB.currentState(), executorId);
         val resp = communicator.send(new InstanceStateReportMessage(MessageHeader.executorRequest(),
                                                                     snapshot,
                                                                     instanceInfo)).getStatus();
-        handleResponse(resp);
+        return handleResponse(resp);
     }
 
-    private void handleStateChange(final TaskInfo task) {
+    private boolean handleStateChange(final TaskInfo task) {
         log.debug("Received task state change notification: {}", task);
         val executorId = task.getExecutorId();
         val snapshot = ExecutorUtils.executorSnapshot(resourceDB.currentState(), executorId);
         val resp = communicator.send(new TaskStateReportMessage(MessageHeader.executorRequest(),
                                                                 snapshot,
                                                                 task)).getStatus();
-        handleResponse(resp);
+        return handleResponse(resp);
     }
 
-    private void handleStateChange(LocalServiceInstanceInfo localServiceInstanceInfo) {
+    private boolean handleStateChange(LocalServiceInstanceInfo localServiceInstanceInfo) {
         log.debug("Received local service instance state change notification: {}", localServiceInstanceInfo);
         val executorId = localServiceInstanceInfo.getExecutorId();
         val snapshot = ExecutorUtils.executorSnapshot(resourceDB.currentState(), executorId);
@@ -110,12 +202,14 @@ public class ExecutorInstanceStateChangeNotifier implements Managed {
                 MessageHeader.executorRequest(),
                 snapshot,
                 localServiceInstanceInfo)).getStatus();
-        handleResponse(resp);
+        return handleResponse(resp);
     }
 
-    private static void handleResponse(MessageDeliveryStatus resp) {
+    private static boolean handleResponse(MessageDeliveryStatus resp) {
         if (!resp.equals(MessageDeliveryStatus.ACCEPTED)) {
             log.info("Sending message to controller failed with status: {}.", resp);
         }
+        //A rejected report will not be accepted on retry either, only failed deliveries are worth retrying
+        return !resp.equals(MessageDeliveryStatus.FAILED);
     }
 }
@@ -0,0 +1,187 @@
+/*
+ *  Copyright (c) 2024 Original Author(s), PhonePe India Pvt. Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.phonepe.drove.executor.utils;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.MetricRegistry;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import static com.codahale.metrics.MetricRegistry.name;
+
+/**
+ * Coalesces updates submitted in quick succession and hands them over to the publisher in one go.
+ * Updates are keyed, only the latest update for a key is retained till the next flush. A flush happens once no new
+ * update has been received for the debounce window, or once the oldest pending update has waited for max latency,
+ * whichever is earlier. A zero debounce window publishes every update immediately on the calling thread.
+ * If the publisher throws, the updates are put back in the pending set unless a newer update for the same key has
+ * arrived in the meantime. They are retried after max latency, or with the next submitted update when there is no
+ * debounce window.
+ */
+@Slf4j
+public class CoalescingPublisher<K, V> implements Closeable {
+    private final String name;
+    private final long debounceWindowNanos;
+    private final long maxLatencyNanos;
+    private final Consumer<List<V>> publisher;
+    private final Counter sent;
+    private final Counter suppressed;
+    private final ScheduledExecutorService scheduler;
+
+    private final Lock pendingLock = new ReentrantLock();
+    private final Lock publishLock = new ReentrantLock();
+    private Map<K, V> pending = new LinkedHashMap<>();
+    private long oldestPendingTime;
+    private ScheduledFuture<?> scheduledFlush;
+
+    public CoalescingPublisher(
+            String name,
+            Duration debounceWindow,
+            Duration maxLatency,
+            Consumer<List<V>> publisher,
+            MetricRegistry metricRegistry) {
+        this.name = name;
+        this.debounceWindowNanos = debounceWindow.toNanos();
+        this.maxLatencyNanos = Math.max(maxLatency.toNanos(), debounceWindowNanos);
+        this.publisher = publisher;
+        this.sent = metricRegistry.counter(name("com.phonepe.drove.executor.updates", name, "sent"));
+        this.suppressed = metricRegistry.counter(name("com.phonepe.drove.executor.updates", name, "suppressed"));
+        this.scheduler = debounceWindowNanos > 0
+                         ? Executors.newSingleThreadScheduledExecutor(runnable -> {
+                             val thread = new Thread(runnable, "coalescing-publisher-" + name);
+                             thread.setDaemon(true);
+                             return thread;
+                         })
+                         : null;
+    }
+
+    /**
+     * Submit an update. Replaces any pending update for the same key.
+     *
+     * @param key   Key for the update
+     * @param value The update
+     */
+    public void submit(final K key, final V value) {
+        pendingLock.lock();
+        try {
+            val now = System.nanoTime();
+            if (pending.isEmpty()) {
+                oldestPendingTime = now;
+            }
+            if (null != pending.put(key, value)) {
+                suppressed.inc();
+            }
+            if (null != scheduler) {
+                if (null != scheduledFlush) {
+                    scheduledFlush.cancel(false);
+                }
+                val delay = Math.min(debounceWindowNanos, oldestPendingTime + maxLatencyNanos - now);
+                scheduledFlush = scheduler.schedule(this::flush, Math.max(delay, 0), TimeUnit.NANOSECONDS);
+                return;
+            }
+        }
+        finally {
+            pendingLock.unlock();
+        }
+        flush();
+    }
+
+    /**
+     * Publish all pending updates right away
+     */
+    public void flush() {
+        publishLock.lock();
+        try {
+            final Map<K, V> taken;
+            final long takenTime;
+            pendingLock.lock();
+            try {
+                if (pending.isEmpty()) {
+                    return;
+                }
+                taken = pending;
+                takenTime = oldestPendingTime;
+                pending = new LinkedHashMap<>();
+                if (null != scheduledFlush) {
+                    scheduledFlush.cancel(false);
+                    scheduledFlush = null;
+                }
+            }
+            finally {
+                pendingLock.unlock();
+            }
+            val updates = new ArrayList<>(taken.values());
+            log.debug("Publishing {} coalesced updates for {}", updates.size(), name);
+            try {
+                publisher.accept(updates);
+                sent.inc(updates.size());
+            }
+            catch (Exception e) {
+                log.error("Error publishing updates for " + name + ". Will retry. Error: " + e.getMessage(), e);
+                requeue(taken, takenTime);
+            }
+        }
+        finally {
+            publishLock.unlock();
+        }
+    }
+
+    private void requeue(final Map<K, V> failed, long failedTime) {
+        pendingLock.lock();
+        try {
+            //Updates submitted while publishing are newer and take precedence over the failed ones
+            val merged = new LinkedHashMap<>(failed);
+            merged.putAll(pending);
+            oldestPendingTime = pending.isEmpty() ? failedTime : Math.min(oldestPendingTime, failedTime);
+            pending = merged;
+            if (null != scheduler && !scheduler.isShutdown()) {
+                if (null != scheduledFlush) {
+                    scheduledFlush.cancel(false);
+                }
+                scheduledFlush = scheduler.schedule(this::flush, maxLatencyNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+        finally {
+            pendingLock.unlock();
+        }
+    }
+
+    /**
+     * Publishes pending updates and stops the scheduler
+     */
+    @Override
+    public void close() {
+        flush();
+        if (null != scheduler) {
+            scheduler.shutdownNow();
+        }
+    }
+}
@@ -79,7 +79,8 @@ class NodeDataUpdaterTest extends AbstractTestBase {
                                                  ExecutorTestingUtils.DOCKER_CLIENT);
         val rCfg = new ResourceConfig();
         val mm = new MetadataManager(rCfg.getMetadata(), METRIC_REGISTRY);
-        val ndu = new NodeDataUpdater(eim, nds, rdb, ie, te, lse, rCfg, blm, mm);
+        val ndu = new NodeDataUpdater(eim, nds, rdb, ie, te, lse, rCfg, blm, mm,
+                                      ExecutorOptions.DEFAULT, METRIC_REGISTRY);
         ndu.start();
         assertTrue(nds.nodes(NodeType.EXECUTOR).isEmpty());
         ndu.hostInfoAvailable(new ExecutorIdManager.ExecutorHostInfo(8080,
@@ -20,16 +20,22 @@ import com.phonepe.drove.common.discovery.NodeDataStore;
 import com.phonepe.drove.common.model.Message;
 import com.phonepe.drove.common.model.MessageDeliveryStatus;
 import com.phonepe.drove.common.model.MessageResponse;
+import com.phonepe.drove.common.model.controller.ExecutorSnapshotDeltaMessage;
+import com.phonepe.drove.common.model.controller.ExecutorSnapshotMessage;
 import com.phonepe.drove.executor.engine.ExecutorCommunicator;
+import com.phonepe.drove.models.info.ExecutorResourceSnapshot;
 import com.phonepe.drove.models.info.nodedata.*;
 import lombok.val;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -133,6 +139,43 @@ class RemoteNodeDataStoreTest {
         assertTrue(upstreamCalled.get());
     }*/
 
+    @Test
+    void testDeltaUpdates() {
+        val communicator = mock(ExecutorCommunicator.class);
+        val nds = new RemoteNodeDataStore(communicator, true, Duration.ofHours(1));
+        val messages = new ArrayList<Message<?>>();
+        val status = new AtomicReference<>(MessageDeliveryStatus.ACCEPTED);
+        when(communicator.send(any()))
+                .thenAnswer(invocationMock -> {
+                    val message = invocationMock.getArgument(0, Message.class);
+                    messages.add(message);
+                    return new MessageResponse(message.getHeader(), status.get());
+                });
+        val snapshot = new ExecutorResourceSnapshot("EX1", null, null, null);
+        val data = generateDummyData(snapshot, Set.of());
+        nds.updateNodeData(data);
+        nds.updateNodeData(generateDummyData(snapshot, Set.of("tag1")));
+        status.set(MessageDeliveryStatus.REJECTED);
+        nds.updateNodeData(generateDummyData(snapshot, Set.of("tag2")));
+        status.set(MessageDeliveryStatus.ACCEPTED);
+        nds.updateNodeData(data);
+
+        assertEquals(4, messages.size());
+        val first = assertInstanceOf(ExecutorSnapshotMessage.class, messages.get(0));
+        assertEquals(1, first.getSequence());
+        val second = assertInstanceOf(ExecutorSnapshotDeltaMessage.class, messages.get(1));
+        assertEquals(2, second.getSequence());
+        assertEquals("EX1", second.getExecutorId());
+        assertEquals(Set.of("tag1"), second.getDelta().getTags());
+        assertNull(second.getDelta().getState());
+        assertTrue(second.getDelta().getInstances().isEmpty());
+        assertEquals(3, assertInstanceOf(ExecutorSnapshotDeltaMessage.class, messages.get(2)).getSequence());
+        //Rejected delta needs a full resync
+        val fourth = assertInstanceOf(ExecutorSnapshotMessage.class, messages.get(3));
+        assertEquals(4, fourth.getSequence());
+        assertEquals(data, fourth.getNodeData());
+    }
+
     @Test
     void testFailure() {
         val communicatorCalled = new AtomicBoolean(false);
@@ -174,15 +217,19 @@ class RemoteNodeDataStoreTest {
     }*/
 
     private static ExecutorNodeData generateDummyData() {
+        return generateDummyData(null, Set.of());
+    }
+
+    private static ExecutorNodeData generateDummyData(ExecutorResourceSnapshot snapshot, Set<String> tags) {
         return new ExecutorNodeData("localhost",
                                     8080,
                                     NodeTransportType.HTTP,
                                     new Date(),
-                                    null,
+                                    snapshot,
                                     List.of(),
                                     List.of(),
                                     List.of(),
-                                    Set.of(),
+                                    tags,
                                     Map.of(),
                                     ExecutorState.ACTIVE);
     }
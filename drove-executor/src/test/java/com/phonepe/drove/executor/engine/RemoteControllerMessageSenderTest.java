@@ -16,15 +16,17 @@
 
 package com.phonepe.drove.executor.engine;
 
+import com.codahale.metrics.MetricRegistry;
 import com.github.tomakehurst.wiremock.http.Fault;
 import com.github.tomakehurst.wiremock.junit5.WireMockRuntimeInfo;
 import com.github.tomakehurst.wiremock.junit5.WireMockTest;
 import com.phonepe.drove.common.AbstractTestBase;
 import com.phonepe.drove.auth.config.ClusterAuthenticationConfig;
-import com.phonepe.drove.common.CommonUtils;
 import com.phonepe.drove.common.model.MessageHeader;
 import com.phonepe.drove.common.model.MessageResponse;
 import com.phonepe.drove.common.model.controller.ExecutorSnapshotMessage;
+import com.phonepe.drove.common.net.ClusterMessagingClient;
+import com.phonepe.drove.common.net.ClusterMessagingConfig;
 import com.phonepe.drove.executor.discovery.ManagedLeadershipObserver;
 import com.phonepe.drove.models.info.nodedata.ControllerNodeData;
 import com.phonepe.drove.models.info.nodedata.NodeTransportType;
@@ -63,7 +65,7 @@ class RemoteControllerMessageSenderTest extends AbstractTestBase {
         val msgSender = new RemoteControllerMessageSender(() -> leaderObserver,
                                                           AbstractTestBase.MAPPER,
                                                           ClusterAuthenticationConfig.DEFAULT,
-                                                          CommonUtils.createHttpClient(false));
+                                                          new ClusterMessagingClient(ClusterMessagingConfig.DEFAULT, new MetricRegistry()));
 
         val header = MessageHeader.executorRequest();
         stubFor(post("/apis/v1/messages")
@@ -85,7 +87,7 @@ class RemoteControllerMessageSenderTest extends AbstractTestBase {
         val msgSender = new RemoteControllerMessageSender(() -> leaderObserver,
                                                           AbstractTestBase.MAPPER,
                                                           ClusterAuthenticationConfig.DEFAULT,
-                                                          CommonUtils.createHttpClient(false));
+                                                          new ClusterMessagingClient(ClusterMessagingConfig.DEFAULT, new MetricRegistry()));
 
         val header = MessageHeader.executorRequest();
         stubFor(post("/apis/v1/messages")
@@ -108,7 +110,7 @@ class RemoteControllerMessageSenderTest extends AbstractTestBase {
         val msgSender = new RemoteControllerMessageSender(() -> leaderObserver,
                                                           AbstractTestBase.MAPPER,
                                                           ClusterAuthenticationConfig.DEFAULT,
-                                                          CommonUtils.createHttpClient(false));
+                                                          new ClusterMessagingClient(ClusterMessagingConfig.DEFAULT, new MetricRegistry()));
 
         val header = MessageHeader.executorRequest();
         stubFor(post("/apis/v1/messages")
@@ -126,7 +128,7 @@ class RemoteControllerMessageSenderTest extends AbstractTestBase {
         val msgSender = new RemoteControllerMessageSender(() -> leaderObserver,
                                                           AbstractTestBase.MAPPER,
                                                           ClusterAuthenticationConfig.DEFAULT,
-                                                          CommonUtils.createHttpClient(false));
+                                                          new ClusterMessagingClient(ClusterMessagingConfig.DEFAULT, new MetricRegistry()));
 
         val header = MessageHeader.executorRequest();
         assertEquals(FAILED, msgSender.send(new ExecutorSnapshotMessage(header, null)).getStatus());
@@ -146,7 +148,7 @@ class RemoteControllerMessageSenderTest extends AbstractTestBase {
         val msgSender = new RemoteControllerMessageSender(() -> leaderObserver,
                                                           AbstractTestBase.MAPPER,
                                                           ClusterAuthenticationConfig.DEFAULT,
-                                                          CommonUtils.createHttpClient(false));
+                                                          new ClusterMessagingClient(ClusterMessagingConfig.DEFAULT, new MetricRegistry()));
 
         val header = MessageHeader.executorRequest();
         stubFor(post("/apis/v1/messages")
@@ -18,17 +18,26 @@ package com.phonepe.drove.executor.managed;
 
 import com.phonepe.drove.common.model.MessageDeliveryStatus;
 import com.phonepe.drove.common.model.MessageResponse;
+import com.phonepe.drove.common.model.controller.InstanceStateBatchReportMessage;
+import com.phonepe.drove.common.model.controller.InstanceStateReportMessage;
 import com.phonepe.drove.executor.AbstractExecutorEngineEnabledTestBase;
+import com.phonepe.drove.executor.ExecutorOptions;
 import com.phonepe.drove.executor.engine.ExecutorCommunicator;
 import com.phonepe.drove.executor.engine.ExecutorMessageHandler;
 import com.phonepe.drove.models.instance.InstanceInfo;
 import com.phonepe.drove.models.instance.InstanceState;
+import io.dropwizard.util.Duration;
 import lombok.SneakyThrows;
 import lombok.val;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
+import static com.phonepe.drove.common.CommonTestUtils.waitUntil;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 /**
@@ -67,7 +76,12 @@ class ExecutorInstanceStateChangeNotifierTest extends AbstractExecutorEngineEnab
                             return new MessageResponse(message.getHeader(),
                                                        MessageDeliveryStatus.ACCEPTED);
                         },
-                        messageHandler), applicationInstanceEngine, taskInstanceEngine, localServiceInstanceEngine);
+                        messageHandler),
+                applicationInstanceEngine,
+                taskInstanceEngine,
+                localServiceInstanceEngine,
+                ExecutorOptions.DEFAULT.withStateUpdateDebounceWindow(Duration.milliseconds(0)),
+                METRIC_REGISTRY);
         scn.start();
         applicationInstanceEngine.onStateChange().dispatch(iin);
         assertEquals(1, ctr.get());
@@ -79,5 +93,103 @@ class ExecutorInstanceStateChangeNotifierTest extends AbstractExecutorEngineEnab
         assertEquals(2, ctr.get());
     }
 
+    @Test
+    @SneakyThrows
+    void testStateChangeCoalescing() {
+        val ctr = new AtomicInteger();
+        val reported = new ArrayList<InstanceState>();
+        val messageHandler = new ExecutorMessageHandler(applicationInstanceEngine,
+                                                        taskInstanceEngine,
+                                                        localServiceInstanceEngine,
+                                                        executorStateManager);
+        val scn = new ExecutorInstanceStateChangeNotifier(
+                resourceDB,
+                new ExecutorCommunicator(
+                        message -> {
+                            ctr.incrementAndGet();
+                            reported.add(((InstanceStateReportMessage) message).getInstanceInfo().getState());
+                            return new MessageResponse(message.getHeader(), MessageDeliveryStatus.ACCEPTED);
+                        },
+                        messageHandler),
+                applicationInstanceEngine,
+                taskInstanceEngine,
+                localServiceInstanceEngine,
+                ExecutorOptions.DEFAULT.withStateUpdateDebounceWindow(Duration.seconds(1)),
+                METRIC_REGISTRY);
+        scn.start();
+        Stream.of(InstanceState.STARTING, InstanceState.UNREADY, InstanceState.READY, InstanceState.HEALTHY)
+                .forEach(state -> applicationInstanceEngine.onStateChange().dispatch(instanceInfo(state)));
+        assertEquals(0, ctr.get());
+        waitUntil(() -> ctr.get() == 1);
+        assertEquals(List.of(InstanceState.HEALTHY), reported);
+        scn.stop();
+    }
+
+    @Test
+    @SneakyThrows
+    void testBatchedStateChange() {
+        val batches = new AtomicInteger();
+        val singles = new AtomicInteger();
+        val batchedInstances = new AtomicInteger();
+        val messageHandler = new ExecutorMessageHandler(applicationInstanceEngine,
+                                                        taskInstanceEngine,
+                                                        localServiceInstanceEngine,
+                                                        executorStateManager);
+        val scn = new ExecutorInstanceStateChangeNotifier(
+                resourceDB,
+                new ExecutorCommunicator(
+                        message -> {
+                            if (message instanceof InstanceStateBatchReportMessage batch) {
+                                batches.incrementAndGet();
+                                batchedInstances.addAndGet(batch.getInstances().size());
+                                //Simulate a controller that does not support batches for the second batch
+                                return new MessageResponse(message.getHeader(),
+                                                           batches.get() > 1
+                                                           ? MessageDeliveryStatus.FAILED
+                                                           : MessageDeliveryStatus.ACCEPTED);
+                            }
+                            singles.incrementAndGet();
+                            return new MessageResponse(message.getHeader(), MessageDeliveryStatus.ACCEPTED);
+                        },
+                        messageHandler),
+                applicationInstanceEngine,
+                taskInstanceEngine,
+                localServiceInstanceEngine,
+                ExecutorOptions.DEFAULT.withStateUpdateDebounceWindow(Duration.milliseconds(200)),
+                METRIC_REGISTRY);
+        scn.start();
+        IntStream.rangeClosed(1, 3)
+                .forEach(i -> applicationInstanceEngine.onStateChange()
+                        .dispatch(instanceInfo("INS" + i, InstanceState.HEALTHY)));
+        waitUntil(() -> batches.get() == 1);
+        assertEquals(3, batchedInstances.get());
+        assertEquals(0, singles.get());
+
+        IntStream.rangeClosed(1, 2)
+                .forEach(i -> applicationInstanceEngine.onStateChange()
+                        .dispatch(instanceInfo("INS" + i, InstanceState.STOPPING)));
+        waitUntil(() -> singles.get() == 2);
+        assertEquals(2, batches.get());
+        scn.stop();
+    }
+
+    private static InstanceInfo instanceInfo(InstanceState state) {
+        return instanceInfo("INS1", state);
+    }
+
+    private static InstanceInfo instanceInfo(String instanceId, InstanceState state) {
+        return new InstanceInfo("TEST_APP-1",
+                                "TEST_APP",
+                                instanceId,
+                                "E1",
+                                null,
+                                null,
+                                state,
+                                null,
+                                null,
+                                null,
+                                null);
+    }
+
 
 }
\ No newline at end of file
@@ -0,0 +1,160 @@
+/*
+ *  Copyright (c) 2024 Original Author(s), PhonePe India Pvt. Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.phonepe.drove.executor.utils;
+
+import com.codahale.metrics.MetricRegistry;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static com.phonepe.drove.common.CommonTestUtils.waitUntil;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ *
+ */
+class CoalescingPublisherTest {
+
+    @Test
+    void testCoalescing() {
+        val published = new CopyOnWriteArrayList<List<Integer>>();
+        val metrics = new MetricRegistry();
+        try (val publisher = new CoalescingPublisher<String, Integer>("test",
+                                                                      Duration.ofMillis(100),
+                                                                      Duration.ofSeconds(5),
+                                                                      published::add,
+                                                                      metrics)) {
+            IntStream.range(0, 10).forEach(i -> publisher.submit("k" + (i % 2), i));
+            assertTrue(published.isEmpty());
+            waitUntil(() -> published.size() == 1);
+            assertEquals(List.of(8, 9), published.get(0));
+            assertEquals(2, metrics.counter("com.phonepe.drove.executor.updates.test.sent").getCount());
+            assertEquals(8, metrics.counter("com.phonepe.drove.executor.updates.test.suppressed").getCount());
+        }
+    }
+
+    @Test
+    void testMaxLatency() {
+        val published = new CopyOnWriteArrayList<List<Integer>>();
+        try (val publisher = new CoalescingPublisher<String, Integer>("test",
+                                                                      Duration.ofMillis(200),
+                                                                      Duration.ofMillis(500),
+                                                                      published::add,
+                                                                      new MetricRegistry())) {
+            //Keep submitting faster than the debounce window, max latency should force the flush
+            val start = System.currentTimeMillis();
+            while (published.isEmpty() && System.currentTimeMillis() - start < 3_000) {
+                publisher.submit("k", 1);
+                waitFor(50);
+            }
+            assertEquals(1, published.size());
+        }
+    }
+
+    @Test
+    void testImmediatePublish() {
+        val published = new CopyOnWriteArrayList<List<Integer>>();
+        try (val publisher = new CoalescingPublisher<String, Integer>("test",
+                                                                      Duration.ZERO,
+                                                                      Duration.ZERO,
+                                                                      published::add,
+                                                                      new MetricRegistry())) {
+            publisher.submit("k", 1);
+            publisher.submit("k", 2);
+            assertEquals(List.of(List.of(1), List.of(2)), published);
+        }
+    }
+
+    @Test
+    void testFlushOnClose() {
+        val published = new CopyOnWriteArrayList<List<Integer>>();
+        val publisher = new CoalescingPublisher<String, Integer>("test",
+                                                                 Duration.ofSeconds(10),
+                                                                 Duration.ofSeconds(10),
+                                                                 published::add,
+                                                                 new MetricRegistry());
+        publisher.submit("k", 1);
+        assertTrue(published.isEmpty());
+        publisher.close();
+        assertEquals(List.of(List.of(1)), published);
+    }
+
+    @Test
+    void testRequeueOnFailure() {
+        val published = new CopyOnWriteArrayList<List<Integer>>();
+        val attempts = new AtomicInteger();
+        val metrics = new MetricRegistry();
+        try (val publisher = new CoalescingPublisher<String, Integer>("test",
+                                                                      Duration.ofMillis(50),
+                                                                      Duration.ofSeconds(5),
+                                                                      updates -> {
+                                                                          if (attempts.incrementAndGet() == 1) {
+                                                                              throw new IllegalStateException(
+                                                                                      "Test failure");
+                                                                          }
+                                                                          published.add(updates);
+                                                                      },
+                                                                      metrics)) {
+            publisher.submit("k1", 1);
+            publisher.submit("k2", 2);
+            waitUntil(() -> attempts.get() == 1);
+            //Newer update for a failed key replaces it
+            publisher.submit("k2", 3);
+            waitUntil(() -> published.size() == 1);
+            assertEquals(List.of(1, 3), published.get(0));
+            assertEquals(2, metrics.counter("com.phonepe.drove.executor.updates.test.sent").getCount());
+        }
+    }
+
+    @Test
+    void testImmediatePublishRequeueOnFailure() {
+        val published = new CopyOnWriteArrayList<List<Integer>>();
+        val attempts = new AtomicInteger();
+        try (val publisher = new CoalescingPublisher<String, Integer>("test",
+                                                                      Duration.ZERO,
+                                                                      Duration.ZERO,
+                                                                      updates -> {
+                                                                          if (attempts.incrementAndGet() == 1) {
+                                                                              throw new IllegalStateException(
+                                                                                      "Test failure");
+                                                                          }
+                                                                          published.add(updates);
+                                                                      },
+                                                                      new MetricRegistry())) {
+            publisher.submit("k1", 1);
+            assertTrue(published.isEmpty());
+            publisher.submit("k2", 2);
+            assertEquals(List.of(List.of(1, 2)), published);
+        }
+    }
+
+    @SuppressWarnings("java:S2925")
+    private static void waitFor(long millis) {
+        try {
+            Thread.sleep(millis);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -39,6 +39,7 @@ import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.net.UnknownHostException;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  *
@@ -47,13 +48,21 @@ public class DrovePeerTracker implements Closeable {
     private static final String SPLIT_DELIMITER = ",";
     @SuppressWarnings("java:S1075")
     private static final String API_PATH = "/apis/v1/internal/instances";
+    private static final String ETAG_HEADER = "ETag";
+    private static final String IF_NONE_MATCH_HEADER = "If-None-Match";
+
+    /**
+     * Peers from the last successful call, along with the version reported by the controller for the list
+     */
+    private record PeerSnapshot(String etag, List<DiscoveryNode> peers) {
+    }
 
     private final String portName;
     private final ILogger log;
     private final ObjectMapper mapper;
     private final boolean useAppNameForClustering;
     private final DroveClient client;
-
+    private final AtomicReference<PeerSnapshot> lastPeers = new AtomicReference<>();
 
     @SneakyThrows
     public DrovePeerTracker(
@@ -115,6 +124,11 @@ public class DrovePeerTracker implements Closeable {
 
         @Override
         public Optional<List<DiscoveryNode>> handle(DroveClient.Response response) throws Exception {
+            val cached = lastPeers.get();
+            if (response.statusCode() == 304 && null != cached) {
+                log.fine("Peer list unchanged since version " + cached.etag());
+                return Optional.of(cached.peers());
+            }
             if (response.statusCode() != 200 || Strings.isNullOrEmpty(response.body())) {
                 log.severe("Could not find peers. Error: " + response.statusCode() + ": " + response.body());
                 return Optional.empty();
@@ -127,11 +141,14 @@ public class DrovePeerTracker implements Closeable {
                 return Optional.empty();
             }
             log.fine("Drove Response Data: " + apiData);
-            return Optional.of(apiData.getData()
-                                       .stream()
-                                       .<DiscoveryNode>map(this::translate)
-                                       .filter(Objects::nonNull)
-                                       .toList());
+            val peers = apiData.getData()
+                    .stream()
+                    .<DiscoveryNode>map(this::translate)
+                    .filter(Objects::nonNull)
+                    .toList();
+            val etag = header(response, ETAG_HEADER);
+            lastPeers.set(null == etag ? null : new PeerSnapshot(etag, peers));
+            return Optional.of(peers);
         }
 
         private SimpleDiscoveryNode translate(InstanceInfo info) {
@@ -168,9 +185,23 @@ public class DrovePeerTracker implements Closeable {
         return Arrays.asList(endpoints);
     }
 
+    private static String header(DroveClient.Response response, String name) {
+        return Objects.<Map<String, List<String>>>requireNonNullElse(response.headers(), Map.of())
+                .entrySet()
+                .stream()
+                .filter(entry -> name.equalsIgnoreCase(entry.getKey()))
+                .flatMap(entry -> entry.getValue().stream())
+                .findFirst()
+                .orElse(null);
+    }
+
     private Optional<List<DiscoveryNode>> findCurrentPeers() {
         val path = API_PATH + (useAppNameForClustering? "?forApp=true" : "");
         val request = new DroveClient.Request(DroveClient.Method.GET, path);
+        val cached = lastPeers.get();
+        if (null != cached) {
+            request.headers().put(IF_NONE_MATCH_HEADER, List.of(cached.etag()));
+        }
         return client.execute(request, new PeerResponseTransformer());
     }
 }
@@ -169,6 +169,31 @@ public class DiscoveryTestUtils {
                                             .withBody(MAPPER.writeValueAsBytes(response))));
     }
 
+    public static void createStubForSingleMemberDiscoveryWithVersion(
+            final WireMockExtension controller,
+            final String version) throws JsonProcessingException {
+        val instanceInfo = InstanceInfo.builder()
+                .appId("1_0_0")
+                .appName("test_app")
+                .instanceId("instanceId")
+                .executorId("ex1")
+                .localInfo(LocalInstanceInfo.builder()
+                                   .hostname("127.0.0.1")
+                                   .ports(Map.of("hazelcast", InstancePort.builder()
+                                           .hostPort(5701)
+                                           .build()))
+                                   .build())
+                .build();
+        val response = ApiResponse.success(List.of(instanceInfo));
+        controller.stubFor(get(urlEqualTo("/apis/v1/internal/instances"))
+                                   .withHeader("App-Instance-Authorization", equalTo("TestToken"))
+                                   .withHeader("If-None-Match", absent())
+                                   .willReturn(aResponse()
+                                                       .withStatus(200)
+                                                       .withHeader("Content-Type", "application/json")
+                                                       .withHeader("ETag", "\"" + version + "\"")
+                                                       .withBody(MAPPER.writeValueAsBytes(response))));
+    }
 
     public static void createStubForSingleMemberDiscoveryWrong() throws JsonProcessingException {
         stubFor(get(urlEqualTo("/apis/v1/internal/instances"))
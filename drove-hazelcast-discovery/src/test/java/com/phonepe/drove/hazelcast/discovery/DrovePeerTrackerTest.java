@@ -95,6 +95,35 @@ class DrovePeerTrackerTest {
         }
     }
 
+    @Test
+    @SneakyThrows
+    void testFindPeersNotModified() {
+        createStubForSingleMemberDiscovery(controller1);
+        controller1.stubFor(get(urlEqualTo(API_PATH))
+                                    .withHeader("If-None-Match", equalTo("\"v1\""))
+                                    .atPriority(1)
+                                    .willReturn(aResponse().withStatus(304)));
+        try (val dpt = new DrovePeerTracker(endpoint(),
+                                            "TestToken",
+                                            "hazelcast",
+                                            new Slf4jFactory().getLogger("test"),
+                                            MAPPER,
+                                            false,
+                                            null)) {
+            CommonTestUtils.waitUntil(() -> !dpt.peers().isEmpty());
+            //No version sent by the controller, so nothing is cached
+            assertEquals(0, controller1.findAll(getRequestedFor(urlEqualTo(API_PATH))
+                                                        .withHeader("If-None-Match", matching(".+")))
+                    .size());
+            createStubForSingleMemberDiscoveryWithVersion(controller1, "v1");
+            assertEquals(1, dpt.peers().size());
+            assertEquals(1, dpt.peers().size());
+            assertEquals(1, controller1.findAll(getRequestedFor(urlEqualTo(API_PATH))
+                                                        .withHeader("If-None-Match", equalTo("\"v1\"")))
+                    .size());
+        }
+    }
+
     @Test
     @SneakyThrows
     void testInvalidEndpoint() {
@@ -51,6 +51,8 @@ public class DroveIgniteInstanceHelper implements Closeable {
     @SuppressWarnings("java:S1075")
     private static final String API_PATH = "/apis/v1/internal/instances";
 
+    private static final String IF_NONE_MATCH_HEADER = "If-None-Match";
+
     private final boolean useAppNameForClustering;
 
     private static final String AUTH_TOKEN_ENV_VARIABLE_NAME = "DROVE_APP_INSTANCE_AUTH_TOKEN";
@@ -102,8 +104,23 @@ public class DroveIgniteInstanceHelper implements Closeable {
     }
 
     public <T> T findCurrentInstances(final DroveClient.ResponseHandler<T> responseHandler) {
+        return findCurrentInstances(null, responseHandler);
+    }
+
+    /**
+     * Find current instances. If a version of the list received earlier is passed, the controller will respond with
+     * a 304 and no body in case the list has not changed since.
+     *
+     * @param etag            Value of the ETag header received in the last successful response. Can be null
+     * @param responseHandler Handler for the response
+     * @return Whatever the response handler returns
+     */
+    public <T> T findCurrentInstances(final String etag, final DroveClient.ResponseHandler<T> responseHandler) {
         val path = API_PATH + (useAppNameForClustering ? "?forApp=true" : "");
         val request = new DroveClient.Request(DroveClient.Method.GET, path);
+        if (!Strings.isNullOrEmpty(etag)) {
+            request.headers().put(IF_NONE_MATCH_HEADER, List.of(etag));
+        }
         return droveClient.execute(request, responseHandler);
     }
 
@@ -35,12 +35,22 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Slf4j
 public class DrovePeerTracker {
+    private static final String ETAG_HEADER = "ETag";
+
+    /**
+     * Peers from the last successful call, along with the version reported by the controller for the list
+     */
+    private record PeerSnapshot(String etag, Collection<InetSocketAddress> peers) {
+    }
+
     private final DroveIgniteInstanceHelper droveIgniteInstanceHelper;
     private final ObjectMapper mapper;
     private final String portName;
+    private final AtomicReference<PeerSnapshot> lastPeers = new AtomicReference<>();
 
     @SneakyThrows
     public DrovePeerTracker(final DroveIgniteInstanceHelper droveIgniteInstanceHelper,
@@ -52,7 +62,20 @@ public class DrovePeerTracker {
     }
 
     public Collection<InetSocketAddress> peers() {
-        return droveIgniteInstanceHelper.findCurrentInstances(new DrovePeerTracker.PeerResponseTransformer()).orElse(List.of());
+        val cached = lastPeers.get();
+        return droveIgniteInstanceHelper.findCurrentInstances(null == cached ? null : cached.etag(),
+                                                              new DrovePeerTracker.PeerResponseTransformer())
+                .orElse(List.of());
+    }
+
+    private static String header(DroveClient.Response response, String name) {
+        return Objects.<Map<String, List<String>>>requireNonNullElse(response.headers(), Map.of())
+                .entrySet()
+                .stream()
+                .filter(entry -> name.equalsIgnoreCase(entry.getKey()))
+                .flatMap(entry -> entry.getValue().stream())
+                .findFirst()
+                .orElse(null);
     }
 
     private class PeerResponseTransformer implements DroveClient.ResponseHandler<Optional<Collection<InetSocketAddress>>> {
@@ -63,6 +86,11 @@ public class DrovePeerTracker {
 
         @Override
         public Optional<Collection<InetSocketAddress>> handle(DroveClient.Response response) throws Exception {
+            val cached = lastPeers.get();
+            if (response.statusCode() == 304 && null != cached) {
+                log.debug("Peer list unchanged since version {}", cached.etag());
+                return Optional.of(cached.peers());
+            }
             if (response.statusCode() != 200 || Strings.isNullOrEmpty(response.body())) {
                 log.error("Could not find peers. Error: " + response.statusCode() + ": " + response.body());
                 return Optional.empty();
@@ -75,11 +103,14 @@ public class DrovePeerTracker {
                 return Optional.empty();
             }
             log.info("IgnitePeerTracker Drove Response Data: " + apiData);
-            return Optional.of(apiData.getData()
+            final Collection<InetSocketAddress> peers = apiData.getData()
                     .stream()
                     .map(this::translate)
                     .filter(Objects::nonNull)
-                    .toList());
+                    .toList();
+            val etag = header(response, ETAG_HEADER);
+            lastPeers.set(null == etag ? null : new PeerSnapshot(etag, peers));
+            return Optional.of(peers);
         }
 
         private InetSocketAddress translate(InstanceInfo info) {
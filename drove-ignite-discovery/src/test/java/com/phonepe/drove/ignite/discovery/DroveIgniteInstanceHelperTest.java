@@ -42,9 +42,12 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
 import static com.github.tomakehurst.wiremock.client.WireMock.badRequest;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
 import static com.github.tomakehurst.wiremock.client.WireMock.get;
 import static com.github.tomakehurst.wiremock.client.WireMock.ok;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
 import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
 import static com.phonepe.drove.ignite.discovery.DiscoveryTestUtils.createStubForFailed;
 import static com.phonepe.drove.ignite.discovery.DiscoveryTestUtils.createStubForNoPeer;
@@ -124,6 +127,30 @@ class DroveIgniteInstanceHelperTest {
         }
     }
 
+    @Test
+    @SneakyThrows
+    void testFindCurrentInstancesNotModified() {
+        createStubForSingleMemberDiscovery(controller1, false);
+        controller1.stubFor(get(urlEqualTo("/apis/v1/internal/instances"))
+                                    .withHeader("If-None-Match", equalTo("\"v1\""))
+                                    .atPriority(1)
+                                    .willReturn(aResponse().withStatus(304)));
+        val igniteConfig = DroveIgniteConfig.builder()
+                .droveEndpoint(endpoint())
+                .useAppNameForDiscovery(false)
+                .build();
+        try (val instanceHelper =  new DroveIgniteInstanceHelper(igniteConfig)) {
+            CommonTestUtils.waitUntil(() -> instanceHelper.findCurrentInstances(new DroveClient.BasicResponseHandler()) != null);
+
+            Assertions.assertEquals(304, instanceHelper.findCurrentInstances("\"v1\"", new DroveClient.BasicResponseHandler())
+                    .statusCode());
+            Assertions.assertEquals(200, instanceHelper.findCurrentInstances("\"v2\"", new DroveClient.BasicResponseHandler())
+                    .statusCode());
+            Assertions.assertEquals(200, instanceHelper.findCurrentInstances(null, new DroveClient.BasicResponseHandler())
+                    .statusCode());
+        }
+    }
+
     @Test
     @SneakyThrows
     void testInvalidEndpoint() {
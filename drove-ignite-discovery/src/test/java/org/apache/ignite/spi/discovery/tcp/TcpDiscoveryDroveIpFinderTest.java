@@ -63,7 +63,7 @@ class TcpDiscoveryDroveIpFinderTest {
                 .useAppNameForDiscovery(false)
                 .build();
         Mockito.doReturn(Optional.of(List.of(InetSocketAddress.createUnresolved("localhost", 1080))))
-                .when(droveIgniteInstanceHelper).findCurrentInstances(any());
+                .when(droveIgniteInstanceHelper).findCurrentInstances(any(), any());
         val ipFinder = new TcpDiscoveryDroveIpFinder(droveIgniteInstanceHelper, config.getDiscoveryPortName(), mapper);
         val registeredAddresses = ipFinder.getRegisteredAddresses();
         Assertions.assertEquals(1, registeredAddresses.size());
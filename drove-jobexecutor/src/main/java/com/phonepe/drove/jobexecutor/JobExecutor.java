@@ -61,11 +61,13 @@ public final class JobExecutor<T> {
         contexts.computeIfAbsent(id, k -> {
             val context = new JobContext<>(resultHandler);
             val jobFuture = executorService.submit(() -> {
-                for (val job : jobs) {
+                for (int i = 0; i < jobs.size(); i++) {
+                    val job = jobs.get(i);
                     if (JobUtils.executeSingleJob(context, responseCombiner, job)) {
                         log.debug("Job {} is done. Moving on to next job.", job.jobId());
                     }
                     else {
+                        JobUtils.cancelSkippedJobs(jobs.subList(i + 1, jobs.size()));
                         break;
                     }
                 }
@@ -19,6 +19,7 @@ package com.phonepe.drove.jobexecutor;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import lombok.val;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -54,9 +55,11 @@ public class JobTopology<T> implements Job<T> {
 
     @Override
     public T execute(JobContext<T> context, JobResponseCombiner<T> responseCombiner) {
-        for (Job<T> job : List.copyOf(jobs)) {
-            if(!JobUtils.executeSingleJob(context, responseCombiner, job)) {
+        val workList = List.copyOf(jobs);
+        for (int i = 0; i < workList.size(); i++) {
+            if(!JobUtils.executeSingleJob(context, responseCombiner, workList.get(i))) {
                 log.info("Exiting");
+                JobUtils.cancelSkippedJobs(workList.subList(i + 1, workList.size()));
                 break;
             }
         }
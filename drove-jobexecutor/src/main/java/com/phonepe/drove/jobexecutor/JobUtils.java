@@ -37,6 +37,7 @@ public class JobUtils {
         try {
             if (context.isStopped()) {
                 log.warn("Job {} has already been stopped", job.jobId());
+                job.cancel(); //Job will never run, let it release anything it is holding on to
             }
             else {
                 responseCombiner.combine(job, job.execute(context, responseCombiner));
@@ -57,6 +58,17 @@ public class JobUtils {
         return false;
     }
 
+    /**
+     * Cancel jobs that will never be run as an earlier job in the chain has failed or the execution was stopped.
+     * This gives jobs a chance to release anything they might be holding on to.
+     */
+    public static <T> void cancelSkippedJobs(final List<Job<T>> jobs) {
+        jobs.forEach(job -> {
+            log.debug("Job {} is being skipped", job.jobId());
+            job.cancel();
+        });
+    }
+
     public static<T> String idFromChildren(List<Job<T>> jobs) {
         return UUID.nameUUIDFromBytes(
                         jobs.stream().map(Job::jobId).collect(Collectors.joining()).getBytes(StandardCharsets.UTF_8))
@@ -21,6 +21,7 @@ import lombok.SneakyThrows;
 import java.security.SecureRandom;
 import java.util.Date;
 import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  *
@@ -29,6 +30,7 @@ public final class Adder implements Job<Integer> {
     private static final Random RANDOM = new SecureRandom();
     private final int i;
     private final long currTime = new Date().getTime();
+    private final AtomicBoolean cancelled = new AtomicBoolean();
 
     Adder(int i) {
         this.i = i;
@@ -41,7 +43,11 @@ public final class Adder implements Job<Integer> {
 
     @Override
     public void cancel() {
+        cancelled.set(true);
+    }
 
+    public boolean isCancelled() {
+        return cancelled.get();
     }
 
     @SneakyThrows
@@ -146,6 +146,25 @@ class JobExecutorTest {
         assertFalse(failed.get());
     }
 
+    @Test
+    void testSkippedJobsAreCancelled() {
+        val done = new AtomicBoolean();
+        exec.onComplete().connect(res -> done.set(true));
+        val first = new Adder(1);
+        val skippedInTopology = new Adder(2);
+        val skipped = new Adder(3);
+        val topology = JobTopology.<Integer>builder()
+                .addJob(first)
+                .addJob(new ErrorJob())
+                .addJob(skippedInTopology)
+                .build();
+        exec.schedule(List.of(topology, skipped), new IntResponseCombiner(), r -> {});
+        waitUntil(done::get);
+        assertFalse(first.isCancelled());
+        assertTrue(skippedInTopology.isCancelled());
+        assertTrue(skipped.isCancelled());
+    }
+
     @SneakyThrows
     @Test
     void testCancellation() {
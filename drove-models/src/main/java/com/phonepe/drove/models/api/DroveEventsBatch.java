@@ -0,0 +1,42 @@
+/*
+ *  Copyright (c) 2024 Original Author(s), PhonePe India Pvt. Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.phonepe.drove.models.api;
+
+import com.phonepe.drove.models.events.DroveEvent;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Response for offset based event reads. The next offset and epoch should be sent in the next events call
+ */
+@Value
+@Schema(description = "List of cluster events with the offset to continue reading from")
+public class DroveEventsBatch {
+    @SuppressWarnings("rawtypes")
+    @Schema(description = "List of events in the order they were recorded")
+    List<DroveEvent> events;
+
+    @Schema(description = "Offset to use for the next request", example = "1024")
+    long nextOffset;
+
+    @Schema(description = "Epoch the offsets belong to. Send this back with the next request. A different value in "
+            + "the response means the offset sequence has changed (for example due to a leader change) and events might "
+            + "have been missed", example = "3d0f6ad2-8b53-4a8b-9a2e-1f6cb1c1f9a1")
+    String epoch;
+}